@@ -2,8 +2,10 @@ package com.csd.medicus;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class MedicusApplication {
 	public static void main(String[] args) {
 		SpringApplication.run(MedicusApplication.class, args);
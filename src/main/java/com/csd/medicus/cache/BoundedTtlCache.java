@@ -0,0 +1,141 @@
+package com.csd.medicus.cache;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.LongSupplier;
+import java.util.function.Predicate;
+
+/**
+ * Small in-process LRU cache with a maximum size and a time-to-live per entry.
+ *
+ * Behavior:
+ * - At most maxEntries entries are kept; inserting beyond that evicts the least recently used one.
+ * - An entry older than ttl is treated as absent and dropped on access.
+ * - Hit, miss, eviction (size), expiration (ttl) and invalidation counters are kept for sizing, plus the
+ *   number and total duration of loads reported by callers via {@link #recordLoad(long)}.
+ * - Loads racing with an invalidation are discarded: callers take {@link #stamp()} before loading and
+ *   pass it to {@link #put(Object, Object, long)}; the put is ignored if any invalidation happened since.
+ *
+ * Thread-safety: all operations synchronize on the cache; they are O(1) except the invalidate-by-predicate
+ * scan, which is bounded by maxEntries.
+ */
+public class BoundedTtlCache<K, V> {
+
+    private final int maxEntries;
+    private final long ttlNanos;
+    private final LongSupplier clock;
+    private final LinkedHashMap<K, Entry<V>> map;
+
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long expirations;
+    private long invalidations;
+    private long loads;
+    private long loadNanos;
+    private long generation;
+
+    private record Entry<V>(V value, long loadedAt) {
+    }
+
+    public BoundedTtlCache(int maxEntries, Duration ttl) {
+        this(maxEntries, ttl, System::nanoTime);
+    }
+
+    BoundedTtlCache(int maxEntries, Duration ttl, LongSupplier clock) {
+        if (maxEntries < 1) {
+            throw new IllegalArgumentException("maxEntries must be positive");
+        }
+        this.maxEntries = maxEntries;
+        this.ttlNanos = ttl.toNanos();
+        this.clock = clock;
+        this.map = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+                if (size() > BoundedTtlCache.this.maxEntries) {
+                    evictions++;
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Cached value or null on miss/expiry.
+     */
+    public synchronized V get(K key) {
+        Entry<V> e = map.get(key);
+        if (e == null) {
+            misses++;
+            return null;
+        }
+        if (clock.getAsLong() - e.loadedAt() > ttlNanos) {
+            map.remove(key);
+            expirations++;
+            misses++;
+            return null;
+        }
+        hits++;
+        return e.value();
+    }
+
+    /**
+     * Token identifying the current invalidation generation; take it before loading a value.
+     */
+    public synchronized long stamp() {
+        return generation;
+    }
+
+    /**
+     * Store a loaded value unless an invalidation happened after {@code stamp} was taken.
+     */
+    public synchronized void put(K key, V value, long stamp) {
+        if (value == null || stamp != generation) {
+            return;
+        }
+        map.put(key, new Entry<>(value, clock.getAsLong()));
+    }
+
+    /**
+     * Account for one load after a miss (time spent fetching the value from its source).
+     */
+    public synchronized void recordLoad(long nanos) {
+        loads++;
+        loadNanos += nanos;
+    }
+
+    public synchronized void invalidate(K key) {
+        generation++;
+        if (map.remove(key) != null) {
+            invalidations++;
+        }
+    }
+
+    /**
+     * Remove every entry whose key matches the predicate.
+     */
+    public synchronized void invalidateIf(Predicate<? super K> predicate) {
+        generation++;
+        Iterator<K> it = map.keySet().iterator();
+        while (it.hasNext()) {
+            if (predicate.test(it.next())) {
+                it.remove();
+                invalidations++;
+            }
+        }
+    }
+
+    public synchronized void invalidateAll() {
+        generation++;
+        invalidations += map.size();
+        map.clear();
+    }
+
+    public synchronized CacheStats stats() {
+        return new CacheStats(map.size(), maxEntries, hits, misses, evictions, expirations, invalidations,
+                loads, loadNanos);
+    }
+}
@@ -0,0 +1,31 @@
+package com.csd.medicus.cache;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * Point-in-time counters of a BoundedTtlCache.
+ *
+ * @param size current number of entries
+ * @param maxSize configured maximum number of entries
+ * @param hits lookups answered from the cache
+ * @param misses lookups that had to load (including expired entries)
+ * @param evictions entries dropped because the cache was full
+ * @param expirations entries dropped because they outlived the ttl
+ * @param invalidations entries dropped because of a write
+ * @param loads misses that were loaded and reported through {@link BoundedTtlCache#recordLoad(long)}
+ * @param totalLoadTimeNanos time spent in those loads
+ */
+public record CacheStats(int size, int maxSize, long hits, long misses, long evictions, long expirations,
+                         long invalidations, long loads, long totalLoadTimeNanos) {
+
+    @JsonProperty("hitRatio")
+    public double hitRatio() {
+        long lookups = hits + misses;
+        return lookups == 0 ? 0.0 : (double) hits / lookups;
+    }
+
+    @JsonProperty("averageLoadMillis")
+    public double averageLoadMillis() {
+        return loads == 0 ? 0.0 : totalLoadTimeNanos / 1_000_000.0 / loads;
+    }
+}
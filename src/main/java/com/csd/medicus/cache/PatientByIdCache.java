@@ -0,0 +1,71 @@
+package com.csd.medicus.cache;
+
+import com.csd.medicus.dto.PatientDto;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Read-through cache for PatientService.getPatientDtoById keyed by patient id.
+ *
+ * Behavior:
+ * - Only active patients are loaded into it; a write to a patient (including soft-delete) invalidates its id.
+ * - Entries are copies and every hit returns a fresh copy, so callers may modify what they get without
+ *   affecting the cache or other readers.
+ * - Loads report their duration so the stats expose the average cost of a miss.
+ *
+ * Configuration (application.properties):
+ * - medicus.patient.cache.max-entries (default 10000)
+ * - medicus.patient.cache.ttl (default 5m)
+ */
+@Component
+public class PatientByIdCache {
+
+    private final BoundedTtlCache<Long, PatientDto> cache;
+
+    public PatientByIdCache(@Value("${medicus.patient.cache.max-entries:10000}") int maxEntries,
+                            @Value("${medicus.patient.cache.ttl:5m}") Duration ttl) {
+        this.cache = new BoundedTtlCache<>(maxEntries, ttl);
+    }
+
+    /**
+     * Copy of the cached patient or null on miss.
+     */
+    public PatientDto get(Long id) {
+        PatientDto p = cache.get(id);
+        return p == null ? null : copy(p);
+    }
+
+    public long stamp() {
+        return cache.stamp();
+    }
+
+    /**
+     * Store a copy of a patient loaded after {@code stamp} was taken; loadNanos is the time the load took.
+     */
+    public void put(PatientDto p, long stamp, long loadNanos) {
+        cache.recordLoad(loadNanos);
+        if (p != null && p.getId() != null) {
+            cache.put(p.getId(), copy(p), stamp);
+        }
+    }
+
+    public void invalidate(Long id) {
+        if (id != null) {
+            cache.invalidate(id);
+        }
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    private static PatientDto copy(PatientDto p) {
+        return new PatientDto(p.getId(), p.getFirstName(), p.getLastName(), p.getEmail(), p.getPhone(), p.getVersion());
+    }
+}
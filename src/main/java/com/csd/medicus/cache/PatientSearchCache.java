@@ -0,0 +1,81 @@
+package com.csd.medicus.cache;
+
+import com.csd.medicus.dto.PatientDto;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Locale;
+
+/**
+ * Result cache for PatientService.searchPatients keyed by (query, page, size, sort).
+ *
+ * Invalidation is precise: a search for q only returns patients whose first name or phone contains q,
+ * so a write to a patient evicts only the entries whose query matches that patient's old or new
+ * first name/phone. Entries whose query contains LIKE wildcards cannot be evaluated that way and are
+ * evicted on every write.
+ *
+ * Configuration (application.properties):
+ * - medicus.search.cache.max-entries (default 10000)
+ * - medicus.search.cache.ttl (default 60s)
+ */
+@Component
+public class PatientSearchCache {
+
+    /**
+     * Cache key. The query is lower-cased because the search is case-insensitive.
+     */
+    public record Key(String query, int page, int size, Sort sort) {
+
+        public static Key of(String query, Pageable pageable) {
+            return new Key(query.toLowerCase(Locale.ROOT), pageable.getPageNumber(), pageable.getPageSize(),
+                    pageable.getSort());
+        }
+    }
+
+    private final BoundedTtlCache<Key, Page<PatientDto>> cache;
+
+    public PatientSearchCache(@Value("${medicus.search.cache.max-entries:10000}") int maxEntries,
+                              @Value("${medicus.search.cache.ttl:60s}") Duration ttl) {
+        this.cache = new BoundedTtlCache<>(maxEntries, ttl);
+    }
+
+    public Page<PatientDto> get(Key key) {
+        return cache.get(key);
+    }
+
+    public long stamp() {
+        return cache.stamp();
+    }
+
+    public void put(Key key, Page<PatientDto> page, long stamp) {
+        cache.put(key, page, stamp);
+    }
+
+    /**
+     * Evict the entries whose results could include a patient with this first name and phone.
+     * Call with both the old and the new values when a patient changes.
+     */
+    public void invalidateFor(String firstName, String phone) {
+        String first = firstName == null ? null : firstName.toLowerCase(Locale.ROOT);
+        String ph = phone == null ? null : phone.toLowerCase(Locale.ROOT);
+        cache.invalidateIf(key -> hasWildcard(key.query())
+                || (first != null && first.contains(key.query()))
+                || (ph != null && ph.contains(key.query())));
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    private static boolean hasWildcard(String query) {
+        return query.indexOf('%') >= 0 || query.indexOf('_') >= 0 || query.indexOf('\\') >= 0;
+    }
+}
@@ -0,0 +1,80 @@
+package com.csd.medicus.cli;
+
+import com.csd.medicus.dto.ImportReportDto;
+import com.csd.medicus.service.PatientImportService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationContext;
+import org.springframework.stereotype.Component;
+
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Command-line CSV import, active only when medicus.import.file is set:
+ *
+ *   java -jar medicus.jar --medicus.import.file=patients.csv [--medicus.import.job-id=...] [--medicus.import.exit=true]
+ *
+ * Behavior:
+ * - The job id defaults to the file name, so re-running the same command resumes after the last checkpoint.
+ * - The report is logged; with medicus.import.exit=true the application shuts down afterwards
+ *   (exit code 0 on success, 1 on failure).
+ */
+@Component
+@ConditionalOnProperty(name = "medicus.import.file")
+public class PatientImportRunner implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(PatientImportRunner.class);
+
+    private final PatientImportService importService;
+    private final ApplicationContext context;
+    private final Path file;
+    private final String jobId;
+    private final boolean exit;
+
+    public PatientImportRunner(PatientImportService importService,
+                               ApplicationContext context,
+                               @Value("${medicus.import.file}") Path file,
+                               @Value("${medicus.import.job-id:}") String jobId,
+                               @Value("${medicus.import.exit:false}") boolean exit) {
+        this.importService = importService;
+        this.context = context;
+        this.file = file;
+        this.jobId = jobId.isBlank() ? defaultJobId(file) : jobId;
+        this.exit = exit;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+        int code = 0;
+        try (InputStream in = Files.newInputStream(file)) {
+            ImportReportDto report = importService.importCsv(in, jobId);
+            log.info("Imported {}: {}", file, report);
+        } catch (Exception e) {
+            code = 1;
+            if (!exit) {
+                throw e;
+            }
+            log.error("Import of {} failed", file, e);
+        }
+        if (exit) {
+            int exitCode = code;
+            System.exit(SpringApplication.exit(context, () -> exitCode));
+        }
+    }
+
+    // patients-2024.csv -> patients-2024
+    static String defaultJobId(Path file) {
+        String name = file.getFileName().toString();
+        int dot = name.lastIndexOf('.');
+        String base = dot > 0 ? name.substring(0, dot) : name;
+        String id = base.replaceAll("[^A-Za-z0-9._-]", "_");
+        return id.length() > 64 ? id.substring(0, 64) : id;
+    }
+}
@@ -0,0 +1,51 @@
+package com.csd.medicus.controller;
+
+import com.csd.medicus.cache.CacheStats;
+import com.csd.medicus.cache.PatientByIdCache;
+import com.csd.medicus.cache.PatientSearchCache;
+import com.csd.medicus.dedup.ContactFilterStats;
+import com.csd.medicus.dedup.PatientContactFilter;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Admin endpoint exposing the counters of the in-process caches so they can be sized.
+ *
+ * IMPORTANT: These endpoints are administrative and should be secured in production.
+ */
+@RestController
+@RequestMapping("/api/v1/admin/caches")
+public class CacheAdminController {
+
+    private final PatientSearchCache searchCache;
+    private final PatientContactFilter contactFilter;
+    private final PatientByIdCache byIdCache;
+
+    public CacheAdminController(PatientSearchCache searchCache, PatientContactFilter contactFilter,
+                                PatientByIdCache byIdCache) {
+        this.searchCache = searchCache;
+        this.contactFilter = contactFilter;
+        this.byIdCache = byIdCache;
+    }
+
+    @GetMapping
+    public ResponseEntity<Map<String, CacheStats>> stats() {
+        Map<String, CacheStats> result = new LinkedHashMap<>();
+        result.put("patientSearch", searchCache.stats());
+        result.put("patientById", byIdCache.stats());
+        return ResponseEntity.ok(result);
+    }
+
+    /**
+     * Sizing and effectiveness of the Bloom filter used to skip duplicate lookups on bulk patient create.
+     */
+    @GetMapping("/contact-filter")
+    public ResponseEntity<ContactFilterStats> contactFilterStats() {
+        return ResponseEntity.ok(contactFilter.stats());
+    }
+}
@@ -0,0 +1,43 @@
+package com.csd.medicus.controller;
+
+import com.csd.medicus.maintenance.TombstonePurgeStats;
+import com.csd.medicus.maintenance.TombstonePurger;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Admin endpoints for background maintenance jobs.
+ *
+ * IMPORTANT: These endpoints are administrative and should be secured in production.
+ */
+@RestController
+@RequestMapping("/api/v1/admin/maintenance")
+public class MaintenanceAdminController {
+
+    private final TombstonePurger tombstonePurger;
+
+    public MaintenanceAdminController(TombstonePurger tombstonePurger) {
+        this.tombstonePurger = tombstonePurger;
+    }
+
+    @GetMapping("/tombstone-purge")
+    public ResponseEntity<TombstonePurgeStats> tombstonePurgeStats() {
+        return ResponseEntity.ok(tombstonePurger.stats());
+    }
+
+    /**
+     * Start a purge run now instead of waiting for the schedule. The run happens in the background
+     * (202); poll the GET for its result. 409 if a run is already in progress.
+     */
+    @PostMapping("/tombstone-purge")
+    public ResponseEntity<TombstonePurgeStats> runTombstonePurge() {
+        if (!tombstonePurger.startPurge()) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(tombstonePurger.stats());
+        }
+        return ResponseEntity.accepted().body(tombstonePurger.stats());
+    }
+}
@@ -1,14 +1,18 @@
 package com.csd.medicus.controller;
 
+import com.csd.medicus.dto.BulkAdminRequestDto;
+import com.csd.medicus.dto.BulkJobDto;
+import com.csd.medicus.dto.PatientAdminDto;
 import com.csd.medicus.model.Patient;
+import com.csd.medicus.service.PatientBulkAdminService;
 import com.csd.medicus.service.PatientService;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
-
 /**
- * Admin controller to list (optionally include deleted), restore and purge patients.
+ * Admin controller to list (optionally include deleted), restore and purge patients, one at a time or in bulk.
  *
  * IMPORTANT: These endpoints are administrative and should be secured in production.
  */
@@ -17,14 +21,25 @@ import java.util.List;
 public class PatientAdminController {
 
     private final PatientService service;
+    private final PatientBulkAdminService bulkService;
 
-    public PatientAdminController(PatientService service) {
+    public PatientAdminController(PatientService service, PatientBulkAdminService bulkService) {
         this.service = service;
+        this.bulkService = bulkService;
     }
 
+    /**
+     * One page of patients in id order (size capped at 500). Use /api/v1/admin/patients/export to
+     * stream the whole table.
+     */
     @GetMapping
-    public ResponseEntity<List<Patient>> listPatients(@RequestParam(name = "includeDeleted", defaultValue = "false") boolean includeDeleted) {
-        List<Patient> result = service.listAllPatients(includeDeleted);
+    public ResponseEntity<Page<PatientAdminDto>> listPatients(
+            @RequestParam(name = "includeDeleted", defaultValue = "false") boolean includeDeleted,
+            @RequestParam(name = "page", defaultValue = "0") int page,
+            @RequestParam(name = "size", defaultValue = "50") int size) {
+        int safePage = Math.max(0, page);
+        int safeSize = Math.max(1, Math.min(size, 500));
+        Page<PatientAdminDto> result = service.listAllPatients(includeDeleted, PageRequest.of(safePage, safeSize));
         return ResponseEntity.ok(result);
     }
 
@@ -39,4 +54,38 @@ public class PatientAdminController {
         service.purgePatient(id);
         return ResponseEntity.noContent().build();
     }
-}
\ No newline at end of file
+
+    /**
+     * Bulk operations: body is {"ids": [...]} or (restore/purge) {"deletedAfter": ..., "deletedBefore": ...}.
+     * The job runs in the background in committed chunks; poll /bulk/jobs/{jobId} for progress.
+     */
+    @PostMapping("/bulk/soft-delete")
+    public ResponseEntity<BulkJobDto> bulkSoftDelete(@RequestBody BulkAdminRequestDto request) {
+        return startBulk(PatientBulkAdminService.Operation.SOFT_DELETE, request);
+    }
+
+    @PostMapping("/bulk/restore")
+    public ResponseEntity<BulkJobDto> bulkRestore(@RequestBody BulkAdminRequestDto request) {
+        return startBulk(PatientBulkAdminService.Operation.RESTORE, request);
+    }
+
+    @PostMapping("/bulk/purge")
+    public ResponseEntity<BulkJobDto> bulkPurge(@RequestBody BulkAdminRequestDto request) {
+        return startBulk(PatientBulkAdminService.Operation.PURGE, request);
+    }
+
+    @GetMapping("/bulk/jobs/{jobId}")
+    public ResponseEntity<BulkJobDto> bulkJob(@PathVariable String jobId) {
+        return bulkService.getJob(jobId)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    private ResponseEntity<BulkJobDto> startBulk(PatientBulkAdminService.Operation operation, BulkAdminRequestDto request) {
+        try {
+            return ResponseEntity.accepted().body(bulkService.start(operation, request));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+}
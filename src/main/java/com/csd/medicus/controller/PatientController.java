@@ -1,16 +1,27 @@
 package com.csd.medicus.controller;
 
+import com.csd.medicus.dto.BulkCreateResultDto;
+import com.csd.medicus.dto.BulkRowResultDto;
+import com.csd.medicus.dto.CursorSliceDto;
 import com.csd.medicus.dto.PatientDto;
+import com.csd.medicus.exception.DuplicateEntityException;
 import com.csd.medicus.mapper.PatientMapper;
 import com.csd.medicus.model.Patient;
+import com.csd.medicus.search.KeysetSlice;
+import com.csd.medicus.search.SearchCursor;
 import com.csd.medicus.service.PatientService;
 import com.csd.medicus.validator.PatientValidator;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
 
 @RestController
 @RequestMapping("/api/v1/patients")
@@ -29,10 +40,119 @@ public class PatientController {
 		return ResponseEntity.ok(PatientMapper.toDto(saved));
 	}
 
+	/**
+	 * Bulk registration (camps, migrations). Each row is validated, normalized and checked for
+	 * duplicates independently; the response reports CREATED / INVALID / DUPLICATE per row.
+	 */
+	@PostMapping("/bulk")
+	public ResponseEntity<BulkCreateResultDto> createBulk(@RequestBody List<PatientDto> dtos) {
+		List<Patient> patients = dtos == null ? List.of() : dtos.stream().map(PatientMapper::toEntity).toList();
+		try {
+			return ResponseEntity.ok(service.savePatients(patients));
+		} catch (IllegalArgumentException e) {
+			return ResponseEntity.badRequest().build();
+		} catch (DuplicateEntityException e) {
+			// a concurrent writer took an email/phone between the duplicate check and the insert, which
+			// rolled the batch back: create the rows one by one (each in its own transaction) instead
+			return ResponseEntity.ok(createOneByOne(dtos));
+		}
+	}
+
+	private BulkCreateResultDto createOneByOne(List<PatientDto> dtos) {
+		List<BulkRowResultDto> results = new ArrayList<>(dtos.size());
+		int created = 0;
+		for (int i = 0; i < dtos.size(); i++) {
+			Patient p = PatientMapper.toEntity(dtos.get(i));
+			if (p == null) {
+				results.add(BulkRowResultDto.rejected(i, BulkRowResultDto.Status.INVALID, "Patient must not be null"));
+				continue;
+			}
+			p.setId(null);
+			try {
+				results.add(BulkRowResultDto.created(i, service.savePatient(p).getId()));
+				created++;
+			} catch (DuplicateEntityException e) {
+				results.add(BulkRowResultDto.rejected(i, BulkRowResultDto.Status.DUPLICATE, e.getMessage()));
+			} catch (IllegalArgumentException e) {
+				results.add(BulkRowResultDto.rejected(i, BulkRowResultDto.Status.INVALID, e.getMessage()));
+			}
+		}
+		return new BulkCreateResultDto(created, dtos.size() - created, results);
+	}
+
+	/**
+	 * The patient with its version as a strong ETag. With If-None-Match the current version is looked
+	 * up alone (by-id cache or a version-only query) and a match returns 304 without loading, mapping or
+	 * serializing the patient.
+	 */
 	@GetMapping("/{id}")
-	public ResponseEntity<PatientDto> getById(@PathVariable Long id) {
-		Patient patient = service.getPatientById(id);
-		return ResponseEntity.ok(PatientMapper.toDto(patient));
+	public ResponseEntity<PatientDto> getById(@PathVariable Long id,
+			@RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+		if (ifNoneMatch != null) {
+			Optional<Long> version = service.getPatientVersion(id);
+			if (version.isPresent() && PatientETags.matchesAny(ifNoneMatch, version.get())) {
+				return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(PatientETags.of(version.get())).build();
+			}
+		}
+		PatientDto patient = service.getPatientDtoById(id);
+		return ResponseEntity.ok().eTag(PatientETags.of(patient.getVersion())).body(patient);
+	}
+
+	/**
+	 * Update the given fields of a patient. With If-Match (the ETag from a previous GET) the update is
+	 * applied only if nobody changed the patient since; otherwise (or for a weak or unknown tag, which
+	 * never matches) 412 is returned. 409 when the new email
+	 * or phone belongs to another active patient.
+	 */
+	@PutMapping("/{id}")
+	public ResponseEntity<PatientDto> update(@PathVariable Long id, @RequestBody PatientDto dto,
+			@RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+		try {
+			Long expectedVersion = ifMatch == null ? null : PatientETags.parseIfMatch(ifMatch);
+			if (expectedVersion != null && expectedVersion == PatientETags.NEVER_MATCHES) {
+				return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build();
+			}
+			Patient saved = service.updatePatient(id, PatientMapper.toEntity(dto), expectedVersion);
+			return ResponseEntity.ok().eTag(PatientETags.of(saved.getVersion())).body(PatientMapper.toDto(saved));
+		} catch (OptimisticLockingFailureException e) {
+			return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build();
+		} catch (DuplicateEntityException e) {
+			return ResponseEntity.status(HttpStatus.CONFLICT).build();
+		} catch (IllegalArgumentException e) {
+			return ResponseEntity.badRequest().build();
+		}
+	}
+
+	/**
+	 * Partial update: only the fields present in the body are changed and only those columns are written.
+	 * The version to update from is required, either as If-Match or as "version" in the body; with
+	 * "If-Match: *" the body version is used. 428 without one, 412 when stale or when If-Match carries a
+	 * weak or unknown tag (which never matches); the response carries the new version as its ETag.
+	 */
+	@PatchMapping("/{id}")
+	public ResponseEntity<PatientDto> patch(@PathVariable Long id, @RequestBody PatientDto changes,
+			@RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+		try {
+			Long expectedVersion = ifMatch != null ? PatientETags.parseIfMatch(ifMatch) : null;
+			if (expectedVersion != null && expectedVersion == PatientETags.NEVER_MATCHES) {
+				return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build();
+			}
+			if (expectedVersion == null) {
+				// no If-Match, or "*": the body names the version
+				expectedVersion = changes.getVersion();
+			}
+			if (expectedVersion == null) {
+				return ResponseEntity.status(HttpStatus.PRECONDITION_REQUIRED).build();
+			}
+			PatientDto patched = service.patchPatient(id, changes, expectedVersion);
+			return ResponseEntity.ok().eTag(PatientETags.of(patched.getVersion())).body(patched);
+		} catch (OptimisticLockingFailureException e) {
+			return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build();
+		} catch (DuplicateEntityException e) {
+			return ResponseEntity.status(HttpStatus.CONFLICT).build();
+		} catch (IllegalArgumentException e) {
+			return ResponseEntity.badRequest().build();
+		}
 	}
 
 	@GetMapping("/search")
@@ -48,4 +168,89 @@ public class PatientController {
         Page<com.csd.medicus.dto.PatientDto> result = service.searchPatients(query, pageable);
         return ResponseEntity.ok(result);
     }
+
+	/**
+	 * Phonetic (sounds-like) name search, e.g. "Catherine" also finds "Katherine".
+	 */
+	@GetMapping("/search/phonetic")
+	public ResponseEntity<Page<PatientDto>> searchPatientsPhonetic(
+			@RequestParam(defaultValue = "") String name,
+			@RequestParam(defaultValue = "0") int page,
+			@RequestParam(defaultValue = "20") int size
+	) {
+		int safePage = Math.max(0, page);
+		int safeSize = Math.max(1, Math.min(size, 100));
+		return ResponseEntity.ok(service.searchPatientsPhonetic(name, PageRequest.of(safePage, safeSize)));
+	}
+
+	/**
+	 * Find patients whose phone ends with the given digits (4-15 digits), e.g. the last 4 digits a
+	 * caller reads out. Served by an indexed prefix range scan on the reversed phone digits.
+	 */
+	@GetMapping("/search/phone-suffix")
+	public ResponseEntity<Page<PatientDto>> searchByPhoneSuffix(
+			@RequestParam String digits,
+			@RequestParam(defaultValue = "0") int page,
+			@RequestParam(defaultValue = "20") int size
+	) {
+		int safePage = Math.max(0, page);
+		int safeSize = Math.max(1, Math.min(size, 100));
+		try {
+			return ResponseEntity.ok(service.searchByPhoneSuffix(digits, PageRequest.of(safePage, safeSize)));
+		} catch (IllegalArgumentException e) {
+			return ResponseEntity.badRequest().build();
+		}
+	}
+
+	/**
+	 * Active patients registered under an equivalent email, e.g. "John.Doe+clinic@gmail.com" finds
+	 * "johndoe@gmail.com". Served by an indexed lookup on the canonical email key.
+	 */
+	@GetMapping("/search/email")
+	public ResponseEntity<List<PatientDto>> searchByEmail(@RequestParam String email) {
+		try {
+			return ResponseEntity.ok(service.findByEquivalentEmail(email));
+		} catch (IllegalArgumentException e) {
+			return ResponseEntity.badRequest().build();
+		}
+	}
+
+	/**
+	 * Name suggestions for type-ahead, answered from memory; empty for prefixes shorter than 2 characters.
+	 */
+	@GetMapping("/autocomplete")
+	public ResponseEntity<List<String>> autocomplete(
+			@RequestParam(defaultValue = "") String prefix,
+			@RequestParam(defaultValue = "10") int limit
+	) {
+		int safeLimit = Math.max(1, Math.min(limit, 50));
+		return ResponseEntity.ok(service.suggestNames(prefix, safeLimit));
+	}
+
+	/**
+	 * Keyset (cursor) mode of the search endpoint, selected by the presence of the "after" parameter
+	 * (pass it empty for the first slice). Returns a slice without a total count plus the cursor for
+	 * the next slice, so deep pages cost the same as the first one.
+	 */
+	@GetMapping(value = "/search", params = "after")
+	public ResponseEntity<CursorSliceDto<PatientDto>> searchPatientsAfter(
+			@RequestParam(defaultValue = "") String query,
+			@RequestParam String after,
+			@RequestParam(defaultValue = "20") int size
+	) {
+		long afterId;
+		try {
+			afterId = SearchCursor.decode(after);
+		} catch (IllegalArgumentException e) {
+			return ResponseEntity.badRequest().build();
+		}
+		int safeSize = Math.max(1, Math.min(size, 100));
+		KeysetSlice<PatientDto> slice = service.searchPatientsAfter(query, afterId, safeSize);
+		List<PatientDto> content = slice.getContent();
+		// from the last id scanned, which may be past the last row returned (or there may be none)
+		String next = slice.hasNext() && slice.getLastScannedId() != null
+				? SearchCursor.encode(slice.getLastScannedId())
+				: null;
+		return ResponseEntity.ok(new CursorSliceDto<>(content, content.size(), next != null, next));
+	}
 }
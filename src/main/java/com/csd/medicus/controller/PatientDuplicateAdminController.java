@@ -0,0 +1,53 @@
+package com.csd.medicus.controller;
+
+import com.csd.medicus.dto.MergePlanDto;
+import com.csd.medicus.dto.MergeResultDto;
+import com.csd.medicus.service.PatientDuplicateService;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * Admin endpoints for finding and merging duplicate patients.
+ *
+ * Flow: POST /scan starts a background scan (202); GET /plans/{planId} returns the plan once READY;
+ * POST /plans/{planId}/apply merges all clusters, or only those listed in the body (e.g. [0, 3, 7]).
+ *
+ * IMPORTANT: These endpoints are administrative and should be secured in production.
+ */
+@RestController
+@RequestMapping("/api/v1/admin/patients/duplicates")
+public class PatientDuplicateAdminController {
+
+    private final PatientDuplicateService duplicateService;
+
+    public PatientDuplicateAdminController(PatientDuplicateService duplicateService) {
+        this.duplicateService = duplicateService;
+    }
+
+    @PostMapping("/scan")
+    public ResponseEntity<MergePlanDto> scan() {
+        return ResponseEntity.accepted().body(duplicateService.startScan());
+    }
+
+    @GetMapping("/plans/{planId}")
+    public ResponseEntity<MergePlanDto> plan(@PathVariable String planId) {
+        return duplicateService.getPlan(planId)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    @PostMapping("/plans/{planId}/apply")
+    public ResponseEntity<MergeResultDto> apply(@PathVariable String planId,
+                                                @RequestBody(required = false) List<Integer> clusterIndexes) {
+        try {
+            return ResponseEntity.ok(duplicateService.applyPlan(planId, clusterIndexes));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.csd.medicus.controller;
+
+/**
+ * Strong entity tags for patient resources, derived from Patient.version: {@code "<version>"}.
+ *
+ * Behavior:
+ * - If-None-Match uses weak comparison (RFC 9110): W/ prefixes are ignored and "*" matches any version.
+ * - If-Match uses strong comparison and accepts "*" or a single tag. A weak tag or a strong tag that is
+ *   not one of ours can never match (RFC 9110 13.1.1), so it parses to NEVER_MATCHES and the request
+ *   fails with 412; a header that is not an entity tag at all is rejected with IllegalArgumentException.
+ */
+final class PatientETags {
+
+    /**
+     * parseIfMatch result for a tag that cannot match any version (versions are never negative).
+     */
+    static final long NEVER_MATCHES = -1L;
+
+    private PatientETags() {
+    }
+
+    static String of(long version) {
+        return "\"" + version + "\"";
+    }
+
+    static boolean matchesAny(String ifNoneMatch, long version) {
+        String current = of(version);
+        for (String tag : ifNoneMatch.split(",")) {
+            String t = tag.trim();
+            if (t.startsWith("W/")) {
+                t = t.substring(2);
+            }
+            if (t.equals("*") || t.equals(current)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Version expected by an If-Match header, null for "*" (any current version), or NEVER_MATCHES for
+     * a weak or unknown tag.
+     */
+    static Long parseIfMatch(String ifMatch) {
+        String t = ifMatch.trim();
+        if (t.equals("*")) {
+            return null;
+        }
+        boolean weak = t.startsWith("W/");
+        String opaque = weak ? t.substring(2) : t;
+        if (opaque.length() < 2 || opaque.charAt(0) != '"' || opaque.charAt(opaque.length() - 1) != '"'
+                || opaque.indexOf('"', 1) != opaque.length() - 1) {
+            throw new IllegalArgumentException("If-Match must be \"*\" or a single ETag");
+        }
+        if (weak) {
+            return NEVER_MATCHES;
+        }
+        try {
+            long version = Long.parseLong(opaque.substring(1, opaque.length() - 1));
+            return version < 0 ? NEVER_MATCHES : version;
+        } catch (NumberFormatException e) {
+            return NEVER_MATCHES;
+        }
+    }
+}
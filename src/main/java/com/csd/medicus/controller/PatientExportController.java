@@ -0,0 +1,72 @@
+package com.csd.medicus.controller;
+
+import com.csd.medicus.service.PatientExportService;
+import com.csd.medicus.service.PatientExportService.Format;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.util.Locale;
+
+/**
+ * Streaming exports of patient search results and admin listings (NDJSON or CSV).
+ *
+ * Rows are written to the response as they are read from the database, so memory use does not
+ * depend on the number of patients. Use these instead of the list endpoints for bulk consumers.
+ *
+ * The search export requires a non-blank query (400 otherwise), so it cannot be used to dump every
+ * patient; that is what the admin export is for.
+ *
+ * IMPORTANT: The admin export is administrative and should be secured in production.
+ */
+@RestController
+public class PatientExportController {
+
+    private final PatientExportService exportService;
+
+    public PatientExportController(PatientExportService exportService) {
+        this.exportService = exportService;
+    }
+
+    @GetMapping("/api/v1/patients/export")
+    public ResponseEntity<StreamingResponseBody> exportSearch(
+            @RequestParam(name = "query", defaultValue = "") String query,
+            @RequestParam(name = "format", defaultValue = "ndjson") String format) {
+        Format f = parseFormat(format);
+        if (f == null || query.isBlank()) {
+            return ResponseEntity.badRequest().build();
+        }
+        return stream(f, "patients-search", out -> exportService.exportSearch(query, f, out));
+    }
+
+    @GetMapping("/api/v1/admin/patients/export")
+    public ResponseEntity<StreamingResponseBody> exportAll(
+            @RequestParam(name = "includeDeleted", defaultValue = "false") boolean includeDeleted,
+            @RequestParam(name = "format", defaultValue = "ndjson") String format) {
+        Format f = parseFormat(format);
+        if (f == null) {
+            return ResponseEntity.badRequest().build();
+        }
+        return stream(f, "patients", out -> exportService.exportPatients(includeDeleted, f, out));
+    }
+
+    private static ResponseEntity<StreamingResponseBody> stream(Format f, String fileName, StreamingResponseBody body) {
+        String extension = f == Format.CSV ? ".csv" : ".ndjson";
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(f.contentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + fileName + extension + "\"")
+                .body(body);
+    }
+
+    private static Format parseFormat(String format) {
+        try {
+            return Format.valueOf(format.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
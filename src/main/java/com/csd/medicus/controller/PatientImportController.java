@@ -0,0 +1,41 @@
+package com.csd.medicus.controller;
+
+import com.csd.medicus.dto.ImportReportDto;
+import com.csd.medicus.service.PatientImportService;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * CSV patient import. The request body is streamed straight into the import pipeline, so uploads of
+ * any size run in bounded memory. The import runs in the request thread and answers with its report.
+ *
+ * Pass the same jobId again to resume an interrupted import after its last committed chunk.
+ *
+ * IMPORTANT: This endpoint is administrative and should be secured in production.
+ */
+@RestController
+public class PatientImportController {
+
+    private final PatientImportService importService;
+
+    public PatientImportController(PatientImportService importService) {
+        this.importService = importService;
+    }
+
+    @PostMapping(value = "/api/v1/admin/patients/import", consumes = {"text/csv", "text/plain"})
+    public ResponseEntity<ImportReportDto> importCsv(
+            @RequestParam(name = "jobId", required = false) String jobId,
+            HttpServletRequest request) throws IOException {
+        try (InputStream body = request.getInputStream()) {
+            return ResponseEntity.ok(importService.importCsv(body, jobId));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package com.csd.medicus.dedup;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Fixed-size Bloom filter over strings and longs (one bit array; a string and a long may share bits,
+ * which can only add false positives).
+ *
+ * Behavior:
+ * - Sized from the expected number of entries n and target false-positive probability p:
+ *   m = -n ln p / (ln 2)^2 bits and k = (m / n) ln 2 hash functions.
+ * - {@link #mightContain(String)} never returns false for a value that was added; it returns true
+ *   for an absent value with probability close to p while at most n values have been added.
+ * - Values cannot be removed. Stale values only raise the false-positive rate, which
+ *   {@link #estimatedFalsePositiveProbability()} reports from the current bit fill.
+ * - Bit positions use double hashing (h1 + i * h2) of a 64-bit FNV-1a hash (strings) or of the
+ *   mixed value (longs).
+ *
+ * Thread-safety: lock-free; bits are set with CAS on an AtomicLongArray.
+ */
+final class BloomFilter {
+
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+    // keeps small longs away from mix(0) = 0
+    private static final long LONG_SEED = 0x9e3779b97f4a7c15L;
+
+    private final AtomicLongArray words;
+    private final long bitSize;
+    private final int hashFunctions;
+    private final AtomicLong insertions = new AtomicLong();
+    private final AtomicLong setBits = new AtomicLong();
+
+    BloomFilter(long expectedEntries, double falsePositiveProbability) {
+        if (expectedEntries < 1) {
+            throw new IllegalArgumentException("expectedEntries must be positive");
+        }
+        if (!(falsePositiveProbability > 0 && falsePositiveProbability < 1)) {
+            throw new IllegalArgumentException("falsePositiveProbability must be in (0, 1)");
+        }
+        double ln2 = Math.log(2);
+        long bits = (long) Math.ceil(-expectedEntries * Math.log(falsePositiveProbability) / (ln2 * ln2));
+        long wordCount = Math.max(1, (bits + 63) >>> 6);
+        if (wordCount > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Bloom filter too large: " + bits + " bits");
+        }
+        this.words = new AtomicLongArray((int) wordCount);
+        this.bitSize = wordCount << 6;
+        this.hashFunctions = Math.max(1, (int) Math.round((double) bitSize / expectedEntries * ln2));
+    }
+
+    void add(String value) {
+        addHash(hash(value));
+    }
+
+    void add(long value) {
+        addHash(mix(value ^ LONG_SEED));
+    }
+
+    boolean mightContain(String value) {
+        return mightContainHash(hash(value));
+    }
+
+    boolean mightContain(long value) {
+        return mightContainHash(mix(value ^ LONG_SEED));
+    }
+
+    private void addHash(long h1) {
+        long h2 = mix(h1) | 1;
+        for (int i = 0; i < hashFunctions; i++) {
+            long bit = Math.floorMod(h1 + i * h2, bitSize);
+            if (setBit(bit)) {
+                setBits.incrementAndGet();
+            }
+        }
+        insertions.incrementAndGet();
+    }
+
+    private boolean mightContainHash(long h1) {
+        long h2 = mix(h1) | 1;
+        for (int i = 0; i < hashFunctions; i++) {
+            long bit = Math.floorMod(h1 + i * h2, bitSize);
+            if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    long bitSize() {
+        return bitSize;
+    }
+
+    int hashFunctions() {
+        return hashFunctions;
+    }
+
+    long memoryBytes() {
+        return (long) words.length() * Long.BYTES;
+    }
+
+    long insertions() {
+        return insertions.get();
+    }
+
+    /**
+     * False-positive probability implied by the current fraction of set bits: fill^k.
+     */
+    double estimatedFalsePositiveProbability() {
+        return Math.pow((double) setBits.get() / bitSize, hashFunctions);
+    }
+
+    // Returns true if the bit was previously clear.
+    private boolean setBit(long bit) {
+        int index = (int) (bit >>> 6);
+        long mask = 1L << bit;
+        while (true) {
+            long current = words.get(index);
+            if ((current & mask) != 0) {
+                return false;
+            }
+            if (words.compareAndSet(index, current, current | mask)) {
+                return true;
+            }
+        }
+    }
+
+    private static long hash(String value) {
+        long h = FNV_OFFSET;
+        for (int i = 0; i < value.length(); i++) {
+            h ^= value.charAt(i);
+            h *= FNV_PRIME;
+        }
+        return mix(h);
+    }
+
+    // SplitMix64 finalizer: spreads FNV's weak low bits across the whole word.
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,16 @@
+package com.csd.medicus.dedup;
+
+/**
+ * Snapshot of the PatientContactFilter: sizing, fill and how often it spared a database check.
+ */
+public record ContactFilterStats(
+        boolean ready,
+        long bitSize,
+        int hashFunctions,
+        long memoryBytes,
+        long insertions,
+        double configuredFalsePositiveProbability,
+        double estimatedFalsePositiveProbability,
+        long checks,
+        long skippedChecks) {
+}
@@ -0,0 +1,232 @@
+package com.csd.medicus.dedup;
+
+import com.csd.medicus.dto.PatientDto;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.stream.IntStream;
+
+/**
+ * Groups patients into clusters of probable duplicates.
+ *
+ * Behavior:
+ * - Blocking: every patient is put into up to three blocks, keyed by its phone key (last 10 digits), its
+ *   email local part and its phonetic full name (see PatientSimilarity). Only patients sharing a block
+ *   are compared, so the work grows with the block sizes rather than with n².
+ * - Blocks larger than medicus.dedup.cluster.max-block-size (a very common name, a clinic's front-desk
+ *   phone) are skipped and counted, since they would dominate the pair count while rarely holding
+ *   real duplicates.
+ * - Candidate pairs are de-duplicated across blocks and scored in parallel with fork/join on the
+ *   common pool; pairs scoring at least medicus.dedup.cluster.threshold are joined with union-find,
+ *   so A~B and B~C put A, B and C in one cluster.
+ * - Clusters list their members in id order with the weakest accepted pair score and the union of the
+ *   matched signals.
+ */
+@Component
+public class DuplicateClusterer {
+
+    // pairs scored per fork/join leaf task
+    private static final int SCORE_LEAF_SIZE = 2048;
+
+    private final double threshold;
+    private final int maxBlockSize;
+
+    public record Cluster(List<PatientDto> members, double score, List<String> reasons) {
+    }
+
+    public record Result(int scanned, int blocks, int oversizedBlocks, long candidatePairs, List<Cluster> clusters) {
+    }
+
+    public DuplicateClusterer(@Value("${medicus.dedup.cluster.threshold:0.8}") double threshold,
+                              @Value("${medicus.dedup.cluster.max-block-size:100}") int maxBlockSize) {
+        if (threshold <= 0 || threshold > 1) {
+            throw new IllegalArgumentException("threshold must be in (0, 1]");
+        }
+        if (maxBlockSize < 2) {
+            throw new IllegalArgumentException("maxBlockSize must be at least 2");
+        }
+        this.threshold = threshold;
+        this.maxBlockSize = maxBlockSize;
+    }
+
+    /**
+     * Cluster the given patients (expected in id order; ids must be unique).
+     */
+    public Result cluster(List<PatientDto> patients) {
+        int n = patients.size();
+        PatientSimilarity.Features[] features = new PatientSimilarity.Features[n];
+        IntStream.range(0, n).parallel().forEach(i -> features[i] = PatientSimilarity.Features.of(patients.get(i)));
+
+        Map<String, IntBuffer> blocks = new HashMap<>();
+        for (int i = 0; i < n; i++) {
+            PatientSimilarity.Features f = features[i];
+            addToBlock(blocks, f.phone() == null ? null : "P" + f.phone(), i);
+            addToBlock(blocks, f.emailLocalPart() == null ? null : "E" + f.emailLocalPart(), i);
+            addToBlock(blocks, f.firstPhonetic() == null || f.lastPhonetic() == null ? null
+                    : "N" + f.lastPhonetic() + "|" + f.firstPhonetic(), i);
+        }
+
+        // candidate pairs as (i << 32 | j) with i < j, so sorting groups and de-duplicates them
+        LongBuffer pairs = new LongBuffer();
+        int compared = 0;
+        int oversized = 0;
+        for (IntBuffer block : blocks.values()) {
+            if (block.size < 2) {
+                continue;
+            }
+            if (block.size > maxBlockSize) {
+                oversized++;
+                continue;
+            }
+            compared++;
+            for (int x = 0; x < block.size; x++) {
+                for (int y = x + 1; y < block.size; y++) {
+                    pairs.add(((long) block.values[x] << 32) | block.values[y]);
+                }
+            }
+        }
+        long[] candidates = pairs.sortedUnique();
+
+        float[] scores = new float[candidates.length];
+        ForkJoinPool.commonPool().invoke(new ScoreTask(features, candidates, scores, 0, candidates.length));
+
+        int[] parent = IntStream.range(0, n).toArray();
+        for (int k = 0; k < candidates.length; k++) {
+            if (scores[k] >= threshold) {
+                union(parent, (int) (candidates[k] >>> 32), (int) candidates[k]);
+            }
+        }
+
+        // collect components with at least one accepted pair, keyed by root
+        Map<Integer, List<Integer>> members = new HashMap<>();
+        Map<Integer, Float> weakest = new HashMap<>();
+        Map<Integer, TreeSet<String>> reasons = new HashMap<>();
+        for (int k = 0; k < candidates.length; k++) {
+            if (scores[k] < threshold) {
+                continue;
+            }
+            int i = (int) (candidates[k] >>> 32);
+            int j = (int) candidates[k];
+            int root = find(parent, i);
+            weakest.merge(root, scores[k], Math::min);
+            reasons.computeIfAbsent(root, r -> new TreeSet<>()).addAll(PatientSimilarity.reasons(features[i], features[j]));
+        }
+        for (int i = 0; i < n; i++) {
+            int root = find(parent, i);
+            if (weakest.containsKey(root)) {
+                members.computeIfAbsent(root, r -> new ArrayList<>()).add(i);
+            }
+        }
+
+        List<Cluster> clusters = new ArrayList<>(members.size());
+        for (Map.Entry<Integer, List<Integer>> e : members.entrySet()) {
+            List<PatientDto> dtos = new ArrayList<>(e.getValue().size());
+            for (int i : e.getValue()) {
+                dtos.add(patients.get(i));
+            }
+            clusters.add(new Cluster(dtos, weakest.get(e.getKey()), List.copyOf(reasons.get(e.getKey()))));
+        }
+        clusters.sort((a, b) -> Long.compare(a.members().get(0).getId(), b.members().get(0).getId()));
+        return new Result(n, compared, oversized, candidates.length, clusters);
+    }
+
+    private static void addToBlock(Map<String, IntBuffer> blocks, String key, int index) {
+        if (key != null) {
+            blocks.computeIfAbsent(key, k -> new IntBuffer()).add(index);
+        }
+    }
+
+    private static int find(int[] parent, int i) {
+        while (parent[i] != i) {
+            parent[i] = parent[parent[i]]; // path halving
+            i = parent[i];
+        }
+        return i;
+    }
+
+    private static void union(int[] parent, int a, int b) {
+        int ra = find(parent, a);
+        int rb = find(parent, b);
+        if (ra != rb) {
+            // the lower index becomes the root, keeping roots stable for a given input order
+            parent[Math.max(ra, rb)] = Math.min(ra, rb);
+        }
+    }
+
+    /**
+     * Scores candidates[from, to) into scores, splitting in halves down to SCORE_LEAF_SIZE pairs.
+     */
+    private static final class ScoreTask extends RecursiveAction {
+        private final PatientSimilarity.Features[] features;
+        private final long[] candidates;
+        private final float[] scores;
+        private final int from;
+        private final int to;
+
+        ScoreTask(PatientSimilarity.Features[] features, long[] candidates, float[] scores, int from, int to) {
+            this.features = features;
+            this.candidates = candidates;
+            this.scores = scores;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= SCORE_LEAF_SIZE) {
+                for (int k = from; k < to; k++) {
+                    long pair = candidates[k];
+                    scores[k] = (float) PatientSimilarity.score(features[(int) (pair >>> 32)], features[(int) pair]);
+                }
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new ScoreTask(features, candidates, scores, from, mid),
+                    new ScoreTask(features, candidates, scores, mid, to));
+        }
+    }
+
+    private static final class IntBuffer {
+        int[] values = new int[2];
+        int size;
+
+        void add(int v) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = v;
+        }
+    }
+
+    private static final class LongBuffer {
+        long[] values = new long[64];
+        int size;
+
+        void add(long v) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = v;
+        }
+
+        long[] sortedUnique() {
+            long[] sorted = Arrays.copyOf(values, size);
+            Arrays.parallelSort(sorted);
+            int unique = 0;
+            for (int k = 0; k < sorted.length; k++) {
+                if (unique == 0 || sorted[k] != sorted[unique - 1]) {
+                    sorted[unique++] = sorted[k];
+                }
+            }
+            return Arrays.copyOf(sorted, unique);
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package com.csd.medicus.dedup;
+
+import com.csd.medicus.util.EmailCanonicalizer;
+import com.csd.medicus.util.PhoneNormalizer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bloom filter of the normalized emails and phones of active patients, used by bulk create to leave
+ * values that have definitely never been registered out of its duplicate lookups. (Single creates
+ * rely on the database unique constraints and do not pre-check.)
+ *
+ * Behavior:
+ * - {@link #mayContainEmail(String)} / {@link #mayContainPhone(String)} return false only when the
+ *   value is definitely not used by an active patient; true means "ask the database".
+ * - Until the filter has been seeded (see PatientIndexInitializer) every check returns true.
+ * - Values are added on every write; soft-deletes and edits leave stale bits behind, which can only
+ *   cause extra database checks. The filter is rebuilt from scratch on startup.
+ *
+ * Configuration:
+ * - medicus.dedup.bloom.expected-entries (default 1,000,000 emails + phones)
+ * - medicus.dedup.bloom.false-positive-probability (default 0.01)
+ * Memory is about expected-entries * 1.2 bytes at 1% (see stats().memoryBytes()).
+ */
+@Component
+public class PatientContactFilter {
+
+    private final long expectedEntries;
+    private final double falsePositiveProbability;
+    private final AtomicLong checks = new AtomicLong();
+    private final AtomicLong skipped = new AtomicLong();
+
+    private volatile BloomFilter filter;
+    private volatile boolean ready;
+
+    public PatientContactFilter(
+            @Value("${medicus.dedup.bloom.expected-entries:1000000}") long expectedEntries,
+            @Value("${medicus.dedup.bloom.false-positive-probability:0.01}") double falsePositiveProbability) {
+        this.expectedEntries = expectedEntries;
+        this.falsePositiveProbability = falsePositiveProbability;
+        this.filter = new BloomFilter(expectedEntries, falsePositiveProbability);
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public void markReady() {
+        ready = true;
+    }
+
+    /**
+     * Replace the filter with an empty one and stop answering until {@link #markReady()}.
+     */
+    public void clear() {
+        ready = false;
+        filter = new BloomFilter(expectedEntries, falsePositiveProbability);
+    }
+
+    /**
+     * Record the (normalized) email and phone of an active patient; nulls are ignored.
+     */
+    public void add(String email, String phone) {
+        BloomFilter f = filter;
+        if (email != null) {
+            f.add(emailKey(email));
+        }
+        if (phone != null) {
+            long packed = PhoneNormalizer.pack(phone);
+            if (packed != PhoneNormalizer.NO_KEY) {
+                f.add(packed);
+            } else {
+                f.add(phoneKey(phone));
+            }
+        }
+    }
+
+    public boolean mayContainEmail(String email) {
+        return email != null && check(emailKey(email));
+    }
+
+    public boolean mayContainPhone(String phone) {
+        if (phone == null) {
+            return false;
+        }
+        long packed = PhoneNormalizer.pack(phone);
+        return packed != PhoneNormalizer.NO_KEY ? mayContainPhone(packed) : check(phoneKey(phone));
+    }
+
+    /**
+     * As {@link #mayContainPhone(String)} for a packed phone (see PhoneNormalizer.pack).
+     */
+    public boolean mayContainPhone(long phoneKey) {
+        if (!ready) {
+            return true;
+        }
+        checks.incrementAndGet();
+        boolean maybe = filter.mightContain(phoneKey);
+        if (!maybe) {
+            skipped.incrementAndGet();
+        }
+        return maybe;
+    }
+
+    public ContactFilterStats stats() {
+        BloomFilter f = filter;
+        return new ContactFilterStats(ready, f.bitSize(), f.hashFunctions(), f.memoryBytes(), f.insertions(),
+                falsePositiveProbability, f.estimatedFalsePositiveProbability(), checks.get(), skipped.get());
+    }
+
+    private boolean check(String key) {
+        if (!ready) {
+            return true;
+        }
+        checks.incrementAndGet();
+        boolean maybe = filter.mightContain(key);
+        if (!maybe) {
+            skipped.incrementAndGet();
+        }
+        return maybe;
+    }
+
+    // Emails and phones share one bit array; the prefix keeps their key spaces apart. Emails are added in
+    // canonical form, so a definite miss also rules out equivalent addresses.
+    private static String emailKey(String email) {
+        return "e:" + EmailCanonicalizer.canonicalize(email);
+    }
+
+    // E.164 phones are hashed in packed form (no string built per check); other values keep a string key
+    private static String phoneKey(String phone) {
+        return "p:" + phone;
+    }
+}
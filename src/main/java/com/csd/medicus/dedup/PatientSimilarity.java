@@ -0,0 +1,206 @@
+package com.csd.medicus.dedup;
+
+import com.csd.medicus.dto.PatientDto;
+import com.csd.medicus.util.PhoneticEncoder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Pairwise duplicate score of two patients, from 0 (unrelated) to 1 (certainly the same person).
+ *
+ * Signals and weights (summed, capped at 1):
+ * - PHONE: same last 10 phone digits (ignores country code and formatting differences), 0.5
+ * - EMAIL: same email ignoring case, 0.5; otherwise EMAIL_LOCAL_PART: same local part with dots and
+ *   "+tag" removed (e.g. "Ram.Kumar+opd@gmail.com" / "ramkumar@yahoo.com"), 0.25
+ * - NAME: Jaro-Winkler similarity of first names (weight 0.3) and last names (weight 0.2), rescaled
+ *   so that 0.7 and below (one or two coincidental letters) count as 0; a typo such as
+ *   "Lakshmi"/"Laxmi" still scores high
+ * - PHONETIC_NAME: both Metaphone keys equal, 0.1
+ *
+ * A shared phone plus surname (family members) or equal names alone (namesakes) stay below the default
+ * clustering threshold of 0.8; a contact match plus a similar first name passes it.
+ */
+public final class PatientSimilarity {
+
+    public static final String PHONE = "PHONE";
+    public static final String EMAIL = "EMAIL";
+    public static final String EMAIL_LOCAL_PART = "EMAIL_LOCAL_PART";
+    public static final String NAME = "NAME";
+    public static final String PHONETIC_NAME = "PHONETIC_NAME";
+
+    // names at least this similar count as a NAME signal in the reasons
+    private static final double NAME_REASON_THRESHOLD = 0.85;
+    // Jaro-Winkler at or below this is noise for short names
+    private static final double NAME_SIMILARITY_FLOOR = 0.7;
+    private static final int PHONE_KEY_DIGITS = 10;
+    private static final int MIN_PHONE_KEY_DIGITS = 7;
+
+    private PatientSimilarity() {
+        // utility
+    }
+
+    /**
+     * Comparison keys of one patient, computed once per scan rather than once per pair.
+     */
+    public record Features(long id, String phone, String email, String emailLocalPart,
+                           String firstName, String lastName, String firstPhonetic, String lastPhonetic) {
+
+        public static Features of(PatientDto p) {
+            String email = p.getEmail() == null ? null : p.getEmail().trim().toLowerCase(Locale.ROOT);
+            return new Features(p.getId(), phoneKey(p.getPhone()), email, PatientSimilarity.emailLocalPart(email),
+                    nameKey(p.getFirstName()), nameKey(p.getLastName()),
+                    PhoneticEncoder.encode(p.getFirstName()), PhoneticEncoder.encode(p.getLastName()));
+        }
+    }
+
+    public static double score(Features a, Features b) {
+        double score = 0;
+        if (a.phone() != null && a.phone().equals(b.phone())) {
+            score += 0.5;
+        }
+        if (a.email() != null && a.email().equals(b.email())) {
+            score += 0.5;
+        } else if (a.emailLocalPart() != null && a.emailLocalPart().equals(b.emailLocalPart())) {
+            score += 0.25;
+        }
+        score += 0.3 * nameSimilarity(a.firstName(), b.firstName()) + 0.2 * nameSimilarity(a.lastName(), b.lastName());
+        if (a.firstPhonetic() != null && a.firstPhonetic().equals(b.firstPhonetic())
+                && a.lastPhonetic() != null && a.lastPhonetic().equals(b.lastPhonetic())) {
+            score += 0.1;
+        }
+        return Math.min(1.0, score);
+    }
+
+    /**
+     * Names of the signals two patients share (for the merge plan; not used in scoring).
+     */
+    public static List<String> reasons(Features a, Features b) {
+        List<String> reasons = new ArrayList<>(4);
+        if (a.phone() != null && a.phone().equals(b.phone())) {
+            reasons.add(PHONE);
+        }
+        if (a.email() != null && a.email().equals(b.email())) {
+            reasons.add(EMAIL);
+        } else if (a.emailLocalPart() != null && a.emailLocalPart().equals(b.emailLocalPart())) {
+            reasons.add(EMAIL_LOCAL_PART);
+        }
+        if ((jaroWinkler(a.firstName(), b.firstName()) + jaroWinkler(a.lastName(), b.lastName())) / 2 >= NAME_REASON_THRESHOLD) {
+            reasons.add(NAME);
+        }
+        if (a.firstPhonetic() != null && a.firstPhonetic().equals(b.firstPhonetic())
+                && a.lastPhonetic() != null && a.lastPhonetic().equals(b.lastPhonetic())) {
+            reasons.add(PHONETIC_NAME);
+        }
+        return reasons;
+    }
+
+    /**
+     * Last 10 digits of the phone ("+91 98765-43210" and "09876543210" share a key), or null when it has
+     * fewer than 7 digits.
+     */
+    public static String phoneKey(String phone) {
+        if (phone == null) {
+            return null;
+        }
+        StringBuilder digits = new StringBuilder(16);
+        for (int i = 0; i < phone.length(); i++) {
+            char c = phone.charAt(i);
+            if (c >= '0' && c <= '9') {
+                digits.append(c);
+            }
+        }
+        if (digits.length() < MIN_PHONE_KEY_DIGITS) {
+            return null;
+        }
+        return digits.length() > PHONE_KEY_DIGITS ? digits.substring(digits.length() - PHONE_KEY_DIGITS) : digits.toString();
+    }
+
+    /**
+     * Lower-cased local part without dots and "+tag", or null when there is none.
+     */
+    public static String emailLocalPart(String email) {
+        if (email == null) {
+            return null;
+        }
+        int at = email.indexOf('@');
+        String local = (at < 0 ? email : email.substring(0, at)).toLowerCase(Locale.ROOT);
+        int plus = local.indexOf('+');
+        if (plus >= 0) {
+            local = local.substring(0, plus);
+        }
+        local = local.replace(".", "");
+        return local.isEmpty() ? null : local;
+    }
+
+    // lower-case letters only, so "D'Souza" and "dsouza" compare equal
+    private static String nameKey(String name) {
+        if (name == null) {
+            return "";
+        }
+        StringBuilder sb = new StringBuilder(name.length());
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            if (Character.isLetter(c)) {
+                sb.append(Character.toLowerCase(c));
+            }
+        }
+        return sb.toString();
+    }
+
+    private static double nameSimilarity(String a, String b) {
+        return Math.max(0.0, (jaroWinkler(a, b) - NAME_SIMILARITY_FLOOR) / (1.0 - NAME_SIMILARITY_FLOOR));
+    }
+
+    /**
+     * Jaro-Winkler similarity (prefix scale 0.1, up to 4 prefix characters); 0 when either is empty.
+     */
+    public static double jaroWinkler(String a, String b) {
+        if (a.isEmpty() || b.isEmpty()) {
+            return 0.0;
+        }
+        if (a.equals(b)) {
+            return 1.0;
+        }
+        int window = Math.max(0, Math.max(a.length(), b.length()) / 2 - 1);
+        boolean[] aMatched = new boolean[a.length()];
+        boolean[] bMatched = new boolean[b.length()];
+        int matches = 0;
+        for (int i = 0; i < a.length(); i++) {
+            int from = Math.max(0, i - window);
+            int to = Math.min(b.length() - 1, i + window);
+            for (int j = from; j <= to; j++) {
+                if (!bMatched[j] && a.charAt(i) == b.charAt(j)) {
+                    aMatched[i] = true;
+                    bMatched[j] = true;
+                    matches++;
+                    break;
+                }
+            }
+        }
+        if (matches == 0) {
+            return 0.0;
+        }
+        int transpositions = 0;
+        for (int i = 0, j = 0; i < a.length(); i++) {
+            if (!aMatched[i]) {
+                continue;
+            }
+            while (!bMatched[j]) {
+                j++;
+            }
+            if (a.charAt(i) != b.charAt(j)) {
+                transpositions++;
+            }
+            j++;
+        }
+        double m = matches;
+        double jaro = (m / a.length() + m / b.length() + (m - transpositions / 2.0) / m) / 3.0;
+        int prefix = 0;
+        while (prefix < Math.min(4, Math.min(a.length(), b.length())) && a.charAt(prefix) == b.charAt(prefix)) {
+            prefix++;
+        }
+        return jaro + prefix * 0.1 * (1.0 - jaro);
+    }
+}
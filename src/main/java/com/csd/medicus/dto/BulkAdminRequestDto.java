@@ -0,0 +1,19 @@
+package com.csd.medicus.dto;
+
+import lombok.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Selects the patients of a bulk admin operation: either an explicit id list, or (restore/purge only)
+ * soft-deleted patients whose deletedAt is in [deletedAfter, deletedBefore). Either bound may be omitted.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkAdminRequestDto {
+	private List<Long> ids;
+	private LocalDateTime deletedAfter;
+	private LocalDateTime deletedBefore;
+}
@@ -0,0 +1,17 @@
+package com.csd.medicus.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+/**
+ * Result of a bulk create: counts plus one entry per request row, in request order.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkCreateResultDto {
+	private int created;
+	private int failed;
+	private List<BulkRowResultDto> results;
+}
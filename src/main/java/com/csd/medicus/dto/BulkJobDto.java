@@ -0,0 +1,35 @@
+package com.csd.medicus.dto;
+
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Progress snapshot of a bulk admin job.
+ *
+ * - total: number of ids requested, or -1 when the job selects rows by predicate
+ * - processed: ids examined so far; affected: rows actually changed
+ * - conflicts: restores skipped because another active patient now has the same email/phone
+ * - batches: committed chunks
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkJobDto {
+
+	public enum Status {
+		RUNNING, COMPLETED, FAILED
+	}
+
+	private String id;
+	private String operation;
+	private Status status;
+	private long total;
+	private long processed;
+	private long affected;
+	private long conflicts;
+	private int batches;
+	private String error;
+	private LocalDateTime startedAt;
+	private LocalDateTime finishedAt;
+}
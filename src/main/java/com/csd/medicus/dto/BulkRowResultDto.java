@@ -0,0 +1,30 @@
+package com.csd.medicus.dto;
+
+import lombok.*;
+
+/**
+ * Outcome of one row of a bulk request. "index" is the row's position in the request;
+ * "id" is set for created rows, "error" for rejected ones.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkRowResultDto {
+
+	public enum Status {
+		CREATED, INVALID, DUPLICATE
+	}
+
+	private int index;
+	private Status status;
+	private Long id;
+	private String error;
+
+	public static BulkRowResultDto created(int index, Long id) {
+		return new BulkRowResultDto(index, Status.CREATED, id, null);
+	}
+
+	public static BulkRowResultDto rejected(int index, Status status, String error) {
+		return new BulkRowResultDto(index, status, null, error);
+	}
+}
@@ -0,0 +1,19 @@
+package com.csd.medicus.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+/**
+ * One slice of a keyset-paginated result. There is no total count; "next" is the opaque cursor
+ * to pass as "after" for the following slice, or null when this is the last slice.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorSliceDto<T> {
+	private List<T> content;
+	private int size;
+	private boolean hasNext;
+	private String next;
+}
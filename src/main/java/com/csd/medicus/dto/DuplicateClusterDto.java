@@ -0,0 +1,25 @@
+package com.csd.medicus.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+/**
+ * One cluster of a merge plan: probable duplicates of the same person.
+ *
+ * - index: position in the plan, used to select clusters when applying it
+ * - survivorId: the patient that is kept (the earliest registered, i.e. lowest id)
+ * - members: all patients of the cluster in id order, with the versions the plan was computed from
+ * - score: weakest pair score that joined the cluster (0-1)
+ * - reasons: matched signals, e.g. PHONE, EMAIL_LOCAL_PART, NAME, PHONETIC_NAME
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DuplicateClusterDto {
+	private int index;
+	private Long survivorId;
+	private List<PatientDto> members;
+	private double score;
+	private List<String> reasons;
+}
@@ -0,0 +1,27 @@
+package com.csd.medicus.dto;
+
+import lombok.*;
+
+/**
+ * Outcome of one run of a CSV patient import.
+ *
+ * - skippedRecords: records already committed by an earlier run of the same job (resume)
+ * - records: data records read in this run; created + rejected = records
+ * - lastCommittedRecord: checkpoint after this run (1-based data record number)
+ * - rejectFile: CSV of rejected records with their reasons (appended across runs)
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportReportDto {
+	private String jobId;
+	private long skippedRecords;
+	private long records;
+	private long created;
+	private long rejected;
+	private int chunks;
+	private long lastCommittedRecord;
+	private long durationMs;
+	private double rowsPerSecond;
+	private String rejectFile;
+}
@@ -0,0 +1,35 @@
+package com.csd.medicus.dto;
+
+import lombok.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Result of a duplicate scan: the clusters found and what it took to find them.
+ *
+ * - scanned: active patients examined
+ * - blocks: blocking groups compared; oversizedBlocks: groups skipped for being too large
+ * - candidatePairs: distinct pairs scored
+ * - clusters: empty while RUNNING
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MergePlanDto {
+
+	public enum Status {
+		RUNNING, READY, FAILED
+	}
+
+	private String id;
+	private Status status;
+	private int scanned;
+	private int blocks;
+	private int oversizedBlocks;
+	private long candidatePairs;
+	private List<DuplicateClusterDto> clusters;
+	private String error;
+	private LocalDateTime startedAt;
+	private LocalDateTime finishedAt;
+}
@@ -0,0 +1,23 @@
+package com.csd.medicus.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+/**
+ * Outcome of applying (part of) a merge plan, by cluster index.
+ *
+ * - merged: clusters merged into their survivor; patientsMerged: duplicates soft-deleted
+ * - stale: clusters skipped because a member changed or was deleted since the scan
+ * - conflicts: clusters rolled back because a contact detail copied to the survivor is now used elsewhere
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MergeResultDto {
+	private String planId;
+	private List<Integer> merged;
+	private long patientsMerged;
+	private List<Integer> stale;
+	private List<Integer> conflicts;
+}
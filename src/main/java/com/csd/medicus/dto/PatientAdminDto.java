@@ -0,0 +1,24 @@
+package com.csd.medicus.dto;
+
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Admin listing row: the public fields plus creation and soft-delete state. Built by a JPQL
+ * constructor projection (see PatientRepository.PATIENT_ADMIN_DTO).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PatientAdminDto {
+	private Long id;
+	private Long version;
+	private String firstName;
+	private String lastName;
+	private String email;
+	private String phone;
+	private LocalDateTime createdAt;
+	private boolean deleted;
+	private LocalDateTime deletedAt;
+}
@@ -2,6 +2,12 @@ package com.csd.medicus.dto;
 
 import lombok.*;
 
+/**
+ * Public view of a patient. Read paths build it directly from JPQL constructor projections
+ * (see PatientRepository.PATIENT_DTO) instead of mapping managed entities. version is the value
+ * sent as the ETag. On input it is ignored, except by PATCH, which takes it as the expected version
+ * when there is no If-Match header or it is "*".
+ */
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -11,4 +17,9 @@ public class PatientDto {
 	private String lastName;
 	private String email;
 	private String phone;
+	private Long version;
+
+	public PatientDto(Long id, String firstName, String lastName, String email, String phone) {
+		this(id, firstName, lastName, email, phone, null);
+	}
 }
@@ -5,11 +5,23 @@ package com.csd.medicus.exception;
  * (for example, a patient with an email or phone that already exists).
  */
 public class DuplicateEntityException extends RuntimeException {
+    /** Name of the conflicting field (e.g. "email", "phone"), or null if unknown. */
+    private final String field;
+
     public DuplicateEntityException(String message) {
-        super(message);
+        this(null, message, null);
     }
 
     public DuplicateEntityException(String message, Throwable cause) {
+        this(null, message, cause);
+    }
+
+    public DuplicateEntityException(String field, String message, Throwable cause) {
         super(message, cause);
+        this.field = field;
+    }
+
+    public String getField() {
+        return field;
     }
 }
\ No newline at end of file
@@ -0,0 +1,24 @@
+package com.csd.medicus.maintenance;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Counters of the TombstonePurger: the last run (rows purged, chunks, wall time, time spent paused)
+ * and totals since startup. lastChunkLatencyMs and chunkSize show where the throttle currently sits;
+ * running is true while a run is in progress (the other fields then describe the previous run).
+ */
+public record TombstonePurgeStats(
+        boolean enabled,
+        boolean running,
+        Duration retention,
+        LocalDateTime lastRunStartedAt,
+        long lastRunPurged,
+        int lastRunBatches,
+        long lastRunDurationMs,
+        long lastRunPausedMs,
+        long lastChunkLatencyMs,
+        int chunkSize,
+        long totalRuns,
+        long totalPurged) {
+}
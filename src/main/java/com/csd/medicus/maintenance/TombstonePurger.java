@@ -0,0 +1,207 @@
+package com.csd.medicus.maintenance;
+
+import com.csd.medicus.repository.PatientRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Scheduled hard-delete of soft-deleted patients whose deletedAt is older than the retention age.
+ *
+ * Behavior:
+ * - Expired tombstones are found in id-ordered keyset chunks and removed with one
+ *   DELETE ... WHERE id IN (...) per chunk, each in its own short transaction, so locks are held
+ *   only for one chunk at a time.
+ * - The chunk size adapts to the observed statement latency (AIMD): a chunk slower than the target
+ *   halves the size (down to min-chunk-size) and pauses for as long as the chunk took; a fast chunk
+ *   grows the size by a quarter (up to chunk-size).
+ * - Purged rows were already excluded from every search structure, so nothing in memory changes.
+ * - At most one run at a time: a run that finds another in progress is skipped. Runs hold no lock
+ *   while pausing, and stats() reads a snapshot published when a run starts and ends, so it never waits
+ *   for a run. startPurge() hands a manual run to the application task executor.
+ *
+ * Configuration (medicus.purge.*): enabled, retention (default 30d), interval (ISO-8601, default PT1H),
+ * chunk-size (default 500), min-chunk-size (default 50), target-chunk-latency (default 200ms).
+ */
+@Component
+public class TombstonePurger {
+
+    private static final Logger log = LoggerFactory.getLogger(TombstonePurger.class);
+
+    private final PatientRepository repo;
+    private final TransactionTemplate tx;
+    private final TaskExecutor executor;
+    private final boolean enabled;
+    private final Duration retention;
+    private final int maxChunkSize;
+    private final int minChunkSize;
+    private final long targetLatencyNanos;
+    private final AtomicBoolean running = new AtomicBoolean();
+    private volatile TombstonePurgeStats snapshot;
+
+    // written only by the run holding the running flag
+    private int chunkSize;
+    private long lastChunkLatencyNanos;
+    private LocalDateTime lastRunStartedAt;
+    private long lastRunPurged;
+    private int lastRunBatches;
+    private long lastRunNanos;
+    private long lastRunPausedNanos;
+    private long totalRuns;
+    private long totalPurged;
+
+    public TombstonePurger(PatientRepository repo,
+                           PlatformTransactionManager transactionManager,
+                           @Qualifier("applicationTaskExecutor") TaskExecutor executor,
+                           @Value("${medicus.purge.enabled:true}") boolean enabled,
+                           @Value("${medicus.purge.retention:30d}") Duration retention,
+                           @Value("${medicus.purge.chunk-size:500}") int maxChunkSize,
+                           @Value("${medicus.purge.min-chunk-size:50}") int minChunkSize,
+                           @Value("${medicus.purge.target-chunk-latency:200ms}") Duration targetChunkLatency) {
+        if (minChunkSize < 1 || maxChunkSize < minChunkSize) {
+            throw new IllegalArgumentException("Require 1 <= min-chunk-size <= chunk-size");
+        }
+        this.repo = repo;
+        this.tx = new TransactionTemplate(transactionManager);
+        this.executor = executor;
+        this.enabled = enabled;
+        this.retention = retention;
+        this.maxChunkSize = maxChunkSize;
+        this.minChunkSize = minChunkSize;
+        this.targetLatencyNanos = targetChunkLatency.toNanos();
+        this.chunkSize = maxChunkSize;
+        publish(false);
+    }
+
+    @Scheduled(fixedDelayString = "${medicus.purge.interval:PT1H}", initialDelayString = "${medicus.purge.initial-delay:PT5M}")
+    public void scheduledPurge() {
+        if (enabled) {
+            purgeExpired();
+        }
+    }
+
+    /**
+     * Start a purge run on the task executor.
+     *
+     * @return false if a run is already in progress (nothing is started)
+     */
+    public boolean startPurge() {
+        if (!running.compareAndSet(false, true)) {
+            return false;
+        }
+        try {
+            executor.execute(this::runAndRelease);
+        } catch (RuntimeException e) {
+            running.set(false);
+            throw e;
+        }
+        return true;
+    }
+
+    /**
+     * Purge every tombstone older than the retention age now, in the calling thread. Skipped if
+     * another run is in progress.
+     *
+     * @return stats after the run, or the current stats if it was skipped
+     */
+    public TombstonePurgeStats purgeExpired() {
+        if (!running.compareAndSet(false, true)) {
+            return snapshot;
+        }
+        return runAndRelease();
+    }
+
+    private TombstonePurgeStats runAndRelease() {
+        try {
+            publish(true);
+            run();
+        } finally {
+            // publish before releasing, so a run starting next cannot be overwritten by this snapshot
+            publish(false);
+            running.set(false);
+        }
+        return snapshot;
+    }
+
+    private void run() {
+        LocalDateTime started = LocalDateTime.now();
+        LocalDateTime cutoff = started.minus(retention);
+        long startNanos = System.nanoTime();
+        long pausedNanos = 0;
+        long purged = 0;
+        int batches = 0;
+
+        long afterId = 0L;
+        List<Long> ids;
+        do {
+            int size = chunkSize;
+            ids = repo.findDeletedIdsBefore(cutoff, afterId, PageRequest.of(0, size));
+            if (ids.isEmpty()) {
+                break;
+            }
+            List<Long> chunk = ids;
+            long t0 = System.nanoTime();
+            Integer deleted = tx.execute(status -> repo.purgeDeletedByIds(chunk));
+            long latency = System.nanoTime() - t0;
+
+            purged += deleted == null ? 0 : deleted;
+            batches++;
+            afterId = ids.get(ids.size() - 1);
+            lastChunkLatencyNanos = latency;
+            pausedNanos += throttle(latency);
+            if (ids.size() < size) {
+                break;
+            }
+        } while (!Thread.currentThread().isInterrupted());
+
+        lastRunStartedAt = started;
+        lastRunPurged = purged;
+        lastRunBatches = batches;
+        lastRunNanos = System.nanoTime() - startNanos;
+        lastRunPausedNanos = pausedNanos;
+        totalRuns++;
+        totalPurged += purged;
+        if (purged > 0) {
+            log.info("Purged {} patient tombstones older than {} in {} chunks, {} ms ({} ms paused)",
+                    purged, cutoff, batches, lastRunNanos / 1_000_000, pausedNanos / 1_000_000);
+        }
+    }
+
+    public TombstonePurgeStats stats() {
+        return snapshot;
+    }
+
+    private void publish(boolean inProgress) {
+        snapshot = new TombstonePurgeStats(enabled, inProgress, retention, lastRunStartedAt, lastRunPurged,
+                lastRunBatches, lastRunNanos / 1_000_000, lastRunPausedNanos / 1_000_000,
+                lastChunkLatencyNanos / 1_000_000, chunkSize, totalRuns, totalPurged);
+    }
+
+    // Adjust the chunk size to the last chunk's latency; returns the time spent pausing.
+    private long throttle(long latencyNanos) {
+        if (latencyNanos <= targetLatencyNanos) {
+            chunkSize = Math.min(maxChunkSize, chunkSize + Math.max(1, chunkSize / 4));
+            return 0;
+        }
+        chunkSize = Math.max(minChunkSize, chunkSize / 2);
+        long pauseNanos = latencyNanos;
+        try {
+            Thread.sleep(pauseNanos / 1_000_000, (int) (pauseNanos % 1_000_000));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return pauseNanos;
+    }
+}
@@ -7,7 +7,7 @@ public class PatientMapper {
 	public static PatientDto toDto(Patient p) {
 		if (p == null)
 			return null;
-		return new PatientDto(p.getId(), p.getFirstName(), p.getLastName(), p.getEmail(), p.getPhone());
+		return new PatientDto(p.getId(), p.getFirstName(), p.getLastName(), p.getEmail(), p.getPhone(), p.getVersion());
 	}
 
 	public static Patient toEntity(PatientDto d) {
@@ -2,17 +2,48 @@ package com.csd.medicus.model;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.DynamicUpdate;
+import com.csd.medicus.util.PhoneticEncoder;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "patients")
+@Table(name = "patients", indexes = {
+		@Index(name = "idx_patients_first_name_phonetic", columnList = "first_name_phonetic"),
+		@Index(name = "idx_patients_last_name_phonetic", columnList = "last_name_phonetic"),
+		@Index(name = "idx_patients_phone_reversed", columnList = "phone_reversed"),
+		@Index(name = "idx_patients_email_key", columnList = "email_key"),
+		@Index(name = "idx_patients_phone_key", columnList = "phone_key"),
+		@Index(name = "idx_patients_is_deleted_id", columnList = "is_deleted, id")
+}, uniqueConstraints = {
+		@UniqueConstraint(name = Patient.UK_ACTIVE_EMAIL, columnNames = "active_email"),
+		@UniqueConstraint(name = Patient.UK_ACTIVE_PHONE, columnNames = "active_phone")
+})
+@DynamicUpdate // UPDATE statements list only the changed columns (plus the version)
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Patient {
+	public static final int ID_ALLOCATION_SIZE = 50;
+	public static final String UK_ACTIVE_EMAIL = "uk_patients_active_email";
+	public static final String UK_ACTIVE_PHONE = "uk_patients_active_phone";
+
+	/**
+	 * Ids come from a pooled sequence (one round trip per ID_ALLOCATION_SIZE inserts) rather than
+	 * IDENTITY, so Hibernate can batch INSERTs (see hibernate.jdbc.batch_size).
+	 */
 	@Id
-	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	@GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "patient_seq")
+	@SequenceGenerator(name = "patient_seq", sequenceName = "patient_seq", allocationSize = Patient.ID_ALLOCATION_SIZE)
 	private Long id;
+
+	/**
+	 * Optimistic-lock version, incremented on every update (set-based bulk updates bump it explicitly).
+	 * Exposed to HTTP clients as the strong ETag of the patient resource. Primitive so that new vs
+	 * existing is still decided by the id.
+	 */
+	@Version
+	private long version;
+
 	private String firstName;
 	private String lastName;
 	private String email;
@@ -25,6 +56,57 @@ public class Patient {
 	 */
 	private boolean isDeleted = false;
 
+	/**
+	 * When the patient was soft-deleted; null while active. Used by retention/purge predicates.
+	 */
+	private LocalDateTime deletedAt;
+
+	/**
+	 * Derived lookup keys (see PatientSearchKeys), maintained by PatientServiceImpl on every write:
+	 * Metaphone keys of firstName/lastName for sounds-like lookups and the reversed phone digits
+	 * for last-N-digit lookups.
+	 */
+	@Column(name = "first_name_phonetic", length = PhoneticEncoder.MAX_KEY_LENGTH)
+	private String firstNamePhonetic;
+
+	@Column(name = "last_name_phonetic", length = PhoneticEncoder.MAX_KEY_LENGTH)
+	private String lastNamePhonetic;
+
+	@Column(name = "phone_reversed", length = 16)
+	private String phoneReversed;
+
+	/**
+	 * 64-bit key of the canonical email (see EmailCanonicalizer), so "john.doe+clinic@gmail.com" and
+	 * "johndoe@gmail.com" meet in one indexed equality lookup. Not unique: keys can collide.
+	 */
+	@Column(name = "email_key")
+	private Long emailKey;
+
+	/**
+	 * The phone as a packed E.164 number (see PhoneNormalizer.pack), for equality lookups on a BIGINT
+	 * index instead of string comparisons; null without a phone. The phone string is kept for display.
+	 */
+	@Column(name = "phone_key")
+	private Long phoneKey;
+
+	/**
+	 * Copies of email/phone that are null while the patient is soft-deleted. The unique constraints on
+	 * these columns enforce "no two active patients share an email/phone" in the database (NULLs never
+	 * collide). Kept in sync by {@link #syncActiveKeys()} on every insert/update.
+	 */
+	@Column(name = "active_email")
+	private String activeEmail;
+
+	@Column(name = "active_phone")
+	private String activePhone;
+
+	@PrePersist
+	@PreUpdate
+	public void syncActiveKeys() {
+		this.activeEmail = isDeleted ? null : email;
+		this.activePhone = isDeleted ? null : phone;
+	}
+
 	// convenience constructor used in tests and elsewhere
 	public Patient(Long id, String firstName, String lastName, String email, String phone, LocalDateTime createdAt) {
 		this.id = id;
@@ -2,11 +2,21 @@ package com.csd.medicus.repository;
 
 import com.csd.medicus.model.Appointment;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 
 public interface AppointmentRepository extends JpaRepository<Appointment, Long> {
 	List<Appointment> findByDoctorIdAndAppointmentDateBetween(Long doctorId, LocalDate start, LocalDate end);
 
 	List<Appointment> findByAppointmentDateBetween(LocalDate start, LocalDate end);
+
+	// Duplicate merge: move the appointments of merged patients to the surviving patient
+	@Modifying(flushAutomatically = true)
+	@Query("UPDATE Appointment a SET a.patientId = :to WHERE a.patientId IN :from")
+	int reassignPatient(@Param("from") Collection<Long> from, @Param("to") Long to);
 }
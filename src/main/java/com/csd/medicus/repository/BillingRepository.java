@@ -2,6 +2,15 @@ package com.csd.medicus.repository;
 
 import com.csd.medicus.model.Billing;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
 
 public interface BillingRepository extends JpaRepository<Billing, Long> {
+	// Duplicate merge: move the bills of merged patients to the surviving patient
+	@Modifying(flushAutomatically = true)
+	@Query("UPDATE Billing b SET b.patientId = :to WHERE b.patientId IN :from")
+	int reassignPatient(@Param("from") Collection<Long> from, @Param("to") Long to);
 }
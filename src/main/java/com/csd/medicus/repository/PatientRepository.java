@@ -1,28 +1,147 @@
 package com.csd.medicus.repository;
 
+import com.csd.medicus.dto.PatientAdminDto;
+import com.csd.medicus.dto.PatientDto;
 import com.csd.medicus.model.Patient;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
 
 public interface PatientRepository extends JpaRepository<Patient, Long> {
-	@Query("SELECT p FROM Patient p WHERE p.isDeleted = false AND (LOWER(p.firstName) LIKE LOWER(CONCAT('%', :query, '%')) OR LOWER(p.phone) LIKE LOWER(CONCAT('%', :query, '%')))")
-	Page<Patient> searchPatients(@Param("query") String query, Pageable pageable);
+	// JDBC fetch size for the streaming export queries below.
+	int EXPORT_FETCH_SIZE = 500;
+
+	// Constructor projections for the read paths: only the selected columns are fetched and no entity is
+	// hydrated (no persistence-context entry, dirty-checking snapshot or field initializers).
+	String PATIENT_DTO = "new com.csd.medicus.dto.PatientDto(p.id, p.firstName, p.lastName, p.email, p.phone, p.version)";
+	String PATIENT_ADMIN_DTO = "new com.csd.medicus.dto.PatientAdminDto(p.id, p.version, p.firstName, p.lastName, "
+			+ "p.email, p.phone, p.createdAt, p.isDeleted, p.deletedAt)";
+
+	String SEARCH_WHERE = "p.isDeleted = false AND (LOWER(p.firstName) LIKE LOWER(CONCAT('%', :query, '%')) OR LOWER(p.phone) LIKE LOWER(CONCAT('%', :query, '%')))";
+
+	@Query(value = "SELECT " + PATIENT_DTO + " FROM Patient p WHERE " + SEARCH_WHERE,
+			countQuery = "SELECT COUNT(p) FROM Patient p WHERE " + SEARCH_WHERE)
+	Page<PatientDto> searchPatients(@Param("query") String query, Pageable pageable);
+
+	// Keyset variant of searchPatients: rows after the given id, in id order, without a count query.
+	@Query("SELECT " + PATIENT_DTO + " FROM Patient p WHERE p.id > :afterId AND " + SEARCH_WHERE + " ORDER BY p.id")
+	Slice<PatientDto> searchPatientsAfter(@Param("query") String query, @Param("afterId") Long afterId, Pageable pageable);
+
+	// Phonetic (sounds-like) name search: equality probes on the indexed Metaphone key columns.
+	@Query(value = "SELECT " + PATIENT_DTO + " FROM Patient p WHERE p.isDeleted = false AND (p.firstNamePhonetic = :key OR p.lastNamePhonetic = :key)",
+			countQuery = "SELECT COUNT(p) FROM Patient p WHERE p.isDeleted = false AND (p.firstNamePhonetic = :key OR p.lastNamePhonetic = :key)")
+	Page<PatientDto> searchByPhoneticKey(@Param("key") String key, Pageable pageable);
 
-	// Existence checks used by earlier duplicate-detection feature (they should
-	// consider only non-deleted)
-	boolean existsByEmailAndIsDeletedFalse(String email);
+	// Phone suffix search: prefix range [from, to) on the indexed reversed-digits column.
+	@Query(value = "SELECT " + PATIENT_DTO + " FROM Patient p WHERE p.isDeleted = false AND p.phoneReversed >= :from AND p.phoneReversed < :to",
+			countQuery = "SELECT COUNT(p) FROM Patient p WHERE p.isDeleted = false AND p.phoneReversed >= :from AND p.phoneReversed < :to")
+	Page<PatientDto> searchByPhoneReversedRange(@Param("from") String from, @Param("to") String to, Pageable pageable);
 
-	boolean existsByPhoneAndIsDeletedFalse(String phone);
+	// Active patients among the given ids (trigram index hits), in no particular order.
+	@Query("SELECT " + PATIENT_DTO + " FROM Patient p WHERE p.id IN :ids AND p.isDeleted = false")
+	List<PatientDto> findActiveDtosByIdIn(@Param("ids") Collection<Long> ids);
 
-	boolean existsByEmailOrPhoneAndIsDeletedFalse(String email, String phone);
+	@Query("SELECT " + PATIENT_DTO + " FROM Patient p WHERE p.id = :id AND p.isDeleted = false")
+	java.util.Optional<PatientDto> findDtoByIdAndNotDeleted(@Param("id") Long id);
+
+	// Admin listing, optionally including soft-deleted rows.
+	@Query(value = "SELECT " + PATIENT_ADMIN_DTO + " FROM Patient p WHERE (:includeDeleted = true OR p.isDeleted = false)",
+			countQuery = "SELECT COUNT(p) FROM Patient p WHERE (:includeDeleted = true OR p.isDeleted = false)")
+	Page<PatientAdminDto> findAdminDtos(@Param("includeDeleted") boolean includeDeleted, Pageable pageable);
+
+	// Set-based duplicate checks for bulk create: which of the given values are already used by active patients.
+	// Packed phones (see PhoneNormalizer.pack) of active patients among the given ones: BIGINT equality on the phone_key index
+	@Query("SELECT p.phoneKey FROM Patient p WHERE p.isDeleted = false AND p.phoneKey IN :keys")
+	List<Long> findActivePhoneKeysIn(@Param("keys") Collection<Long> keys);
+
+	// Equivalent-email probes on the indexed canonical email key; keys can collide, so callers compare
+	// the canonical forms of the returned emails (see EmailCanonicalizer)
+	@Query("SELECT p.email FROM Patient p WHERE p.isDeleted = false AND p.emailKey = :key AND p.id <> :excludeId")
+	List<String> findActiveEmailsByEmailKey(@Param("key") Long key, @Param("excludeId") Long excludeId);
+
+	@Query("SELECT p.email FROM Patient p WHERE p.isDeleted = false AND p.emailKey IN :keys")
+	List<String> findActiveEmailsByEmailKeyIn(@Param("keys") Collection<Long> keys);
+
+	@Query("SELECT " + PATIENT_DTO + " FROM Patient p WHERE p.isDeleted = false AND p.emailKey = :key ORDER BY p.id")
+	List<PatientDto> findActiveDtosByEmailKey(@Param("key") Long key);
 
 	// Override findById semantics are not possible via method signature; callers
 	// must respect soft-delete.
 	// Provide a helper finder that excludes deleted rows:
 	@Query("SELECT p FROM Patient p WHERE p.id = :id AND p.isDeleted = false")
 	java.util.Optional<Patient> findByIdAndNotDeleted(@Param("id") Long id);
+
+	// Version of an active patient without loading the row (conditional GET / If-Match checks)
+	@Query("SELECT p.version FROM Patient p WHERE p.id = :id AND p.isDeleted = false")
+	java.util.Optional<Long> findVersionByIdAndNotDeleted(@Param("id") Long id);
+
+	// Paged listing of active patients; the soft-delete restriction runs in the query (served by
+	// idx_patients_is_deleted_id) instead of loading tombstones and filtering them in memory.
+	// Admin listings use the findAdminDtos projection instead.
+	Page<Patient> findByIsDeletedFalse(Pageable pageable);
+
+	// Keyset (id-ordered) chunk of active patients; used to warm the in-memory indexes
+	// without OFFSET scans.
+	Slice<Patient> findByIdGreaterThanAndIsDeletedFalseOrderByIdAsc(Long afterId, Pageable pageable);
+
+	// Keyset chunk of active patients as DTOs (duplicate scan)
+	@Query("SELECT " + PATIENT_DTO + " FROM Patient p WHERE p.isDeleted = false AND p.id > :afterId ORDER BY p.id")
+	List<PatientDto> findActiveDtosAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+	// Streaming exports: rows are pulled from a JDBC cursor in fetch-size batches and loaded read-only
+	// (no dirty-checking snapshots). Must be consumed inside a transaction and closed.
+	@QueryHints({
+			@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + EXPORT_FETCH_SIZE),
+			@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true") })
+	@Query("SELECT p FROM Patient p WHERE (:includeDeleted = true OR p.isDeleted = false) ORDER BY p.id")
+	Stream<Patient> streamAll(@Param("includeDeleted") boolean includeDeleted);
+
+	@QueryHints({
+			@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + EXPORT_FETCH_SIZE),
+			@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true") })
+	@Query("SELECT p FROM Patient p WHERE p.isDeleted = false AND (LOWER(p.firstName) LIKE LOWER(CONCAT('%', :query, '%')) OR LOWER(p.phone) LIKE LOWER(CONCAT('%', :query, '%'))) ORDER BY p.id")
+	Stream<Patient> streamSearch(@Param("query") String query);
+
+	// Set-based admin operations on one chunk of ids (see PatientBulkAdminService). They bypass entity
+	// callbacks, so they maintain deletedAt and the unique active email/phone columns themselves.
+	@Modifying(flushAutomatically = true, clearAutomatically = true)
+	@Query("UPDATE Patient p SET p.version = p.version + 1, p.isDeleted = true, p.deletedAt = :now, p.activeEmail = null, p.activePhone = null WHERE p.id IN :ids AND p.isDeleted = false")
+	int softDeleteByIds(@Param("ids") Collection<Long> ids, @Param("now") LocalDateTime now);
+
+	@Modifying(flushAutomatically = true, clearAutomatically = true)
+	@Query("UPDATE Patient p SET p.version = p.version + 1, p.isDeleted = false, p.deletedAt = null, p.activeEmail = p.email, p.activePhone = p.phone WHERE p.id IN :ids AND p.isDeleted = true")
+	int restoreByIds(@Param("ids") Collection<Long> ids);
+
+	@Modifying(flushAutomatically = true, clearAutomatically = true)
+	@Query("DELETE FROM Patient p WHERE p.id IN :ids AND p.isDeleted = true")
+	int purgeDeletedByIds(@Param("ids") Collection<Long> ids);
+
+	// Keyset chunk of soft-deleted ids with deletedAt in [from, to)
+	@Query("SELECT p.id FROM Patient p WHERE p.isDeleted = true AND p.deletedAt >= :from AND p.deletedAt < :to AND p.id > :afterId ORDER BY p.id")
+	List<Long> findDeletedIdsBetween(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to,
+			@Param("afterId") Long afterId, Pageable pageable);
+
+	// Keyset chunk of soft-deleted ids whose deletedAt is older than the cutoff (tombstone purge)
+	@Query("SELECT p.id FROM Patient p WHERE p.isDeleted = true AND p.deletedAt < :cutoff AND p.id > :afterId ORDER BY p.id")
+	List<Long> findDeletedIdsBefore(@Param("cutoff") LocalDateTime cutoff, @Param("afterId") Long afterId, Pageable pageable);
+
+	// Tombstones written before deletedAt existed start their retention clock now
+	@Transactional
+	@Modifying
+	@Query("UPDATE Patient p SET p.deletedAt = :now WHERE p.isDeleted = true AND p.deletedAt IS NULL")
+	int backfillDeletedAt(@Param("now") LocalDateTime now);
 }
@@ -0,0 +1,30 @@
+package com.csd.medicus.search;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
+
+import java.util.List;
+
+/**
+ * Slice of a keyset (id-ordered) search that also carries the id the next slice continues after.
+ *
+ * That id is the last one scanned, not necessarily the last one returned: matches from the in-memory
+ * index that were deleted since they were indexed are scanned but dropped from the content, and a slice
+ * made only of such ids is empty yet still has a next slice.
+ */
+public class KeysetSlice<T> extends SliceImpl<T> {
+
+    private final Long lastScannedId;
+
+    public KeysetSlice(List<T> content, Pageable pageable, boolean hasNext, Long lastScannedId) {
+        super(content, pageable, hasNext);
+        this.lastScannedId = lastScannedId;
+    }
+
+    /**
+     * Id to pass as "after" for the next slice, or null if nothing was scanned.
+     */
+    public Long getLastScannedId() {
+        return lastScannedId;
+    }
+}
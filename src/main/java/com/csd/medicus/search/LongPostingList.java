@@ -0,0 +1,103 @@
+package com.csd.medicus.search;
+
+import java.util.Arrays;
+
+/**
+ * Sorted, duplicate-free list of primitive long ids used as a posting list by the in-memory indexes.
+ *
+ * Behavior:
+ * - Ids are kept in ascending order in a growable long[] (no boxing, ~8 bytes per entry).
+ * - Appending an id larger than the current maximum is O(1) amortized, which is the common case
+ *   because patient ids are generated in increasing order.
+ * - Not thread-safe; callers guard access with their own lock.
+ */
+final class LongPostingList {
+
+    private static final int INITIAL_CAPACITY = 4;
+
+    private long[] ids = new long[INITIAL_CAPACITY];
+    private int size;
+
+    /**
+     * Add an id, keeping the list sorted. Returns false if the id was already present.
+     */
+    boolean add(long id) {
+        if (size == 0 || ids[size - 1] < id) {
+            ensureCapacity(size + 1);
+            ids[size++] = id;
+            return true;
+        }
+        int pos = Arrays.binarySearch(ids, 0, size, id);
+        if (pos >= 0) {
+            return false;
+        }
+        int insertAt = -(pos + 1);
+        ensureCapacity(size + 1);
+        System.arraycopy(ids, insertAt, ids, insertAt + 1, size - insertAt);
+        ids[insertAt] = id;
+        size++;
+        return true;
+    }
+
+    /**
+     * Remove an id. Returns false if the id was not present.
+     */
+    boolean remove(long id) {
+        int pos = Arrays.binarySearch(ids, 0, size, id);
+        if (pos < 0) {
+            return false;
+        }
+        System.arraycopy(ids, pos + 1, ids, pos, size - pos - 1);
+        size--;
+        return true;
+    }
+
+    boolean contains(long id) {
+        return Arrays.binarySearch(ids, 0, size, id) >= 0;
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Copy of the ids in ascending order.
+     */
+    long[] toArray() {
+        return Arrays.copyOf(ids, size);
+    }
+
+    /**
+     * Intersect a sorted id array with this list, returning a new sorted array.
+     */
+    long[] retainAll(long[] sorted) {
+        long[] out = new long[Math.min(sorted.length, size)];
+        int n = 0;
+        int i = 0;
+        int j = 0;
+        while (i < sorted.length && j < size) {
+            long a = sorted[i];
+            long b = ids[j];
+            if (a == b) {
+                out[n++] = a;
+                i++;
+                j++;
+            } else if (a < b) {
+                i++;
+            } else {
+                j++;
+            }
+        }
+        return n == out.length ? out : Arrays.copyOf(out, n);
+    }
+
+    private void ensureCapacity(int required) {
+        if (required > ids.length) {
+            ids = Arrays.copyOf(ids, Math.max(required, ids.length + (ids.length >> 1)));
+        }
+    }
+}
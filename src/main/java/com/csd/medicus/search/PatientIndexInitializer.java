@@ -0,0 +1,115 @@
+package com.csd.medicus.search;
+
+import com.csd.medicus.dedup.PatientContactFilter;
+import com.csd.medicus.model.Patient;
+import com.csd.medicus.repository.PatientRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Loads the in-memory patient indexes (and the duplicate-check contact filter) from the repository once the application is ready.
+ *
+ * Active patients are read in id-ordered keyset chunks so the load never issues OFFSET queries.
+ * Until loading completes the indexes report not-ready and PatientServiceImpl keeps using the
+ * repository queries.
+ *
+ * The same pass back-fills derived lookup keys (PatientSearchKeys) for rows written before those
+ * columns existed, and stamps deletedAt on older soft-deleted rows. A legacy row whose email/phone
+ * collides with another active row is logged and skipped; the rest of its chunk is still back-filled.
+ */
+@Component
+public class PatientIndexInitializer {
+
+    private static final Logger log = LoggerFactory.getLogger(PatientIndexInitializer.class);
+    private static final int CHUNK_SIZE = 1000;
+
+    private final PatientRepository repo;
+    private final PatientTrigramIndex trigramIndex;
+    private final PatientNameTrie nameTrie;
+    private final PatientContactFilter contactFilter;
+
+    public PatientIndexInitializer(PatientRepository repo, PatientTrigramIndex trigramIndex, PatientNameTrie nameTrie,
+                                   PatientContactFilter contactFilter) {
+        this.repo = repo;
+        this.trigramIndex = trigramIndex;
+        this.nameTrie = nameTrie;
+        this.contactFilter = contactFilter;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        rebuild();
+    }
+
+    /**
+     * Clear and reload every index from the active rows in the database.
+     */
+    public void rebuild() {
+        long start = System.nanoTime();
+        trigramIndex.clear();
+        nameTrie.clear();
+        contactFilter.clear();
+
+        long afterId = 0L;
+        long loaded = 0;
+        Slice<Patient> chunk;
+        do {
+            chunk = repo.findByIdGreaterThanAndIsDeletedFalseOrderByIdAsc(afterId, PageRequest.of(0, CHUNK_SIZE));
+            List<Patient> staleKeys = new ArrayList<>();
+            for (Patient p : chunk.getContent()) {
+                trigramIndex.index(p);
+                nameTrie.index(p);
+                contactFilter.add(p.getEmail(), p.getPhone());
+                if (PatientSearchKeys.isStale(p)) {
+                    PatientSearchKeys.refresh(p);
+                    staleKeys.add(p);
+                }
+                afterId = p.getId();
+                loaded++;
+            }
+            if (!staleKeys.isEmpty()) {
+                backfill(staleKeys);
+            }
+        } while (chunk.hasNext());
+
+        int backfilled = repo.backfillDeletedAt(LocalDateTime.now());
+        if (backfilled > 0) {
+            log.info("Stamped deletedAt on {} soft-deleted patients written before the column existed", backfilled);
+        }
+
+        trigramIndex.markReady();
+        nameTrie.markReady();
+        contactFilter.markReady();
+        log.info("Loaded {} active patients into search indexes in {} ms", loaded, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    // One transaction for the chunk; if a row collides, the chunk is rolled back and retried row by row
+    // (each save is its own transaction), so only the colliding rows are left without keys.
+    private void backfill(List<Patient> staleKeys) {
+        try {
+            repo.saveAll(staleKeys);
+            return;
+        } catch (DataIntegrityViolationException e) {
+            log.debug("Back-filling lookup keys chunk-wise failed, retrying {} patients one by one", staleKeys.size());
+        }
+        for (Patient p : staleKeys) {
+            try {
+                repo.save(p);
+            } catch (DataIntegrityViolationException e) {
+                // legacy rows sharing an email/phone cannot take the unique active keys until merged
+                log.warn("Could not back-fill lookup keys for patient {}: {}", p.getId(),
+                        e.getMostSpecificCause().getMessage());
+            }
+        }
+    }
+}
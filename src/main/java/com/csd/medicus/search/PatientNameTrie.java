@@ -0,0 +1,282 @@
+package com.csd.medicus.search;
+
+import com.csd.medicus.model.Patient;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory prefix trie over the first and last names of active patients, used for type-ahead.
+ *
+ * Behavior:
+ * - Each distinct name (case-insensitive) is a terminal node counting how many active patients carry it.
+ * - Every node keeps its top-K most frequent names (ties broken alphabetically), so a suggestion
+ *   lookup is a walk down the prefix plus a copy of at most K names: O(prefix length + K).
+ * - Children are stored in sorted char[]/Node[] arrays rather than maps to keep nodes compact.
+ * - After a single write only the nodes on the affected name's path are re-ranked. During the
+ *   initial load ranking is skipped and done once, bottom-up, by {@link #markReady()}.
+ *
+ * Configuration: medicus.autocomplete.max-suggestions (K, default 10).
+ *
+ * Thread-safety: reads and writes are guarded by a read/write lock.
+ */
+@Component
+public class PatientNameTrie {
+
+    private static final char[] NO_KEYS = new char[0];
+    private static final Node[] NO_NODES = new Node[0];
+    private static final Comparator<Node> RANKING =
+            Comparator.comparingInt((Node n) -> -n.count).thenComparing(n -> n.display, String.CASE_INSENSITIVE_ORDER);
+
+    private final int maxSuggestions;
+    private final Node root = new Node();
+    /** Names currently contributed by each patient, so updates can retract the old ones. */
+    private final Map<Long, String[]> namesById = new HashMap<>();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private volatile boolean ready;
+
+    private static final class Node {
+        char[] keys = NO_KEYS;
+        Node[] children = NO_NODES;
+        int count;
+        String display;
+        Node[] top = NO_NODES;
+
+        Node child(char c) {
+            int i = Arrays.binarySearch(keys, c);
+            return i >= 0 ? children[i] : null;
+        }
+
+        Node childOrCreate(char c) {
+            int i = Arrays.binarySearch(keys, c);
+            if (i >= 0) {
+                return children[i];
+            }
+            int at = -(i + 1);
+            Node n = new Node();
+            char[] k = new char[keys.length + 1];
+            Node[] ch = new Node[children.length + 1];
+            System.arraycopy(keys, 0, k, 0, at);
+            System.arraycopy(children, 0, ch, 0, at);
+            k[at] = c;
+            ch[at] = n;
+            System.arraycopy(keys, at, k, at + 1, keys.length - at);
+            System.arraycopy(children, at, ch, at + 1, children.length - at);
+            keys = k;
+            children = ch;
+            return n;
+        }
+
+        void removeChild(char c) {
+            int i = Arrays.binarySearch(keys, c);
+            if (i < 0) {
+                return;
+            }
+            char[] k = new char[keys.length - 1];
+            Node[] ch = new Node[children.length - 1];
+            System.arraycopy(keys, 0, k, 0, i);
+            System.arraycopy(children, 0, ch, 0, i);
+            System.arraycopy(keys, i + 1, k, i, keys.length - i - 1);
+            System.arraycopy(children, i + 1, ch, i, children.length - i - 1);
+            keys = k.length == 0 ? NO_KEYS : k;
+            children = ch.length == 0 ? NO_NODES : ch;
+        }
+
+        boolean isEmpty() {
+            return count == 0 && keys.length == 0;
+        }
+    }
+
+    public PatientNameTrie(@Value("${medicus.autocomplete.max-suggestions:10}") int maxSuggestions) {
+        if (maxSuggestions < 1) {
+            throw new IllegalArgumentException("maxSuggestions must be positive");
+        }
+        this.maxSuggestions = maxSuggestions;
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Rank every node bottom-up and start serving suggestions.
+     */
+    public void markReady() {
+        lock.writeLock().lock();
+        try {
+            rankSubtree(root);
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            ready = false;
+            namesById.clear();
+            root.keys = NO_KEYS;
+            root.children = NO_NODES;
+            root.top = NO_NODES;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Add or replace the names contributed by a patient. Soft-deleted patients are removed.
+     */
+    public void index(Patient p) {
+        if (p == null || p.getId() == null) {
+            return;
+        }
+        if (p.isDeleted()) {
+            remove(p.getId());
+            return;
+        }
+        String[] names = {clean(p.getFirstName()), clean(p.getLastName())};
+        lock.writeLock().lock();
+        try {
+            String[] previous = namesById.put(p.getId(), names);
+            if (previous != null) {
+                for (String name : previous) {
+                    adjust(name, -1);
+                }
+            }
+            for (String name : names) {
+                adjust(name, +1);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long id) {
+        if (id == null) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            String[] previous = namesById.remove(id);
+            if (previous != null) {
+                for (String name : previous) {
+                    adjust(name, -1);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Most frequent names starting with the prefix (case-insensitive), at most min(limit, K).
+     */
+    public List<String> suggest(String prefix, int limit) {
+        if (prefix == null || limit < 1) {
+            return List.of();
+        }
+        String key = prefix.toLowerCase(Locale.ROOT);
+        lock.readLock().lock();
+        try {
+            Node node = root;
+            for (int i = 0; i < key.length() && node != null; i++) {
+                node = node.child(key.charAt(i));
+            }
+            if (node == null) {
+                return List.of();
+            }
+            int n = Math.min(limit, node.top.length);
+            List<String> out = new ArrayList<>(n);
+            for (int i = 0; i < n; i++) {
+                out.add(node.top[i].display);
+            }
+            return out;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Change the count of one name and, once ready, re-rank the nodes on its path.
+    private void adjust(String name, int delta) {
+        if (name == null) {
+            return;
+        }
+        String key = name.toLowerCase(Locale.ROOT);
+        Node[] path = new Node[key.length() + 1];
+        path[0] = root;
+        Node node = root;
+        for (int i = 0; i < key.length(); i++) {
+            node = delta > 0 ? node.childOrCreate(key.charAt(i)) : node.child(key.charAt(i));
+            if (node == null) {
+                return;
+            }
+            path[i + 1] = node;
+        }
+
+        node.count = Math.max(0, node.count + delta);
+        if (node.count == 0) {
+            node.display = null;
+        } else if (node.display == null) {
+            node.display = name;
+        }
+
+        for (int i = key.length(); i >= 0; i--) {
+            Node n = path[i];
+            if (i > 0 && n.isEmpty()) {
+                path[i - 1].removeChild(key.charAt(i - 1));
+                continue;
+            }
+            if (ready) {
+                rank(n);
+            }
+        }
+    }
+
+    private void rankSubtree(Node node) {
+        for (Node child : node.children) {
+            rankSubtree(child);
+        }
+        rank(node);
+    }
+
+    // top(node) = best K of {node itself if it is a name} U top(child) for every child
+    private void rank(Node node) {
+        int capacity = node.count > 0 ? 1 : 0;
+        for (Node child : node.children) {
+            capacity += child.top.length;
+        }
+        if (capacity == 0) {
+            node.top = NO_NODES;
+            return;
+        }
+        Node[] candidates = new Node[capacity];
+        int n = 0;
+        if (node.count > 0) {
+            candidates[n++] = node;
+        }
+        for (Node child : node.children) {
+            System.arraycopy(child.top, 0, candidates, n, child.top.length);
+            n += child.top.length;
+        }
+        Arrays.sort(candidates, RANKING);
+        node.top = candidates.length <= maxSuggestions ? candidates : Arrays.copyOf(candidates, maxSuggestions);
+    }
+
+    private static String clean(String name) {
+        if (name == null) {
+            return null;
+        }
+        String trimmed = name.trim();
+        return trimmed.isEmpty() ? null : trimmed;
+    }
+}
@@ -0,0 +1,77 @@
+package com.csd.medicus.search;
+
+import com.csd.medicus.model.Patient;
+import com.csd.medicus.util.EmailCanonicalizer;
+import com.csd.medicus.util.PhoneNormalizer;
+import com.csd.medicus.util.PhoneticEncoder;
+
+import java.util.Objects;
+
+/**
+ * Derived, indexed lookup columns of a patient that must be recomputed whenever the source fields change.
+ *
+ * Keys:
+ * - activeEmail / activePhone: email/phone while the patient is active (unique-constrained, see Patient).
+ * - firstNamePhonetic / lastNamePhonetic: Metaphone keys of the names (see PhoneticEncoder).
+ * - phoneReversed: the phone's digits in reverse order, so "last N digits" lookups become prefix
+ *   range scans on an index (e.g. "+919876543210" -> "012345678919").
+ * - emailKey: hash of the canonical email (see EmailCanonicalizer) for equivalent-email lookups.
+ * - phoneKey: the phone packed into a long (see PhoneNormalizer.pack) for exact-phone lookups.
+ */
+public final class PatientSearchKeys {
+
+    private PatientSearchKeys() {
+        // utility
+    }
+
+    /**
+     * Recompute every derived key from the current field values.
+     */
+    public static void refresh(Patient p) {
+        p.setFirstNamePhonetic(PhoneticEncoder.encode(p.getFirstName()));
+        p.setLastNamePhonetic(PhoneticEncoder.encode(p.getLastName()));
+        p.setPhoneReversed(reversedDigits(p.getPhone()));
+        p.setEmailKey(EmailCanonicalizer.key(p.getEmail()));
+        p.setPhoneKey(phoneKey(p.getPhone()));
+        p.syncActiveKeys();
+    }
+
+    /**
+     * Whether the stored keys differ from what {@link #refresh(Patient)} would compute
+     * (e.g. rows written before a key column existed).
+     */
+    public static boolean isStale(Patient p) {
+        return !Objects.equals(p.getFirstNamePhonetic(), PhoneticEncoder.encode(p.getFirstName()))
+                || !Objects.equals(p.getLastNamePhonetic(), PhoneticEncoder.encode(p.getLastName()))
+                || !Objects.equals(p.getPhoneReversed(), reversedDigits(p.getPhone()))
+                || !Objects.equals(p.getEmailKey(), EmailCanonicalizer.key(p.getEmail()))
+                || !Objects.equals(p.getPhoneKey(), phoneKey(p.getPhone()))
+                || !Objects.equals(p.getActiveEmail(), p.isDeleted() ? null : p.getEmail())
+                || !Objects.equals(p.getActivePhone(), p.isDeleted() ? null : p.getPhone());
+    }
+
+    /**
+     * Packed phone, or null if there is none (or it is not an E.164 string).
+     */
+    public static Long phoneKey(String phone) {
+        long key = PhoneNormalizer.pack(phone);
+        return key == PhoneNormalizer.NO_KEY ? null : key;
+    }
+
+    /**
+     * Digits of the phone in reverse order, or null if the phone has no digits.
+     */
+    public static String reversedDigits(String phone) {
+        if (phone == null) {
+            return null;
+        }
+        StringBuilder sb = new StringBuilder(phone.length());
+        for (int i = phone.length() - 1; i >= 0; i--) {
+            char c = phone.charAt(i);
+            if (c >= '0' && c <= '9') {
+                sb.append(c);
+            }
+        }
+        return sb.length() == 0 ? null : sb.toString();
+    }
+}
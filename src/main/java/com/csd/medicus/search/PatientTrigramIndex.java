@@ -0,0 +1,285 @@
+package com.csd.medicus.search;
+
+import com.csd.medicus.model.Patient;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.LongConsumer;
+
+/**
+ * In-memory trigram (3-gram) inverted index over the first name and phone of active patients.
+ *
+ * It answers the same question as {@code PatientRepository.searchPatients}:
+ * "LOWER(firstName) contains LOWER(query) OR LOWER(phone) contains LOWER(query)", excluding
+ * soft-deleted rows, without scanning the patients table.
+ *
+ * Behavior:
+ * - Every 3-character window of the lower-cased first name and phone is mapped to a sorted posting
+ *   list of patient ids. A query is answered by intersecting the posting lists of its own trigrams
+ *   and then verifying each candidate with a plain substring check, so results are exact.
+ * - Queries shorter than 3 characters have no trigrams; they are verified against every indexed row
+ *   (still in memory, in id order).
+ * - Matches are returned in ascending id order.
+ * - The index is not "ready" until it has been fully loaded (see PatientIndexInitializer). Callers must
+ *   fall back to the repository while it is not ready, or when {@link #supports(String)} is false.
+ *
+ * Thread-safety: reads and writes are guarded by a read/write lock.
+ */
+@Component
+public class PatientTrigramIndex {
+
+    private static final int GRAM = 3;
+
+    /** Indexed (lower-cased) values per patient id, ordered by id. */
+    private final TreeMap<Long, IndexedPatient> docs = new TreeMap<>();
+    /** Packed trigram -> sorted patient ids. */
+    private final Map<Long, LongPostingList> postings = new HashMap<>();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private volatile boolean ready;
+
+    /**
+     * Result of an index lookup: the ids of the requested page (in id order) and the total match count.
+     */
+    public record Hits(List<Long> ids, long total) {
+    }
+
+    private record IndexedPatient(String firstName, String phone) {
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public void markReady() {
+        this.ready = true;
+    }
+
+    /**
+     * Whether this index can answer the query with the same semantics as the JPQL LIKE query.
+     * Queries containing LIKE wildcards or the escape character are left to the database.
+     */
+    public boolean supports(String query) {
+        if (query == null || query.isEmpty()) {
+            return false;
+        }
+        for (int i = 0; i < query.length(); i++) {
+            char c = query.charAt(i);
+            if (c == '%' || c == '_' || c == '\\') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Add or replace the entry for a patient. Soft-deleted patients are removed from the index.
+     */
+    public void index(Patient p) {
+        if (p == null || p.getId() == null) {
+            return;
+        }
+        if (p.isDeleted()) {
+            remove(p.getId());
+            return;
+        }
+        IndexedPatient entry = new IndexedPatient(lower(p.getFirstName()), lower(p.getPhone()));
+        long id = p.getId();
+        lock.writeLock().lock();
+        try {
+            IndexedPatient previous = docs.put(id, entry);
+            if (previous != null) {
+                unpost(id, previous);
+            }
+            post(id, entry);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Remove a patient from the index (soft-delete or purge).
+     */
+    public void remove(Long id) {
+        if (id == null) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            IndexedPatient previous = docs.remove(id);
+            if (previous != null) {
+                unpost(id, previous);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Drop all entries and mark the index as not ready (used before a full reload).
+     */
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            ready = false;
+            docs.clear();
+            postings.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return docs.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Find active patients whose first name or phone contains the query (case-insensitive).
+     *
+     * @param query trimmed, non-empty query (see {@link #supports(String)})
+     * @param offset number of matches to skip
+     * @param limit maximum number of ids to return
+     */
+    public Hits search(String query, long offset, int limit) {
+        String q = lower(query);
+        List<Long> page = new ArrayList<>(Math.max(0, Math.min(limit, 128)));
+        long total = 0;
+
+        lock.readLock().lock();
+        try {
+            if (q.length() < GRAM) {
+                for (Map.Entry<Long, IndexedPatient> e : docs.entrySet()) {
+                    if (matches(e.getValue(), q)) {
+                        if (total >= offset && page.size() < limit) {
+                            page.add(e.getKey());
+                        }
+                        total++;
+                    }
+                }
+                return new Hits(page, total);
+            }
+
+            long[] candidates = candidates(q);
+            for (long id : candidates) {
+                if (matches(docs.get(id), q)) {
+                    if (total >= offset && page.size() < limit) {
+                        page.add(id);
+                    }
+                    total++;
+                }
+            }
+            return new Hits(page, total);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Keyset variant of {@link #search}: ids of matches strictly greater than {@code afterId}, in id
+     * order, stopping after {@code limit} matches. Cost depends on the slice, not on how deep it is.
+     */
+    public List<Long> searchAfter(String query, long afterId, int limit) {
+        String q = lower(query);
+        List<Long> ids = new ArrayList<>(Math.max(0, Math.min(limit, 128)));
+
+        lock.readLock().lock();
+        try {
+            if (q.length() < GRAM) {
+                for (Map.Entry<Long, IndexedPatient> e : docs.tailMap(afterId, false).entrySet()) {
+                    if (ids.size() >= limit) {
+                        break;
+                    }
+                    if (matches(e.getValue(), q)) {
+                        ids.add(e.getKey());
+                    }
+                }
+                return ids;
+            }
+
+            long[] candidates = candidates(q);
+            int from = Arrays.binarySearch(candidates, afterId);
+            from = from >= 0 ? from + 1 : -(from + 1);
+            for (int i = from; i < candidates.length && ids.size() < limit; i++) {
+                if (matches(docs.get(candidates[i]), q)) {
+                    ids.add(candidates[i]);
+                }
+            }
+            return ids;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Intersect the posting lists of every trigram in the query, smallest list first.
+    private long[] candidates(String q) {
+        List<LongPostingList> lists = new ArrayList<>(q.length() - GRAM + 1);
+        for (int i = 0; i + GRAM <= q.length(); i++) {
+            LongPostingList list = postings.get(pack(q, i));
+            if (list == null) {
+                return new long[0];
+            }
+            lists.add(list);
+        }
+        lists.sort((a, b) -> Integer.compare(a.size(), b.size()));
+        long[] result = lists.get(0).toArray();
+        for (int i = 1; i < lists.size() && result.length > 0; i++) {
+            result = lists.get(i).retainAll(result);
+        }
+        return result;
+    }
+
+    private static boolean matches(IndexedPatient entry, String q) {
+        if (entry == null) {
+            return false;
+        }
+        return (entry.firstName() != null && entry.firstName().contains(q))
+                || (entry.phone() != null && entry.phone().contains(q));
+    }
+
+    private void post(long id, IndexedPatient entry) {
+        forEachGram(entry.firstName(), gram -> postings.computeIfAbsent(gram, k -> new LongPostingList()).add(id));
+        forEachGram(entry.phone(), gram -> postings.computeIfAbsent(gram, k -> new LongPostingList()).add(id));
+    }
+
+    private void unpost(long id, IndexedPatient entry) {
+        forEachGram(entry.firstName(), gram -> unpostGram(gram, id));
+        forEachGram(entry.phone(), gram -> unpostGram(gram, id));
+    }
+
+    private void unpostGram(long gram, long id) {
+        LongPostingList list = postings.get(gram);
+        if (list != null && list.remove(id) && list.isEmpty()) {
+            postings.remove(gram);
+        }
+    }
+
+    private static void forEachGram(String value, LongConsumer consumer) {
+        if (value == null) {
+            return;
+        }
+        for (int i = 0; i + GRAM <= value.length(); i++) {
+            consumer.accept(pack(value, i));
+        }
+    }
+
+    // Three UTF-16 chars packed into the low 48 bits of a long.
+    private static long pack(String s, int from) {
+        return ((long) s.charAt(from) << 32) | ((long) s.charAt(from + 1) << 16) | s.charAt(from + 2);
+    }
+
+    private static String lower(String s) {
+        return s == null ? null : s.toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,55 @@
+package com.csd.medicus.search;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Opaque keyset cursor for patient search ("after" token).
+ *
+ * The token encodes the sort key and id of the last row of the previous slice. Patient search is
+ * ordered by id, so the id is both the sort key and the tie-breaker; the version prefix allows the
+ * format to change without breaking clients that hold old tokens.
+ *
+ * Behavior:
+ * - encode(lastId) returns a URL-safe Base64 string without padding.
+ * - decode(token) returns 0 for null/empty tokens (first slice).
+ * - decode throws IllegalArgumentException for malformed or foreign tokens.
+ */
+public final class SearchCursor {
+
+    private static final String PREFIX = "p1:";
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private SearchCursor() {
+        // utility
+    }
+
+    public static String encode(long lastId) {
+        return ENCODER.encodeToString((PREFIX + lastId).getBytes(StandardCharsets.US_ASCII));
+    }
+
+    public static long decode(String token) {
+        if (token == null || token.isBlank()) {
+            return 0L;
+        }
+        String raw;
+        try {
+            raw = new String(DECODER.decode(token.trim()), StandardCharsets.US_ASCII);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("invalid search cursor: " + token, e);
+        }
+        if (!raw.startsWith(PREFIX)) {
+            throw new IllegalArgumentException("invalid search cursor: " + token);
+        }
+        try {
+            long id = Long.parseLong(raw.substring(PREFIX.length()));
+            if (id < 0) {
+                throw new IllegalArgumentException("invalid search cursor: " + token);
+            }
+            return id;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("invalid search cursor: " + token, e);
+        }
+    }
+}
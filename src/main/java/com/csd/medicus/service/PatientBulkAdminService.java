@@ -0,0 +1,26 @@
+package com.csd.medicus.service;
+
+import com.csd.medicus.dto.BulkAdminRequestDto;
+import com.csd.medicus.dto.BulkJobDto;
+
+import java.util.Optional;
+
+/**
+ * Bulk soft-delete / restore / purge run as background jobs of chunked, set-based statements.
+ * Each chunk commits on its own, so progress survives a failure part-way through.
+ */
+public interface PatientBulkAdminService {
+
+	enum Operation {
+		SOFT_DELETE, RESTORE, PURGE
+	}
+
+	/**
+	 * Validate the request and start a job; returns its initial snapshot.
+	 *
+	 * @throws IllegalArgumentException if the request selects nothing or mixes ids and predicates
+	 */
+	BulkJobDto start(Operation operation, BulkAdminRequestDto request);
+
+	Optional<BulkJobDto> getJob(String jobId);
+}
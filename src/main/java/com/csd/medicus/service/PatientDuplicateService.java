@@ -0,0 +1,27 @@
+package com.csd.medicus.service;
+
+import com.csd.medicus.dto.MergePlanDto;
+import com.csd.medicus.dto.MergeResultDto;
+
+import java.util.Collection;
+import java.util.Optional;
+
+/**
+ * Finds clusters of probable duplicate patients across the whole table and merges them on request.
+ */
+public interface PatientDuplicateService {
+
+    /**
+     * Start a background scan of all active patients; poll {@link #getPlan(String)} for the plan.
+     */
+    MergePlanDto startScan();
+
+    Optional<MergePlanDto> getPlan(String planId);
+
+    /**
+     * Merge the selected clusters of a READY plan (all when clusterIndexes is null), each in its own
+     * transaction. Throws IllegalArgumentException for an unknown plan or cluster index and
+     * IllegalStateException while the plan is not READY.
+     */
+    MergeResultDto applyPlan(String planId, Collection<Integer> clusterIndexes);
+}
@@ -0,0 +1,40 @@
+package com.csd.medicus.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Streams patient rows to an output stream without materializing them in memory.
+ */
+public interface PatientExportService {
+
+    enum Format {
+        NDJSON("application/x-ndjson"),
+        CSV("text/csv");
+
+        private final String contentType;
+
+        Format(String contentType) {
+            this.contentType = contentType;
+        }
+
+        public String contentType() {
+            return contentType;
+        }
+    }
+
+    /**
+     * Write all patients (optionally including soft-deleted ones) in id order.
+     *
+     * @return number of rows written
+     */
+    long exportPatients(boolean includeDeleted, Format format, OutputStream out) throws IOException;
+
+    /**
+     * Write the active patients matching a search query (same semantics as searchPatients) in id order.
+     * A null or blank query writes no rows.
+     *
+     * @return number of rows written
+     */
+    long exportSearch(String query, Format format, OutputStream out) throws IOException;
+}
@@ -0,0 +1,21 @@
+package com.csd.medicus.service;
+
+import com.csd.medicus.dto.ImportReportDto;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Imports patients from CSV (header row with firstName, lastName, email, phone; other columns such
+ * as those of the CSV export are ignored) as a streaming, checkpointed pipeline.
+ */
+public interface PatientImportService {
+
+    /**
+     * Import the CSV read from {@code csv}. Runs with the same jobId resume after the last committed
+     * record; a null jobId starts a new job.
+     *
+     * @throws IllegalArgumentException if the jobId or the header row is invalid
+     */
+    ImportReportDto importCsv(InputStream csv, String jobId) throws IOException;
+}
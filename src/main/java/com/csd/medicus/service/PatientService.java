@@ -1,9 +1,13 @@
 package com.csd.medicus.service;
 
 import com.csd.medicus.model.Patient;
+import com.csd.medicus.dto.BulkCreateResultDto;
+import com.csd.medicus.dto.PatientAdminDto;
 import com.csd.medicus.dto.PatientDto;
+import com.csd.medicus.search.KeysetSlice;
 
 import java.util.List;
+import java.util.Optional;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -11,18 +15,56 @@ import org.springframework.data.domain.Pageable;
 public interface PatientService {
 	Patient savePatient(Patient p);
 
-	List<Patient> getAllPatients();
+	// Bulk create: validates, normalizes and de-duplicates every row, inserts the accepted ones in
+	// JDBC batches and reports a result per row (invalid/duplicate rows do not fail the batch). Throws
+	// DuplicateEntityException, with nothing created, if a concurrent writer takes a value after the checks.
+	BulkCreateResultDto savePatients(List<Patient> patients);
+
+	// Active patients only, one page at a time (use PatientExportService to stream everything)
+	Page<Patient> getAllPatients(Pageable pageable);
 
 	Patient getPatientById(Long id);
 
+	// Read path of GET /patients/{id}: projected straight into the DTO, read through the by-id cache
+	PatientDto getPatientDtoById(Long id);
+
+	// Version (ETag) of an active patient, answered from the by-id cache or a version-only query
+	Optional<Long> getPatientVersion(Long id);
+
 	Patient updatePatient(Long id, Patient p);
 
+	// Conditional update: fails with OptimisticLockingFailureException unless the stored version equals
+	// expectedVersion (null means unconditional); concurrent writers are caught by the @Version check
+	Patient updatePatient(Long id, Patient p, Long expectedVersion);
+
+	// Partial update: non-null fields of changes are validated, normalized and applied to the patient at
+	// expectedVersion (else OptimisticLockingFailureException). Only changed columns are written; the
+	// result carries the new version without re-reading the row.
+	PatientDto patchPatient(Long id, PatientDto changes, long expectedVersion);
+
 	void deletePatient(Long id);
 
 	Page<PatientDto> searchPatients(String query, Pageable pageable);
 
+	// Sounds-like search on first or last name using the stored phonetic keys
+	Page<PatientDto> searchPatientsPhonetic(String name, Pageable pageable);
+
+	// Last-N-digits phone lookup (4-15 digits) using the reversed-digits index
+	Page<PatientDto> searchByPhoneSuffix(String digits, Pageable pageable);
+
+	// Active patients whose email reaches the same mailbox (provider dot/+tag folding, see
+	// EmailCanonicalizer): one indexed probe on the canonical email key
+	List<PatientDto> findByEquivalentEmail(String email);
+
+	// Type-ahead: most common first/last names starting with prefix (at least 2 characters)
+	List<String> suggestNames(String prefix, int limit);
+
+	// Keyset search: up to size matches with id greater than afterId, in id order, without a total count;
+	// the next slice continues after getLastScannedId()
+	KeysetSlice<PatientDto> searchPatientsAfter(String query, long afterId, int size);
+
 	// Admin operations (Feature 1 - admin-first)
-	List<Patient> listAllPatients(boolean includeDeleted);
+	Page<PatientAdminDto> listAllPatients(boolean includeDeleted, Pageable pageable);
 
 	Patient restorePatient(Long id);
 
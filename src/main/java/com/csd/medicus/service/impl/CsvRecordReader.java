@@ -0,0 +1,100 @@
+package com.csd.medicus.service.impl;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Minimal streaming RFC 4180 reader: one record per call, quoted fields may contain commas, quotes
+ * ("" escapes) and line breaks; CRLF and LF line endings are accepted. Blank lines are skipped.
+ * Only the current record is held in memory.
+ */
+final class CsvRecordReader implements Closeable {
+
+    private final BufferedReader in;
+    private final StringBuilder field = new StringBuilder();
+
+    CsvRecordReader(Reader in) {
+        this.in = in instanceof BufferedReader b ? b : new BufferedReader(in, 64 * 1024);
+    }
+
+    /**
+     * Next record, or null at end of input.
+     */
+    List<String> next() throws IOException {
+        List<String> record = new ArrayList<>();
+        field.setLength(0);
+        boolean quoted = false;
+        boolean wasQuoted = false;
+        boolean any = false;
+        int c;
+        while ((c = in.read()) != -1) {
+            any = true;
+            if (quoted) {
+                if (c == '"') {
+                    in.mark(1);
+                    int n = in.read();
+                    if (n == '"') {
+                        field.append('"');
+                    } else {
+                        quoted = false;
+                        if (n != -1) {
+                            in.reset();
+                        }
+                    }
+                } else {
+                    field.append((char) c);
+                }
+            } else if (c == '"' && field.isEmpty()) {
+                quoted = true;
+                wasQuoted = true;
+            } else if (c == ',') {
+                record.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\n' || c == '\r') {
+                if (c == '\r') {
+                    in.mark(1);
+                    if (in.read() != '\n') {
+                        in.reset();
+                    }
+                }
+                if (record.isEmpty() && field.isEmpty() && !wasQuoted) {
+                    any = false; // blank line
+                    continue;
+                }
+                break;
+            } else {
+                field.append((char) c);
+            }
+        }
+        if (!any) {
+            return null;
+        }
+        record.add(field.toString());
+        return record;
+    }
+
+    /**
+     * A value as a CSV field (quoted only when needed); null becomes an empty field.
+     */
+    static String quote(String value) {
+        if (value == null) {
+            return "";
+        }
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == ',' || c == '"' || c == '\n' || c == '\r') {
+                return '"' + value.replace("\"", "\"\"") + '"';
+            }
+        }
+        return value;
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+}
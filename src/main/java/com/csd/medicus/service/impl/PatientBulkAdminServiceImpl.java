@@ -0,0 +1,298 @@
+package com.csd.medicus.service.impl;
+
+import com.csd.medicus.cache.PatientByIdCache;
+import com.csd.medicus.cache.PatientSearchCache;
+import com.csd.medicus.dedup.PatientContactFilter;
+import com.csd.medicus.dto.BulkAdminRequestDto;
+import com.csd.medicus.dto.BulkJobDto;
+import com.csd.medicus.model.Patient;
+import com.csd.medicus.repository.PatientRepository;
+import com.csd.medicus.search.PatientNameTrie;
+import com.csd.medicus.search.PatientTrigramIndex;
+import com.csd.medicus.service.PatientBulkAdminService;
+import com.csd.medicus.util.EmailCanonicalizer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntSupplier;
+
+/**
+ * Runs bulk admin operations as background jobs.
+ *
+ * Behavior:
+ * - The selection (id list, or keyset chunks of soft-deleted ids by deletedAt range) is processed in
+ *   chunks of medicus.admin.bulk.chunk-size ids. Each chunk is one UPDATE/DELETE ... WHERE id IN (...)
+ *   in its own transaction; no entities are loaded for soft-delete and purge.
+ * - Soft-delete only touches active rows, restore and purge only soft-deleted rows, so re-running a
+ *   job is harmless. Purge never removes active patients.
+ * - Restore skips, and counts as conflicts, rows whose email is equivalent (see EmailCanonicalizer) to an
+ *   active patient's. A restore chunk that still hits the unique active email/phone constraint is retried
+ *   id by id, and the conflicting ids are counted and skipped.
+ * - After each chunk commits, the in-memory search structures are updated and cached searches dropped.
+ * - The last 100 jobs are kept in memory for progress queries.
+ */
+@Service
+public class PatientBulkAdminServiceImpl implements PatientBulkAdminService {
+
+    private static final Logger log = LoggerFactory.getLogger(PatientBulkAdminServiceImpl.class);
+
+    private static final int MAX_IDS = 1_000_000;
+    private static final int MAX_RETAINED_JOBS = 100;
+    private static final LocalDateTime MIN_DELETED_AT = LocalDateTime.of(1970, 1, 1, 0, 0);
+    private static final LocalDateTime MAX_DELETED_AT = LocalDateTime.of(9999, 12, 31, 0, 0);
+
+    private final PatientRepository repo;
+    private final TransactionTemplate tx;
+    private final TaskExecutor executor;
+    private final PatientTrigramIndex searchIndex;
+    private final PatientNameTrie nameTrie;
+    private final PatientSearchCache searchCache;
+    private final PatientContactFilter contactFilter;
+    private final PatientByIdCache byIdCache;
+    private final int chunkSize;
+
+    private final Map<String, Job> jobs = new LinkedHashMap<>() {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Job> eldest) {
+            return size() > MAX_RETAINED_JOBS;
+        }
+    };
+
+    public PatientBulkAdminServiceImpl(PatientRepository repo,
+                                       PlatformTransactionManager transactionManager,
+                                       @Qualifier("applicationTaskExecutor") TaskExecutor executor,
+                                       PatientTrigramIndex searchIndex,
+                                       PatientNameTrie nameTrie,
+                                       PatientSearchCache searchCache,
+                                       PatientContactFilter contactFilter,
+                                       PatientByIdCache byIdCache,
+                                       @Value("${medicus.admin.bulk.chunk-size:1000}") int chunkSize) {
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("chunkSize must be positive");
+        }
+        this.repo = repo;
+        this.tx = new TransactionTemplate(transactionManager);
+        this.executor = executor;
+        this.searchIndex = searchIndex;
+        this.nameTrie = nameTrie;
+        this.searchCache = searchCache;
+        this.contactFilter = contactFilter;
+        this.byIdCache = byIdCache;
+        this.chunkSize = chunkSize;
+    }
+
+    @Override
+    public BulkJobDto start(Operation operation, BulkAdminRequestDto request) {
+        if (operation == null || request == null) {
+            throw new IllegalArgumentException("Operation and request are required");
+        }
+        boolean byIds = request.getIds() != null;
+        boolean byPredicate = request.getDeletedAfter() != null || request.getDeletedBefore() != null;
+        if (byIds == byPredicate) {
+            throw new IllegalArgumentException("Provide either ids or a deletedAfter/deletedBefore range");
+        }
+        if (byPredicate && operation == Operation.SOFT_DELETE) {
+            throw new IllegalArgumentException("Soft-delete selects patients by ids only");
+        }
+
+        List<Long> ids = null;
+        if (byIds) {
+            if (request.getIds().isEmpty() || request.getIds().size() > MAX_IDS) {
+                throw new IllegalArgumentException("ids must contain between 1 and " + MAX_IDS + " entries");
+            }
+            // sorted and de-duplicated so chunks are contiguous id ranges
+            TreeSet<Long> unique = new TreeSet<>();
+            for (Long id : request.getIds()) {
+                if (id != null) {
+                    unique.add(id);
+                }
+            }
+            ids = new ArrayList<>(unique);
+        }
+        LocalDateTime from = request.getDeletedAfter() != null ? request.getDeletedAfter() : MIN_DELETED_AT;
+        LocalDateTime to = request.getDeletedBefore() != null ? request.getDeletedBefore() : MAX_DELETED_AT;
+
+        Job job = new Job(UUID.randomUUID().toString(), operation, ids == null ? -1 : ids.size());
+        synchronized (jobs) {
+            jobs.put(job.id, job);
+        }
+        List<Long> selected = ids;
+        executor.execute(() -> run(job, selected, from, to));
+        return job.snapshot();
+    }
+
+    @Override
+    public Optional<BulkJobDto> getJob(String jobId) {
+        synchronized (jobs) {
+            Job job = jobs.get(jobId);
+            return job == null ? Optional.empty() : Optional.of(job.snapshot());
+        }
+    }
+
+    private void run(Job job, List<Long> ids, LocalDateTime from, LocalDateTime to) {
+        try {
+            if (ids != null) {
+                for (int i = 0; i < ids.size(); i += chunkSize) {
+                    apply(job, new ArrayList<>(ids.subList(i, Math.min(ids.size(), i + chunkSize))));
+                }
+            } else {
+                long afterId = 0L;
+                List<Long> chunk;
+                do {
+                    chunk = repo.findDeletedIdsBetween(from, to, afterId, PageRequest.of(0, chunkSize));
+                    if (!chunk.isEmpty()) {
+                        apply(job, chunk);
+                        afterId = chunk.get(chunk.size() - 1);
+                    }
+                } while (chunk.size() == chunkSize);
+            }
+            job.finish(BulkJobDto.Status.COMPLETED, null);
+            log.info("Bulk {} job {} completed: {} processed, {} affected, {} conflicts in {} batches",
+                    job.operation, job.id, job.processed, job.affected, job.conflicts, job.batches);
+        } catch (RuntimeException e) {
+            job.finish(BulkJobDto.Status.FAILED, e.getMessage());
+            log.warn("Bulk {} job {} failed after {} batches", job.operation, job.id, job.batches, e);
+        }
+    }
+
+    // One chunk: a single set-based statement in its own transaction, then in-memory maintenance.
+    private void apply(Job job, List<Long> chunk) {
+        int affected = switch (job.operation) {
+            case SOFT_DELETE -> inTransaction(() -> repo.softDeleteByIds(chunk, LocalDateTime.now()));
+            case PURGE -> inTransaction(() -> repo.purgeDeletedByIds(chunk));
+            case RESTORE -> restore(job, chunk);
+        };
+
+        if (job.operation == Operation.RESTORE) {
+            for (Patient p : repo.findAllById(chunk)) {
+                searchIndex.index(p);
+                nameTrie.index(p);
+                if (!p.isDeleted()) {
+                    contactFilter.add(p.getEmail(), p.getPhone());
+                }
+            }
+        } else {
+            for (Long id : chunk) {
+                searchIndex.remove(id);
+                nameTrie.remove(id);
+                byIdCache.invalidate(id);
+            }
+        }
+        if (affected > 0) {
+            searchCache.invalidateAll();
+        }
+
+        job.processed.addAndGet(chunk.size());
+        job.affected.addAndGet(affected);
+        job.batches.incrementAndGet();
+        log.debug("Bulk {} job {}: batch {} done, {} processed", job.operation, job.id, job.batches, job.processed);
+    }
+
+    private int restore(Job job, List<Long> ids) {
+        List<Long> chunk = withoutEquivalentEmails(job, ids);
+        if (chunk.isEmpty()) {
+            return 0;
+        }
+        try {
+            return inTransaction(() -> repo.restoreByIds(chunk));
+        } catch (DataIntegrityViolationException e) {
+            // some email/phone in the chunk is taken by an active patient: isolate the conflicting ids
+            int restored = 0;
+            for (Long id : chunk) {
+                try {
+                    restored += inTransaction(() -> repo.restoreByIds(List.of(id)));
+                } catch (DataIntegrityViolationException conflict) {
+                    job.conflicts.incrementAndGet();
+                }
+            }
+            return restored;
+        }
+    }
+
+    // Drops (and counts as conflicts) deleted rows whose email is the same mailbox as an active patient's,
+    // or as an earlier row of the chunk: the unique constraint only sees the exact address.
+    private List<Long> withoutEquivalentEmails(Job job, List<Long> chunk) {
+        Map<Long, String> canonicalById = new HashMap<>();
+        for (Patient p : repo.findAllById(chunk)) {
+            if (p.isDeleted() && p.getEmail() != null) {
+                canonicalById.put(p.getId(), EmailCanonicalizer.canonicalize(p.getEmail()));
+            }
+        }
+        if (canonicalById.isEmpty()) {
+            return chunk;
+        }
+        Set<Long> keys = new HashSet<>();
+        canonicalById.values().forEach(c -> keys.add(EmailCanonicalizer.key(c)));
+        Set<String> taken = new HashSet<>();
+        for (String email : repo.findActiveEmailsByEmailKeyIn(keys)) {
+            taken.add(EmailCanonicalizer.canonicalize(email));
+        }
+        List<Long> restorable = new ArrayList<>(chunk.size());
+        for (Long id : chunk) {
+            String canonical = canonicalById.get(id);
+            if (canonical != null && !taken.add(canonical)) {
+                job.conflicts.incrementAndGet();
+            } else {
+                restorable.add(id);
+            }
+        }
+        return restorable;
+    }
+
+    private int inTransaction(IntSupplier statement) {
+        Integer n = tx.execute(status -> statement.getAsInt());
+        return n == null ? 0 : n;
+    }
+
+    private static final class Job {
+        final String id;
+        final Operation operation;
+        final long total;
+        final LocalDateTime startedAt = LocalDateTime.now();
+        final AtomicLong processed = new AtomicLong();
+        final AtomicLong affected = new AtomicLong();
+        final AtomicLong conflicts = new AtomicLong();
+        final AtomicInteger batches = new AtomicInteger();
+        volatile BulkJobDto.Status status = BulkJobDto.Status.RUNNING;
+        volatile String error;
+        volatile LocalDateTime finishedAt;
+
+        Job(String id, Operation operation, long total) {
+            this.id = id;
+            this.operation = operation;
+            this.total = total;
+        }
+
+        void finish(BulkJobDto.Status status, String error) {
+            this.error = error;
+            this.finishedAt = LocalDateTime.now();
+            this.status = status;
+        }
+
+        BulkJobDto snapshot() {
+            return new BulkJobDto(id, operation.name(), status, total, processed.get(), affected.get(),
+                    conflicts.get(), batches.get(), error, startedAt, finishedAt);
+        }
+    }
+}
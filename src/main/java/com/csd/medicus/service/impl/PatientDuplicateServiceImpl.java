@@ -0,0 +1,264 @@
+package com.csd.medicus.service.impl;
+
+import com.csd.medicus.dedup.DuplicateClusterer;
+import com.csd.medicus.dto.DuplicateClusterDto;
+import com.csd.medicus.dto.MergePlanDto;
+import com.csd.medicus.dto.MergeResultDto;
+import com.csd.medicus.dto.PatientDto;
+import com.csd.medicus.exception.DuplicateEntityException;
+import com.csd.medicus.repository.AppointmentRepository;
+import com.csd.medicus.repository.BillingRepository;
+import com.csd.medicus.repository.PatientRepository;
+import com.csd.medicus.service.PatientDuplicateService;
+import com.csd.medicus.service.PatientService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeSet;
+import java.util.UUID;
+
+/**
+ * Duplicate scans and merges.
+ *
+ * Behavior:
+ * - A scan runs in the background: active patients are read as DTOs in keyset chunks and handed to
+ *   DuplicateClusterer. The resulting plan keeps each member's version; the last 10 plans are kept
+ *   in memory.
+ * - Applying a cluster is one transaction that first re-checks every member's version and skips the
+ *   cluster (stale) if any member changed or was deleted since the scan, or rolls it back as stale if
+ *   one changes before the merge is flushed. Then it:
+ *   - moves the duplicates' appointments and bills to the survivor
+ *   - soft-deletes the duplicates, so a merge can be undone with restore
+ *   - copies a missing email/phone from the first duplicate that has one to the survivor
+ * - Every change goes through PatientService, so caches, indexes and versions are maintained as for
+ *   any other edit. Re-applying a plan is harmless: merged clusters come back as stale.
+ */
+@Service
+public class PatientDuplicateServiceImpl implements PatientDuplicateService {
+
+    private static final Logger log = LoggerFactory.getLogger(PatientDuplicateServiceImpl.class);
+
+    private static final int SCAN_CHUNK_SIZE = 1000;
+    private static final int MAX_RETAINED_PLANS = 10;
+
+    private enum Outcome {
+        MERGED, STALE, CONFLICT
+    }
+
+    private final PatientRepository repo;
+    private final AppointmentRepository appointmentRepo;
+    private final BillingRepository billingRepo;
+    private final PatientService patientService;
+    private final DuplicateClusterer clusterer;
+    private final TransactionTemplate tx;
+    private final TaskExecutor executor;
+
+    private final Map<String, Plan> plans = new LinkedHashMap<>() {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Plan> eldest) {
+            return size() > MAX_RETAINED_PLANS;
+        }
+    };
+
+    public PatientDuplicateServiceImpl(PatientRepository repo,
+                                       AppointmentRepository appointmentRepo,
+                                       BillingRepository billingRepo,
+                                       PatientService patientService,
+                                       DuplicateClusterer clusterer,
+                                       PlatformTransactionManager transactionManager,
+                                       @Qualifier("applicationTaskExecutor") TaskExecutor executor) {
+        this.repo = repo;
+        this.appointmentRepo = appointmentRepo;
+        this.billingRepo = billingRepo;
+        this.patientService = patientService;
+        this.clusterer = clusterer;
+        this.tx = new TransactionTemplate(transactionManager);
+        this.executor = executor;
+    }
+
+    @Override
+    public MergePlanDto startScan() {
+        Plan plan = new Plan(UUID.randomUUID().toString());
+        synchronized (plans) {
+            plans.put(plan.id, plan);
+        }
+        executor.execute(() -> scan(plan));
+        return plan.snapshot();
+    }
+
+    @Override
+    public Optional<MergePlanDto> getPlan(String planId) {
+        synchronized (plans) {
+            Plan plan = plans.get(planId);
+            return plan == null ? Optional.empty() : Optional.of(plan.snapshot());
+        }
+    }
+
+    @Override
+    public MergeResultDto applyPlan(String planId, Collection<Integer> clusterIndexes) {
+        Plan plan;
+        synchronized (plans) {
+            plan = plans.get(planId);
+        }
+        if (plan == null) {
+            throw new IllegalArgumentException("Unknown merge plan: " + planId);
+        }
+        if (plan.status != MergePlanDto.Status.READY) {
+            throw new IllegalStateException("Merge plan " + planId + " is " + plan.status);
+        }
+        List<DuplicateClusterDto> clusters = plan.clusters;
+        TreeSet<Integer> selected = new TreeSet<>();
+        if (clusterIndexes == null) {
+            for (int i = 0; i < clusters.size(); i++) {
+                selected.add(i);
+            }
+        } else {
+            for (Integer i : clusterIndexes) {
+                if (i == null || i < 0 || i >= clusters.size()) {
+                    throw new IllegalArgumentException("No cluster " + i + " in merge plan " + planId);
+                }
+                selected.add(i);
+            }
+        }
+
+        List<Integer> merged = new ArrayList<>();
+        List<Integer> stale = new ArrayList<>();
+        List<Integer> conflicts = new ArrayList<>();
+        long patientsMerged = 0;
+        for (int i : selected) {
+            DuplicateClusterDto cluster = clusters.get(i);
+            switch (merge(cluster)) {
+                case MERGED -> {
+                    merged.add(i);
+                    patientsMerged += cluster.getMembers().size() - 1;
+                }
+                case STALE -> stale.add(i);
+                case CONFLICT -> conflicts.add(i);
+            }
+        }
+        log.info("Merge plan {}: {} clusters merged ({} patients), {} stale, {} conflicts",
+                planId, merged.size(), patientsMerged, stale.size(), conflicts.size());
+        return new MergeResultDto(planId, merged, patientsMerged, stale, conflicts);
+    }
+
+    private void scan(Plan plan) {
+        try {
+            List<PatientDto> patients = new ArrayList<>();
+            long afterId = 0L;
+            List<PatientDto> chunk;
+            do {
+                chunk = repo.findActiveDtosAfter(afterId, PageRequest.of(0, SCAN_CHUNK_SIZE));
+                patients.addAll(chunk);
+                if (!chunk.isEmpty()) {
+                    afterId = chunk.get(chunk.size() - 1).getId();
+                }
+            } while (chunk.size() == SCAN_CHUNK_SIZE);
+
+            DuplicateClusterer.Result result = clusterer.cluster(patients);
+            List<DuplicateClusterDto> clusters = new ArrayList<>(result.clusters().size());
+            for (DuplicateClusterer.Cluster c : result.clusters()) {
+                clusters.add(new DuplicateClusterDto(clusters.size(), c.members().get(0).getId(), c.members(),
+                        c.score(), c.reasons()));
+            }
+            plan.ready(result, clusters);
+            log.info("Duplicate scan {}: {} patients, {} blocks ({} oversized skipped), {} pairs scored, {} clusters",
+                    plan.id, result.scanned(), result.blocks(), result.oversizedBlocks(), result.candidatePairs(), clusters.size());
+        } catch (RuntimeException e) {
+            plan.fail(e.getMessage());
+            log.warn("Duplicate scan {} failed", plan.id, e);
+        }
+    }
+
+    private Outcome merge(DuplicateClusterDto cluster) {
+        try {
+            return tx.execute(status -> {
+                for (PatientDto member : cluster.getMembers()) {
+                    Optional<Long> version = repo.findVersionByIdAndNotDeleted(member.getId());
+                    if (version.isEmpty() || !version.get().equals(member.getVersion())) {
+                        return Outcome.STALE;
+                    }
+                }
+                PatientDto survivor = cluster.getMembers().get(0);
+                List<PatientDto> duplicates = cluster.getMembers().subList(1, cluster.getMembers().size());
+                List<Long> duplicateIds = duplicates.stream().map(PatientDto::getId).toList();
+
+                appointmentRepo.reassignPatient(duplicateIds, survivor.getId());
+                billingRepo.reassignPatient(duplicateIds, survivor.getId());
+                for (Long id : duplicateIds) {
+                    patientService.deletePatient(id);
+                }
+                // release the duplicates' unique email/phone before the survivor may take one of them
+                repo.flush();
+
+                PatientDto fill = new PatientDto();
+                for (PatientDto d : duplicates) {
+                    if (survivor.getEmail() == null && fill.getEmail() == null && d.getEmail() != null) {
+                        fill.setEmail(d.getEmail());
+                    }
+                    if (survivor.getPhone() == null && fill.getPhone() == null && d.getPhone() != null) {
+                        fill.setPhone(d.getPhone());
+                    }
+                }
+                if (fill.getEmail() != null || fill.getPhone() != null) {
+                    patientService.patchPatient(survivor.getId(), fill, survivor.getVersion());
+                }
+                return Outcome.MERGED;
+            });
+        } catch (OptimisticLockingFailureException e) {
+            // a member changed between the version re-check and the flush
+            log.debug("Merge of cluster {} rolled back: {}", cluster.getIndex(), e.getMessage());
+            return Outcome.STALE;
+        } catch (DuplicateEntityException | IllegalArgumentException e) {
+            log.debug("Merge of cluster {} rolled back: {}", cluster.getIndex(), e.getMessage());
+            return Outcome.CONFLICT;
+        }
+    }
+
+    private static final class Plan {
+        final String id;
+        final LocalDateTime startedAt = LocalDateTime.now();
+        volatile MergePlanDto.Status status = MergePlanDto.Status.RUNNING;
+        volatile DuplicateClusterer.Result result;
+        volatile List<DuplicateClusterDto> clusters = List.of();
+        volatile String error;
+        volatile LocalDateTime finishedAt;
+
+        Plan(String id) {
+            this.id = id;
+        }
+
+        void ready(DuplicateClusterer.Result result, List<DuplicateClusterDto> clusters) {
+            this.result = result;
+            this.clusters = List.copyOf(clusters);
+            this.finishedAt = LocalDateTime.now();
+            this.status = MergePlanDto.Status.READY;
+        }
+
+        void fail(String error) {
+            this.error = error;
+            this.finishedAt = LocalDateTime.now();
+            this.status = MergePlanDto.Status.FAILED;
+        }
+
+        MergePlanDto snapshot() {
+            DuplicateClusterer.Result r = result;
+            return new MergePlanDto(id, status, r == null ? 0 : r.scanned(), r == null ? 0 : r.blocks(),
+                    r == null ? 0 : r.oversizedBlocks(), r == null ? 0 : r.candidatePairs(), clusters, error,
+                    startedAt, finishedAt);
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package com.csd.medicus.service.impl;
+
+import com.csd.medicus.model.Patient;
+import com.csd.medicus.repository.PatientRepository;
+import com.csd.medicus.service.PatientExportService;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import jakarta.persistence.EntityManager;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Export implementation backed by the streaming repository queries.
+ *
+ * Behavior:
+ * - Rows are read through a JDBC cursor in a read-only transaction (fetch size
+ *   PatientRepository.EXPORT_FETCH_SIZE) and written one at a time; each entity is detached once
+ *   written so the persistence context does not grow with the table.
+ * - NDJSON writes one JSON object per line; CSV writes a header row and RFC 4180 quoting.
+ * - Output is flushed every EXPORT_FETCH_SIZE rows so the client receives data while the export runs.
+ * - Columns: id, firstName, lastName, email, phone, createdAt, deleted.
+ */
+@Service
+@Transactional(readOnly = true)
+public class PatientExportServiceImpl implements PatientExportService {
+
+    private static final String[] COLUMNS = {"id", "firstName", "lastName", "email", "phone", "createdAt", "deleted"};
+
+    private static final JsonFactory JSON = new JsonFactory();
+
+    private final PatientRepository repo;
+    private final EntityManager entityManager;
+
+    public PatientExportServiceImpl(PatientRepository repo, EntityManager entityManager) {
+        this.repo = repo;
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public long exportPatients(boolean includeDeleted, Format format, OutputStream out) throws IOException {
+        try (Stream<Patient> rows = repo.streamAll(includeDeleted)) {
+            return write(rows, format, out);
+        }
+    }
+
+    @Override
+    public long exportSearch(String query, Format format, OutputStream out) throws IOException {
+        // as searchPatients: a blank query matches nothing (an empty pattern would match every patient)
+        String trimmed = query == null ? "" : query.trim();
+        if (trimmed.isEmpty()) {
+            return write(Stream.empty(), format, out);
+        }
+        try (Stream<Patient> rows = repo.streamSearch(trimmed)) {
+            return write(rows, format, out);
+        }
+    }
+
+    private long write(Stream<Patient> rows, Format format, OutputStream out) throws IOException {
+        RowWriter writer = format == Format.CSV ? new CsvRowWriter(out) : new NdjsonRowWriter(out);
+        long count = 0;
+        try {
+            Iterator<Patient> it = rows.iterator();
+            while (it.hasNext()) {
+                Patient p = it.next();
+                writer.write(p);
+                entityManager.detach(p);
+                if (++count % PatientRepository.EXPORT_FETCH_SIZE == 0) {
+                    writer.flush();
+                }
+            }
+        } finally {
+            writer.flush();
+        }
+        return count;
+    }
+
+    private interface RowWriter {
+        void write(Patient p) throws IOException;
+
+        void flush() throws IOException;
+    }
+
+    private static final class NdjsonRowWriter implements RowWriter {
+        private final JsonGenerator gen;
+
+        NdjsonRowWriter(OutputStream out) throws IOException {
+            this.gen = JSON.createGenerator(out, JsonEncoding.UTF8);
+            // newline-delimited: one root value per line
+            this.gen.setRootValueSeparator(null);
+        }
+
+        @Override
+        public void write(Patient p) throws IOException {
+            gen.writeStartObject();
+            gen.writeNumberField(COLUMNS[0], p.getId());
+            gen.writeStringField(COLUMNS[1], p.getFirstName());
+            gen.writeStringField(COLUMNS[2], p.getLastName());
+            gen.writeStringField(COLUMNS[3], p.getEmail());
+            gen.writeStringField(COLUMNS[4], p.getPhone());
+            gen.writeStringField(COLUMNS[5], p.getCreatedAt() == null ? null : p.getCreatedAt().toString());
+            gen.writeBooleanField(COLUMNS[6], p.isDeleted());
+            gen.writeEndObject();
+            gen.writeRaw('\n');
+        }
+
+        @Override
+        public void flush() throws IOException {
+            gen.flush();
+        }
+    }
+
+    private static final class CsvRowWriter implements RowWriter {
+        private final Writer out;
+
+        CsvRowWriter(OutputStream out) throws IOException {
+            this.out = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+            this.out.write(String.join(",", COLUMNS));
+            this.out.write("\r\n");
+        }
+
+        @Override
+        public void write(Patient p) throws IOException {
+            out.write(String.valueOf(p.getId()));
+            out.write(',');
+            field(p.getFirstName());
+            out.write(',');
+            field(p.getLastName());
+            out.write(',');
+            field(p.getEmail());
+            out.write(',');
+            field(p.getPhone());
+            out.write(',');
+            field(p.getCreatedAt() == null ? null : p.getCreatedAt().toString());
+            out.write(',');
+            out.write(p.isDeleted() ? "true" : "false");
+            out.write("\r\n");
+        }
+
+        private void field(String value) throws IOException {
+            if (value == null) {
+                return;
+            }
+            boolean quote = false;
+            for (int i = 0; i < value.length() && !quote; i++) {
+                char c = value.charAt(i);
+                quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+            }
+            if (!quote) {
+                out.write(value);
+                return;
+            }
+            out.write('"');
+            out.write(value.replace("\"", "\"\""));
+            out.write('"');
+        }
+
+        @Override
+        public void flush() throws IOException {
+            out.flush();
+        }
+    }
+}
@@ -0,0 +1,319 @@
+package com.csd.medicus.service.impl;
+
+import com.csd.medicus.dto.BulkCreateResultDto;
+import com.csd.medicus.dto.BulkRowResultDto;
+import com.csd.medicus.dto.ImportReportDto;
+import com.csd.medicus.exception.DuplicateEntityException;
+import com.csd.medicus.model.Patient;
+import com.csd.medicus.service.PatientImportService;
+import com.csd.medicus.service.PatientService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.InterruptedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * CSV import as a two-stage streaming pipeline.
+ *
+ * Behavior:
+ * - A reader task parses records into chunks of chunk-size and hands them over through a queue of
+ *   queue-capacity chunks, so at most (queue-capacity + 2) chunks are in memory whatever the file size.
+ * - The calling thread creates each chunk through PatientService.savePatients: parallel validation and
+ *   normalization (PhoneNormalizer/EmailNormalizer), in-chunk and database duplicate checks and batched
+ *   inserts, committed per chunk. If a concurrent writer makes the batch insert hit a unique constraint,
+ *   the chunk is retried row by row.
+ * - Rejected records (INVALID, including short rows, and DUPLICATE) are appended to {jobId}.rejects.csv with the reason;
+ *   after each committed chunk the last record number is written to {jobId}.checkpoint.
+ * - A run with an existing jobId skips the records up to the checkpoint. Delivery is at-least-once:
+ *   a crash between a chunk's commit and its checkpoint re-reads that chunk, and its rows are then
+ *   reported as DUPLICATE.
+ *
+ * Configuration (medicus.import.*): chunk-size (default 1000, at most 10000), queue-capacity
+ * (default 2), work-dir (default ${java.io.tmpdir}/medicus-import).
+ */
+@Service
+public class PatientImportServiceImpl implements PatientImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(PatientImportServiceImpl.class);
+
+    private static final Pattern JOB_ID = Pattern.compile("[A-Za-z0-9._-]{1,64}");
+    private static final int MAX_CHUNK_SIZE = 10_000;
+    private static final String REJECT_HEADER = "record,status,error,firstName,lastName,email,phone";
+
+    private final PatientService patientService;
+    private final TaskExecutor executor;
+    private final int chunkSize;
+    private final int queueCapacity;
+    private final Path workDir;
+
+    private record Row(long record, List<String> fields) {
+    }
+
+    // rows == null marks the end of input; failure != null a reader error
+    private record Chunk(List<Row> rows, long lastRecord, Exception failure) {
+        static final Chunk END = new Chunk(null, 0, null);
+    }
+
+    private record Columns(int firstName, int lastName, int email, int phone) {
+
+        static Columns of(List<String> header) {
+            int first = -1, last = -1, email = -1, phone = -1;
+            for (int i = 0; i < header.size(); i++) {
+                switch (header.get(i).trim().toLowerCase(Locale.ROOT)) {
+                    case "firstname", "first_name" -> first = i;
+                    case "lastname", "last_name" -> last = i;
+                    case "email" -> email = i;
+                    case "phone" -> phone = i;
+                    default -> {
+                        // other columns (id, createdAt, ...) are ignored
+                    }
+                }
+            }
+            if (first < 0 || last < 0) {
+                throw new IllegalArgumentException("CSV header must contain firstName and lastName columns");
+            }
+            return new Columns(first, last, email, phone);
+        }
+
+        Patient toPatient(List<String> fields) {
+            Patient p = new Patient();
+            p.setFirstName(value(fields, firstName));
+            p.setLastName(value(fields, lastName));
+            p.setEmail(value(fields, email));
+            p.setPhone(value(fields, phone));
+            return p;
+        }
+
+        private static String value(List<String> fields, int index) {
+            if (index < 0 || index >= fields.size()) {
+                return null;
+            }
+            String v = fields.get(index).trim();
+            return v.isEmpty() ? null : v;
+        }
+    }
+
+    public PatientImportServiceImpl(PatientService patientService,
+                                    @Qualifier("applicationTaskExecutor") TaskExecutor executor,
+                                    @Value("${medicus.import.chunk-size:1000}") int chunkSize,
+                                    @Value("${medicus.import.queue-capacity:2}") int queueCapacity,
+                                    @Value("${medicus.import.work-dir:${java.io.tmpdir}/medicus-import}") Path workDir) {
+        if (chunkSize < 1 || chunkSize > MAX_CHUNK_SIZE) {
+            throw new IllegalArgumentException("chunkSize must be between 1 and " + MAX_CHUNK_SIZE);
+        }
+        if (queueCapacity < 1) {
+            throw new IllegalArgumentException("queueCapacity must be positive");
+        }
+        this.patientService = patientService;
+        this.executor = executor;
+        this.chunkSize = chunkSize;
+        this.queueCapacity = queueCapacity;
+        this.workDir = workDir;
+    }
+
+    @Override
+    public ImportReportDto importCsv(InputStream csv, String jobId) throws IOException {
+        String id = jobId == null || jobId.isBlank() ? UUID.randomUUID().toString() : jobId.trim();
+        if (!JOB_ID.matcher(id).matches()) {
+            throw new IllegalArgumentException("jobId must be 1-64 characters of [A-Za-z0-9._-]");
+        }
+        Files.createDirectories(workDir);
+        Path checkpoint = workDir.resolve(id + ".checkpoint");
+        Path rejectFile = workDir.resolve(id + ".rejects.csv");
+        long committed = readCheckpoint(checkpoint);
+
+        CsvRecordReader reader = new CsvRecordReader(new InputStreamReader(csv, StandardCharsets.UTF_8));
+        List<String> header = reader.next();
+        if (header == null) {
+            throw new IllegalArgumentException("CSV is empty");
+        }
+        Columns columns = Columns.of(header);
+
+        long started = System.nanoTime();
+        BlockingQueue<Chunk> queue = new ArrayBlockingQueue<>(queueCapacity);
+        Stage stage = new Stage();
+        executor.execute(() -> read(reader, committed, queue, stage));
+
+        long records = 0;
+        long created = 0;
+        long rejected = 0;
+        int chunks = 0;
+        long last = committed;
+        boolean newRejectFile = !Files.exists(rejectFile);
+        try (BufferedWriter rejects = Files.newBufferedWriter(rejectFile, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            if (newRejectFile) {
+                rejects.write(REJECT_HEADER);
+                rejects.newLine();
+            }
+            while (true) {
+                Chunk chunk = take(queue);
+                if (chunk.failure() != null) {
+                    throw new IOException("Reading the CSV failed after record " + last, chunk.failure());
+                }
+                if (chunk.rows() == null) {
+                    break;
+                }
+                int chunkCreated = importChunk(chunk.rows(), columns, rejects);
+                rejects.flush();
+                writeCheckpoint(checkpoint, chunk.lastRecord());
+
+                records += chunk.rows().size();
+                created += chunkCreated;
+                rejected += chunk.rows().size() - chunkCreated;
+                chunks++;
+                last = chunk.lastRecord();
+                log.debug("Import {}: committed through record {} ({} created, {} rejected)", id, last, created, rejected);
+            }
+        } finally {
+            stage.cancelled = true;
+        }
+
+        long nanos = System.nanoTime() - started;
+        double rowsPerSecond = nanos == 0 ? 0.0 : records * 1_000_000_000.0 / nanos;
+        log.info("Import {} finished: {} records ({} created, {} rejected) in {} ms, {} rows/s; skipped {} already committed",
+                id, records, created, rejected, nanos / 1_000_000, Math.round(rowsPerSecond), committed);
+        return new ImportReportDto(id, committed, records, created, rejected, chunks, last, nanos / 1_000_000,
+                rowsPerSecond, rejectFile.toString());
+    }
+
+    // Cancellation flag shared with the reader task
+    private static final class Stage {
+        volatile boolean cancelled;
+    }
+
+    // Reader stage: parse records after the checkpoint into chunks; blocks while the queue is full.
+    private void read(CsvRecordReader reader, long committed, BlockingQueue<Chunk> queue, Stage stage) {
+        try (reader) {
+            long record = 0;
+            List<Row> rows = new ArrayList<>(chunkSize);
+            List<String> fields;
+            while ((fields = reader.next()) != null) {
+                record++;
+                if (record <= committed) {
+                    continue;
+                }
+                rows.add(new Row(record, fields));
+                if (rows.size() == chunkSize) {
+                    if (!put(queue, new Chunk(rows, record, null), stage)) {
+                        return;
+                    }
+                    rows = new ArrayList<>(chunkSize);
+                }
+            }
+            if (!rows.isEmpty() && !put(queue, new Chunk(rows, record, null), stage)) {
+                return;
+            }
+            put(queue, Chunk.END, stage);
+        } catch (Exception e) {
+            put(queue, new Chunk(null, 0, e), stage);
+        }
+    }
+
+    // Create one chunk and write its rejects; returns the number of created rows.
+    private int importChunk(List<Row> rows, Columns columns, BufferedWriter rejects) throws IOException {
+        List<Patient> patients = new ArrayList<>(rows.size());
+        for (Row row : rows) {
+            patients.add(columns.toPatient(row.fields()));
+        }
+        List<BulkRowResultDto> results;
+        try {
+            BulkCreateResultDto result = patientService.savePatients(patients);
+            results = result.getResults();
+        } catch (DuplicateEntityException e) {
+            // a concurrent writer took an email/phone between the duplicate check and the insert
+            results = new ArrayList<>(rows.size());
+            for (int i = 0; i < patients.size(); i++) {
+                results.add(saveOne(i, columns.toPatient(rows.get(i).fields())));
+            }
+        }
+
+        int created = 0;
+        for (int i = 0; i < rows.size(); i++) {
+            BulkRowResultDto r = results.get(i);
+            if (r.getStatus() == BulkRowResultDto.Status.CREATED) {
+                created++;
+                continue;
+            }
+            Patient p = patients.get(i);
+            rejects.write(rows.get(i).record() + "," + r.getStatus() + "," + CsvRecordReader.quote(r.getError()) + ","
+                    + CsvRecordReader.quote(p.getFirstName()) + "," + CsvRecordReader.quote(p.getLastName()) + ","
+                    + CsvRecordReader.quote(p.getEmail()) + "," + CsvRecordReader.quote(p.getPhone()));
+            rejects.newLine();
+        }
+        return created;
+    }
+
+    private BulkRowResultDto saveOne(int index, Patient p) {
+        try {
+            return BulkRowResultDto.created(index, patientService.savePatient(p).getId());
+        } catch (DuplicateEntityException e) {
+            return BulkRowResultDto.rejected(index, BulkRowResultDto.Status.DUPLICATE, e.getMessage());
+        } catch (IllegalArgumentException e) {
+            return BulkRowResultDto.rejected(index, BulkRowResultDto.Status.INVALID, e.getMessage());
+        }
+    }
+
+    private static boolean put(BlockingQueue<Chunk> queue, Chunk chunk, Stage stage) {
+        try {
+            while (!queue.offer(chunk, 100, TimeUnit.MILLISECONDS)) {
+                if (stage.cancelled) {
+                    return false;
+                }
+            }
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private static Chunk take(BlockingQueue<Chunk> queue) throws InterruptedIOException {
+        try {
+            return queue.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Import interrupted");
+        }
+    }
+
+    private static long readCheckpoint(Path checkpoint) throws IOException {
+        if (!Files.exists(checkpoint)) {
+            return 0;
+        }
+        String content = Files.readString(checkpoint, StandardCharsets.UTF_8).trim();
+        try {
+            return Long.parseLong(content);
+        } catch (NumberFormatException e) {
+            throw new IOException("Corrupt import checkpoint " + checkpoint + ": " + content, e);
+        }
+    }
+
+    // Write-then-rename so a crash never leaves a partial checkpoint.
+    private static void writeCheckpoint(Path checkpoint, long record) throws IOException {
+        Path tmp = checkpoint.resolveSibling(checkpoint.getFileName() + ".tmp");
+        Files.writeString(tmp, Long.toString(record), StandardCharsets.UTF_8);
+        Files.move(tmp, checkpoint, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+}
@@ -1,116 +1,471 @@
 package com.csd.medicus.service.impl;
 
+import com.csd.medicus.cache.PatientByIdCache;
+import com.csd.medicus.cache.PatientSearchCache;
+import com.csd.medicus.dedup.PatientContactFilter;
 import com.csd.medicus.model.Patient;
 import com.csd.medicus.repository.PatientRepository;
 import com.csd.medicus.service.PatientService;
+import com.csd.medicus.dto.BulkCreateResultDto;
+import com.csd.medicus.dto.BulkRowResultDto;
+import com.csd.medicus.dto.PatientAdminDto;
 import com.csd.medicus.dto.PatientDto;
 import com.csd.medicus.mapper.PatientMapper;
+import com.csd.medicus.util.BatchNormalizer;
+import com.csd.medicus.util.EmailCanonicalizer;
 import com.csd.medicus.util.PhoneNormalizer;
 import com.csd.medicus.util.EmailNormalizer;
+import com.csd.medicus.util.LongHashSet;
+import com.csd.medicus.util.LongIntHashMap;
+import com.csd.medicus.util.NormalizedBatch;
+import com.csd.medicus.util.PhoneticEncoder;
 import com.csd.medicus.exception.DuplicateEntityException;
+import com.csd.medicus.search.KeysetSlice;
+import com.csd.medicus.search.PatientNameTrie;
+import com.csd.medicus.search.PatientSearchKeys;
+import com.csd.medicus.search.PatientTrigramIndex;
 
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+import java.util.stream.IntStream;
 
 /**
  * Service implementation for patient operations with soft-delete support.
  *
  * Key behaviors updated for soft-delete:
- * - getAllPatients() returns only non-deleted patients.
+ * - getAllPatients(pageable) returns one page of non-deleted patients, filtered in the query.
  * - getPatientById(id) returns the patient only if not deleted.
- * - deletePatient(id) performs a soft-delete (sets isDeleted = true).
- * - searchPatients(...) delegates to repository which filters out deleted rows.
+ * - Read paths (getPatientDtoById, the searches, listAllPatients) run in read-only transactions on JPQL
+ *   constructor projections into DTOs, so no entity is hydrated or mapped; getPatientDtoById reads
+ *   through PatientByIdCache.
+ * - deletePatient(id) performs a soft-delete (sets isDeleted = true and stamps deletedAt).
+ * - searchPatients(...) is answered by the in-memory PatientTrigramIndex once it is loaded, and
+ *   delegates to the repository (which filters out deleted rows) otherwise.
+ * - searchPatients(...) results are cached in PatientSearchCache.
+ * - suggestNames(...) answers type-ahead from the in-memory PatientNameTrie.
+ * - Duplicate emails/phones among active patients are rejected by database unique constraints
+ *   (Patient.activeEmail/activePhone) and reported as DuplicateEntityException naming the field.
+ * - savePatients(...) creates many patients at once with set-based duplicate checks and batched inserts.
+ * - Every write updates the trigram index and name trie and evicts affected cached searches after the transaction commits.
+ * - patchPatient(...) applies a partial update at an expected version; with Patient's @DynamicUpdate the
+ *   UPDATE lists only the changed columns, and a patch that changes nothing writes nothing.
+ * - Every write to an existing patient evicts its id from PatientByIdCache both immediately and after commit,
+ *   so neither the writing transaction nor a reader racing the commit keeps the old row.
  *
- * Admin operations are implemented here (listAllPatients, restorePatient, purgePatient).
+ * Admin operations are implemented here (listAllPatients, restorePatient, purgePatient). Admin listings
+ * with includeDeleted=true are the only reads that skip the soft-delete restriction.
  */
 @Service
 @Transactional
 public class PatientServiceImpl implements PatientService {
 
+    // Maximum page size for search results to avoid heavy responses
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final int MAX_ADMIN_PAGE_SIZE = 500;
+
+    private static final int MIN_AUTOCOMPLETE_PREFIX = 2;
+
+    private static final Pattern PHONE_SUFFIX = Pattern.compile("\\d{4,15}");
+
+    // Bulk create limits: rows per request, rows before normalization goes parallel, values per IN (...) lookup
+    private static final int MAX_BULK_SIZE = 10_000;
+    private static final int PARALLEL_NORMALIZE_THRESHOLD = 256;
+    private static final int IN_CLAUSE_CHUNK = 1_000;
+
     private final PatientRepository repo;
+    private final PatientTrigramIndex searchIndex;
+    private final PatientSearchCache searchCache;
+    private final PatientNameTrie nameTrie;
+    private final PatientContactFilter contactFilter;
+    private final PatientByIdCache byIdCache;
 
-    public PatientServiceImpl(PatientRepository repo) {
+    public PatientServiceImpl(PatientRepository repo, PatientTrigramIndex searchIndex, PatientSearchCache searchCache,
+                              PatientNameTrie nameTrie, PatientContactFilter contactFilter, PatientByIdCache byIdCache) {
         this.repo = repo;
+        this.searchIndex = searchIndex;
+        this.searchCache = searchCache;
+        this.nameTrie = nameTrie;
+        this.contactFilter = contactFilter;
+        this.byIdCache = byIdCache;
     }
 
     @Override
     public Patient savePatient(Patient p) {
-        // basic validation aligned with Patient model
-        if (p == null) throw new IllegalArgumentException("Patient must not be null");
-        if (p.getFirstName() == null || p.getFirstName().trim().length() < 2) {
-            throw new IllegalArgumentException("First name required and must be at least 2 characters");
+        prepare(p);
+        boolean isNew = p.getId() == null;
+        // Ensure new records are not accidentally marked deleted
+        if (isNew) {
+            p.setDeleted(false);
+        } else {
+            evictById(p.getId());
         }
-        if (p.getLastName() == null || p.getLastName().trim().length() < 1) {
-            throw new IllegalArgumentException("Last name required");
+
+        String firstName = p.getFirstName();
+        String phone = p.getPhone();
+        rejectEquivalentEmail(p.getEmail(), p.getId());
+        // keeps the filter current for the bulk pre-checks; added before the write so a concurrent
+        // bulk create cannot skip its lookup (a rollback only leaves a harmless false positive)
+        contactFilter.add(p.getEmail(), p.getPhone());
+        // Exact duplicates are rejected by the unique constraints on the active email/phone columns
+        Patient saved = saveAndFlush(p);
+        afterCommit(() -> {
+            searchIndex.index(saved);
+            nameTrie.index(saved);
+            if (isNew) {
+                searchCache.invalidateFor(firstName, phone);
+            } else {
+                // saving over an existing id: the previous values are unknown here
+                searchCache.invalidateAll();
+            }
+        });
+        return saved;
+    }
+
+    @Override
+    public BulkCreateResultDto savePatients(List<Patient> patients) {
+        if (patients == null || patients.isEmpty()) {
+            throw new IllegalArgumentException("At least one patient is required");
         }
-        // normalize / trim
-        p.setFirstName(p.getFirstName().trim());
-        p.setLastName(p.getLastName().trim());
+        if (patients.size() > MAX_BULK_SIZE) {
+            throw new IllegalArgumentException("At most " + MAX_BULK_SIZE + " patients per request");
+        }
+        int n = patients.size();
+        BulkRowResultDto[] results = new BulkRowResultDto[n];
 
-        // Normalize and validate phone if present (preserve null / empty -> null)
-        String normalizedPhone = null;
-        if (p.getPhone() != null) {
-            normalizedPhone = PhoneNormalizer.normalize(p.getPhone());
-            p.setPhone(normalizedPhone);
+        // 1. validate and normalize; rows are independent and CPU-bound, so large batches use all cores.
+        // Phones and emails are normalized as columns, so bad values are recorded rather than thrown.
+        boolean parallel = n >= PARALLEL_NORMALIZE_THRESHOLD;
+        String[] rawPhones = new String[n];
+        String[] rawEmails = new String[n];
+        for (int i = 0; i < n; i++) {
+            Patient p = patients.get(i);
+            if (p != null) {
+                rawPhones[i] = p.getPhone();
+                rawEmails[i] = p.getEmail();
+            }
         }
+        NormalizedBatch phones = BatchNormalizer.phones(rawPhones, "IN", parallel);
+        NormalizedBatch emails = BatchNormalizer.emails(rawEmails, parallel);
+        IntStream rows = IntStream.range(0, n);
+        (parallel ? rows.parallel() : rows).forEach(i -> {
+            Patient p = patients.get(i);
+            String invalid = checkNames(p);
+            if (invalid == null) {
+                invalid = phones.message(i);
+            }
+            if (invalid == null) {
+                invalid = emails.message(i);
+            }
+            if (invalid != null) {
+                results[i] = BulkRowResultDto.rejected(i, BulkRowResultDto.Status.INVALID, invalid);
+                return;
+            }
+            p.setPhone(phones.value(i));
+            p.setEmail(emails.value(i));
+            PatientSearchKeys.refresh(p);
+            p.setId(null);
+            p.setDeleted(false);
+        });
 
-        // Normalize and validate email if present (normalize returns null for empty)
-        String normalizedEmail = null;
-        if (p.getEmail() != null) {
-            normalizedEmail = EmailNormalizer.normalize(p.getEmail());
-            p.setEmail(normalizedEmail);
+        // 2. duplicates within the batch: the first row carrying an email (compared in canonical form,
+        // see EmailCanonicalizer) or phone (compared as packed E.164, see Patient.phoneKey) wins
+        Map<String, Integer> rowByEmail = new HashMap<>();
+        LongIntHashMap rowByPhone = new LongIntHashMap(n);
+        for (int i = 0; i < n; i++) {
+            if (results[i] != null) {
+                continue;
+            }
+            Patient p = patients.get(i);
+            String canonicalEmail = EmailCanonicalizer.canonicalize(p.getEmail());
+            Integer sameEmail = canonicalEmail == null ? null : rowByEmail.get(canonicalEmail);
+            int samePhone = p.getPhoneKey() == null ? -1 : rowByPhone.get(p.getPhoneKey(), -1);
+            if (sameEmail != null || samePhone >= 0) {
+                String field = sameEmail != null ? "email" : "phone";
+                int other = sameEmail != null ? sameEmail : samePhone;
+                results[i] = BulkRowResultDto.rejected(i, BulkRowResultDto.Status.DUPLICATE,
+                        "Same " + field + " as row " + other);
+                continue;
+            }
+            if (canonicalEmail != null) {
+                rowByEmail.put(canonicalEmail, i);
+            }
+            if (p.getPhoneKey() != null) {
+                rowByPhone.put(p.getPhoneKey(), i);
+            }
         }
 
-        // Duplicate detection (only on create)
-        if (p.getId() == null) {
-            boolean emailExists = normalizedEmail != null && repo.existsByEmailAndIsDeletedFalse(normalizedEmail);
-            boolean phoneExists = normalizedPhone != null && repo.existsByPhoneAndIsDeletedFalse(normalizedPhone);
+        // 3. duplicates against active patients: one IN (...) query per chunk instead of per-row exists checks
+        // (values the contact filter has never seen are left out of the lookups)
+        boolean filterReady = contactFilter.isReady();
+        Set<String> takenEmails = new HashSet<>();
+        findExisting((filterReady
+                ? rowByEmail.keySet().stream().filter(contactFilter::mayContainEmail)
+                : rowByEmail.keySet().stream()).map(EmailCanonicalizer::key).toList(), repo::findActiveEmailsByEmailKeyIn,
+                email -> takenEmails.add(EmailCanonicalizer.canonicalize(email)));
+        LongHashSet takenPhones = new LongHashSet(16);
+        List<Long> phoneKeys = new ArrayList<>(rowByPhone.size());
+        for (long key : rowByPhone.keys()) {
+            if (!filterReady || contactFilter.mayContainPhone(key)) {
+                phoneKeys.add(key);
+            }
+        }
+        findExisting(phoneKeys, repo::findActivePhoneKeysIn, takenPhones::add);
+
+        List<Patient> accepted = new ArrayList<>(n);
+        List<Integer> acceptedRows = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            if (results[i] != null) {
+                continue;
+            }
+            Patient p = patients.get(i);
+            if (p.getEmail() != null && takenEmails.contains(EmailCanonicalizer.canonicalize(p.getEmail()))) {
+                results[i] = BulkRowResultDto.rejected(i, BulkRowResultDto.Status.DUPLICATE,
+                        "Patient with same email already exists: " + p.getEmail());
+            } else if (p.getPhoneKey() != null && takenPhones.contains(p.getPhoneKey())) {
+                results[i] = BulkRowResultDto.rejected(i, BulkRowResultDto.Status.DUPLICATE,
+                        "Patient with same phone already exists: " + p.getPhone());
+            } else {
+                accepted.add(p);
+                acceptedRows.add(i);
+            }
+        }
+
+        // 4. insert; with sequence ids Hibernate groups these into JDBC batches (hibernate.jdbc.batch_size)
+        for (Patient p : accepted) {
+            contactFilter.add(p.getEmail(), p.getPhone());
+        }
+        List<Patient> saved = accepted.isEmpty() ? List.of() : saveAllAndFlush(accepted);
+        for (int k = 0; k < saved.size(); k++) {
+            int row = acceptedRows.get(k);
+            results[row] = BulkRowResultDto.created(row, saved.get(k).getId());
+        }
+
+        afterCommit(() -> {
+            for (Patient p : saved) {
+                searchIndex.index(p);
+                nameTrie.index(p);
+            }
+            if (!saved.isEmpty()) {
+                searchCache.invalidateAll();
+            }
+        });
+        return new BulkCreateResultDto(saved.size(), n - saved.size(), Arrays.asList(results));
+    }
+
+    private static <T, R> void findExisting(Collection<T> values, Function<Collection<T>, List<R>> lookup,
+                                            Consumer<R> found) {
+        List<T> chunk = new ArrayList<>(Math.min(values.size(), IN_CLAUSE_CHUNK));
+        for (T v : values) {
+            chunk.add(v);
+            if (chunk.size() == IN_CLAUSE_CHUNK) {
+                lookup.apply(chunk).forEach(found);
+                chunk = new ArrayList<>(IN_CLAUSE_CHUNK);
+            }
+        }
+        if (!chunk.isEmpty()) {
+            lookup.apply(chunk).forEach(found);
+        }
+    }
 
-            if (emailExists || phoneExists) {
-                String conflictField = emailExists ? "email" : "phone";
-                String conflictValue = emailExists ? normalizedEmail : normalizedPhone;
-                throw new DuplicateEntityException("Patient with same " + conflictField + " already exists: " + conflictValue);
+    /**
+     * Reject an email that reaches the same mailbox as another active patient's, e.g.
+     * "john.doe+clinic@gmail.com" when "johndoe@gmail.com" is registered: one indexed equality probe on
+     * the canonical email key, skipped when the contact filter has never seen the address. Concurrent
+     * writers of two different but equivalent addresses are not serialized; exact duplicates are still
+     * guaranteed by the unique constraint.
+     *
+     * Updates must call this before changing the managed entity: the probe is a JPQL query, so
+     * Hibernate's AUTO flush would otherwise write the dirty row first and an exact duplicate would
+     * surface as a constraint violation from the query instead of a DuplicateEntityException.
+     */
+    private void rejectEquivalentEmail(String email, Long selfId) {
+        if (email == null || !contactFilter.mayContainEmail(email)) {
+            return;
+        }
+        for (String other : repo.findActiveEmailsByEmailKey(EmailCanonicalizer.key(email), selfId == null ? 0L : selfId)) {
+            if (EmailCanonicalizer.equivalent(other, email)) {
+                throw new DuplicateEntityException("email", "Patient with same email already exists: " + email, null);
             }
+        }
+    }
 
-            if ((normalizedEmail != null || normalizedPhone != null) && repo.existsByEmailOrPhoneAndIsDeletedFalse(normalizedEmail, normalizedPhone)) {
-                throw new DuplicateEntityException("Patient with same email or phone already exists");
+    // Write and flush immediately so unique-constraint violations surface here rather than at commit.
+    private Patient saveAndFlush(Patient p) {
+        try {
+            Patient saved = repo.save(p);
+            repo.flush();
+            return saved;
+        } catch (DataIntegrityViolationException e) {
+            throw duplicateOf(e, p);
+        }
+    }
+
+    private List<Patient> saveAllAndFlush(List<Patient> patients) {
+        try {
+            List<Patient> saved = repo.saveAll(patients);
+            repo.flush();
+            return saved;
+        } catch (DataIntegrityViolationException e) {
+            // a concurrent create took a value after the pre-check; the whole batch is rolled back and
+            // callers fall back to creating the rows one by one
+            throw duplicateOf(e, null);
+        }
+    }
+
+    /**
+     * Translate a violation of the active email/phone unique constraints into DuplicateEntityException
+     * naming the field; any other integrity violation is returned unchanged.
+     */
+    private static RuntimeException duplicateOf(DataIntegrityViolationException e, Patient p) {
+        String constraint = null;
+        for (Throwable t = e; t != null && constraint == null; t = t.getCause()) {
+            if (t instanceof ConstraintViolationException cve) {
+                constraint = cve.getConstraintName();
             }
         }
+        if (constraint == null) {
+            constraint = e.getMostSpecificCause().getMessage();
+        }
+        String c = constraint == null ? "" : constraint.toLowerCase(Locale.ROOT);
+        if (c.contains(Patient.UK_ACTIVE_EMAIL)) {
+            return new DuplicateEntityException("email", "Patient with same email already exists"
+                    + (p == null ? "" : ": " + p.getEmail()), e);
+        }
+        if (c.contains(Patient.UK_ACTIVE_PHONE)) {
+            return new DuplicateEntityException("phone", "Patient with same phone already exists"
+                    + (p == null ? "" : ": " + p.getPhone()), e);
+        }
+        return e;
+    }
 
-        // Ensure new records are not accidentally marked deleted
-        if (p.getId() == null) {
-            p.setDeleted(false);
+    // Validate required fields, trim names, normalize phone/email and refresh the derived search keys.
+    private static void prepare(Patient p) {
+        String invalid = checkNames(p);
+        if (invalid != null) {
+            throw new IllegalArgumentException(invalid);
+        }
+
+        // Normalize and validate phone if present (preserve null / empty -> null)
+        if (p.getPhone() != null) {
+            p.setPhone(PhoneNormalizer.normalize(p.getPhone()));
         }
 
-        return repo.save(p);
+        // Normalize and validate email if present (normalize returns null for empty)
+        if (p.getEmail() != null) {
+            p.setEmail(EmailNormalizer.normalize(p.getEmail()));
+        }
+        PatientSearchKeys.refresh(p);
+    }
+
+    // Validate and trim the required names; returns the validation message, or null when they are valid.
+    private static String checkNames(Patient p) {
+        // basic validation aligned with Patient model
+        if (p == null) {
+            return "Patient must not be null";
+        }
+        if (p.getFirstName() == null || p.getFirstName().trim().length() < 2) {
+            return "First name required and must be at least 2 characters";
+        }
+        if (p.getLastName() == null || p.getLastName().trim().length() < 1) {
+            return "Last name required";
+        }
+        // normalize / trim
+        p.setFirstName(p.getFirstName().trim());
+        p.setLastName(p.getLastName().trim());
+        return null;
     }
 
     @Override
-    public List<Patient> getAllPatients() {
-        // Prefer repository-level filtering, but repo doesn't have derived method name for findAllByIsDeletedFalse in your paste.
-        // Use in-memory filter for minimal-diff approach while preserving semantics.
-        List<Patient> all = repo.findAll();
-        return all.stream().filter(pt -> !pt.isDeleted()).toList();
+    @Transactional(readOnly = true)
+    public Page<Patient> getAllPatients(Pageable pageable) {
+        return repo.findByIsDeletedFalse(listingPage(pageable, MAX_PAGE_SIZE));
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Patient getPatientById(Long id) {
-         return repo.findByIdAndNotDeleted(id)
-        .orElseThrow(() -> new RuntimeException("Patient not found with id " + id));
+        return repo.findByIdAndNotDeleted(id)
+                .orElseThrow(() -> new RuntimeException("Patient not found with id " + id));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public PatientDto getPatientDtoById(Long id) {
+        PatientDto cached = byIdCache.get(id);
+        if (cached != null) {
+            return cached;
+        }
+        long cacheStamp = byIdCache.stamp();
+        long started = System.nanoTime();
+        PatientDto p = repo.findDtoByIdAndNotDeleted(id)
+                .orElseThrow(() -> new RuntimeException("Patient not found with id " + id));
+        byIdCache.put(p, cacheStamp, System.nanoTime() - started);
+        return p;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<Long> getPatientVersion(Long id) {
+        PatientDto cached = byIdCache.get(id);
+        if (cached != null && cached.getVersion() != null) {
+            return Optional.of(cached.getVersion());
+        }
+        return repo.findVersionByIdAndNotDeleted(id);
     }
 
     @Override
     public Patient updatePatient(Long id, Patient p) {
+        return updatePatient(id, p, null);
+    }
+
+    @Override
+    public Patient updatePatient(Long id, Patient p, Long expectedVersion) {
         Patient existing = repo.findById(id).orElseThrow(() -> new RuntimeException("Patient not found: " + id));
         if (existing.isDeleted()) {
             throw new RuntimeException("Patient not found with id " + id);
         }
+        // reject a lost update before touching the entity; a writer committing after this load is
+        // caught by the @Version check when the update is flushed
+        if (expectedVersion != null && expectedVersion != existing.getVersion()) {
+            throw new OptimisticLockingFailureException("Patient " + id + " is at version " + existing.getVersion()
+                    + ", not " + expectedVersion);
+        }
+        String oldFirstName = existing.getFirstName();
+        String oldPhone = existing.getPhone();
+        // normalize and check the new email before touching the managed entity (see rejectEquivalentEmail)
+        String normalizedEmail = p.getEmail() == null ? null : EmailNormalizer.normalize(p.getEmail());
+        if (p.getEmail() != null && !Objects.equals(normalizedEmail, existing.getEmail())) {
+            rejectEquivalentEmail(normalizedEmail, id);
+        }
+        evictById(id);
 
         if (p.getFirstName() != null && p.getFirstName().trim().length() >= 2) {
             existing.setFirstName(p.getFirstName().trim());
@@ -119,7 +474,6 @@ public class PatientServiceImpl implements PatientService {
             existing.setLastName(p.getLastName().trim());
         }
         if (p.getEmail() != null) {
-            String normalizedEmail = EmailNormalizer.normalize(p.getEmail());
             existing.setEmail(normalizedEmail);
         }
         if (p.getPhone() != null) {
@@ -127,7 +481,86 @@ public class PatientServiceImpl implements PatientService {
             String normalized = PhoneNormalizer.normalize(p.getPhone());
             existing.setPhone(normalized);
         }
-        return repo.save(existing);
+        PatientSearchKeys.refresh(existing);
+        String newFirstName = existing.getFirstName();
+        String newPhone = existing.getPhone();
+        contactFilter.add(existing.getEmail(), existing.getPhone());
+        Patient saved = saveAndFlush(existing);
+        afterCommit(() -> {
+            searchIndex.index(saved);
+            nameTrie.index(saved);
+            searchCache.invalidateFor(oldFirstName, oldPhone);
+            searchCache.invalidateFor(newFirstName, newPhone);
+        });
+        return saved;
+    }
+
+    @Override
+    public PatientDto patchPatient(Long id, PatientDto changes, long expectedVersion) {
+        if (changes == null) {
+            throw new IllegalArgumentException("Patch body must not be null");
+        }
+        Patient existing = repo.findById(id).orElseThrow(() -> new RuntimeException("Patient not found: " + id));
+        if (existing.isDeleted()) {
+            throw new RuntimeException("Patient not found with id " + id);
+        }
+        if (existing.getVersion() != expectedVersion) {
+            throw new OptimisticLockingFailureException("Patient " + id + " is at version " + existing.getVersion()
+                    + ", not " + expectedVersion);
+        }
+        String oldFirstName = existing.getFirstName();
+        String oldPhone = existing.getPhone();
+
+        // validate everything before touching the managed entity
+        String firstName = changes.getFirstName() == null ? null : changes.getFirstName().trim();
+        if (firstName != null && firstName.length() < 2) {
+            throw new IllegalArgumentException("First name must be at least 2 characters");
+        }
+        String lastName = changes.getLastName() == null ? null : changes.getLastName().trim();
+        if (lastName != null && lastName.isEmpty()) {
+            throw new IllegalArgumentException("Last name must not be blank");
+        }
+        String email = changes.getEmail() == null ? null : EmailNormalizer.normalize(changes.getEmail());
+        String phone = changes.getPhone() == null ? null : PhoneNormalizer.normalize(changes.getPhone());
+        if (email != null && !email.equals(existing.getEmail())) {
+            rejectEquivalentEmail(email, id);
+        }
+
+        boolean changed = false;
+        if (firstName != null && !firstName.equals(existing.getFirstName())) {
+            existing.setFirstName(firstName);
+            changed = true;
+        }
+        if (lastName != null && !lastName.equals(existing.getLastName())) {
+            existing.setLastName(lastName);
+            changed = true;
+        }
+        if (email != null && !email.equals(existing.getEmail())) {
+            existing.setEmail(email);
+            changed = true;
+        }
+        if (phone != null && !phone.equals(existing.getPhone())) {
+            existing.setPhone(phone);
+            changed = true;
+        }
+        if (!changed) {
+            return PatientMapper.toDto(existing);
+        }
+
+        PatientSearchKeys.refresh(existing);
+        evictById(id);
+        contactFilter.add(existing.getEmail(), existing.getPhone());
+        // the flush bumps the version on the managed instance, so no re-read is needed
+        Patient saved = saveAndFlush(existing);
+        String newFirstName = saved.getFirstName();
+        String newPhone = saved.getPhone();
+        afterCommit(() -> {
+            searchIndex.index(saved);
+            nameTrie.index(saved);
+            searchCache.invalidateFor(oldFirstName, oldPhone);
+            searchCache.invalidateFor(newFirstName, newPhone);
+        });
+        return PatientMapper.toDto(saved);
     }
 
     @Override
@@ -138,10 +571,18 @@ public class PatientServiceImpl implements PatientService {
             return;
         }
         existing.setDeleted(true);
+        existing.setDeletedAt(LocalDateTime.now());
+        evictById(id);
         repo.save(existing);
+        afterCommit(() -> {
+            searchIndex.remove(id);
+            nameTrie.remove(id);
+            searchCache.invalidateFor(existing.getFirstName(), existing.getPhone());
+        });
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Page<PatientDto> searchPatients(String query, Pageable pageable) {
         // Defensive: if caller passed null pageable, create a default one
         Pageable effective = pageable != null ? pageable : PageRequest.of(0, 20, Sort.unsorted());
@@ -157,32 +598,163 @@ public class PatientServiceImpl implements PatientService {
         }
 
         // Enforce maximum page size to avoid heavy responses
-        final int MAX_PAGE_SIZE = 100;
         if (effective.getPageSize() > MAX_PAGE_SIZE) {
             effective = PageRequest.of(effective.getPageNumber(), MAX_PAGE_SIZE, effective.getSort());
         }
 
-        // Delegate to repository (JPQL handles partial + case-insensitive and excludes deleted rows)
-        Page<Patient> entityPage = repo.searchPatients(trimmed, effective);
-        if (entityPage == null || entityPage.isEmpty()) {
+        PatientSearchCache.Key cacheKey = PatientSearchCache.Key.of(trimmed, effective);
+        Page<PatientDto> cached = searchCache.get(cacheKey);
+        if (cached != null) {
+            return cached;
+        }
+        long cacheStamp = searchCache.stamp();
+
+        // Prefer the trigram index; otherwise delegate to repository (JPQL handles partial +
+        // case-insensitive and excludes deleted rows)
+        Page<PatientDto> page = canUseSearchIndex(trimmed, effective)
+                ? searchViaIndex(trimmed, effective)
+                : repo.searchPatients(trimmed, effective);
+        Page<PatientDto> result = page == null || page.isEmpty() ? Page.empty(effective) : page;
+        searchCache.put(cacheKey, result, cacheStamp);
+        return result;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Page<PatientDto> searchPatientsPhonetic(String name, Pageable pageable) {
+        Pageable effective = pageable != null ? pageable : PageRequest.of(0, 20, Sort.unsorted());
+        if (effective.getPageSize() > MAX_PAGE_SIZE) {
+            effective = PageRequest.of(effective.getPageNumber(), MAX_PAGE_SIZE, effective.getSort());
+        }
+        String key = PhoneticEncoder.encode(name);
+        if (key == null) {
             return Page.empty(effective);
         }
+        Page<PatientDto> page = repo.searchByPhoneticKey(key, effective);
+        return page == null || page.isEmpty() ? Page.empty(effective) : page;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<PatientDto> findByEquivalentEmail(String email) {
+        String normalized = email == null ? null : EmailNormalizer.normalize(email);
+        if (normalized == null) {
+            throw new IllegalArgumentException("email is required");
+        }
+        List<PatientDto> matches = new ArrayList<>();
+        for (PatientDto dto : repo.findActiveDtosByEmailKey(EmailCanonicalizer.key(normalized))) {
+            // drop key collisions
+            if (EmailCanonicalizer.equivalent(dto.getEmail(), normalized)) {
+                matches.add(dto);
+            }
+        }
+        return matches;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Page<PatientDto> searchByPhoneSuffix(String digits, Pageable pageable) {
+        if (digits == null || !PHONE_SUFFIX.matcher(digits.trim()).matches()) {
+            throw new IllegalArgumentException("phone suffix must be 4-15 digits");
+        }
+        Pageable effective = pageable != null ? pageable : PageRequest.of(0, 20, Sort.unsorted());
+        if (effective.getPageSize() > MAX_PAGE_SIZE) {
+            effective = PageRequest.of(effective.getPageNumber(), MAX_PAGE_SIZE, effective.getSort());
+        }
+        // "...3210" -> reversed prefix "0123" -> range ["0123", "0124")
+        String from = new StringBuilder(digits.trim()).reverse().toString();
+        char last = from.charAt(from.length() - 1);
+        String to = from.substring(0, from.length() - 1) + (char) (last + 1);
 
-        // Map entities -> DTOs while keeping Page metadata
-        return entityPage.map(PatientMapper::toDto);
+        Page<PatientDto> page = repo.searchByPhoneReversedRange(from, to, effective);
+        return page == null || page.isEmpty() ? Page.empty(effective) : page;
+    }
+
+    @Override
+    // answered from the in-memory trie: no transaction, so no pooled connection per keystroke
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public List<String> suggestNames(String prefix, int limit) {
+        if (prefix == null) {
+            return List.of();
+        }
+        String trimmed = prefix.trim();
+        // suggestions start after 2 characters; until the trie is loaded there are none
+        if (trimmed.length() < MIN_AUTOCOMPLETE_PREFIX || !nameTrie.isReady()) {
+            return List.of();
+        }
+        return nameTrie.suggest(trimmed, limit);
+    }
+
+    private boolean canUseSearchIndex(String query, Pageable pageable) {
+        // the index returns matches in id order, so only unsorted requests are served from it
+        return searchIndex.isReady() && searchIndex.supports(query) && pageable.getSort().isUnsorted();
+    }
+
+    private Page<PatientDto> searchViaIndex(String query, Pageable pageable) {
+        PatientTrigramIndex.Hits hits = searchIndex.search(query, pageable.getOffset(), pageable.getPageSize());
+        return new PageImpl<>(loadActiveInOrder(hits.ids()), pageable, hits.total());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public KeysetSlice<PatientDto> searchPatientsAfter(String query, long afterId, int size) {
+        Pageable pageable = PageRequest.of(0, Math.max(1, Math.min(size, MAX_PAGE_SIZE)));
+        if (query == null || query.trim().isEmpty()) {
+            return new KeysetSlice<>(List.of(), pageable, false, null);
+        }
+        String trimmed = query.trim();
+
+        if (searchIndex.isReady() && searchIndex.supports(trimmed)) {
+            // fetch one extra id to learn whether another slice follows
+            List<Long> ids = searchIndex.searchAfter(trimmed, afterId, pageable.getPageSize() + 1);
+            boolean hasNext = ids.size() > pageable.getPageSize();
+            List<Long> pageIds = hasNext ? ids.subList(0, pageable.getPageSize()) : ids;
+            // continue after the last id scanned: ids deleted since indexing are dropped from the content
+            Long lastScanned = pageIds.isEmpty() ? null : pageIds.get(pageIds.size() - 1);
+            return new KeysetSlice<>(loadActiveInOrder(pageIds), pageable, hasNext, lastScanned);
+        }
+        Slice<PatientDto> slice = repo.searchPatientsAfter(trimmed, afterId, pageable);
+        if (slice == null || !slice.hasContent()) {
+            return new KeysetSlice<>(List.of(), pageable, false, null);
+        }
+        List<PatientDto> content = slice.getContent();
+        return new KeysetSlice<>(content, pageable, slice.hasNext(), content.get(content.size() - 1).getId());
+    }
+
+    // Load patients by id, preserving the given order; rows deleted since they were indexed are not returned
+    private List<PatientDto> loadActiveInOrder(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, PatientDto> byId = new HashMap<>();
+        for (PatientDto p : repo.findActiveDtosByIdIn(ids)) {
+            byId.put(p.getId(), p);
+        }
+        List<PatientDto> content = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            PatientDto p = byId.get(id);
+            if (p != null) {
+                content.add(p);
+            }
+        }
+        return content;
     }
 
     // Admin operations
 
     @Override
-    public List<Patient> listAllPatients(boolean includeDeleted) {
-        if (includeDeleted) {
-            return repo.findAll();
-        } else {
-            // prefer repository-level behaviour if available; fall back to filter
-            List<Patient> all = repo.findAll();
-            return all.stream().filter(p -> !p.isDeleted()).toList();
+    @Transactional(readOnly = true)
+    public Page<PatientAdminDto> listAllPatients(boolean includeDeleted, Pageable pageable) {
+        return repo.findAdminDtos(includeDeleted, listingPage(pageable, MAX_ADMIN_PAGE_SIZE));
+    }
+
+    // Listings default to id order so pages are stable, and are capped at maxSize rows.
+    private static Pageable listingPage(Pageable pageable, int maxSize) {
+        if (pageable == null || pageable.isUnpaged()) {
+            return PageRequest.of(0, 20, Sort.by("id"));
         }
+        Sort sort = pageable.getSort().isSorted() ? pageable.getSort() : Sort.by("id");
+        return PageRequest.of(pageable.getPageNumber(), Math.min(pageable.getPageSize(), maxSize), sort);
     }
 
     @Override
@@ -191,8 +763,20 @@ public class PatientServiceImpl implements PatientService {
         if (!p.isDeleted()) {
             throw new IllegalStateException("Patient with id " + id + " is not deleted");
         }
+        // probe before touching the managed entity: the query would flush it first
+        rejectEquivalentEmail(p.getEmail(), id);
         p.setDeleted(false);
-        return repo.save(p);
+        p.setDeletedAt(null);
+        evictById(id);
+        contactFilter.add(p.getEmail(), p.getPhone());
+        // fails with DuplicateEntityException if another active patient took the email/phone meanwhile
+        Patient saved = saveAndFlush(p);
+        afterCommit(() -> {
+            searchIndex.index(saved);
+            nameTrie.index(saved);
+            searchCache.invalidateFor(p.getFirstName(), p.getPhone());
+        });
+        return saved;
     }
 
     @Override
@@ -200,6 +784,34 @@ public class PatientServiceImpl implements PatientService {
         if (!repo.existsById(id)) {
             throw new RuntimeException("Patient not found: " + id);
         }
+        evictById(id);
         repo.deleteById(id);
+        afterCommit(() -> {
+            searchIndex.remove(id);
+            nameTrie.remove(id);
+            // only the id is known here, so drop every cached search
+            searchCache.invalidateAll();
+        });
+    }
+
+    // Drop the cached row now (reads later in this transaction) and again after commit (a concurrent
+    // reader may have cached the pre-commit row in between).
+    private void evictById(Long id) {
+        byIdCache.invalidate(id);
+        afterCommit(() -> byIdCache.invalidate(id));
+    }
+
+    // In-memory structures must only observe committed state; outside a transaction run immediately.
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
     }
 }
\ No newline at end of file
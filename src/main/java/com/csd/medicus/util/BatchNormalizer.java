@@ -0,0 +1,120 @@
+package com.csd.medicus.util;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Normalizes whole columns of phones or emails, for bulk flows (bulk create, imports, re-normalization)
+ * where many values can be bad.
+ *
+ * Behavior:
+ * - Every value gets the result PhoneNormalizer/EmailNormalizer would give it, but a bad value is
+ *   recorded as a NormalizationError at its index instead of being thrown, so dirty input costs no
+ *   exception (and stack trace) per row. NormalizedBatch.message reproduces the thrown message.
+ * - Null values are treated as absent and normalize to null without an error (the single-value
+ *   normalizers reject null, callers there check for it first).
+ * - The parallel mode splits the input in halves on the fork/join common pool down to 2048-value
+ *   leaves; smaller inputs are normalized on the calling thread either way.
+ */
+public final class BatchNormalizer {
+
+    // values normalized per fork/join leaf task
+    private static final int LEAF_SIZE = 2048;
+
+    private BatchNormalizer() {
+        // utility
+    }
+
+    /**
+     * Normalize phones to E.164; see PhoneNormalizer.normalize(String, String).
+     */
+    public static NormalizedBatch phones(String[] phones, String defaultCountry, boolean parallel) {
+        int region = PhoneNormalizer.region(defaultCountry);
+        return run(new Task(phones, true, region, new String[phones.length], new byte[phones.length], 0, phones.length),
+                parallel, defaultCountry);
+    }
+
+    public static NormalizedBatch phones(List<String> phones, String defaultCountry, boolean parallel) {
+        return phones(phones.toArray(new String[0]), defaultCountry, parallel);
+    }
+
+    /**
+     * Normalize emails (trimmed, lower-cased, validated); see EmailNormalizer.normalize(String).
+     */
+    public static NormalizedBatch emails(String[] emails, boolean parallel) {
+        return run(new Task(emails, false, -1, new String[emails.length], new byte[emails.length], 0, emails.length),
+                parallel, null);
+    }
+
+    public static NormalizedBatch emails(List<String> emails, boolean parallel) {
+        return emails(emails.toArray(new String[0]), parallel);
+    }
+
+    private static NormalizedBatch run(Task task, boolean parallel, String defaultCountry) {
+        if (parallel && task.to - task.from > LEAF_SIZE) {
+            ForkJoinPool.commonPool().invoke(task);
+        } else {
+            task.normalizeRange();
+        }
+        return new NormalizedBatch(task.raw, defaultCountry, task.values, task.errors);
+    }
+
+    /**
+     * Normalizes raw[from, to) into values/errors: phones (with the default country's dialing plan
+     * region) or emails.
+     */
+    private static final class Task extends RecursiveAction {
+        private final String[] raw;
+        private final boolean phones;
+        private final int region;
+        private final String[] values;
+        private final byte[] errors;
+        private final int from;
+        private final int to;
+
+        Task(String[] raw, boolean phones, int region, String[] values, byte[] errors, int from, int to) {
+            this.raw = raw;
+            this.phones = phones;
+            this.region = region;
+            this.values = values;
+            this.errors = errors;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= LEAF_SIZE) {
+                normalizeRange();
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new Task(raw, phones, region, values, errors, from, mid),
+                    new Task(raw, phones, region, values, errors, mid, to));
+        }
+
+        void normalizeRange() {
+            if (phones) {
+                char[] buf = PhoneNormalizer.buffer();
+                for (int i = from; i < to; i++) {
+                    if (raw[i] == null) {
+                        continue;
+                    }
+                    int result = PhoneNormalizer.scan(raw[i], region, buf);
+                    if (result < 0) {
+                        errors[i] = (byte) -result;
+                    } else {
+                        values[i] = PhoneNormalizer.text(buf, result);
+                    }
+                }
+            } else {
+                for (int i = from; i < to; i++) {
+                    if (raw[i] != null && !EmailNormalizer.normalizeInto(raw[i], values, i)) {
+                        errors[i] = NormalizationError.INVALID_EMAIL.code();
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,238 @@
+package com.csd.medicus.util;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Country calling codes (ITU-T E.164 assignments) and national number lengths per region, loaded once
+ * from the binary resource phone/dialing-plan.bin.
+ *
+ * Behavior:
+ * - Regions are ISO 3166 alpha-2 codes. Several regions can share a calling code (+1, +7, +44, ...):
+ *   numbers carrying a shared code are reported as its main region and accepted with any national
+ *   length valid in one of the sharing regions.
+ * - Calling codes are kept in a digit trie: the child of node n for digit d is children[n * 10 + d], so
+ *   the longest code prefixing a number is found with one array read per digit (at most three).
+ *
+ * Resource format (big-endian): int magic "MDP1", unsigned short region count, then per region two
+ * ASCII letters, unsigned short calling code, byte min and max national significant number length and
+ * byte flags (1 = main region of a shared code, 2 = national numbers keep their leading zero). The
+ * readable source is src/test/resources/phone/dialing-plan.tsv; DialingPlanTest checks the resource
+ * against it and rewrites it when run with -Ddialing-plan.regenerate=true.
+ */
+final class DialingPlan {
+
+    static final String RESOURCE = "/phone/dialing-plan.bin";
+    static final int MAGIC = 0x4D445031; // "MDP1"
+    static final int FLAG_MAIN = 1;
+    static final int FLAG_KEEP_ZERO = 2;
+
+    // E.164 allows 15 digits including a calling code of at least one digit
+    static final int MAX_NATIONAL_LENGTH = 14;
+    private static final int MAX_CODE = 999;
+    private static final int NO_REGION = -1;
+
+    private final String[] regions;
+    private final String[] codes;
+    private final byte[] minLength;
+    private final byte[] maxLength;
+    // national lengths accepted after the region's calling code (union over the regions sharing it)
+    private final byte[] codeMinLength;
+    private final byte[] codeMaxLength;
+    private final boolean[] keepsZero;
+    private final Map<String, Integer> regionIndex;
+    private final Map<String, String> callingCodes;
+
+    private final int[] children;
+    // main region of the calling code ending at a trie node, or NO_REGION
+    private final int[] nodeRegion;
+
+    private DialingPlan(String[] regions, int[] codes, byte[] minLength, byte[] maxLength, byte[] flags) {
+        int n = regions.length;
+        this.regions = regions;
+        this.codes = new String[n];
+        this.minLength = minLength;
+        this.maxLength = maxLength;
+        this.codeMinLength = new byte[n];
+        this.codeMaxLength = new byte[n];
+        this.keepsZero = new boolean[n];
+        this.regionIndex = new HashMap<>(n * 2);
+        Map<String, String> callingCodes = new LinkedHashMap<>(n * 2);
+
+        Map<Integer, Integer> mainOf = new HashMap<>();
+        Map<Integer, Integer> sharing = new HashMap<>();
+        for (int r = 0; r < n; r++) {
+            if (regionIndex.put(regions[r], r) != null) {
+                throw new IllegalStateException("Duplicate region in dialing plan: " + regions[r]);
+            }
+            this.codes[r] = Integer.toString(codes[r]);
+            keepsZero[r] = (flags[r] & FLAG_KEEP_ZERO) != 0;
+            callingCodes.put(regions[r], this.codes[r]);
+            sharing.merge(codes[r], 1, Integer::sum);
+            if ((flags[r] & FLAG_MAIN) != 0 && mainOf.put(codes[r], r) != null) {
+                throw new IllegalStateException("Calling code +" + codes[r] + " has more than one main region");
+            }
+        }
+        this.callingCodes = Collections.unmodifiableMap(callingCodes);
+
+        int[] trie = new int[(n * 3 + 1) * 10];
+        int[] regionOfNode = new int[n * 3 + 1];
+        Arrays.fill(regionOfNode, NO_REGION);
+        int nodes = 1;
+        for (int r = 0; r < n; r++) {
+            Integer main = mainOf.get(codes[r]);
+            if (main == null) {
+                if (sharing.get(codes[r]) > 1) {
+                    throw new IllegalStateException("Calling code +" + codes[r] + " is shared but has no main region");
+                }
+                main = r;
+                mainOf.put(codes[r], r);
+            }
+            int node = 0;
+            for (int i = 0; i < this.codes[r].length(); i++) {
+                int slot = node * 10 + this.codes[r].charAt(i) - '0';
+                if (trie[slot] == 0) {
+                    trie[slot] = nodes++;
+                }
+                node = trie[slot];
+            }
+            regionOfNode[node] = main;
+        }
+        this.children = Arrays.copyOf(trie, nodes * 10);
+        this.nodeRegion = Arrays.copyOf(regionOfNode, nodes);
+
+        Arrays.fill(codeMinLength, Byte.MAX_VALUE);
+        for (int r = 0; r < n; r++) {
+            int main = mainOf.get(codes[r]);
+            codeMinLength[main] = (byte) Math.min(codeMinLength[main], minLength[r]);
+            codeMaxLength[main] = (byte) Math.max(codeMaxLength[main], maxLength[r]);
+        }
+    }
+
+    /**
+     * The plan bundled with the application.
+     *
+     * @throws IllegalStateException if the resource is missing or malformed
+     */
+    static DialingPlan load() {
+        try (InputStream in = DialingPlan.class.getResourceAsStream(RESOURCE)) {
+            if (in == null) {
+                throw new IllegalStateException("Dialing plan resource not found: " + RESOURCE);
+            }
+            return read(in);
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot read dialing plan " + RESOURCE, e);
+        }
+    }
+
+    static DialingPlan read(InputStream stream) throws IOException {
+        DataInputStream in = new DataInputStream(stream);
+        if (in.readInt() != MAGIC) {
+            throw new IllegalStateException("Not a dialing plan (bad magic)");
+        }
+        int n = in.readUnsignedShort();
+        if (n == 0) {
+            throw new IllegalStateException("Dialing plan has no regions");
+        }
+        String[] regions = new String[n];
+        int[] codes = new int[n];
+        byte[] minLength = new byte[n];
+        byte[] maxLength = new byte[n];
+        byte[] flags = new byte[n];
+        for (int r = 0; r < n; r++) {
+            char a = (char) in.readUnsignedByte();
+            char b = (char) in.readUnsignedByte();
+            if (a < 'A' || a > 'Z' || b < 'A' || b > 'Z') {
+                throw new IllegalStateException("Invalid region at entry " + r);
+            }
+            regions[r] = new String(new char[]{a, b});
+            codes[r] = in.readUnsignedShort();
+            minLength[r] = in.readByte();
+            maxLength[r] = in.readByte();
+            flags[r] = in.readByte();
+            if (codes[r] < 1 || codes[r] > MAX_CODE) {
+                throw new IllegalStateException("Invalid calling code for " + regions[r] + ": " + codes[r]);
+            }
+            if (minLength[r] < 1 || minLength[r] > maxLength[r]
+                    || Integer.toString(codes[r]).length() + maxLength[r] > MAX_NATIONAL_LENGTH + 1) {
+                throw new IllegalStateException("Invalid national lengths for " + regions[r]);
+            }
+            if ((flags[r] & ~(FLAG_MAIN | FLAG_KEEP_ZERO)) != 0) {
+                throw new IllegalStateException("Unknown flags for " + regions[r]);
+            }
+        }
+        if (in.read() != -1) {
+            throw new IllegalStateException("Trailing data after " + n + " dialing plan regions");
+        }
+        return new DialingPlan(regions, codes, minLength, maxLength, flags);
+    }
+
+    /**
+     * Index of a region (upper-case ISO 3166 alpha-2), or -1 if the plan has no such region.
+     */
+    int region(String region) {
+        Integer r = regionIndex.get(region);
+        return r == null ? NO_REGION : r;
+    }
+
+    /**
+     * Main region of the longest calling code prefixing digits[from, from + count), or -1 if none does.
+     */
+    int match(char[] digits, int from, int count) {
+        int node = 0;
+        int region = NO_REGION;
+        for (int i = 0; i < count; i++) {
+            int d = digits[from + i] - '0';
+            node = children[node * 10 + d];
+            if (node == 0) {
+                break;
+            }
+            if (nodeRegion[node] != NO_REGION) {
+                region = nodeRegion[node];
+            }
+        }
+        return region;
+    }
+
+    String regionName(int region) {
+        return regions[region];
+    }
+
+    String callingCode(int region) {
+        return codes[region];
+    }
+
+    int minLength(int region) {
+        return minLength[region];
+    }
+
+    int maxLength(int region) {
+        return maxLength[region];
+    }
+
+    // lengths valid after the calling code of a main region, over all regions sharing the code
+    int codeMinLength(int region) {
+        return codeMinLength[region];
+    }
+
+    int codeMaxLength(int region) {
+        return codeMaxLength[region];
+    }
+
+    boolean keepsLeadingZero(int region) {
+        return keepsZero[region];
+    }
+
+    /**
+     * Region to calling code, in resource order.
+     */
+    Map<String, String> callingCodes() {
+        return callingCodes;
+    }
+}
@@ -0,0 +1,117 @@
+package com.csd.medicus.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Utility to compute the canonical form of an email address, i.e. the mailbox it is delivered to,
+ * and a compact 64-bit key of that form for indexed lookups.
+ *
+ * Behavior:
+ * - Input is lower-cased and trimmed; the domain is mapped to its primary alias
+ *   (googlemail.com -> gmail.com, me.com/mac.com -> icloud.com, protonmail.com/pm.me -> proton.me).
+ * - Providers that ignore "+tag" suffixes (Gmail, Outlook/Hotmail/Live, iCloud, Fastmail, Proton) have
+ *   the tag removed; Gmail also ignores dots in the local part.
+ *   e.g. "John.Doe+clinic@googlemail.com" -> "johndoe@gmail.com"
+ * - Other domains are left unchanged: whether "+" or "." are significant there is unknown, and
+ *   folding them could merge different people.
+ * - Returns null for null input.
+ *
+ * The key is a 64-bit FNV-1a hash of the canonical form (finalized with the MurmurHash3 mixer), stored
+ * next to the email and compared with indexed equality lookups. Distinct mailboxes can share a key,
+ * so callers confirm key matches by comparing canonical forms. Changing these rules requires
+ * re-computing the stored keys (PatientIndexInitializer does so for stale rows on startup).
+ */
+public final class EmailCanonicalizer {
+
+    // primary domain of a provider and whether it ignores dots in the local part ("+tag" is always ignored)
+    private record Provider(String domain, boolean ignoresDots) {
+    }
+
+    private static final Provider GMAIL = new Provider("gmail.com", true);
+    private static final Provider ICLOUD = new Provider("icloud.com", false);
+    private static final Provider PROTON = new Provider("proton.me", false);
+
+    private static final Map<String, Provider> PROVIDERS = Map.ofEntries(
+            Map.entry("gmail.com", GMAIL),
+            Map.entry("googlemail.com", GMAIL),
+            Map.entry("outlook.com", new Provider("outlook.com", false)),
+            Map.entry("hotmail.com", new Provider("hotmail.com", false)),
+            Map.entry("live.com", new Provider("live.com", false)),
+            Map.entry("msn.com", new Provider("msn.com", false)),
+            Map.entry("icloud.com", ICLOUD),
+            Map.entry("me.com", ICLOUD),
+            Map.entry("mac.com", ICLOUD),
+            Map.entry("fastmail.com", new Provider("fastmail.com", false)),
+            Map.entry("proton.me", PROTON),
+            Map.entry("protonmail.com", PROTON),
+            Map.entry("protonmail.ch", PROTON),
+            Map.entry("pm.me", PROTON));
+
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private EmailCanonicalizer() {
+        // utility
+    }
+
+    /**
+     * Canonical form of an email address.
+     *
+     * @param email email address, ideally already normalized by EmailNormalizer
+     * @return canonical form, or null for null input
+     */
+    public static String canonicalize(String email) {
+        if (email == null) {
+            return null;
+        }
+        String e = email.trim().toLowerCase(Locale.ROOT);
+        int at = e.lastIndexOf('@');
+        if (at <= 0) {
+            return e;
+        }
+        Provider provider = PROVIDERS.get(e.substring(at + 1));
+        if (provider == null) {
+            return e;
+        }
+        String local = e.substring(0, at);
+        int plus = local.indexOf('+');
+        if (plus > 0) {
+            local = local.substring(0, plus);
+        }
+        if (provider.ignoresDots()) {
+            local = local.replace(".", "");
+        }
+        return local + "@" + provider.domain();
+    }
+
+    /**
+     * 64-bit key of the canonical form, or null for null input.
+     */
+    public static Long key(String email) {
+        String canonical = canonicalize(email);
+        if (canonical == null) {
+            return null;
+        }
+        long h = FNV_OFFSET_BASIS;
+        for (byte b : canonical.getBytes(StandardCharsets.UTF_8)) {
+            h ^= b & 0xff;
+            h *= FNV_PRIME;
+        }
+        // fmix64: spreads the low-entropy FNV bits across the whole key
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    /**
+     * Whether two emails reach the same mailbox.
+     */
+    public static boolean equivalent(String a, String b) {
+        return a != null && b != null && canonicalize(a).equals(canonicalize(b));
+    }
+}
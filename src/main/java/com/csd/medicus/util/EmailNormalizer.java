@@ -1,7 +1,6 @@
 package com.csd.medicus.util;
 
-import java.util.Objects;
-import java.util.regex.Pattern;
+import java.util.Locale;
 
 /**
  * Utility to normalize and validate email addresses before persistence.
@@ -10,30 +9,130 @@ import java.util.regex.Pattern;
  * - Trims surrounding whitespace and lower-cases the email local-part/domain.
  * - Returns null for empty/whitespace input.
  * - Throws IllegalArgumentException for null input or invalid email formats.
- * - Uses a conservative, widely-used regex for email validation (covers common valid emails,
- *   but intentionally not full RFC5322 complexity).
+ * - Accepts a conservative, widely-used email syntax (covers common valid emails, but intentionally
+ *   not full RFC5322 complexity):
+ *   - local part: dot-separated segments of letters, digits and !#$%&'*+/=?^_`{|}~- (no leading,
+ *     trailing or consecutive dots)
+ *   - domain: one or more labels of 1-63 letters, digits and hyphens, not starting or ending with a
+ *     hyphen, followed by a top-level domain of at least two letters
  *
  * Rationale:
  * - Normalizing to lowercase simplifies uniqueness checks and searching.
  * - Validation catches obvious user input mistakes early (e.g., missing '@', spaces, invalid domain).
+ *
+ * Implementation: a table-driven DFA checks the trimmed input in one pass, treating ASCII letters
+ * case-insensitively, and the input is only copied when it has surrounding whitespace or upper-case
+ * letters; an already normalized email is returned as is. It accepts exactly the language of the
+ * earlier regex (see EmailNormalizerEquivalenceTest). Lower-casing uses Locale.ROOT, so the result no
+ * longer depends on the default locale (the regex version rejected "I" under a Turkish locale).
  */
 public final class EmailNormalizer {
 
-    // A conservative email regex: local@domain.tld (allows + tags and dots in local,
-    // disallows starting/ending with dot or consecutive dots in local and domain).
-    private static final Pattern EMAIL_PATTERN = Pattern.compile(
-            "^[A-Za-z0-9!#$%&'*+/=?^_`{|}~-]+" +                 // local-part first segment
-            "(?:\\.[A-Za-z0-9!#$%&'*+/=?^_`{|}~-]+)*" +         // local-part dot segments
-            "@" +
-            "[A-Za-z0-9](?:[A-Za-z0-9-]{0,61}[A-Za-z0-9])?" +   // domain label start
-            "(?:\\.[A-Za-z0-9](?:[A-Za-z0-9-]{0,61}[A-Za-z0-9])?)*" + // domain labels
-            "\\.[A-Za-z]{2,}$"                                  // TLD
-    );
+    // Character classes
+    private static final int OTHER = 0;
+    private static final int LETTER = 1;
+    private static final int DIGIT = 2;
+    private static final int HYPHEN = 3;
+    private static final int DOT = 4;
+    private static final int AT = 5;
+    private static final int SYMBOL = 6; // local-part only
+    private static final int CLASSES = 7;
+
+    private static final byte[] CLASS = new byte[128];
+
+    // States: the local part has three; each domain label is tracked by its length (1-63) and kind, in
+    // two copies (before and after the first dot of the domain), so that the final label can be checked
+    // as a top-level domain.
+    private static final int REJECT = 0;
+    private static final int LOCAL_START = 1;
+    private static final int LOCAL_SEGMENT = 2;
+    private static final int LOCAL_DOT = 3;
+    private static final int DOMAIN_BASE = 4;
+
+    private static final int MAX_LABEL_LENGTH = 63;
+    // kinds of a domain label: letters only (could be the top-level domain), letters and digits, or
+    // ending with a hyphen
+    private static final int ALPHA = 0;
+    private static final int ALNUM = 1;
+    private static final int HYPHEN_END = 2;
+    private static final int KINDS = 3;
+    // per domain copy: label start, a letters-only label longer than 63 (only valid as the top-level
+    // domain), then one state per (length, kind)
+    private static final int LABEL_START = 0;
+    private static final int LONG_ALPHA = 1;
+    private static final int DOMAIN_STATES = 2 + MAX_LABEL_LENGTH * KINDS;
+    private static final int STATES = DOMAIN_BASE + 2 * DOMAIN_STATES;
+
+    private static final short[] TRANSITIONS = new short[STATES * CLASSES];
+    private static final boolean[] ACCEPTING = new boolean[STATES];
+
+    static {
+        for (char c = 'a'; c <= 'z'; c++) {
+            CLASS[c] = LETTER;
+            CLASS[Character.toUpperCase(c)] = LETTER;
+        }
+        for (char c = '0'; c <= '9'; c++) {
+            CLASS[c] = DIGIT;
+        }
+        for (char c : "!#$%&'*+/=?^_`{|}~".toCharArray()) {
+            CLASS[c] = SYMBOL;
+        }
+        CLASS['-'] = HYPHEN;
+        CLASS['.'] = DOT;
+        CLASS['@'] = AT;
+
+        // local part: segment (dot segment)* '@'
+        for (int cls : new int[]{LETTER, DIGIT, HYPHEN, SYMBOL}) {
+            set(LOCAL_START, cls, LOCAL_SEGMENT);
+            set(LOCAL_SEGMENT, cls, LOCAL_SEGMENT);
+            set(LOCAL_DOT, cls, LOCAL_SEGMENT);
+        }
+        set(LOCAL_SEGMENT, DOT, LOCAL_DOT);
+        set(LOCAL_SEGMENT, AT, domain(0, LABEL_START));
+
+        // domain: label (dot label)* dot top-level-domain
+        for (int dotted = 0; dotted <= 1; dotted++) {
+            set(domain(dotted, LABEL_START), LETTER, label(dotted, 1, ALPHA));
+            set(domain(dotted, LABEL_START), DIGIT, label(dotted, 1, ALNUM));
+            set(domain(dotted, LONG_ALPHA), LETTER, domain(dotted, LONG_ALPHA));
+            for (int length = 1; length <= MAX_LABEL_LENGTH; length++) {
+                for (int kind = 0; kind < KINDS; kind++) {
+                    int from = label(dotted, length, kind);
+                    if (length < MAX_LABEL_LENGTH) {
+                        set(from, LETTER, label(dotted, length + 1, kind == ALPHA ? ALPHA : ALNUM));
+                        set(from, DIGIT, label(dotted, length + 1, ALNUM));
+                        set(from, HYPHEN, label(dotted, length + 1, HYPHEN_END));
+                    } else if (kind == ALPHA) {
+                        set(from, LETTER, domain(dotted, LONG_ALPHA));
+                    }
+                    if (kind != HYPHEN_END) {
+                        set(from, DOT, domain(1, LABEL_START));
+                    }
+                }
+            }
+        }
+        ACCEPTING[domain(1, LONG_ALPHA)] = true;
+        for (int length = 2; length <= MAX_LABEL_LENGTH; length++) {
+            ACCEPTING[label(1, length, ALPHA)] = true;
+        }
+    }
 
     private EmailNormalizer() {
         // utility
     }
 
+    private static void set(int from, int cls, int to) {
+        TRANSITIONS[from * CLASSES + cls] = (short) to;
+    }
+
+    private static int domain(int dotted, int state) {
+        return DOMAIN_BASE + dotted * DOMAIN_STATES + state;
+    }
+
+    private static int label(int dotted, int length, int kind) {
+        return domain(dotted, 2 + (length - 1) * KINDS + kind);
+    }
+
     /**
      * Normalize and validate the provided email.
      *
@@ -45,24 +144,78 @@ public final class EmailNormalizer {
         if (email == null) {
             throw new IllegalArgumentException("email must not be null");
         }
-        String trimmed = email.trim();
-        if (trimmed.isEmpty()) {
+        int start = trimStart(email);
+        int end = trimEnd(email, start);
+        if (start == end) {
             return null;
         }
+        String normalized = validate(email, start, end);
+        if (normalized == null) {
+            throw new IllegalArgumentException(NormalizationError.INVALID_EMAIL.message(email));
+        }
+        return normalized;
+    }
 
-        // Lowercase entire email for canonical storage (safe in most use-cases,
-        // domain-part is case-insensitive per RFC; local-part is typically treated case-insensitively).
-        String candidate = trimmed.toLowerCase();
+    /**
+     * Normalizes a non-null email into values[index] without throwing (null for empty/whitespace input).
+     *
+     * @return false if the email is invalid (values[index] is then null)
+     */
+    static boolean normalizeInto(String email, String[] values, int index) {
+        int start = trimStart(email);
+        int end = trimEnd(email, start);
+        String normalized = start == end ? null : validate(email, start, end);
+        values[index] = normalized;
+        return start == end || normalized != null;
+    }
 
-        if (!EMAIL_PATTERN.matcher(candidate).matches()) {
-            throw new IllegalArgumentException("invalid email format: " + email);
+    // trim() bounds without the copy
+    private static int trimStart(String s) {
+        int start = 0;
+        while (start < s.length() && s.charAt(start) <= ' ') {
+            start++;
         }
+        return start;
+    }
+
+    private static int trimEnd(String s, int start) {
+        int end = s.length();
+        while (end > start && s.charAt(end - 1) <= ' ') {
+            end--;
+        }
+        return end;
+    }
 
-        // Additional safety: disallow spaces anywhere (even if regex missed)
-        if (candidate.contains(" ")) {
-            throw new IllegalArgumentException("invalid email (contains spaces): " + email);
+    // The normalized form of the non-empty email[start, end), or null if it is invalid.
+    private static String validate(String email, int start, int end) {
+        int state = LOCAL_START;
+        boolean upper = false;
+        for (int i = start; i < end; i++) {
+            char c = email.charAt(i);
+            if (c >= 128) {
+                // lower-casing may turn a non-ASCII character into an ASCII one (KELVIN SIGN -> 'k')
+                String lower = email.substring(start, end).toLowerCase(Locale.ROOT);
+                return accepts(lower) ? lower : null;
+            }
+            upper |= c >= 'A' && c <= 'Z';
+            state = TRANSITIONS[state * CLASSES + CLASS[c]];
+            if (state == REJECT) {
+                return null;
+            }
         }
+        if (!ACCEPTING[state]) {
+            return null;
+        }
+        String trimmed = start == 0 && end == email.length() ? email : email.substring(start, end);
+        return upper ? trimmed.toLowerCase(Locale.ROOT) : trimmed;
+    }
 
-        return candidate;
+    private static boolean accepts(String s) {
+        int state = LOCAL_START;
+        for (int i = 0; i < s.length() && state != REJECT; i++) {
+            char c = s.charAt(i);
+            state = c >= 128 ? REJECT : TRANSITIONS[state * CLASSES + CLASS[c]];
+        }
+        return ACCEPTING[state];
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,104 @@
+package com.csd.medicus.util;
+
+/**
+ * Set of primitive longs (e.g. packed phone numbers, see PhoneNormalizer.pack) without boxing.
+ *
+ * Behavior:
+ * - Open addressing with linear probing in a power-of-two long[]; 0 marks a free slot, so the key 0
+ *   is tracked by a separate flag. The table doubles when it is more than half full.
+ * - About 16 bytes per entry at the worst-case load, against ~50 for a HashSet<Long>.
+ * - Not thread-safe.
+ */
+public final class LongHashSet {
+
+    private long[] slots;
+    private int mask;
+    private int size;
+    private boolean containsZero;
+
+    public LongHashSet(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(4, expectedSize) * 2 - 1) << 1;
+        this.slots = new long[capacity];
+        this.mask = capacity - 1;
+    }
+
+    /**
+     * Add a value; returns false if it was already present.
+     */
+    public boolean add(long value) {
+        if (value == 0) {
+            if (containsZero) {
+                return false;
+            }
+            containsZero = true;
+            size++;
+            return true;
+        }
+        int i = slot(value, mask);
+        while (slots[i] != 0) {
+            if (slots[i] == value) {
+                return false;
+            }
+            i = (i + 1) & mask;
+        }
+        slots[i] = value;
+        if (++size * 2 > slots.length) {
+            grow();
+        }
+        return true;
+    }
+
+    public boolean contains(long value) {
+        if (value == 0) {
+            return containsZero;
+        }
+        for (int i = slot(value, mask); slots[i] != 0; i = (i + 1) & mask) {
+            if (slots[i] == value) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * The values, in no particular order.
+     */
+    public long[] toArray() {
+        long[] values = new long[size];
+        int n = 0;
+        if (containsZero) {
+            values[n++] = 0;
+        }
+        for (long v : slots) {
+            if (v != 0) {
+                values[n++] = v;
+            }
+        }
+        return values;
+    }
+
+    private void grow() {
+        long[] old = slots;
+        slots = new long[old.length * 2];
+        mask = slots.length - 1;
+        for (long v : old) {
+            if (v != 0) {
+                int i = slot(v, mask);
+                while (slots[i] != 0) {
+                    i = (i + 1) & mask;
+                }
+                slots[i] = v;
+            }
+        }
+    }
+
+    // Fibonacci hashing: the multiply spreads keys that differ only in their low or high bits
+    static int slot(long value, int mask) {
+        long h = value * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+}
@@ -0,0 +1,117 @@
+package com.csd.medicus.util;
+
+/**
+ * Map from primitive long keys to int values without boxing, e.g. packed phone number -> row index.
+ *
+ * Behavior: as LongHashSet (open addressing, linear probing, 0 marks a free slot and the key 0 is kept
+ * aside, doubling at half full). Not thread-safe.
+ */
+public final class LongIntHashMap {
+
+    private long[] keys;
+    private int[] values;
+    private int mask;
+    private int size;
+    private boolean containsZero;
+    private int zeroValue;
+
+    public LongIntHashMap(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(4, expectedSize) * 2 - 1) << 1;
+        this.keys = new long[capacity];
+        this.values = new int[capacity];
+        this.mask = capacity - 1;
+    }
+
+    /**
+     * Value of a key, or missing if the key is absent.
+     */
+    public int get(long key, int missing) {
+        if (key == 0) {
+            return containsZero ? zeroValue : missing;
+        }
+        for (int i = LongHashSet.slot(key, mask); keys[i] != 0; i = (i + 1) & mask) {
+            if (keys[i] == key) {
+                return values[i];
+            }
+        }
+        return missing;
+    }
+
+    public boolean containsKey(long key) {
+        if (key == 0) {
+            return containsZero;
+        }
+        for (int i = LongHashSet.slot(key, mask); keys[i] != 0; i = (i + 1) & mask) {
+            if (keys[i] == key) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Associate a value with a key, replacing any previous value.
+     */
+    public void put(long key, int value) {
+        if (key == 0) {
+            if (!containsZero) {
+                containsZero = true;
+                size++;
+            }
+            zeroValue = value;
+            return;
+        }
+        int i = LongHashSet.slot(key, mask);
+        while (keys[i] != 0) {
+            if (keys[i] == key) {
+                values[i] = value;
+                return;
+            }
+            i = (i + 1) & mask;
+        }
+        keys[i] = key;
+        values[i] = value;
+        if (++size * 2 > keys.length) {
+            grow();
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * The keys, in no particular order.
+     */
+    public long[] keys() {
+        long[] result = new long[size];
+        int n = 0;
+        if (containsZero) {
+            result[n++] = 0;
+        }
+        for (long k : keys) {
+            if (k != 0) {
+                result[n++] = k;
+            }
+        }
+        return result;
+    }
+
+    private void grow() {
+        long[] oldKeys = keys;
+        int[] oldValues = values;
+        keys = new long[oldKeys.length * 2];
+        values = new int[oldKeys.length * 2];
+        mask = keys.length - 1;
+        for (int j = 0; j < oldKeys.length; j++) {
+            if (oldKeys[j] != 0) {
+                int i = LongHashSet.slot(oldKeys[j], mask);
+                while (keys[i] != 0) {
+                    i = (i + 1) & mask;
+                }
+                keys[i] = oldKeys[j];
+                values[i] = oldValues[j];
+            }
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.csd.medicus.util;
+
+/**
+ * Why a phone or email value was rejected by PhoneNormalizer, EmailNormalizer or BatchNormalizer.
+ *
+ * The message of each error is the one the single-value normalizers throw, so batch and single-value
+ * callers report bad rows identically.
+ */
+public enum NormalizationError {
+
+    ALPHABETIC("phone contains alphabetic characters: "),
+    INVALID_CHARACTERS("invalid characters in phone: "),
+    DIGITS_OUT_OF_RANGE("phone number digits out of range (8-15): "),
+    UNSUPPORTED_COUNTRY("unsupported default country: "),
+    INVALID_EMAIL("invalid email format: "),
+    UNKNOWN_COUNTRY_CODE("unknown country calling code in phone: "),
+    INVALID_LENGTH_FOR_COUNTRY("phone number length not valid for its country: ");
+
+    private static final NormalizationError[] VALUES = values();
+
+    private final String prefix;
+
+    NormalizationError(String prefix) {
+        this.prefix = prefix;
+    }
+
+    /**
+     * Message for the rejected value (the default country for UNSUPPORTED_COUNTRY).
+     */
+    public String message(String value) {
+        return prefix + value;
+    }
+
+    // compact codes for columnar results: 0 means no error
+    byte code() {
+        return (byte) (ordinal() + 1);
+    }
+
+    static NormalizationError ofCode(int code) {
+        return code == 0 ? null : VALUES[code - 1];
+    }
+}
@@ -0,0 +1,74 @@
+package com.csd.medicus.util;
+
+/**
+ * Column of normalized values produced by BatchNormalizer, index-aligned with its input.
+ *
+ * Each index holds either a normalized value (null for absent or blank input) or an error; rejected
+ * indexes have a null value. Messages are built only when asked for.
+ */
+public final class NormalizedBatch {
+
+    private final String[] raw;
+    private final String defaultCountry;
+    private final String[] values;
+    private final byte[] errors;
+    private final int errorCount;
+
+    NormalizedBatch(String[] raw, String defaultCountry, String[] values, byte[] errors) {
+        this.raw = raw;
+        this.defaultCountry = defaultCountry;
+        this.values = values;
+        this.errors = errors;
+        int count = 0;
+        for (byte e : errors) {
+            if (e != 0) {
+                count++;
+            }
+        }
+        this.errorCount = count;
+    }
+
+    public int size() {
+        return values.length;
+    }
+
+    public int errorCount() {
+        return errorCount;
+    }
+
+    public boolean isValid(int index) {
+        return errors[index] == 0;
+    }
+
+    /**
+     * Normalized value at index, or null when the input was absent, blank or rejected.
+     */
+    public String value(int index) {
+        return values[index];
+    }
+
+    /**
+     * Why the value at index was rejected, or null when it was not.
+     */
+    public NormalizationError error(int index) {
+        return NormalizationError.ofCode(errors[index]);
+    }
+
+    /**
+     * The message the single-value normalizer would have thrown for index, or null when it is valid.
+     */
+    public String message(int index) {
+        NormalizationError error = error(index);
+        if (error == null) {
+            return null;
+        }
+        return error.message(error == NormalizationError.UNSUPPORTED_COUNTRY ? defaultCountry : raw[index]);
+    }
+
+    /**
+     * The normalized column; owned by this batch, callers must not modify it.
+     */
+    public String[] values() {
+        return values;
+    }
+}
@@ -1,49 +1,54 @@
 package com.csd.medicus.util;
 
-import java.util.Collections;
-import java.util.HashMap;
 import java.util.Map;
-import java.util.Objects;
-import java.util.regex.Pattern;
 
 /**
  * Utility to normalize phone numbers into E.164 format.
  *
  * Behavior:
  * - Returns phone number in E.164 format (e.g. +919123456789) or null for empty/whitespace input.
- * - Accepts international numbers that start with '+' or '00'.
- * - Accepts national numbers and prepends the default country's dialing code.
+ * - Accepts international numbers that start with '+' or '00'; their calling code must be an assigned
+ *   one and the digits after it a valid national length for that code.
+ * - Accepts national numbers and prepends the default country's dialing code, unless the digits already
+ *   start with it and only fit the country's national length with it removed; the number must then be
+ *   a valid national length for the default country.
+ * - Drops a single leading trunk zero of national numbers, except in countries where it belongs to the
+ *   number (Italy, San Marino, Vatican, Côte d'Ivoire).
  * - Strips spaces, dashes, parentheses, and dots.
  * - Rejects input containing alphabetic characters.
  * - Validates total digits after normalization are between 8 and 15 (inclusive).
  *
- * Minimal in-repo dialing code map is provided and extensible by replacing the map copy
- * returned from getDialingCodes() if callers wish to manage it differently.
+ * Calling codes and national lengths of every ISO 3166 region come from the dialing plan resource
+ * (see DialingPlan); getDialingCodes() exposes the codes.
+ *
+ * Packed form: an E.164 number has at most 15 digits, so it is also available as a positive long
+ * (digit count << 50 | digits as a decimal number, see pack/unpack) for indexed BIGINT columns and
+ * primitive-long sets; keeping the digit count makes the encoding reversible for any digit string.
+ * The string form remains the one stored for display.
  */
 public final class PhoneNormalizer {
 
-    private static final Map<String, String> DEFAULT_DIALING_CODES;
-    private static final Map<String, Integer> NATIONAL_NUMBER_LENGTH;
-
-    static {
-        Map<String, String> m = new HashMap<>();
-        m.put("IN", "91");
-        m.put("US", "1");
-        DEFAULT_DIALING_CODES = Collections.unmodifiableMap(m);
+    private static final DialingPlan PLAN = DialingPlan.load();
 
-        Map<String, Integer> l = new HashMap<>();
-        l.put("IN", 10); // Indian national (subscriber) number length (typical mobile)
-        l.put("US", 10); // US national (subscriber) number length (typical)
-        NATIONAL_NUMBER_LENGTH = Collections.unmodifiableMap(l);
-    }
+    /**
+     * Packed value standing for "no phone": absent, blank or not an E.164 string.
+     */
+    public static final long NO_KEY = -1L;
 
-    private static final Pattern ALPHA = Pattern.compile(".*[A-Za-z].*");
-    private static final Pattern DIGITS_ONLY = Pattern.compile("\\d+");
-    private static final Pattern STRIP = Pattern.compile("[\\s\\-\\.\\(\\)]+");
+    private static final int PACKED_LENGTH_SHIFT = 50; // 10^15 < 2^50
+    private static final long PACKED_DIGITS_MASK = (1L << PACKED_LENGTH_SHIFT) - 1;
 
     private static final int MIN_DIGITS = 8;
     private static final int MAX_DIGITS = 15;
 
+    // Digits are written at DIGITS_OFFSET so '+' and a dialing code (at most 3 digits) can be placed in
+    // front of them without copying; one digit more than MAX_DIGITS is kept because a national number
+    // may still lose its trunk zero.
+    private static final int DIGITS_OFFSET = 4;
+    private static final int MAX_BUFFERED_DIGITS = MAX_DIGITS + 1;
+    private static final ThreadLocal<char[]> BUFFER =
+            ThreadLocal.withInitial(() -> new char[DIGITS_OFFSET + MAX_BUFFERED_DIGITS]);
+
     private PhoneNormalizer() {
         // utility
     }
@@ -51,6 +56,13 @@ public final class PhoneNormalizer {
     /**
      * Normalize a phone number to E.164.
      *
+     * Implementation: one scan over the trimmed input classifies every character (digit, separator,
+     * letter, other) and copies the digits into a per-thread buffer, so the only allocation is the
+     * returned string. Accept/reject decisions and messages are those of the earlier regex-based version
+     * (see PhoneNormalizerEquivalenceTest), including its quirks: letters are only reported as such
+     * when the input has no line terminator, and separators are ASCII whitespace, '-', '.', '(' and ')'.
+     * BatchNormalizer runs the same scan over many values without throwing.
+     *
      * @param phone input phone string (may contain punctuation). Null is treated as IllegalArgumentException.
      * @param defaultCountry two-letter country code (case-insensitive) to use for numbers without international prefix.
      *                       If null or empty, "IN" is assumed.
@@ -61,78 +73,221 @@ public final class PhoneNormalizer {
         if (phone == null) {
             throw new IllegalArgumentException("phone must not be null");
         }
-        String orig = phone;
-        String trimmed = phone.trim();
-        if (trimmed.isEmpty()) {
-            return null;
+        char[] buf = BUFFER.get();
+        int result = scan(phone, region(defaultCountry), buf);
+        if (result < 0) {
+            throw failure(result, phone, defaultCountry);
         }
+        return text(buf, result);
+    }
 
-        // Reject alphabetic characters
-        if (ALPHA.matcher(trimmed).matches()) {
-            throw new IllegalArgumentException("phone contains alphabetic characters: " + orig);
+    private static IllegalArgumentException failure(int result, String phone, String defaultCountry) {
+        NormalizationError error = NormalizationError.ofCode(-result);
+        return new IllegalArgumentException(
+                error.message(error == NormalizationError.UNSUPPORTED_COUNTRY ? defaultCountry : phone));
+    }
+
+    // Dialing plan region of a default country argument ("IN" when null or blank), or -1 if unsupported.
+    static int region(String defaultCountry) {
+        String country = (defaultCountry == null || defaultCountry.trim().isEmpty())
+                ? "IN"
+                : defaultCountry.trim().toUpperCase();
+        return PLAN.region(country);
+    }
+
+    static char[] buffer() {
+        return BUFFER.get();
+    }
+
+    // The E.164 text of a successful scan result, or null for blank input.
+    static String text(char[] buf, int result) {
+        return result == 0 ? null : new String(buf, result >>> 8, result & 0xFF);
+    }
+
+    /**
+     * Scans a non-null phone into buf without throwing.
+     *
+     * @param region default country as returned by region(); an unsupported one (-1) is only an error
+     *               for national numbers
+     * @return (offset << 8 | length) of the E.164 text in buf, 0 for empty/whitespace input, or the
+     *         negated NormalizationError code
+     */
+    static int scan(String phone, int region, char[] buf) {
+        // trim() bounds without the copy
+        int start = 0;
+        int end = phone.length();
+        while (start < end && phone.charAt(start) <= ' ') {
+            start++;
+        }
+        while (end > start && phone.charAt(end - 1) <= ' ') {
+            end--;
+        }
+        if (start == end) {
+            return 0;
         }
 
-        // International: + prefix
-        if (trimmed.startsWith("+")) {
-            String after = stripPunctuation(trimmed.substring(1));
-            ensureDigitsOnly(after, orig);
-            ensureValidLength(after, orig);
-            return "+" + after;
+        // International prefix ('+' or "00") is recognized on the raw text, before separators are removed
+        boolean international = true;
+        int from = start;
+        if (phone.charAt(start) == '+') {
+            from = start + 1;
+        } else if (end - start >= 2 && phone.charAt(start) == '0' && phone.charAt(start + 1) == '0') {
+            from = start + 2;
+        } else {
+            international = false;
         }
 
-        // International: 00 prefix
-        if (trimmed.startsWith("00")) {
-            String after = stripPunctuation(trimmed.substring(2));
-            ensureDigitsOnly(after, orig);
-            ensureValidLength(after, orig);
-            return "+" + after;
+        int count = 0;
+        boolean letter = false;
+        boolean lineTerminator = false;
+        boolean invalid = false;
+        for (int i = from; i < end; i++) {
+            char c = phone.charAt(i);
+            if (c >= '0' && c <= '9') {
+                if (count < MAX_BUFFERED_DIGITS) {
+                    buf[DIGITS_OFFSET + count] = c;
+                }
+                count++;
+            } else if (!isSeparator(c)) {
+                invalid = true;
+                if ((c >= 'A' && c <= 'Z') || (c >= 'a' && c <= 'z')) {
+                    letter = true;
+                } else if (c == '\u0085' || c == '\u2028' || c == '\u2029') {
+                    lineTerminator = true;
+                }
+            } else if (c == '\n' || c == '\r') {
+                lineTerminator = true;
+            }
         }
 
-        // National/local number: strip punctuation
-        String digits = stripPunctuation(trimmed);
+        if (letter && !lineTerminator) {
+            return -NormalizationError.ALPHABETIC.code();
+        }
+        if (international) {
+            if (invalid || count == 0) {
+                return -NormalizationError.INVALID_CHARACTERS.code();
+            }
+            if (!isValidLength(count)) {
+                return -NormalizationError.DIGITS_OUT_OF_RANGE.code();
+            }
+            int codeRegion = PLAN.match(buf, DIGITS_OFFSET, count);
+            if (codeRegion < 0) {
+                return -NormalizationError.UNKNOWN_COUNTRY_CODE.code();
+            }
+            int national = count - PLAN.callingCode(codeRegion).length();
+            if (national < PLAN.codeMinLength(codeRegion) || national > PLAN.codeMaxLength(codeRegion)) {
+                return -NormalizationError.INVALID_LENGTH_FOR_COUNTRY.code();
+            }
+            buf[DIGITS_OFFSET - 1] = '+';
+            return (DIGITS_OFFSET - 1) << 8 | (count + 1);
+        }
 
-        // If a single leading zero trunk exists, remove it (common in many countries)
-        if (digits.startsWith("0") && digits.length() > 1) {
-            digits = digits.substring(1);
+        // National/local number: drop a single leading zero trunk (unless the country keeps it)
+        int digitsStart = DIGITS_OFFSET;
+        if (count > 1 && !invalid && buf[DIGITS_OFFSET] == '0' && (region < 0 || !PLAN.keepsLeadingZero(region))) {
+            digitsStart++;
+            count--;
+        }
+        if (invalid || count == 0) {
+            return -NormalizationError.INVALID_CHARACTERS.code();
+        }
+        if (region < 0) {
+            return -NormalizationError.UNSUPPORTED_COUNTRY.code();
         }
 
-        ensureDigitsOnly(digits, orig);
+        // The digits already include the country code when they start with it and fit the national
+        // length only without it (e.g. IN "919123456789"); otherwise the code is prefixed.
+        String dialing = PLAN.callingCode(region);
+        int min = PLAN.minLength(region);
+        int max = PLAN.maxLength(region);
+        boolean prefixed = count <= MAX_BUFFERED_DIGITS && startsWith(buf, digitsStart, count, dialing)
+                && count - dialing.length() >= min && count - dialing.length() <= max
+                && (count < min || count > max);
 
-        String country = (defaultCountry == null || defaultCountry.trim().isEmpty())
-                ? "IN"
-                : defaultCountry.trim().toUpperCase();
+        int length = prefixed ? count : dialing.length() + count;
+        if (!isValidLength(length)) {
+            return -NormalizationError.DIGITS_OUT_OF_RANGE.code();
+        }
+        int national = length - dialing.length();
+        if (national < min || national > max) {
+            return -NormalizationError.INVALID_LENGTH_FOR_COUNTRY.code();
+        }
 
-        if (!DEFAULT_DIALING_CODES.containsKey(country)) {
-            throw new IllegalArgumentException("unsupported default country: " + defaultCountry);
+        int first = digitsStart;
+        if (!prefixed) {
+            first -= dialing.length();
+            dialing.getChars(0, dialing.length(), buf, first);
         }
+        buf[--first] = '+';
+        return first << 8 | (length + 1);
+    }
 
-        String dialing = DEFAULT_DIALING_CODES.get(country);
+    /**
+     * Normalize a phone number straight to its packed form (see pack), without creating the string.
+     *
+     * @return the packed E.164 number, or NO_KEY if the input is empty/whitespace
+     * @throws IllegalArgumentException as {@link #normalize(String, String)}
+     */
+    public static long normalizeToKey(String phone, String defaultCountry) {
+        if (phone == null) {
+            throw new IllegalArgumentException("phone must not be null");
+        }
+        char[] buf = BUFFER.get();
+        int result = scan(phone, region(defaultCountry), buf);
+        if (result < 0) {
+            throw failure(result, phone, defaultCountry);
+        }
+        if (result == 0) {
+            return NO_KEY;
+        }
+        // skip the leading '+'
+        int from = (result >>> 8) + 1;
+        int digits = (result & 0xFF) - 1;
+        long value = 0;
+        for (int i = 0; i < digits; i++) {
+            value = value * 10 + (buf[from + i] - '0');
+        }
+        return (long) digits << PACKED_LENGTH_SHIFT | value;
+    }
 
-        // Decide whether to prefix the country code:
-        // - If digits already look like countryCode + nationalNumber (based on known national length) and start with country code,
-        //   treat as already including country code.
-        // - Otherwise, prefix the country code.
-        String full;
-        Integer nationalLen = NATIONAL_NUMBER_LENGTH.get(country);
-        if (nationalLen != null) {
-            int expectedFullLen = dialing.length() + nationalLen;
-            if (digits.length() == expectedFullLen && digits.startsWith(dialing)) {
-                full = digits; // already in the form countryCode + nationalNumber
-            } else {
-                full = dialing + digits;
-            }
-        } else {
-            // No national length info: be conservative and prefix unless digits already starts with dialing and total length within bounds
-            if (digits.startsWith(dialing) && digits.length() >= MIN_DIGITS && digits.length() <= MAX_DIGITS) {
-                full = digits;
-            } else {
-                full = dialing + digits;
+    /**
+     * Packed form of an E.164 string ('+' followed by 1-15 digits), e.g. "+919876543210".
+     *
+     * @return the packed number, or NO_KEY for null or any other string
+     */
+    public static long pack(String e164) {
+        if (e164 == null || e164.length() < 2 || e164.length() > MAX_DIGITS + 1 || e164.charAt(0) != '+') {
+            return NO_KEY;
+        }
+        long value = 0;
+        for (int i = 1; i < e164.length(); i++) {
+            char c = e164.charAt(i);
+            if (c < '0' || c > '9') {
+                return NO_KEY;
             }
+            value = value * 10 + (c - '0');
         }
+        return (long) (e164.length() - 1) << PACKED_LENGTH_SHIFT | value;
+    }
 
-        ensureValidLength(full, orig);
-
-        return "+" + full;
+    /**
+     * E.164 string of a packed number (inverse of pack).
+     *
+     * @throws IllegalArgumentException if the value is not a packed number
+     */
+    public static String unpack(long packed) {
+        int digits = (int) (packed >>> PACKED_LENGTH_SHIFT);
+        long value = packed & PACKED_DIGITS_MASK;
+        if (digits < 1 || digits > MAX_DIGITS || Long.toString(value).length() > digits) {
+            throw new IllegalArgumentException("not a packed phone number: " + packed);
+        }
+        char[] out = new char[digits + 1];
+        out[0] = '+';
+        for (int i = digits; i > 0; i--) {
+            out[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+        return new String(out);
     }
 
     /**
@@ -142,28 +297,54 @@ public final class PhoneNormalizer {
         return normalize(phone, "IN");
     }
 
-    private static String stripPunctuation(String s) {
-        if (s == null) return "";
-        return STRIP.matcher(s).replaceAll("");
+    // ASCII whitespace (regex \s), '-', '.', '(' and ')'
+    private static boolean isSeparator(char c) {
+        return c == ' ' || c == '-' || c == '.' || c == '(' || c == ')'
+                || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
     }
 
-    private static void ensureDigitsOnly(String s, String original) {
-        if (!DIGITS_ONLY.matcher(s).matches()) {
-            throw new IllegalArgumentException("invalid characters in phone: " + original);
+    private static boolean startsWith(char[] buf, int from, int count, String prefix) {
+        if (count < prefix.length()) {
+            return false;
+        }
+        for (int i = 0; i < prefix.length(); i++) {
+            if (buf[from + i] != prefix.charAt(i)) {
+                return false;
+            }
         }
+        return true;
+    }
+
+    private static boolean isValidLength(int digits) {
+        return digits >= MIN_DIGITS && digits <= MAX_DIGITS;
     }
 
-    private static void ensureValidLength(String digits, String original) {
-        int len = digits == null ? 0 : digits.length();
-        if (len < MIN_DIGITS || len > MAX_DIGITS) {
-            throw new IllegalArgumentException("phone number digits out of range (8-15): " + original);
+    /**
+     * Region (ISO 3166 alpha-2) of a normalized E.164 number, from its calling code; numbers with a
+     * shared code (+1, +7, +44, ...) report the code's main region (US, RU, GB, ...).
+     *
+     * @return the region, or null for null input, input without a leading '+' or an unknown code
+     */
+    public static String regionOf(String e164) {
+        if (e164 == null || e164.length() < 2 || e164.charAt(0) != '+') {
+            return null;
+        }
+        char[] digits = new char[Math.min(3, e164.length() - 1)];
+        for (int i = 0; i < digits.length; i++) {
+            char c = e164.charAt(i + 1);
+            if (c < '0' || c > '9') {
+                return null;
+            }
+            digits[i] = c;
         }
+        int region = PLAN.match(digits, 0, digits.length);
+        return region < 0 ? null : PLAN.regionName(region);
     }
 
     /**
-     * Expose a read-only view of the embedded dialing codes.
+     * Expose a read-only view of the dialing codes (region to calling code, e.g. "IN" -> "91").
      */
     public static Map<String, String> getDialingCodes() {
-        return DEFAULT_DIALING_CODES;
+        return PLAN.callingCodes();
     }
 }
\ No newline at end of file
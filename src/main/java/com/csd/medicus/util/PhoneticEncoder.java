@@ -0,0 +1,186 @@
+package com.csd.medicus.util;
+
+import java.util.Locale;
+
+/**
+ * Utility to compute Metaphone phonetic keys for patient names.
+ *
+ * Behavior:
+ * - Implements the original Metaphone rules (Lawrence Philips), so names that sound alike map to the
+ *   same key, e.g. "Katherine"/"Catherine" -> "K0RN" and "Mohamed"/"Muhammad" -> "MHMT".
+ * - Non-letters (spaces, hyphens, apostrophes, digits) are ignored; the key is upper-case ASCII.
+ * - Keys are truncated to MAX_KEY_LENGTH characters so they fit a small indexed column.
+ * - Returns null for null input or input without letters.
+ *
+ * Keys are stored next to the names and compared with indexed equality lookups, so changing these
+ * rules requires re-computing the stored keys.
+ */
+public final class PhoneticEncoder {
+
+    public static final int MAX_KEY_LENGTH = 8;
+
+    private PhoneticEncoder() {
+        // utility
+    }
+
+    /**
+     * Compute the Metaphone key of a name.
+     *
+     * @param name raw name (any case, may contain punctuation)
+     * @return phonetic key or null if the name contains no letters
+     */
+    public static String encode(String name) {
+        if (name == null) {
+            return null;
+        }
+        String w = lettersOnly(name);
+        if (w.isEmpty()) {
+            return null;
+        }
+
+        StringBuilder key = new StringBuilder(MAX_KEY_LENGTH);
+        int n = w.length();
+        int i = 0;
+
+        // Initial-letter exceptions
+        if (w.startsWith("AE") || w.startsWith("GN") || w.startsWith("KN")
+                || w.startsWith("PN") || w.startsWith("WR")) {
+            i = 1;
+        } else if (w.charAt(0) == 'X') {
+            key.append('S');
+            i = 1;
+        } else if (w.startsWith("WH")) {
+            key.append('W');
+            i = 2;
+        }
+
+        for (; i < n && key.length() < MAX_KEY_LENGTH; i++) {
+            char c = w.charAt(i);
+            char prev = i > 0 ? w.charAt(i - 1) : 0;
+            char next = i + 1 < n ? w.charAt(i + 1) : 0;
+            char next2 = i + 2 < n ? w.charAt(i + 2) : 0;
+
+            // Skip doubled letters except C
+            if (c == prev && c != 'C') {
+                continue;
+            }
+
+            switch (c) {
+                case 'A', 'E', 'I', 'O', 'U' -> {
+                    if (i == 0) {
+                        key.append(c);
+                    }
+                }
+                case 'B' -> {
+                    // silent in a trailing "MB" (e.g. "Lamb")
+                    if (!(prev == 'M' && i == n - 1)) {
+                        key.append('B');
+                    }
+                }
+                case 'C' -> {
+                    if (next == 'I' && next2 == 'A') {
+                        key.append('X');
+                    } else if (next == 'H') {
+                        key.append(prev == 'S' ? 'K' : 'X');
+                        i++;
+                    } else if (next == 'I' || next == 'E' || next == 'Y') {
+                        if (prev != 'S') {
+                            key.append('S');
+                        }
+                    } else {
+                        key.append('K');
+                    }
+                }
+                case 'D' -> {
+                    if (next == 'G' && (next2 == 'E' || next2 == 'Y' || next2 == 'I')) {
+                        key.append('J');
+                        i++;
+                    } else {
+                        key.append('T');
+                    }
+                }
+                case 'G' -> {
+                    if (next == 'H' && !(i + 2 >= n || isVowel(next2))) {
+                        // silent "GH" not at the end and not before a vowel (e.g. "Knight")
+                        break;
+                    }
+                    if (next == 'N' && (i + 2 == n || (i + 4 == n && w.startsWith("ED", i + 2)))) {
+                        // silent in trailing "GN" / "GNED"
+                        break;
+                    }
+                    if ((next == 'I' || next == 'E' || next == 'Y') && prev != 'G') {
+                        key.append('J');
+                    } else {
+                        key.append('K');
+                    }
+                }
+                case 'H' -> {
+                    boolean afterVowelNoVowelNext = isVowel(prev) && !isVowel(next);
+                    boolean afterModifier = prev == 'C' || prev == 'S' || prev == 'P' || prev == 'T' || prev == 'G';
+                    if (!afterVowelNoVowelNext && !afterModifier) {
+                        key.append('H');
+                    }
+                }
+                case 'K' -> {
+                    if (prev != 'C') {
+                        key.append('K');
+                    }
+                }
+                case 'P' -> key.append(next == 'H' ? 'F' : 'P');
+                case 'Q' -> key.append('K');
+                case 'S' -> {
+                    if (next == 'H') {
+                        key.append('X');
+                        i++;
+                    } else if (next == 'I' && (next2 == 'O' || next2 == 'A')) {
+                        key.append('X');
+                    } else {
+                        key.append('S');
+                    }
+                }
+                case 'T' -> {
+                    if (next == 'I' && (next2 == 'O' || next2 == 'A')) {
+                        key.append('X');
+                    } else if (next == 'H') {
+                        key.append('0');
+                        i++;
+                    } else if (!(next == 'C' && next2 == 'H')) {
+                        key.append('T');
+                    }
+                }
+                case 'V' -> key.append('F');
+                case 'W', 'Y' -> {
+                    if (isVowel(next)) {
+                        key.append(c);
+                    }
+                }
+                case 'X' -> {
+                    key.append('K');
+                    if (key.length() < MAX_KEY_LENGTH) {
+                        key.append('S');
+                    }
+                }
+                case 'Z' -> key.append('S');
+                default -> key.append(c); // F, J, L, M, N, R
+            }
+        }
+
+        return key.length() == 0 ? null : key.toString();
+    }
+
+    private static String lettersOnly(String s) {
+        StringBuilder sb = new StringBuilder(s.length());
+        String upper = s.toUpperCase(Locale.ROOT);
+        for (int i = 0; i < upper.length(); i++) {
+            char c = upper.charAt(i);
+            if (c >= 'A' && c <= 'Z') {
+                sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+
+    private static boolean isVowel(char c) {
+        return c == 'A' || c == 'E' || c == 'I' || c == 'O' || c == 'U';
+    }
+}
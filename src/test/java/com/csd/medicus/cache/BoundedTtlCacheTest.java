@@ -0,0 +1,95 @@
+package com.csd.medicus.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for BoundedTtlCache: LRU size bound, ttl expiry, invalidation and the stamp guard
+ * against loads racing with writes. Time is driven by a fake clock.
+ */
+class BoundedTtlCacheTest {
+
+    private final AtomicLong now = new AtomicLong();
+
+    private BoundedTtlCache<String, String> cache(int max) {
+        return new BoundedTtlCache<>(max, Duration.ofSeconds(10), now::get);
+    }
+
+    @Test
+    void hitAndMissAreCounted() {
+        BoundedTtlCache<String, String> cache = cache(10);
+        assertNull(cache.get("a"));
+        cache.put("a", "A", cache.stamp());
+        assertEquals("A", cache.get("a"));
+
+        CacheStats stats = cache.stats();
+        assertEquals(1, stats.hits());
+        assertEquals(1, stats.misses());
+        assertEquals(0.5, stats.hitRatio());
+    }
+
+    @Test
+    void evictsLeastRecentlyUsedBeyondMaxEntries() {
+        BoundedTtlCache<String, String> cache = cache(2);
+        cache.put("a", "A", cache.stamp());
+        cache.put("b", "B", cache.stamp());
+        cache.get("a"); // b is now least recently used
+        cache.put("c", "C", cache.stamp());
+
+        assertNull(cache.get("b"));
+        assertEquals("A", cache.get("a"));
+        assertEquals("C", cache.get("c"));
+        assertEquals(1, cache.stats().evictions());
+        assertEquals(2, cache.stats().size());
+    }
+
+    @Test
+    void expiresEntriesAfterTtl() {
+        BoundedTtlCache<String, String> cache = cache(10);
+        cache.put("a", "A", cache.stamp());
+        now.addAndGet(Duration.ofSeconds(11).toNanos());
+
+        assertNull(cache.get("a"));
+        assertEquals(1, cache.stats().expirations());
+        assertEquals(0, cache.stats().size());
+    }
+
+    @Test
+    void invalidateIfRemovesMatchingEntriesOnly() {
+        BoundedTtlCache<String, String> cache = cache(10);
+        cache.put("ram", "1", cache.stamp());
+        cache.put("sita", "2", cache.stamp());
+
+        cache.invalidateIf(k -> k.startsWith("r"));
+
+        assertNull(cache.get("ram"));
+        assertEquals("2", cache.get("sita"));
+        assertEquals(1, cache.stats().invalidations());
+    }
+
+    @Test
+    void putIsDiscardedWhenInvalidatedDuringLoad() {
+        BoundedTtlCache<String, String> cache = cache(10);
+        long stamp = cache.stamp();
+        cache.invalidateAll(); // a write committed while the value was loading
+
+        cache.put("a", "stale", stamp);
+
+        assertNull(cache.get("a"));
+    }
+
+    @Test
+    void loadsAreTimed() {
+        BoundedTtlCache<String, String> cache = cache(10);
+        cache.recordLoad(2_000_000);
+        cache.recordLoad(4_000_000);
+
+        CacheStats stats = cache.stats();
+        assertEquals(2, stats.loads());
+        assertEquals(3.0, stats.averageLoadMillis(), 1e-9);
+    }
+}
@@ -0,0 +1,54 @@
+package com.csd.medicus.cache;
+
+import com.csd.medicus.dto.PatientDto;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for PatientByIdCache: copies in and out, invalidation by id and the stamp guard.
+ */
+class PatientByIdCacheTest {
+
+    private final PatientByIdCache cache = new PatientByIdCache(100, Duration.ofMinutes(1));
+
+    private static PatientDto patient(Long id) {
+        return new PatientDto(id, "Ram", "Kumar", "ram@example.com", "+919876543210", 0L);
+    }
+
+    @Test
+    void hitsReturnIndependentCopies() {
+        PatientDto p = patient(1L);
+        cache.put(p, cache.stamp(), 1_000);
+        p.setFirstName("Changed");
+
+        PatientDto first = cache.get(1L);
+        assertEquals("Ram", first.getFirstName());
+        first.setFirstName("Mutated");
+        assertEquals("Ram", cache.get(1L).getFirstName());
+        assertEquals(0L, cache.get(1L).getVersion());
+        assertEquals(1, cache.stats().loads());
+    }
+
+    @Test
+    void invalidateRemovesOnlyThatId() {
+        cache.put(patient(3L), cache.stamp(), 1_000);
+        cache.put(patient(4L), cache.stamp(), 1_000);
+
+        cache.invalidate(3L);
+
+        assertNull(cache.get(3L));
+        assertNotNull(cache.get(4L));
+    }
+
+    @Test
+    void loadRacingWithAWriteIsNotCached() {
+        long stamp = cache.stamp();
+        cache.invalidate(5L); // soft-delete committed while the row was loading
+        cache.put(patient(5L), stamp, 1_000);
+
+        assertNull(cache.get(5L));
+    }
+}
@@ -0,0 +1,46 @@
+package com.csd.medicus.cache;
+
+import com.csd.medicus.dto.PatientDto;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for PatientSearchCache: case-insensitive keys and precise invalidation by patient values.
+ */
+class PatientSearchCacheTest {
+
+    private final PatientSearchCache cache = new PatientSearchCache(100, Duration.ofMinutes(1));
+
+    private PatientSearchCache.Key put(String query) {
+        PatientSearchCache.Key key = PatientSearchCache.Key.of(query, PageRequest.of(0, 20));
+        cache.put(key, Page.<PatientDto>empty(PageRequest.of(0, 20)), cache.stamp());
+        return key;
+    }
+
+    @Test
+    void keysIgnoreQueryCase() {
+        put("Ram");
+        assertNotNull(cache.get(PatientSearchCache.Key.of("RAM", PageRequest.of(0, 20))));
+        assertNull(cache.get(PatientSearchCache.Key.of("ram", PageRequest.of(1, 20))));
+    }
+
+    @Test
+    void invalidatesOnlyQueriesMatchingThePatient() {
+        PatientSearchCache.Key ram = put("ram");
+        PatientSearchCache.Key phone = put("3210");
+        PatientSearchCache.Key sita = put("sita");
+        PatientSearchCache.Key wildcard = put("s_ta");
+
+        cache.invalidateFor("Ramesh", "+919876543210");
+
+        assertNull(cache.get(ram));
+        assertNull(cache.get(phone));
+        assertNull(cache.get(wildcard));
+        assertNotNull(cache.get(sita));
+    }
+}
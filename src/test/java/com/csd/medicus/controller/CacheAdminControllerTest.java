@@ -0,0 +1,71 @@
+package com.csd.medicus.controller;
+
+import com.csd.medicus.cache.CacheStats;
+import com.csd.medicus.cache.PatientByIdCache;
+import com.csd.medicus.cache.PatientSearchCache;
+import com.csd.medicus.dedup.ContactFilterStats;
+import com.csd.medicus.dedup.PatientContactFilter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Controller tests for the cache statistics endpoint using MockMvc (standalone).
+ */
+class CacheAdminControllerTest {
+
+    @Mock
+    private PatientSearchCache searchCache;
+
+    @Mock
+    private PatientContactFilter contactFilter;
+
+    @Mock
+    private PatientByIdCache byIdCache;
+
+    @InjectMocks
+    private CacheAdminController controller;
+
+    private MockMvc mvc;
+
+    @BeforeEach
+    void init() {
+        MockitoAnnotations.openMocks(this);
+        mvc = MockMvcBuilders.standaloneSetup(controller).build();
+    }
+
+    @Test
+    void stats_returnsCacheCounters() throws Exception {
+        when(searchCache.stats()).thenReturn(new CacheStats(3, 100, 6, 2, 1, 0, 4, 0, 0));
+        when(byIdCache.stats()).thenReturn(new CacheStats(2, 100, 9, 1, 0, 0, 1, 1, 3_000_000));
+
+        mvc.perform(get("/api/v1/admin/caches").accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.patientSearch.size").value(3))
+                .andExpect(jsonPath("$.patientSearch.hits").value(6))
+                .andExpect(jsonPath("$.patientSearch.evictions").value(1))
+                .andExpect(jsonPath("$.patientSearch.hitRatio").value(0.75))
+                .andExpect(jsonPath("$.patientById.hitRatio").value(0.9))
+                .andExpect(jsonPath("$.patientById.averageLoadMillis").value(3.0));
+    }
+
+    @Test
+    void contactFilterStats_returnsSizingAndSkippedChecks() throws Exception {
+        when(contactFilter.stats()).thenReturn(new ContactFilterStats(true, 9_585_088, 7, 1_198_136, 1200, 0.01, 0.0001, 50, 48));
+
+        mvc.perform(get("/api/v1/admin/caches/contact-filter").accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.ready").value(true))
+                .andExpect(jsonPath("$.memoryBytes").value(1_198_136))
+                .andExpect(jsonPath("$.skippedChecks").value(48));
+    }
+}
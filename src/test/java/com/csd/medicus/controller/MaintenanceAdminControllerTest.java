@@ -0,0 +1,67 @@
+package com.csd.medicus.controller;
+
+import com.csd.medicus.maintenance.TombstonePurgeStats;
+import com.csd.medicus.maintenance.TombstonePurger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.time.Duration;
+
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Controller tests for the maintenance endpoints using MockMvc (standalone).
+ */
+class MaintenanceAdminControllerTest {
+
+    private static final TombstonePurgeStats RUNNING =
+            new TombstonePurgeStats(true, true, Duration.ofDays(30), null, 0, 0, 0, 0, 0, 500, 0, 0);
+
+    @Mock
+    private TombstonePurger tombstonePurger;
+
+    @InjectMocks
+    private MaintenanceAdminController controller;
+
+    private MockMvc mvc;
+
+    @BeforeEach
+    void init() {
+        MockitoAnnotations.openMocks(this);
+        mvc = MockMvcBuilders.standaloneSetup(controller).build();
+        when(tombstonePurger.stats()).thenReturn(RUNNING);
+    }
+
+    @Test
+    void postStartsABackgroundRun() throws Exception {
+        when(tombstonePurger.startPurge()).thenReturn(true);
+
+        mvc.perform(post("/api/v1/admin/maintenance/tombstone-purge"))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.running").value(true));
+        verify(tombstonePurger, never()).purgeExpired();
+    }
+
+    @Test
+    void postWhileRunningIsAConflict() throws Exception {
+        when(tombstonePurger.startPurge()).thenReturn(false);
+
+        mvc.perform(post("/api/v1/admin/maintenance/tombstone-purge"))
+                .andExpect(status().isConflict());
+    }
+
+    @Test
+    void getReturnsTheStats() throws Exception {
+        mvc.perform(get("/api/v1/admin/maintenance/tombstone-purge"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.chunkSize").value(500));
+    }
+}
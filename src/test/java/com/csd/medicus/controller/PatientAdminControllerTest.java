@@ -1,11 +1,17 @@
 package com.csd.medicus.controller;
 
 import com.csd.medicus.model.Patient;
+import com.csd.medicus.dto.BulkAdminRequestDto;
+import com.csd.medicus.dto.BulkJobDto;
+import com.csd.medicus.dto.PatientAdminDto;
+import com.csd.medicus.service.PatientBulkAdminService;
 import com.csd.medicus.service.PatientService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.*;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
@@ -27,6 +33,9 @@ class PatientAdminControllerTest {
     @Mock
     private PatientService service;
 
+    @Mock
+    private PatientBulkAdminService bulkService;
+
     @InjectMocks
     private PatientAdminController controller;
 
@@ -65,34 +74,42 @@ class PatientAdminControllerTest {
         return p;
     }
 
+    private static PatientAdminDto adminView(Patient p) {
+        return new PatientAdminDto(p.getId(), p.getVersion(), p.getFirstName(), p.getLastName(), p.getEmail(),
+                p.getPhone(), p.getCreatedAt(), p.isDeleted(), p.getDeletedAt());
+    }
+
     @Test
     void list_includeDeletedTrue_returnsAll() throws Exception {
-        Patient a = active(1L);
-        Patient b = deleted(2L);
-        when(service.listAllPatients(true)).thenReturn(List.of(a, b));
+        PatientAdminDto a = adminView(active(1L));
+        PatientAdminDto b = adminView(deleted(2L));
+        when(service.listAllPatients(eq(true), any())).thenReturn(new PageImpl<>(List.of(a, b), PageRequest.of(0, 50), 2));
 
         mvc.perform(get("/api/v1/admin/patients")
                 .param("includeDeleted", "true")
                 .accept(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$.length()").value(2));
+                .andExpect(jsonPath("$.content.length()").value(2))
+                .andExpect(jsonPath("$.content[1].deleted").value(true));
 
-        verify(service, times(1)).listAllPatients(true);
+        verify(service, times(1)).listAllPatients(true, PageRequest.of(0, 50));
     }
 
     @Test
     void list_includeDeletedFalse_returnsOnlyActive() throws Exception {
-        Patient a = active(3L);
-        when(service.listAllPatients(false)).thenReturn(List.of(a));
+        PatientAdminDto a = adminView(active(3L));
+        when(service.listAllPatients(eq(false), any())).thenReturn(new PageImpl<>(List.of(a), PageRequest.of(2, 500), 1001));
 
         mvc.perform(get("/api/v1/admin/patients")
                 .param("includeDeleted", "false")
+                .param("page", "2")
+                .param("size", "1000")
                 .accept(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$.length()").value(1))
-                .andExpect(jsonPath("$[0].id").value(3));
+                .andExpect(jsonPath("$.content.length()").value(1))
+                .andExpect(jsonPath("$.content[0].id").value(3));
 
-        verify(service, times(1)).listAllPatients(false);
+        verify(service, times(1)).listAllPatients(false, PageRequest.of(2, 500));
     }
 
     @Test
@@ -151,6 +168,45 @@ class PatientAdminControllerTest {
         verify(service, times(1)).purgePatient(33L);
     }
 
+    @Test
+    void bulkSoftDelete_startsJobAndReturnsAccepted() throws Exception {
+        BulkJobDto job = new BulkJobDto("j1", "SOFT_DELETE", BulkJobDto.Status.RUNNING, 3, 0, 0, 0, 0, null, LocalDateTime.now(), null);
+        when(bulkService.start(eq(PatientBulkAdminService.Operation.SOFT_DELETE), any())).thenReturn(job);
+
+        mvc.perform(post("/api/v1/admin/patients/bulk/soft-delete")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"ids\":[1,2,3]}"))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.id").value("j1"))
+                .andExpect(jsonPath("$.total").value(3));
+
+        verify(bulkService).start(PatientBulkAdminService.Operation.SOFT_DELETE, new BulkAdminRequestDto(List.of(1L, 2L, 3L), null, null));
+    }
+
+    @Test
+    void bulkPurge_invalidSelection_returnsBadRequest() throws Exception {
+        when(bulkService.start(any(), any())).thenThrow(new IllegalArgumentException("Provide either ids or a deletedAfter/deletedBefore range"));
+
+        mvc.perform(post("/api/v1/admin/patients/bulk/purge")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{}"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void bulkJob_reportsProgressOrNotFound() throws Exception {
+        BulkJobDto job = new BulkJobDto("j2", "PURGE", BulkJobDto.Status.COMPLETED, -1, 2000, 1990, 0, 2, null, LocalDateTime.now(), LocalDateTime.now());
+        when(bulkService.getJob("j2")).thenReturn(java.util.Optional.of(job));
+        when(bulkService.getJob("nope")).thenReturn(java.util.Optional.empty());
+
+        mvc.perform(get("/api/v1/admin/patients/bulk/jobs/j2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("COMPLETED"))
+                .andExpect(jsonPath("$.affected").value(1990));
+        mvc.perform(get("/api/v1/admin/patients/bulk/jobs/nope"))
+                .andExpect(status().isNotFound());
+    }
+
     // Simple controller advice used only in tests to map RuntimeException -> 404 and IllegalStateException -> 409
     @ControllerAdvice
     static class TestControllerAdvice {
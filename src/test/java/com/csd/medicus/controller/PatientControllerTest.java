@@ -1,5 +1,8 @@
 package com.csd.medicus.controller;
 
+import com.csd.medicus.dto.BulkCreateResultDto;
+import com.csd.medicus.dto.BulkRowResultDto;
+import com.csd.medicus.dto.PatientDto;
 import com.csd.medicus.model.Patient;
 import com.csd.medicus.service.PatientService;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -12,6 +15,10 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import com.csd.medicus.search.KeysetSlice;
+import com.csd.medicus.search.SearchCursor;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
 import java.util.Optional;
@@ -23,6 +30,9 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest(PatientController.class)
@@ -39,14 +49,9 @@ class PatientControllerTest {
 
 	@Test
 	void testGetPatientById() throws Exception {
-		Patient p = new Patient();
-		p.setId(1L);
-		p.setFirstName("John");
-		p.setLastName("Doe");
-		p.setEmail("john@example.com");
-		p.setPhone("1234567890");
+		PatientDto p = new PatientDto(1L, "John", "Doe", "john@example.com", "1234567890", 0L);
 
-		when(service.getPatientById(1L)).thenReturn(p);
+		when(service.getPatientDtoById(1L)).thenReturn(p);
 
 		mockMvc.perform(get("/api/v1/patients/1")).andExpect(status().isOk());
 	}
@@ -163,4 +168,317 @@ class PatientControllerTest {
 	    Pageable used2 = captor.getAllValues().get(1);
 	    assertTrue(used2.getPageSize() <= 100);
 	}
+
+	@Test
+	void testSearchCursorModeReturnsSliceWithNextToken() throws Exception {
+	    com.csd.medicus.dto.PatientDto d1 = new com.csd.medicus.dto.PatientDto(7L, "Ram Kumar", "Kumar", "ram@example.com", "9876543210");
+	    com.csd.medicus.dto.PatientDto d2 = new com.csd.medicus.dto.PatientDto(9L, "Ramesh", "Rao", "ramesh@example.com", "9876000000");
+	    when(service.searchPatientsAfter("ram", 0L, 2))
+	        .thenReturn(new KeysetSlice<>(List.of(d1, d2), PageRequest.of(0, 2), true, 9L));
+
+	    mockMvc.perform(get("/api/v1/patients/search")
+	            .param("query", "ram")
+	            .param("after", "")
+	            .param("size", "2"))
+	        .andExpect(status().isOk())
+	        .andExpect(jsonPath("$.content[1].firstName").value("Ramesh"))
+	        .andExpect(jsonPath("$.hasNext").value(true))
+	        .andExpect(jsonPath("$.next").value(SearchCursor.encode(9L)))
+	        .andExpect(jsonPath("$.totalElements").doesNotExist());
+
+	    verify(service, never()).searchPatients(anyString(), any(Pageable.class));
+	}
+
+	@Test
+	void testSearchCursorModeDecodesAfterToken() throws Exception {
+	    when(service.searchPatientsAfter("ram", 9L, 20))
+	        .thenReturn(new KeysetSlice<>(List.of(), PageRequest.of(0, 20), false, null));
+
+	    mockMvc.perform(get("/api/v1/patients/search")
+	            .param("query", "ram")
+	            .param("after", SearchCursor.encode(9L)))
+	        .andExpect(status().isOk())
+	        .andExpect(jsonPath("$.content").isEmpty())
+	        .andExpect(jsonPath("$.hasNext").value(false))
+	        .andExpect(jsonPath("$.next").doesNotExist());
+
+	    verify(service, times(1)).searchPatientsAfter("ram", 9L, 20);
+	}
+
+	@Test
+	void testSearchCursorModeContinuesAfterASliceOfDeletedMatches() throws Exception {
+	    // every id scanned for this slice was deleted after it was indexed
+	    when(service.searchPatientsAfter("ram", 0L, 2))
+	        .thenReturn(new KeysetSlice<>(List.of(), PageRequest.of(0, 2), true, 12L));
+
+	    mockMvc.perform(get("/api/v1/patients/search")
+	            .param("query", "ram")
+	            .param("after", "")
+	            .param("size", "2"))
+	        .andExpect(status().isOk())
+	        .andExpect(jsonPath("$.content").isEmpty())
+	        .andExpect(jsonPath("$.hasNext").value(true))
+	        .andExpect(jsonPath("$.next").value(SearchCursor.encode(12L)));
+	}
+
+	@Test
+	void testSearchCursorModeRejectsMalformedToken() throws Exception {
+	    mockMvc.perform(get("/api/v1/patients/search")
+	            .param("query", "ram")
+	            .param("after", "garbage!"))
+	        .andExpect(status().isBadRequest());
+
+	    verify(service, never()).searchPatientsAfter(anyString(), anyLong(), anyInt());
+	}
+
+	@Test
+	void testPhoneticSearchEndpoint() throws Exception {
+	    Pageable pageable = PageRequest.of(0, 20);
+	    com.csd.medicus.dto.PatientDto dto = new com.csd.medicus.dto.PatientDto(1L, "Katherine", "Rao", "k@example.com", "+919876543210");
+	    when(service.searchPatientsPhonetic("Catherine", pageable)).thenReturn(new PageImpl<>(List.of(dto), pageable, 1));
+
+	    mockMvc.perform(get("/api/v1/patients/search/phonetic").param("name", "Catherine"))
+	        .andExpect(status().isOk())
+	        .andExpect(jsonPath("$.content[0].firstName").value("Katherine"))
+	        .andExpect(jsonPath("$.totalElements").value(1));
+
+	    verify(service, times(1)).searchPatientsPhonetic("Catherine", pageable);
+	}
+
+	@Test
+	void testPhoneSuffixEndpoint() throws Exception {
+	    Pageable pageable = PageRequest.of(0, 20);
+	    com.csd.medicus.dto.PatientDto dto = new com.csd.medicus.dto.PatientDto(1L, "Ram", "Kumar", "ram@example.com", "+919876543210");
+	    when(service.searchByPhoneSuffix("3210", pageable)).thenReturn(new PageImpl<>(List.of(dto), pageable, 1));
+
+	    mockMvc.perform(get("/api/v1/patients/search/phone-suffix").param("digits", "3210"))
+	        .andExpect(status().isOk())
+	        .andExpect(jsonPath("$.content[0].phone").value("+919876543210"));
+	}
+
+	@Test
+	void testPhoneSuffixEndpointRejectsInvalidDigits() throws Exception {
+	    when(service.searchByPhoneSuffix(eq("12"), any(Pageable.class))).thenThrow(new IllegalArgumentException("phone suffix must be 4-15 digits"));
+
+	    mockMvc.perform(get("/api/v1/patients/search/phone-suffix").param("digits", "12"))
+	        .andExpect(status().isBadRequest());
+	}
+
+	@Test
+	void testEmailSearchEndpointReturnsEquivalentMatches() throws Exception {
+	    com.csd.medicus.dto.PatientDto dto = new com.csd.medicus.dto.PatientDto(1L, "John", "Doe", "johndoe@gmail.com", null);
+	    when(service.findByEquivalentEmail("John.Doe+clinic@gmail.com")).thenReturn(List.of(dto));
+	    when(service.findByEquivalentEmail("nope")).thenThrow(new IllegalArgumentException("invalid email format: nope"));
+
+	    mockMvc.perform(get("/api/v1/patients/search/email").param("email", "John.Doe+clinic@gmail.com"))
+	        .andExpect(status().isOk())
+	        .andExpect(jsonPath("$[0].email").value("johndoe@gmail.com"));
+	    mockMvc.perform(get("/api/v1/patients/search/email").param("email", "nope"))
+	        .andExpect(status().isBadRequest());
+	}
+
+	@Test
+	void testAutocompleteEndpoint() throws Exception {
+	    when(service.suggestNames("ra", 10)).thenReturn(List.of("Ramesh", "Ram"));
+
+	    mockMvc.perform(get("/api/v1/patients/autocomplete").param("prefix", "ra"))
+	        .andExpect(status().isOk())
+	        .andExpect(jsonPath("$[0]").value("Ramesh"))
+	        .andExpect(jsonPath("$.length()").value(2));
+	}
+
+	@Test
+	void testBulkCreateReturnsPerRowResults() throws Exception {
+	    BulkCreateResultDto result = new BulkCreateResultDto(1, 1, List.of(
+	        BulkRowResultDto.created(0, 7L),
+	        BulkRowResultDto.rejected(1, BulkRowResultDto.Status.DUPLICATE, "Same phone as row 0")));
+	    when(service.savePatients(anyList())).thenReturn(result);
+
+	    mockMvc.perform(post("/api/v1/patients/bulk")
+	            .contentType(MediaType.APPLICATION_JSON)
+	            .content("[{\"firstName\":\"Ram\",\"lastName\":\"K\",\"phone\":\"+919876543210\"},"
+	                + "{\"firstName\":\"Ramu\",\"lastName\":\"K\",\"phone\":\"+919876543210\"}]"))
+	        .andExpect(status().isOk())
+	        .andExpect(jsonPath("$.created").value(1))
+	        .andExpect(jsonPath("$.results[0].id").value(7))
+	        .andExpect(jsonPath("$.results[1].status").value("DUPLICATE"));
+	}
+
+	@Test
+	void testBulkCreateRejectsEmptyBody() throws Exception {
+	    when(service.savePatients(List.of())).thenThrow(new IllegalArgumentException("At least one patient is required"));
+
+	    mockMvc.perform(post("/api/v1/patients/bulk").contentType(MediaType.APPLICATION_JSON).content("[]"))
+	        .andExpect(status().isBadRequest());
+	}
+
+	@Test
+	void testGetPatientByIdSendsVersionAsETag() throws Exception {
+	    when(service.getPatientDtoById(1L)).thenReturn(new PatientDto(1L, "John", "Doe", "john@example.com", "1234567890", 3L));
+
+	    mockMvc.perform(get("/api/v1/patients/1"))
+	        .andExpect(status().isOk())
+	        .andExpect(header().string("ETag", "\"3\""))
+	        .andExpect(jsonPath("$.firstName").value("John"))
+	        .andExpect(jsonPath("$.version").value(3));
+	    verify(service, never()).getPatientById(anyLong());
+	}
+
+	@Test
+	void testGetPatientByIdReturns304WhenETagMatches() throws Exception {
+	    when(service.getPatientVersion(1L)).thenReturn(Optional.of(3L));
+
+	    mockMvc.perform(get("/api/v1/patients/1").header("If-None-Match", "W/\"2\", \"3\""))
+	        .andExpect(status().isNotModified())
+	        .andExpect(header().string("ETag", "\"3\""))
+	        .andExpect(content().string(""));
+	    verify(service, never()).getPatientDtoById(anyLong());
+	}
+
+	@Test
+	void testGetPatientByIdReturnsBodyWhenETagIsStale() throws Exception {
+	    when(service.getPatientVersion(1L)).thenReturn(Optional.of(4L));
+	    when(service.getPatientDtoById(1L)).thenReturn(new PatientDto(1L, "John", "Doe", null, null, 4L));
+
+	    mockMvc.perform(get("/api/v1/patients/1").header("If-None-Match", "\"3\""))
+	        .andExpect(status().isOk())
+	        .andExpect(header().string("ETag", "\"4\""));
+	}
+
+	@Test
+	void testUpdateWithIfMatchPassesExpectedVersion() throws Exception {
+	    Patient saved = new Patient(1L, "John", "Smith", null, null, null);
+	    saved.setVersion(4L);
+	    when(service.updatePatient(eq(1L), any(Patient.class), eq(3L))).thenReturn(saved);
+
+	    mockMvc.perform(put("/api/v1/patients/1").header("If-Match", "\"3\"")
+	            .contentType(MediaType.APPLICATION_JSON).content("{\"lastName\":\"Smith\"}"))
+	        .andExpect(status().isOk())
+	        .andExpect(header().string("ETag", "\"4\""))
+	        .andExpect(jsonPath("$.lastName").value("Smith"));
+	}
+
+	@Test
+	void testUpdateWithStaleIfMatchReturns412() throws Exception {
+	    when(service.updatePatient(eq(1L), any(Patient.class), eq(2L)))
+	        .thenThrow(new OptimisticLockingFailureException("Patient 1 is at version 3, not 2"));
+
+	    mockMvc.perform(put("/api/v1/patients/1").header("If-Match", "\"2\"")
+	            .contentType(MediaType.APPLICATION_JSON).content("{\"lastName\":\"Smith\"}"))
+	        .andExpect(status().isPreconditionFailed());
+	}
+
+	@Test
+	void testUpdateWithWeakOrUnknownIfMatchFailsThePrecondition() throws Exception {
+	    // RFC 9110: a weak tag never matches under If-Match
+	    mockMvc.perform(put("/api/v1/patients/1").header("If-Match", "W/\"2\"")
+	            .contentType(MediaType.APPLICATION_JSON).content("{}"))
+	        .andExpect(status().isPreconditionFailed());
+	    mockMvc.perform(put("/api/v1/patients/1").header("If-Match", "\"not-ours\"")
+	            .contentType(MediaType.APPLICATION_JSON).content("{}"))
+	        .andExpect(status().isPreconditionFailed());
+	    mockMvc.perform(put("/api/v1/patients/1").header("If-Match", "2")
+	            .contentType(MediaType.APPLICATION_JSON).content("{}"))
+	        .andExpect(status().isBadRequest());
+	    verify(service, never()).updatePatient(anyLong(), any(), any());
+	}
+
+	@Test
+	void testPatchUsesIfMatchVersionAndReturnsNewETag() throws Exception {
+	    when(service.patchPatient(eq(1L), any(PatientDto.class), eq(3L)))
+	        .thenReturn(new PatientDto(1L, "John", "Doe", null, "+919876543210", 4L));
+
+	    mockMvc.perform(patch("/api/v1/patients/1").header("If-Match", "\"3\"")
+	            .contentType(MediaType.APPLICATION_JSON).content("{\"phone\":\"9876543210\"}"))
+	        .andExpect(status().isOk())
+	        .andExpect(header().string("ETag", "\"4\""))
+	        .andExpect(jsonPath("$.version").value(4));
+	}
+
+	@Test
+	void testPatchAcceptsVersionFromBody() throws Exception {
+	    when(service.patchPatient(eq(1L), any(PatientDto.class), eq(7L)))
+	        .thenReturn(new PatientDto(1L, "Johnny", "Doe", null, null, 8L));
+
+	    mockMvc.perform(patch("/api/v1/patients/1")
+	            .contentType(MediaType.APPLICATION_JSON).content("{\"firstName\":\"Johnny\",\"version\":7}"))
+	        .andExpect(status().isOk());
+	}
+
+	@Test
+	void testPatchRequiresAVersion() throws Exception {
+	    mockMvc.perform(patch("/api/v1/patients/1")
+	            .contentType(MediaType.APPLICATION_JSON).content("{\"firstName\":\"Johnny\"}"))
+	        .andExpect(status().isPreconditionRequired());
+	    verify(service, never()).patchPatient(anyLong(), any(), anyLong());
+	}
+
+	@Test
+	void testPatchMapsStaleVersionAndDuplicates() throws Exception {
+	    when(service.patchPatient(eq(1L), any(PatientDto.class), eq(2L)))
+	        .thenThrow(new OptimisticLockingFailureException("stale"));
+	    when(service.patchPatient(eq(1L), any(PatientDto.class), eq(3L)))
+	        .thenThrow(new com.csd.medicus.exception.DuplicateEntityException("email", "Patient with same email already exists", null));
+
+	    mockMvc.perform(patch("/api/v1/patients/1").header("If-Match", "\"2\"")
+	            .contentType(MediaType.APPLICATION_JSON).content("{}"))
+	        .andExpect(status().isPreconditionFailed());
+	    mockMvc.perform(patch("/api/v1/patients/1").header("If-Match", "\"3\"")
+	            .contentType(MediaType.APPLICATION_JSON).content("{\"email\":\"taken@example.com\"}"))
+	        .andExpect(status().isConflict());
+	}
+
+	@Test
+	void testPutMapsDuplicateToConflict() throws Exception {
+	    when(service.updatePatient(eq(1L), any(Patient.class), isNull()))
+	        .thenThrow(new com.csd.medicus.exception.DuplicateEntityException("email", "Patient with same email already exists", null));
+
+	    mockMvc.perform(put("/api/v1/patients/1")
+	            .contentType(MediaType.APPLICATION_JSON).content("{\"email\":\"taken@example.com\"}"))
+	        .andExpect(status().isConflict());
+	}
+
+	@Test
+	void testBulkCreateFallsBackToSingleCreatesWhenTheBatchLosesARace() throws Exception {
+	    when(service.savePatients(anyList()))
+	        .thenThrow(new com.csd.medicus.exception.DuplicateEntityException("email", "Patient with same email already exists", null));
+	    Patient saved = new Patient();
+	    saved.setId(7L);
+	    when(service.savePatient(argThat(p -> p != null && "Ram".equals(p.getFirstName())))).thenReturn(saved);
+	    when(service.savePatient(argThat(p -> p != null && "Sita".equals(p.getFirstName()))))
+	        .thenThrow(new com.csd.medicus.exception.DuplicateEntityException("email", "Patient with same email already exists: sita@example.com", null));
+
+	    mockMvc.perform(post("/api/v1/patients/bulk").contentType(MediaType.APPLICATION_JSON)
+	            .content("[{\"firstName\":\"Ram\",\"lastName\":\"Kumar\"},"
+	                + "{\"firstName\":\"Sita\",\"lastName\":\"Devi\",\"email\":\"sita@example.com\"}]"))
+	        .andExpect(status().isOk())
+	        .andExpect(jsonPath("$.created").value(1))
+	        .andExpect(jsonPath("$.failed").value(1))
+	        .andExpect(jsonPath("$.results[0].status").value("CREATED"))
+	        .andExpect(jsonPath("$.results[0].id").value(7))
+	        .andExpect(jsonPath("$.results[1].status").value("DUPLICATE"));
+	    verify(service, times(2)).savePatient(any());
+	}
+
+	@Test
+	void testPatchWithIfMatchStarUsesTheBodyVersion() throws Exception {
+	    when(service.patchPatient(eq(1L), any(PatientDto.class), eq(7L)))
+	        .thenReturn(new PatientDto(1L, "Johnny", "Doe", null, null, 8L));
+
+	    mockMvc.perform(patch("/api/v1/patients/1").header("If-Match", "*")
+	            .contentType(MediaType.APPLICATION_JSON).content("{\"firstName\":\"Johnny\",\"version\":7}"))
+	        .andExpect(status().isOk())
+	        .andExpect(header().string("ETag", "\"8\""));
+	    mockMvc.perform(patch("/api/v1/patients/1").header("If-Match", "*")
+	            .contentType(MediaType.APPLICATION_JSON).content("{\"firstName\":\"Johnny\"}"))
+	        .andExpect(status().isPreconditionRequired());
+	}
+
+	@Test
+	void testPatchWithWeakIfMatchFailsThePrecondition() throws Exception {
+	    mockMvc.perform(patch("/api/v1/patients/1").header("If-Match", "W/\"3\"")
+	            .contentType(MediaType.APPLICATION_JSON).content("{\"firstName\":\"Johnny\",\"version\":3}"))
+	        .andExpect(status().isPreconditionFailed());
+	    verify(service, never()).patchPatient(anyLong(), any(), anyLong());
+	}
 }
@@ -0,0 +1,74 @@
+package com.csd.medicus.controller;
+
+import com.csd.medicus.dto.MergePlanDto;
+import com.csd.medicus.dto.MergeResultDto;
+import com.csd.medicus.service.PatientDuplicateService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+class PatientDuplicateAdminControllerTest {
+
+    @Mock
+    private PatientDuplicateService duplicateService;
+
+    @InjectMocks
+    private PatientDuplicateAdminController controller;
+
+    private MockMvc mvc;
+
+    @BeforeEach
+    void init() {
+        MockitoAnnotations.openMocks(this);
+        mvc = MockMvcBuilders.standaloneSetup(controller).build();
+    }
+
+    @Test
+    void scanIsAcceptedAndPlanIsPollable() throws Exception {
+        MergePlanDto running = new MergePlanDto("p1", MergePlanDto.Status.RUNNING, 0, 0, 0, 0, List.of(), null,
+                LocalDateTime.now(), null);
+        when(duplicateService.startScan()).thenReturn(running);
+        when(duplicateService.getPlan("p1")).thenReturn(Optional.of(running));
+
+        mvc.perform(post("/api/v1/admin/patients/duplicates/scan"))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.id").value("p1"));
+        mvc.perform(get("/api/v1/admin/patients/duplicates/plans/p1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("RUNNING"));
+        mvc.perform(get("/api/v1/admin/patients/duplicates/plans/nope"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void applyPassesSelectedClustersAndMapsErrors() throws Exception {
+        when(duplicateService.applyPlan("p1", List.of(0, 2)))
+                .thenReturn(new MergeResultDto("p1", List.of(0), 1, List.of(2), List.of()));
+        when(duplicateService.applyPlan(eq("p2"), isNull())).thenThrow(new IllegalStateException("RUNNING"));
+        when(duplicateService.applyPlan(eq("p3"), isNull())).thenThrow(new IllegalArgumentException("unknown"));
+
+        mvc.perform(post("/api/v1/admin/patients/duplicates/plans/p1/apply")
+                        .contentType(MediaType.APPLICATION_JSON).content("[0, 2]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.merged[0]").value(0))
+                .andExpect(jsonPath("$.stale[0]").value(2));
+        mvc.perform(post("/api/v1/admin/patients/duplicates/plans/p2/apply"))
+                .andExpect(status().isConflict());
+        mvc.perform(post("/api/v1/admin/patients/duplicates/plans/p3/apply"))
+                .andExpect(status().isBadRequest());
+    }
+}
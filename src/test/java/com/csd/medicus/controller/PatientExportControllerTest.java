@@ -0,0 +1,90 @@
+package com.csd.medicus.controller;
+
+import com.csd.medicus.service.PatientExportService;
+import com.csd.medicus.service.PatientExportService.Format;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Controller tests for the streaming export endpoints using MockMvc (standalone).
+ */
+class PatientExportControllerTest {
+
+    @Mock
+    private PatientExportService exportService;
+
+    @InjectMocks
+    private PatientExportController controller;
+
+    private MockMvc mvc;
+
+    @BeforeEach
+    void init() {
+        MockitoAnnotations.openMocks(this);
+        mvc = MockMvcBuilders.standaloneSetup(controller).build();
+    }
+
+    @Test
+    void adminExport_streamsNdjsonByDefault() throws Exception {
+        when(exportService.exportPatients(eq(true), eq(Format.NDJSON), any())).thenAnswer(inv -> {
+            OutputStream out = inv.getArgument(2);
+            out.write("{\"id\":1}\n".getBytes(StandardCharsets.UTF_8));
+            return 1L;
+        });
+
+        MvcResult started = mvc.perform(get("/api/v1/admin/patients/export").param("includeDeleted", "true"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Type", "application/x-ndjson"))
+                .andExpect(content().string("{\"id\":1}\n"));
+    }
+
+    @Test
+    void searchExport_csv() throws Exception {
+        when(exportService.exportSearch(eq("ram"), eq(Format.CSV), any())).thenReturn(0L);
+
+        MvcResult started = mvc.perform(get("/api/v1/patients/export").param("query", "ram").param("format", "csv"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Disposition", "attachment; filename=\"patients-search.csv\""));
+        verify(exportService).exportSearch(eq("ram"), eq(Format.CSV), any());
+    }
+
+    @Test
+    void searchExport_blankOrMissingQuery_returns400() throws Exception {
+        mvc.perform(get("/api/v1/patients/export"))
+                .andExpect(status().isBadRequest());
+        mvc.perform(get("/api/v1/patients/export").param("query", "   ").param("format", "csv"))
+                .andExpect(status().isBadRequest());
+        verifyNoInteractions(exportService);
+    }
+
+    @Test
+    void unknownFormat_returns400() throws Exception {
+        mvc.perform(get("/api/v1/admin/patients/export").param("format", "xml"))
+                .andExpect(status().isBadRequest());
+        verifyNoInteractions(exportService);
+    }
+}
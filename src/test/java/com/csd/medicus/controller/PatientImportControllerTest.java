@@ -0,0 +1,56 @@
+package com.csd.medicus.controller;
+
+import com.csd.medicus.dto.ImportReportDto;
+import com.csd.medicus.service.PatientImportService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.io.InputStream;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+class PatientImportControllerTest {
+
+    @Mock
+    private PatientImportService importService;
+
+    @InjectMocks
+    private PatientImportController controller;
+
+    private MockMvc mvc;
+
+    @BeforeEach
+    void init() {
+        MockitoAnnotations.openMocks(this);
+        mvc = MockMvcBuilders.standaloneSetup(controller).build();
+    }
+
+    @Test
+    void importStreamsBodyAndReturnsReport() throws Exception {
+        when(importService.importCsv(any(InputStream.class), eq("nightly")))
+                .thenReturn(new ImportReportDto("nightly", 0, 2, 2, 0, 1, 2, 5, 400.0, "/tmp/nightly.rejects.csv"));
+
+        mvc.perform(post("/api/v1/admin/patients/import").param("jobId", "nightly")
+                        .contentType("text/csv").content("firstName,lastName\nRam,Kumar\nSita,Devi\n"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.created").value(2))
+                .andExpect(jsonPath("$.rowsPerSecond").value(400.0));
+    }
+
+    @Test
+    void badHeaderIsBadRequest() throws Exception {
+        when(importService.importCsv(any(InputStream.class), isNull()))
+                .thenThrow(new IllegalArgumentException("CSV header must contain firstName and lastName columns"));
+
+        mvc.perform(post("/api/v1/admin/patients/import").contentType("text/csv").content("email\n"))
+                .andExpect(status().isBadRequest());
+    }
+}
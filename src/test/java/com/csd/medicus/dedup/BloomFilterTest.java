@@ -0,0 +1,80 @@
+package com.csd.medicus.dedup;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for BloomFilter: sizing, no false negatives and a false-positive rate close to the target.
+ */
+class BloomFilterTest {
+
+    @Test
+    void sizesFromExpectedEntriesAndProbability() {
+        BloomFilter filter = new BloomFilter(1_000_000, 0.01);
+
+        // ~9.59 bits per entry and 7 hash functions at 1%
+        assertEquals(9_585_088, filter.bitSize(), 64);
+        assertEquals(7, filter.hashFunctions());
+        assertEquals(filter.bitSize() / 8, filter.memoryBytes());
+    }
+
+    @Test
+    void neverReportsAddedValuesAsAbsent() {
+        BloomFilter filter = new BloomFilter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.add("+91" + (9_000_000_000L + i));
+        }
+        for (int i = 0; i < 10_000; i++) {
+            assertTrue(filter.mightContain("+91" + (9_000_000_000L + i)));
+        }
+        assertEquals(10_000, filter.insertions());
+    }
+
+    @Test
+    void falsePositiveRateStaysNearTarget() {
+        BloomFilter filter = new BloomFilter(20_000, 0.01);
+        for (int i = 0; i < 20_000; i++) {
+            filter.add("user" + i + "@example.com");
+        }
+        int falsePositives = 0;
+        int probes = 100_000;
+        for (int i = 0; i < probes; i++) {
+            if (filter.mightContain("other" + i + "@example.com")) {
+                falsePositives++;
+            }
+        }
+        double rate = (double) falsePositives / probes;
+        assertTrue(rate < 0.02, "false-positive rate " + rate);
+        assertEquals(0.01, filter.estimatedFalsePositiveProbability(), 0.005);
+    }
+
+    @Test
+    void sequentialLongsStayNearTarget() {
+        // packed phone numbers of one region differ only in their low bits
+        BloomFilter filter = new BloomFilter(20_000, 0.01);
+        long base = 12L << 50 | 919_000_000_000L;
+        for (int i = 0; i < 20_000; i++) {
+            filter.add(base + i);
+        }
+        for (int i = 0; i < 20_000; i++) {
+            assertTrue(filter.mightContain(base + i));
+        }
+        int falsePositives = 0;
+        int probes = 100_000;
+        for (int i = 0; i < probes; i++) {
+            if (filter.mightContain(base + 20_000 + i)) {
+                falsePositives++;
+            }
+        }
+        double rate = (double) falsePositives / probes;
+        assertTrue(rate < 0.02, "false-positive rate " + rate);
+    }
+
+    @Test
+    void rejectsInvalidSizing() {
+        assertThrows(IllegalArgumentException.class, () -> new BloomFilter(0, 0.01));
+        assertThrows(IllegalArgumentException.class, () -> new BloomFilter(100, 1.0));
+        assertThrows(IllegalArgumentException.class, () -> new BloomFilter(100, 0));
+    }
+}
@@ -0,0 +1,72 @@
+package com.csd.medicus.dedup;
+
+import com.csd.medicus.dto.PatientDto;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for DuplicateClusterer: transitive clusters across different blocking keys, pair
+ * de-duplication, oversized blocks and a parallel scoring run over many pairs.
+ */
+class DuplicateClustererTest {
+
+    @Test
+    void joinsPairsFoundThroughDifferentBlocksTransitively() {
+        List<PatientDto> patients = List.of(
+                new PatientDto(1L, "Ram", "Kumar", "ram.kumar@gmail.com", "+919876543210", 3L),
+                new PatientDto(2L, "Sita", "Devi", "sita@example.com", "+919000000001", 0L),
+                // same phone as 1 (legacy formatting)
+                new PatientDto(3L, "Raam", "Kumar", null, "09876543210", 1L),
+                // same email local part as 1, no phone
+                new PatientDto(4L, "Ram", "Kumar", "RamKumar+opd@yahoo.com", null, 0L),
+                // shares 1's phone but is a different family member
+                new PatientDto(5L, "Gita", "Kumar", null, "+919876543210", 0L));
+
+        DuplicateClusterer.Result result = new DuplicateClusterer(0.8, 100).cluster(patients);
+
+        assertEquals(5, result.scanned());
+        assertEquals(1, result.clusters().size());
+        DuplicateClusterer.Cluster cluster = result.clusters().get(0);
+        assertEquals(List.of(1L, 3L, 4L), cluster.members().stream().map(PatientDto::getId).toList());
+        assertTrue(cluster.score() >= 0.8);
+        assertTrue(cluster.reasons().containsAll(List.of(PatientSimilarity.PHONE, PatientSimilarity.EMAIL_LOCAL_PART)));
+        // 1-3 share phone and name blocks but are scored once
+        assertTrue(result.candidatePairs() < 10);
+    }
+
+    @Test
+    void skipsOversizedBlocks() {
+        List<PatientDto> patients = new ArrayList<>();
+        for (long i = 1; i <= 5; i++) {
+            patients.add(new PatientDto(i, "Ram", "Kumar", null, "+91987654321" + i, 0L));
+        }
+
+        DuplicateClusterer.Result result = new DuplicateClusterer(0.8, 4).cluster(patients);
+
+        assertEquals(1, result.oversizedBlocks());
+        assertEquals(0, result.candidatePairs());
+        assertTrue(result.clusters().isEmpty());
+    }
+
+    @Test
+    void scoresManyPairsInParallel() {
+        // 2,000 duplicate pairs sharing a phone, well above one fork/join leaf
+        List<PatientDto> patients = new ArrayList<>();
+        long id = 1;
+        for (int i = 0; i < 2000; i++) {
+            String phone = String.format("+9190%08d", i);
+            patients.add(new PatientDto(id++, "Patient" + i, "Test", null, phone, 0L));
+            patients.add(new PatientDto(id++, "Patient" + i, "Test", null, phone, 0L));
+        }
+
+        DuplicateClusterer.Result result = new DuplicateClusterer(0.8, 100).cluster(patients);
+
+        assertEquals(2000, result.clusters().size());
+        assertTrue(result.clusters().stream().allMatch(c -> c.members().size() == 2));
+        assertThrows(IllegalArgumentException.class, () -> new DuplicateClusterer(1.5, 100));
+    }
+}
@@ -0,0 +1,57 @@
+package com.csd.medicus.dedup;
+
+import com.csd.medicus.util.PhoneNormalizer;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for PatientContactFilter: conservative answers until seeded, separate email/phone key
+ * spaces and the counters exposed as metrics.
+ */
+class PatientContactFilterTest {
+
+    @Test
+    void answersMaybeUntilReady() {
+        PatientContactFilter filter = new PatientContactFilter(1000, 0.01);
+
+        assertTrue(filter.mayContainEmail("ram@example.com"));
+        assertFalse(filter.stats().ready());
+        assertEquals(0, filter.stats().checks());
+    }
+
+    @Test
+    void definiteMissesAreCountedAsSkippedChecks() {
+        PatientContactFilter filter = new PatientContactFilter(1000, 0.01);
+        filter.add("ram@example.com", "+919876543210");
+        filter.markReady();
+
+        assertTrue(filter.mayContainEmail("ram@example.com"));
+        assertTrue(filter.mayContainPhone("+919876543210"));
+        assertFalse(filter.mayContainEmail("sita@example.com"));
+        // the phone was added as a phone, not as an email
+        assertFalse(filter.mayContainEmail("+919876543210"));
+        assertFalse(filter.mayContainPhone(null));
+        // E.164 phones are kept packed, so the string and packed checks agree
+        assertTrue(filter.mayContainPhone(PhoneNormalizer.pack("+919876543210")));
+        assertFalse(filter.mayContainPhone(PhoneNormalizer.pack("+919876543211")));
+
+        ContactFilterStats stats = filter.stats();
+        assertEquals(6, stats.checks());
+        assertEquals(3, stats.skippedChecks());
+        assertEquals(2, stats.insertions());
+        assertEquals(0.01, stats.configuredFalsePositiveProbability());
+    }
+
+    @Test
+    void clearStartsOverAndWaitsForReload() {
+        PatientContactFilter filter = new PatientContactFilter(1000, 0.01);
+        filter.add("ram@example.com", null);
+        filter.markReady();
+
+        filter.clear();
+        assertTrue(filter.mayContainEmail("sita@example.com"));
+        filter.markReady();
+        assertFalse(filter.mayContainEmail("ram@example.com"));
+    }
+}
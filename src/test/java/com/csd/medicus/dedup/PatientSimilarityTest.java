@@ -0,0 +1,63 @@
+package com.csd.medicus.dedup;
+
+import com.csd.medicus.dto.PatientDto;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for PatientSimilarity: key derivation, Jaro-Winkler and where typical pairs land
+ * relative to the default threshold of 0.8.
+ */
+class PatientSimilarityTest {
+
+    private static PatientSimilarity.Features f(long id, String first, String last, String email, String phone) {
+        return PatientSimilarity.Features.of(new PatientDto(id, first, last, email, phone, 0L));
+    }
+
+    @Test
+    void keysIgnoreFormattingCountryCodeDotsAndTags() {
+        assertEquals("9876543210", PatientSimilarity.phoneKey("+91 98765-43210"));
+        assertEquals("9876543210", PatientSimilarity.phoneKey("09876543210"));
+        assertNull(PatientSimilarity.phoneKey("12345"));
+        assertEquals("ramkumar", PatientSimilarity.emailLocalPart("Ram.Kumar+opd@gmail.com"));
+        assertNull(PatientSimilarity.emailLocalPart("@example.com"));
+    }
+
+    @Test
+    void jaroWinklerMatchesReferenceValues() {
+        assertEquals(0.961, PatientSimilarity.jaroWinkler("martha", "marhta"), 0.001);
+        assertEquals(0.840, PatientSimilarity.jaroWinkler("dwayne", "duane"), 0.001);
+        assertEquals(1.0, PatientSimilarity.jaroWinkler("ram", "ram"));
+        assertEquals(0.0, PatientSimilarity.jaroWinkler("", "ram"));
+    }
+
+    @Test
+    void samePhoneAndSimilarNameIsADuplicate() {
+        double score = PatientSimilarity.score(f(1, "Lakshmi", "Devi", null, "+919876543210"),
+                f(2, "Laxmi", "Devi", "laxmi@example.com", "09876543210"));
+
+        assertTrue(score >= 0.8, "score " + score);
+    }
+
+    @Test
+    void sameEmailLocalPartAndSameNameIsADuplicate() {
+        PatientSimilarity.Features a = f(1, "Ram", "Kumar", "ram.kumar@gmail.com", null);
+        PatientSimilarity.Features b = f(2, "Ram", "Kumar", "RamKumar+opd@yahoo.com", null);
+
+        assertTrue(PatientSimilarity.score(a, b) >= 0.8);
+        assertEquals(java.util.List.of(PatientSimilarity.EMAIL_LOCAL_PART, PatientSimilarity.NAME,
+                PatientSimilarity.PHONETIC_NAME), PatientSimilarity.reasons(a, b));
+    }
+
+    @Test
+    void familyMembersAndNamesakesStayBelowThreshold() {
+        double family = PatientSimilarity.score(f(1, "Ram", "Kumar", null, "+919876543210"),
+                f(2, "Sita", "Kumar", null, "+919876543210"));
+        double namesakes = PatientSimilarity.score(f(1, "Ram", "Kumar", "ram@a.com", "+911111111111"),
+                f(2, "Ram", "Kumar", "rk@b.com", "+912222222222"));
+
+        assertTrue(family < 0.8, "family " + family);
+        assertTrue(namesakes < 0.8, "namesakes " + namesakes);
+    }
+}
@@ -0,0 +1,167 @@
+package com.csd.medicus.maintenance;
+
+import com.csd.medicus.repository.PatientRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for TombstonePurger: retention cutoff, keyset chunking with one transaction per chunk,
+ * latency-driven chunk sizing, the run counters and one run at a time without blocking stats().
+ */
+class TombstonePurgerTest {
+
+    @Mock
+    private PatientRepository repo;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    void init() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    private TombstonePurger purger(int chunkSize, int minChunkSize, Duration targetLatency) {
+        return purger(Runnable::run, chunkSize, minChunkSize, targetLatency);
+    }
+
+    private TombstonePurger purger(TaskExecutor executor, int chunkSize, int minChunkSize, Duration targetLatency) {
+        return new TombstonePurger(repo, transactionManager, executor, true, Duration.ofDays(30), chunkSize,
+                minChunkSize, targetLatency);
+    }
+
+    @Test
+    void purgesExpiredTombstonesChunkByChunkUsingKeyset() {
+        when(repo.findDeletedIdsBefore(any(), eq(0L), any())).thenReturn(List.of(1L, 2L));
+        when(repo.findDeletedIdsBefore(any(), eq(2L), any())).thenReturn(List.of(7L));
+        when(repo.purgeDeletedByIds(anyCollection())).thenReturn(2, 1);
+
+        TombstonePurgeStats stats = purger(2, 1, Duration.ofSeconds(10)).purgeExpired();
+
+        assertEquals(3, stats.lastRunPurged());
+        assertEquals(2, stats.lastRunBatches());
+        assertEquals(1, stats.totalRuns());
+        assertEquals(3, stats.totalPurged());
+        assertEquals(0, stats.lastRunPausedMs());
+        verify(repo).purgeDeletedByIds(List.of(1L, 2L));
+        verify(repo).purgeDeletedByIds(List.of(7L));
+        verify(transactionManager, times(2)).commit(any());
+        // the last chunk was short, so no further lookup
+        verify(repo, times(2)).findDeletedIdsBefore(any(), anyLong(), any());
+    }
+
+    @Test
+    void cutoffIsNowMinusRetention() {
+        when(repo.findDeletedIdsBefore(any(), anyLong(), any())).thenReturn(List.of());
+        ArgumentCaptor<LocalDateTime> cutoff = ArgumentCaptor.forClass(LocalDateTime.class);
+
+        LocalDateTime before = LocalDateTime.now().minusDays(30);
+        TombstonePurgeStats stats = purger(10, 1, Duration.ofSeconds(1)).purgeExpired();
+        LocalDateTime after = LocalDateTime.now().minusDays(30);
+
+        verify(repo).findDeletedIdsBefore(cutoff.capture(), eq(0L), any());
+        assertFalse(cutoff.getValue().isBefore(before));
+        assertFalse(cutoff.getValue().isAfter(after));
+        assertEquals(0, stats.lastRunPurged());
+        verify(repo, never()).purgeDeletedByIds(anyCollection());
+    }
+
+    @Test
+    void slowChunksHalveTheChunkSizeAndPause() {
+        when(repo.findDeletedIdsBefore(any(), anyLong(), any())).thenAnswer(inv -> {
+            long after = inv.getArgument(1);
+            int size = inv.<Pageable>getArgument(2).getPageSize();
+            return after >= 6 ? List.of() : java.util.stream.LongStream.rangeClosed(after + 1, after + size).boxed().toList();
+        });
+        when(repo.purgeDeletedByIds(anyCollection())).thenAnswer(inv -> {
+            Thread.sleep(5);
+            return inv.<List<Long>>getArgument(0).size();
+        });
+
+        TombstonePurgeStats stats = purger(4, 1, Duration.ofNanos(1)).purgeExpired();
+
+        ArgumentCaptor<Pageable> pages = ArgumentCaptor.forClass(Pageable.class);
+        verify(repo, atLeast(3)).findDeletedIdsBefore(any(), anyLong(), pages.capture());
+        assertEquals(List.of(4, 2, 1), pages.getAllValues().subList(0, 3).stream().map(Pageable::getPageSize).toList());
+        assertTrue(stats.lastRunPausedMs() >= 5);
+        assertTrue(stats.lastChunkLatencyMs() >= 5);
+        assertEquals(1, stats.chunkSize());
+    }
+
+    @Test
+    void fastChunksGrowBackTowardsTheConfiguredSize() {
+        when(repo.findDeletedIdsBefore(any(), anyLong(), any())).thenReturn(List.of());
+        TombstonePurger purger = purger(8, 2, Duration.ofSeconds(10));
+
+        assertEquals(8, purger.stats().chunkSize());
+        when(repo.findDeletedIdsBefore(any(), eq(0L), any())).thenReturn(List.of(1L));
+        when(repo.purgeDeletedByIds(anyCollection())).thenReturn(1);
+        purger.purgeExpired();
+
+        assertEquals(8, purger.stats().chunkSize());
+    }
+
+    @Test
+    void startPurgeRunsOnTheExecutor() {
+        when(repo.findDeletedIdsBefore(any(), eq(0L), any())).thenReturn(List.of(1L));
+        when(repo.purgeDeletedByIds(anyCollection())).thenReturn(1);
+        TombstonePurger purger = purger(10, 1, Duration.ofSeconds(10));
+
+        assertTrue(purger.startPurge());
+
+        assertEquals(1, purger.stats().totalRuns());
+        assertEquals(1, purger.stats().lastRunPurged());
+        assertFalse(purger.stats().running());
+    }
+
+    @Test
+    void runInProgressDoesNotBlockStatsAndOtherRunsAreSkipped() throws Exception {
+        CountDownLatch inRun = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(repo.findDeletedIdsBefore(any(), anyLong(), any())).thenAnswer(inv -> {
+            inRun.countDown();
+            assertTrue(release.await(10, TimeUnit.SECONDS));
+            return List.of();
+        });
+        Thread[] worker = new Thread[1];
+        TombstonePurger purger = purger(task -> {
+            worker[0] = new Thread(task);
+            worker[0].start();
+        }, 10, 1, Duration.ofSeconds(10));
+
+        assertTrue(purger.startPurge());
+        assertTrue(inRun.await(10, TimeUnit.SECONDS));
+
+        assertTrue(purger.stats().running());
+        assertFalse(purger.startPurge());
+        assertEquals(0, purger.purgeExpired().totalRuns());
+
+        release.countDown();
+        worker[0].join(10_000);
+        assertFalse(purger.stats().running());
+        assertEquals(1, purger.stats().totalRuns());
+        verify(repo, times(1)).findDeletedIdsBefore(any(), anyLong(), any());
+    }
+
+    @Test
+    void rejectsInconsistentChunkSizes() {
+        assertThrows(IllegalArgumentException.class, () -> purger(10, 20, Duration.ofMillis(100)));
+        assertThrows(IllegalArgumentException.class, () -> purger(10, 0, Duration.ofMillis(100)));
+    }
+}
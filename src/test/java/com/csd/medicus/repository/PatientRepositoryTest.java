@@ -1,11 +1,17 @@
 package com.csd.medicus.repository;
 
+import com.csd.medicus.dto.PatientAdminDto;
+import com.csd.medicus.dto.PatientDto;
 import com.csd.medicus.model.Patient;
+import com.csd.medicus.search.PatientSearchKeys;
+import com.csd.medicus.util.PhoneNormalizer;
+import com.csd.medicus.util.EmailCanonicalizer;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.*;
@@ -20,6 +26,9 @@ class PatientRepositoryTest {
 	@Autowired
 	private PatientRepository repo;
 
+	@Autowired
+	private jakarta.persistence.EntityManager em;
+
 	@Test
 	void testSaveAndFetch() {
 		Patient p = new Patient();
@@ -43,7 +52,7 @@ class PatientRepositoryTest {
 	    repo.saveAndFlush(p1);
 
 	    PageRequest pr = PageRequest.of(0, 10);
-	    Page<Patient> results = repo.searchPatients("ram", pr);
+	    Page<PatientDto> results = repo.searchPatients("ram", pr);
 
 	    assertThat(results).isNotNull();
 	    assertThat(results.getContent()).hasSize(1);
@@ -61,7 +70,7 @@ class PatientRepositoryTest {
 	    repo.saveAndFlush(p1);
 
 	    Pageable pageable = PageRequest.of(0, 10);
-	    Page<Patient> results = repo.searchPatients("09876", pageable);
+	    Page<PatientDto> results = repo.searchPatients("09876", pageable);
 
 	    assertThat(results).isNotNull();
 	    assertThat(results.getContent()).hasSize(1);
@@ -80,7 +89,7 @@ class PatientRepositoryTest {
 
 	    Pageable pageable = PageRequest.of(0, 10);
 	    // Uppercase query should still match due to LOWER(...) in JPQL
-	    Page<Patient> results = repo.searchPatients("RAM", pageable);
+	    Page<PatientDto> results = repo.searchPatients("RAM", pageable);
 
 	    assertThat(results).isNotNull();
 	    assertThat(results.getContent()).hasSize(1);
@@ -91,7 +100,7 @@ class PatientRepositoryTest {
 	void testNoResults_paginated() {
 	    // no patients saved for this query
 	    PageRequest pageable = PageRequest.of(0, 10);
-	    Page<Patient> results = repo.searchPatients("doesnotexist", pageable);
+	    Page<PatientDto> results = repo.searchPatients("doesnotexist", pageable);
 
 	    assertThat(results).isNotNull();
 	    assertThat(results.getContent()).isEmpty();
@@ -116,7 +125,7 @@ class PatientRepositoryTest {
 	    repo.saveAndFlush(p2);
 
 	    PageRequest pageable = PageRequest.of(0, 10);
-	    Page<Patient> results = repo.searchPatients("ram", pageable);
+	    Page<PatientDto> results = repo.searchPatients("ram", pageable);
 
 	    assertThat(results).isNotNull();
 	    // ensure both matching entries are returned (totalElements >= 2)
@@ -143,11 +152,257 @@ class PatientRepositoryTest {
 	    repo.saveAndFlush(deleted);
 
 	    PageRequest pr = PageRequest.of(0, 10);
-	    Page<Patient> results = repo.searchPatients("ram", pr);
+	    Page<PatientDto> results = repo.searchPatients("ram", pr);
 
 	    assertThat(results).isNotNull();
 	    assertThat(results.getContent()).hasSize(1);
 	    assertThat(results.getContent().get(0).getPhone()).isEqualTo("9876543210");
 	    assertThat(results.getTotalElements()).isEqualTo(1L);
 	}
+
+	@Test
+	void testSearchPatientsAfter_seeksByIdWithoutCount() {
+	    Patient first = null;
+	    for (int i = 0; i < 3; i++) {
+	        Patient p = new Patient();
+	        p.setFirstName("Ram " + i);
+	        p.setPhone("98765432" + i + "0");
+	        p.setEmail("ram" + i + "@example.com");
+	        Patient saved = repo.saveAndFlush(p);
+	        if (first == null) {
+	            first = saved;
+	        }
+	    }
+
+	    Slice<PatientDto> slice1 = repo.searchPatientsAfter("ram", 0L, PageRequest.of(0, 2));
+	    assertThat(slice1.getContent()).hasSize(2);
+	    assertThat(slice1.hasNext()).isTrue();
+	    assertThat(slice1.getContent().get(0).getId()).isEqualTo(first.getId());
+
+	    Long lastId = slice1.getContent().get(1).getId();
+	    Slice<PatientDto> slice2 = repo.searchPatientsAfter("ram", lastId, PageRequest.of(0, 2));
+	    assertThat(slice2.getContent()).hasSize(1);
+	    assertThat(slice2.hasNext()).isFalse();
+	    assertThat(slice2.getContent().get(0).getId()).isGreaterThan(lastId);
+	}
+
+	@Test
+	void testSearchByPhoneticKey_matchesFirstOrLastNameAndExcludesDeleted() {
+	    Patient p1 = new Patient();
+	    p1.setFirstName("Katherine");
+	    p1.setLastName("Rao");
+	    p1.setFirstNamePhonetic("K0RN");
+	    p1.setLastNamePhonetic("R");
+	    repo.saveAndFlush(p1);
+
+	    Patient p2 = new Patient();
+	    p2.setFirstName("Anil");
+	    p2.setLastName("Catherine");
+	    p2.setFirstNamePhonetic("ANL");
+	    p2.setLastNamePhonetic("K0RN");
+	    repo.saveAndFlush(p2);
+
+	    Patient deleted = new Patient();
+	    deleted.setFirstName("Kathryn");
+	    deleted.setLastName("Old");
+	    deleted.setFirstNamePhonetic("K0RN");
+	    deleted.setDeleted(true);
+	    repo.saveAndFlush(deleted);
+
+	    Page<PatientDto> results = repo.searchByPhoneticKey("K0RN", PageRequest.of(0, 10));
+
+	    assertThat(results.getTotalElements()).isEqualTo(2L);
+	    assertThat(results.getContent()).extracting(PatientDto::getFirstName).containsExactlyInAnyOrder("Katherine", "Anil");
+	}
+
+	@Test
+	void testSearchByPhoneReversedRange_findsPhoneSuffix() {
+	    Patient p1 = new Patient();
+	    p1.setFirstName("Ram");
+	    p1.setPhone("+919876543210");
+	    p1.setPhoneReversed("012345678919");
+	    repo.saveAndFlush(p1);
+
+	    Patient p2 = new Patient();
+	    p2.setFirstName("Sita");
+	    p2.setPhone("+919876543219");
+	    p2.setPhoneReversed("912345678919");
+	    repo.saveAndFlush(p2);
+
+	    Page<PatientDto> results = repo.searchByPhoneReversedRange("0123", "0124", PageRequest.of(0, 10));
+
+	    assertThat(results.getTotalElements()).isEqualTo(1L);
+	    assertThat(results.getContent().get(0).getFirstName()).isEqualTo("Ram");
+	}
+
+	@Test
+	void testFindActivePhoneKeysIn_ignoresDeletedRows() {
+	    Patient ram = new Patient(null, "Ram", "Kumar", "ram@example.com", "+919876543210", null);
+	    PatientSearchKeys.refresh(ram);
+	    repo.saveAndFlush(ram);
+	    Patient deleted = new Patient(null, "Sita", "Devi", "sita@example.com", "+911234509876", null);
+	    deleted.setDeleted(true);
+	    PatientSearchKeys.refresh(deleted);
+	    repo.saveAndFlush(deleted);
+
+	    long ramKey = PhoneNormalizer.pack("+919876543210");
+	    assertThat(repo.findActivePhoneKeysIn(java.util.List.of(ramKey, PhoneNormalizer.pack("+911234509876"))))
+	        .containsExactly(ramKey);
+	    assertThat(PhoneNormalizer.unpack(repo.findById(ram.getId()).orElseThrow().getPhoneKey()))
+	        .isEqualTo("+919876543210");
+	}
+
+	@Test
+	void testEmailKeyLookups_matchEquivalentActiveEmails() {
+	    Patient ram = new Patient(null, "Ram", "Kumar", "ramkumar@gmail.com", null, null);
+	    PatientSearchKeys.refresh(ram);
+	    repo.saveAndFlush(ram);
+	    Patient deleted = new Patient(null, "Ram", "Old", "ram.kumar@gmail.com", null, null);
+	    deleted.setDeleted(true);
+	    PatientSearchKeys.refresh(deleted);
+	    repo.saveAndFlush(deleted);
+
+	    Long key = EmailCanonicalizer.key("Ram.Kumar+opd@gmail.com");
+	    assertThat(repo.findActiveEmailsByEmailKey(key, 0L)).containsExactly("ramkumar@gmail.com");
+	    assertThat(repo.findActiveEmailsByEmailKey(key, ram.getId())).isEmpty();
+	    assertThat(repo.findActiveEmailsByEmailKeyIn(java.util.List.of(key, 42L))).containsExactly("ramkumar@gmail.com");
+	    assertThat(repo.findActiveDtosByEmailKey(key)).extracting(PatientDto::getId).containsExactly(ram.getId());
+	}
+
+	@Test
+	void testSaveAll_assignsIdsFromPooledSequence() {
+	    java.util.List<Patient> batch = new java.util.ArrayList<>();
+	    for (int i = 0; i < 120; i++) {
+	        batch.add(new Patient(null, "Bulk" + i, "Row", null, null, null));
+	    }
+
+	    java.util.List<Patient> saved = repo.saveAll(batch);
+	    repo.flush();
+
+	    assertThat(saved).extracting(Patient::getId).doesNotContainNull().doesNotHaveDuplicates();
+	    assertThat(repo.count()).isEqualTo(120L);
+	}
+
+	@Test
+	void testActiveEmailAndPhoneAreUniqueAmongActivePatientsOnly() {
+	    Patient first = repo.saveAndFlush(new Patient(null, "Ram", "Kumar", "ram@example.com", "+919876543210", null));
+	    assertThat(first.getActiveEmail()).isEqualTo("ram@example.com");
+
+	    assertThrows(org.springframework.dao.DataIntegrityViolationException.class,
+	        () -> repo.saveAndFlush(new Patient(null, "Ramu", "Rao", "ram@example.com", "+911111111111", null)));
+	}
+
+	@Test
+	void testSoftDeletedPatientReleasesEmailAndPhone() {
+	    Patient first = repo.saveAndFlush(new Patient(null, "Ram", "Kumar", "ram@example.com", "+919876543210", null));
+	    first.setDeleted(true);
+	    repo.saveAndFlush(first);
+	    assertThat(first.getActiveEmail()).isNull();
+
+	    Patient second = repo.saveAndFlush(new Patient(null, "Ramu", "Rao", "ram@example.com", "+919876543210", null));
+
+	    assertThat(second.getId()).isNotEqualTo(first.getId());
+	    assertThat(second.getActivePhone()).isEqualTo("+919876543210");
+	}
+
+	@Test
+	void testFindByIsDeletedFalse_pagesActivePatientsOnly() {
+	    for (int i = 0; i < 5; i++) {
+	        Patient p = new Patient(null, "Patient" + i, "Test", null, null, null);
+	        p.setDeleted(i % 2 == 1);
+	        repo.saveAndFlush(p);
+	    }
+
+	    Page<Patient> first = repo.findByIsDeletedFalse(PageRequest.of(0, 2, org.springframework.data.domain.Sort.by("id")));
+
+	    assertThat(first.getTotalElements()).isEqualTo(3L);
+	    assertThat(first.getContent()).extracting(Patient::getFirstName).containsExactly("Patient0", "Patient2");
+	}
+
+	@Test
+	void testSetBasedSoftDeleteRestoreAndPurge() {
+	    Patient a = repo.saveAndFlush(new Patient(null, "Ram", "Kumar", "ram@example.com", "+919876543210", null));
+	    Patient b = repo.saveAndFlush(new Patient(null, "Sita", "Devi", "sita@example.com", null, null));
+	    Patient c = repo.saveAndFlush(new Patient(null, "Anil", "Rao", null, null, null));
+	    LocalDateTime now = LocalDateTime.of(2024, 6, 1, 10, 0);
+
+	    assertThat(repo.softDeleteByIds(java.util.List.of(a.getId(), b.getId()), now)).isEqualTo(2);
+	    // already deleted rows are not touched again
+	    assertThat(repo.softDeleteByIds(java.util.List.of(a.getId()), now.plusDays(1))).isZero();
+
+	    Patient deletedA = repo.findById(a.getId()).orElseThrow();
+	    assertTrue(deletedA.isDeleted());
+	    assertThat(deletedA.getDeletedAt()).isEqualTo(now);
+	    assertThat(deletedA.getActiveEmail()).isNull();
+
+	    assertThat(repo.findDeletedIdsBetween(now.minusDays(1), now.plusSeconds(1), 0L, PageRequest.of(0, 10)))
+	        .containsExactly(a.getId(), b.getId());
+	    assertThat(repo.findDeletedIdsBetween(now.minusDays(1), now.plusSeconds(1), a.getId(), PageRequest.of(0, 10)))
+	        .containsExactly(b.getId());
+
+	    assertThat(repo.restoreByIds(java.util.List.of(a.getId()))).isEqualTo(1);
+	    Patient restoredA = repo.findById(a.getId()).orElseThrow();
+	    assertFalse(restoredA.isDeleted());
+	    assertThat(restoredA.getDeletedAt()).isNull();
+	    assertThat(restoredA.getActivePhone()).isEqualTo("+919876543210");
+
+	    // purge only removes soft-deleted rows
+	    assertThat(repo.purgeDeletedByIds(java.util.List.of(a.getId(), b.getId(), c.getId()))).isEqualTo(1);
+	    assertThat(repo.findById(b.getId())).isEmpty();
+	    assertThat(repo.count()).isEqualTo(2L);
+	}
+
+	@Test
+	void testVersionIsBumpedByEntityAndBulkUpdates() {
+	    Patient a = repo.saveAndFlush(new Patient(null, "Ram", "Kumar", "ram@example.com", null, null));
+	    long v0 = a.getVersion();
+	    assertThat(repo.findVersionByIdAndNotDeleted(a.getId())).contains(v0);
+
+	    a.setLastName("Sharma");
+	    a = repo.saveAndFlush(a);
+	    assertThat(a.getVersion()).isEqualTo(v0 + 1);
+
+	    repo.softDeleteByIds(java.util.List.of(a.getId()), LocalDateTime.now());
+	    assertThat(repo.findVersionByIdAndNotDeleted(a.getId())).isEmpty();
+	    repo.restoreByIds(java.util.List.of(a.getId()));
+	    assertThat(repo.findVersionByIdAndNotDeleted(a.getId())).contains(v0 + 3);
+	}
+
+	@Test
+	void testDtoProjectionsSkipDeletedRowsAndCarryVersion() {
+	    Patient a = repo.saveAndFlush(new Patient(null, "Ram", "Kumar", "ram@example.com", null, null));
+	    Patient b = repo.saveAndFlush(new Patient(null, "Sita", "Devi", null, null, null));
+	    repo.softDeleteByIds(java.util.List.of(b.getId()), LocalDateTime.now());
+
+	    PatientDto dto = repo.findDtoByIdAndNotDeleted(a.getId()).orElseThrow();
+	    assertThat(dto.getEmail()).isEqualTo("ram@example.com");
+	    assertThat(dto.getVersion()).isEqualTo(a.getVersion());
+	    assertThat(repo.findDtoByIdAndNotDeleted(b.getId())).isEmpty();
+	    assertThat(repo.findActiveDtosByIdIn(java.util.List.of(a.getId(), b.getId())))
+	        .extracting(PatientDto::getId).containsExactly(a.getId());
+
+	    PageRequest byId = PageRequest.of(0, 10, org.springframework.data.domain.Sort.by("id"));
+	    Page<PatientAdminDto> all = repo.findAdminDtos(true, byId);
+	    assertThat(all.getTotalElements()).isEqualTo(2L);
+	    assertThat(all.getContent().get(1).isDeleted()).isTrue();
+	    assertThat(all.getContent().get(1).getDeletedAt()).isNotNull();
+	    assertThat(repo.findAdminDtos(false, byId).getContent()).extracting(PatientAdminDto::getId).containsExactly(a.getId());
+	}
+
+	@Test
+	void testUpdateWritesOnlyChangedColumns() {
+	    Patient a = repo.saveAndFlush(new Patient(null, "Ram", "Kumar", "ram@example.com", "+919876543210", null));
+	    // a concurrent writer changes the email without the entity knowing (and without a version bump)
+	    em.createQuery("UPDATE Patient p SET p.email = 'ram.k@example.com' WHERE p.id = :id")
+	        .setParameter("id", a.getId()).executeUpdate();
+
+	    a.setLastName("Sharma");
+	    repo.saveAndFlush(a);
+	    em.clear();
+
+	    Patient reloaded = repo.findById(a.getId()).orElseThrow();
+	    assertThat(reloaded.getLastName()).isEqualTo("Sharma");
+	    // with a full-row UPDATE the stale email would have been written back
+	    assertThat(reloaded.getEmail()).isEqualTo("ram.k@example.com");
+	}
 }
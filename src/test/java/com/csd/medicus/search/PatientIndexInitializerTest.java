@@ -0,0 +1,63 @@
+package com.csd.medicus.search;
+
+import com.csd.medicus.dedup.PatientContactFilter;
+import com.csd.medicus.model.Patient;
+import com.csd.medicus.repository.PatientRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Back-filling derived keys on startup against an in-memory database. Runs without a test transaction,
+ * since each back-fill save commits (or fails) on its own.
+ */
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class PatientIndexInitializerTest {
+
+    @Autowired
+    private PatientRepository repo;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @AfterEach
+    void cleanUp() {
+        repo.deleteAll();
+    }
+
+    @Test
+    void collidingLegacyRowsDoNotBlockTheRestOfTheChunk() {
+        Patient first = repo.saveAndFlush(new Patient(null, "Ram", "Kumar", "ram@example.com", "+919876543210", null));
+        Patient second = repo.saveAndFlush(new Patient(null, "Ramu", "Kumar", "ramu@example.com", "+919876543211", null));
+        Patient unrelated = repo.saveAndFlush(new Patient(null, "Sita", "Devi", "sita@example.com", "+911234509876", null));
+        // rows written before the derived and active key columns existed; two of them share an email
+        jdbc.update("UPDATE patients SET active_email = NULL, active_phone = NULL, email_key = NULL, phone_key = NULL,"
+                + " first_name_phonetic = NULL, last_name_phonetic = NULL, phone_reversed = NULL");
+        jdbc.update("UPDATE patients SET email = 'ram@example.com' WHERE id = ?", second.getId());
+
+        new PatientIndexInitializer(repo, mock(PatientTrigramIndex.class), mock(PatientNameTrie.class),
+                new PatientContactFilter(1000, 0.01)).rebuild();
+
+        Patient sita = repo.findById(unrelated.getId()).orElseThrow();
+        assertFalse(PatientSearchKeys.isStale(sita));
+        assertEquals("sita@example.com", sita.getActiveEmail());
+        assertNotNull(sita.getEmailKey());
+        assertNotNull(sita.getPhoneKey());
+        assertEquals("ST", sita.getFirstNamePhonetic());
+        assertEquals("678905432119", sita.getPhoneReversed());
+
+        assertFalse(PatientSearchKeys.isStale(repo.findById(first.getId()).orElseThrow()));
+        // the second holder of the email keeps waiting for a merge
+        Patient duplicate = repo.findById(second.getId()).orElseThrow();
+        assertNull(duplicate.getActiveEmail());
+        assertTrue(PatientSearchKeys.isStale(duplicate));
+    }
+}
@@ -0,0 +1,82 @@
+package com.csd.medicus.search;
+
+import com.csd.medicus.model.Patient;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for PatientNameTrie: frequency-ranked top-K suggestions, case-insensitivity and
+ * maintenance on update/delete, both after bulk loading and for incremental writes.
+ */
+class PatientNameTrieTest {
+
+    private PatientNameTrie trie;
+
+    @BeforeEach
+    void init() {
+        trie = new PatientNameTrie(3);
+    }
+
+    private Patient patient(long id, String firstName, String lastName) {
+        Patient p = new Patient();
+        p.setId(id);
+        p.setFirstName(firstName);
+        p.setLastName(lastName);
+        return p;
+    }
+
+    @Test
+    void ranksByFrequencyThenAlphabetically() {
+        trie.index(patient(1L, "Ramesh", "Kumar"));
+        trie.index(patient(2L, "Ram", "Rao"));
+        trie.index(patient(3L, "Ramesh", "Kapoor"));
+        trie.index(patient(4L, "Rakesh", "Sharma"));
+        trie.markReady();
+
+        assertEquals(List.of("Ramesh", "Rakesh", "Ram"), trie.suggest("ra", 10));
+        assertEquals(List.of("Ramesh"), trie.suggest("RA", 1));
+        assertEquals(List.of("Kapoor", "Kumar"), trie.suggest("k", 10));
+        assertTrue(trie.suggest("zz", 10).isEmpty());
+    }
+
+    @Test
+    void incrementalWritesKeepRankingCurrent() {
+        trie.markReady();
+        trie.index(patient(1L, "Anand", "Rao"));
+        trie.index(patient(2L, "Ananya", "Rao"));
+        trie.index(patient(3L, "Ananya", "Iyer"));
+        assertEquals(List.of("Ananya", "Anand"), trie.suggest("ana", 10));
+
+        // rename one Ananya to Anand: the tie is broken alphabetically
+        trie.index(patient(3L, "Anand", "Iyer"));
+        assertEquals(List.of("Anand", "Ananya"), trie.suggest("ana", 10));
+
+        trie.remove(2L);
+        assertEquals(List.of("Anand"), trie.suggest("ana", 10));
+
+        Patient deleted = patient(1L, "Anand", "Rao");
+        deleted.setDeleted(true);
+        trie.index(deleted);
+        trie.remove(3L);
+        assertTrue(trie.suggest("a", 10).isEmpty());
+        assertTrue(trie.suggest("r", 10).isEmpty());
+    }
+
+    @Test
+    void keepsOnlyTopKPerPrefix() {
+        trie.markReady();
+        String[] names = {"Sam", "Sara", "Sahil", "Sanjay", "Sameer"};
+        for (int i = 0; i < names.length; i++) {
+            for (int j = 0; j <= i; j++) {
+                trie.index(patient(i * 10L + j, names[i], "X"));
+            }
+        }
+
+        assertEquals(List.of("Sameer", "Sanjay", "Sahil"), trie.suggest("sa", 10));
+        assertEquals(List.of("Sameer", "Sam"), trie.suggest("sam", 10));
+    }
+}
@@ -0,0 +1,48 @@
+package com.csd.medicus.search;
+
+import com.csd.medicus.model.Patient;
+import com.csd.medicus.util.PhoneNormalizer;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for PatientSearchKeys: reversed phone digits, packed phones and stale-key detection.
+ */
+class PatientSearchKeysTest {
+
+    @Test
+    void reversesDigitsOnly() {
+        assertEquals("012345678919", PatientSearchKeys.reversedDigits("+919876543210"));
+        assertEquals("4321", PatientSearchKeys.reversedDigits("12-34"));
+        assertNull(PatientSearchKeys.reversedDigits("+"));
+        assertNull(PatientSearchKeys.reversedDigits(null));
+    }
+
+    @Test
+    void refreshComputesAllKeysAndClearsStaleness() {
+        Patient p = new Patient();
+        p.setFirstName("Katherine");
+        p.setLastName("Rao");
+        p.setPhone("+919876543210");
+        assertTrue(PatientSearchKeys.isStale(p));
+
+        PatientSearchKeys.refresh(p);
+
+        assertEquals("K0RN", p.getFirstNamePhonetic());
+        assertEquals("R", p.getLastNamePhonetic());
+        assertEquals("012345678919", p.getPhoneReversed());
+        assertEquals("+919876543210", PhoneNormalizer.unpack(p.getPhoneKey()));
+        assertFalse(PatientSearchKeys.isStale(p));
+
+        p.setPhone("+919876543219");
+        assertTrue(PatientSearchKeys.isStale(p));
+    }
+
+    @Test
+    void phoneKeyIsNullWithoutAnE164Phone() {
+        assertNull(PatientSearchKeys.phoneKey(null));
+        assertNull(PatientSearchKeys.phoneKey("98765 43210"));
+        assertEquals(PhoneNormalizer.pack("+14155552671"), PatientSearchKeys.phoneKey("+14155552671"));
+    }
+}
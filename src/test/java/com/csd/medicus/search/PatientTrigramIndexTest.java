@@ -0,0 +1,154 @@
+package com.csd.medicus.search;
+
+import com.csd.medicus.model.Patient;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for PatientTrigramIndex: substring semantics identical to the JPQL search
+ * (case-insensitive contains on first name or phone, deleted rows excluded), paging and maintenance.
+ */
+class PatientTrigramIndexTest {
+
+    private PatientTrigramIndex index;
+
+    @BeforeEach
+    void init() {
+        index = new PatientTrigramIndex();
+    }
+
+    private Patient patient(long id, String firstName, String phone) {
+        Patient p = new Patient();
+        p.setId(id);
+        p.setFirstName(firstName);
+        p.setLastName("Test");
+        p.setPhone(phone);
+        return p;
+    }
+
+    @Test
+    void findsByFirstNameSubstringCaseInsensitive() {
+        index.index(patient(1L, "Ram Kumar", "+919876543210"));
+        index.index(patient(2L, "Sita Devi", "+911234509876"));
+
+        PatientTrigramIndex.Hits hits = index.search("KUM", 0, 10);
+
+        assertEquals(List.of(1L), hits.ids());
+        assertEquals(1L, hits.total());
+    }
+
+    @Test
+    void findsByPhoneSubstring() {
+        index.index(patient(1L, "Ram Kumar", "+919876543210"));
+        index.index(patient(2L, "Sita Devi", "+911234509876"));
+
+        assertEquals(List.of(1L, 2L), index.search("9876", 0, 10).ids());
+        assertEquals(List.of(2L), index.search("09876", 0, 10).ids());
+    }
+
+    @Test
+    void shortQueriesAreVerifiedAgainstAllRows() {
+        index.index(patient(1L, "Ram", "+911111111111"));
+        index.index(patient(2L, "Om", "+912222222222"));
+
+        assertEquals(List.of(2L), index.search("om", 0, 10).ids());
+        assertEquals(List.of(1L, 2L), index.search("+", 0, 10).ids());
+    }
+
+    @Test
+    void reindexReplacesOldValues() {
+        index.index(patient(1L, "Ram", "+911111111111"));
+        index.index(patient(1L, "Shyam", "+911111111111"));
+
+        assertEquals(0L, index.search("ram", 0, 10).total());
+        assertEquals(List.of(1L), index.search("shy", 0, 10).ids());
+    }
+
+    @Test
+    void deletedAndRemovedPatientsAreNotReturned() {
+        Patient deleted = patient(1L, "Ramesh", "+911111111111");
+        index.index(deleted);
+        index.index(patient(2L, "Ramu", "+912222222222"));
+
+        deleted.setDeleted(true);
+        index.index(deleted);
+        assertEquals(List.of(2L), index.search("ram", 0, 10).ids());
+
+        index.remove(2L);
+        assertEquals(0L, index.search("ram", 0, 10).total());
+        assertEquals(0, index.size());
+    }
+
+    @Test
+    void pagesInIdOrderWithTotal() {
+        for (long id = 1; id <= 25; id++) {
+            index.index(patient(id, "Patient" + id, "+9100000000" + (10 + id)));
+        }
+
+        PatientTrigramIndex.Hits second = index.search("patient", 10, 10);
+
+        assertEquals(25L, second.total());
+        assertEquals(10, second.ids().size());
+        assertEquals(11L, second.ids().get(0));
+        assertEquals(20L, second.ids().get(9));
+    }
+
+    @Test
+    void searchAfterSeeksPastLastId() {
+        for (long id = 1; id <= 25; id++) {
+            index.index(patient(id, "Patient" + id, "+9100000000" + (10 + id)));
+        }
+
+        assertEquals(List.of(21L, 22L, 23L), index.search("patient", 20, 3).ids());
+        assertEquals(List.of(21L, 22L, 23L), index.searchAfter("patient", 20L, 3));
+        assertEquals(List.of(24L, 25L), index.searchAfter("patient", 23L, 3));
+        assertEquals(List.of(2L, 10L, 11L, 12L), index.searchAfter("2", 0L, 4));
+        assertTrue(index.searchAfter("patient", 25L, 3).isEmpty());
+    }
+
+    @Test
+    void wildcardQueriesAreNotSupported() {
+        assertTrue(index.supports("ram"));
+        assertFalse(index.supports("r%m"));
+        assertFalse(index.supports("r_m"));
+        assertFalse(index.supports("r\\m"));
+        assertFalse(index.supports(""));
+    }
+
+    @Test
+    void matchesReferenceContainsSemanticsOnRandomData() {
+        Random rnd = new Random(42);
+        String[] names = {"Ram", "Ramesh", "Mohamed", "Muhammad", "Katherine", "Catherine", "Om", "Sita", "Anand", "Ananya"};
+        List<Patient> all = new ArrayList<>();
+        for (long id = 1; id <= 500; id++) {
+            String name = names[rnd.nextInt(names.length)] + (rnd.nextBoolean() ? " " + names[rnd.nextInt(names.length)] : "");
+            String phone = rnd.nextInt(10) == 0 ? null : "+91" + (9000000000L + rnd.nextInt(1_000_000_000));
+            Patient p = patient(id, name, phone);
+            p.setDeleted(rnd.nextInt(5) == 0);
+            all.add(p);
+            index.index(p);
+        }
+
+        for (String q : List.of("a", "ra", "ram", "AMMA", "her", "ana", "9", "91", "000", "+919", "zzz", "h k")) {
+            List<Long> expected = new ArrayList<>();
+            String lq = q.toLowerCase(Locale.ROOT);
+            for (Patient p : all) {
+                boolean match = (p.getFirstName() != null && p.getFirstName().toLowerCase(Locale.ROOT).contains(lq))
+                        || (p.getPhone() != null && p.getPhone().toLowerCase(Locale.ROOT).contains(lq));
+                if (match && !p.isDeleted()) {
+                    expected.add(p.getId());
+                }
+            }
+            PatientTrigramIndex.Hits hits = index.search(q, 0, Integer.MAX_VALUE);
+            assertEquals(expected, hits.ids(), "query " + q);
+            assertEquals(expected.size(), hits.total(), "query " + q);
+        }
+    }
+}
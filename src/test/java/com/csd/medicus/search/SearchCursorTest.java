@@ -0,0 +1,31 @@
+package com.csd.medicus.search;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for SearchCursor: round-trip, first-slice tokens and rejection of malformed tokens.
+ */
+class SearchCursorTest {
+
+    @Test
+    void roundTripsLastId() {
+        String token = SearchCursor.encode(12345L);
+        assertEquals(12345L, SearchCursor.decode(token));
+        assertFalse(token.contains("12345"), "token should be opaque");
+    }
+
+    @Test
+    void emptyTokenMeansFirstSlice() {
+        assertEquals(0L, SearchCursor.decode(""));
+        assertEquals(0L, SearchCursor.decode(null));
+    }
+
+    @Test
+    void malformedTokensRejected() {
+        assertThrows(IllegalArgumentException.class, () -> SearchCursor.decode("not base64!"));
+        assertThrows(IllegalArgumentException.class, () -> SearchCursor.decode("MTIz")); // "123" without prefix
+        assertThrows(IllegalArgumentException.class, () -> SearchCursor.decode("cDE6YWJj")); // "p1:abc"
+    }
+}
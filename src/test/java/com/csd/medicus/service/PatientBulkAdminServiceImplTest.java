@@ -0,0 +1,168 @@
+package com.csd.medicus.service;
+
+import com.csd.medicus.cache.PatientByIdCache;
+import com.csd.medicus.cache.PatientSearchCache;
+import com.csd.medicus.dedup.PatientContactFilter;
+import com.csd.medicus.dto.BulkAdminRequestDto;
+import com.csd.medicus.dto.BulkJobDto;
+import com.csd.medicus.model.Patient;
+import com.csd.medicus.repository.PatientRepository;
+import com.csd.medicus.search.PatientNameTrie;
+import com.csd.medicus.search.PatientTrigramIndex;
+import com.csd.medicus.service.PatientBulkAdminService.Operation;
+import com.csd.medicus.service.impl.PatientBulkAdminServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for PatientBulkAdminServiceImpl: chunking, per-chunk transactions, conflict isolation on
+ * restore, predicate selection and progress counters. Jobs run on the calling thread.
+ */
+class PatientBulkAdminServiceImplTest {
+
+    @Mock
+    private PatientRepository repo;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private PatientTrigramIndex searchIndex;
+
+    @Mock
+    private PatientNameTrie nameTrie;
+
+    @Mock
+    private PatientSearchCache searchCache;
+
+    @Mock
+    private PatientContactFilter contactFilter;
+
+    @Mock
+    private PatientByIdCache byIdCache;
+
+    private PatientBulkAdminServiceImpl service;
+
+    @BeforeEach
+    void init() {
+        MockitoAnnotations.openMocks(this);
+        service = new PatientBulkAdminServiceImpl(repo, transactionManager, new SyncTaskExecutor(),
+                searchIndex, nameTrie, searchCache, contactFilter, byIdCache, 2);
+    }
+
+    @Test
+    void softDeleteRunsOneStatementAndTransactionPerChunk() {
+        when(repo.softDeleteByIds(anyCollection(), any())).thenReturn(2, 1, 1);
+
+        BulkJobDto job = service.start(Operation.SOFT_DELETE, new BulkAdminRequestDto(List.of(5L, 1L, 3L, 3L, 4L, 2L), null, null));
+
+        BulkJobDto done = service.getJob(job.getId()).orElseThrow();
+        assertEquals(BulkJobDto.Status.COMPLETED, done.getStatus());
+        assertEquals(5, done.getTotal());
+        assertEquals(5, done.getProcessed());
+        assertEquals(4, done.getAffected());
+        assertEquals(3, done.getBatches());
+        verify(repo).softDeleteByIds(eq(List.of(1L, 2L)), any());
+        verify(repo).softDeleteByIds(eq(List.of(5L)), any());
+        verify(transactionManager, times(3)).commit(any());
+        verify(searchIndex).remove(5L);
+        verify(nameTrie).remove(5L);
+        verify(repo, never()).findById(anyLong());
+        verify(searchCache, times(3)).invalidateAll();
+    }
+
+    @Test
+    void restoreIsolatesConflictingIdsWithinAChunk() {
+        when(repo.restoreByIds(List.of(1L, 2L))).thenThrow(new DataIntegrityViolationException("uk_patients_active_email"));
+        when(repo.restoreByIds(List.of(1L))).thenReturn(1);
+        when(repo.restoreByIds(List.of(2L))).thenThrow(new DataIntegrityViolationException("uk_patients_active_email"));
+        Patient restored = new Patient(1L, "Ram", "Kumar", "ram@example.com", null, null);
+        when(repo.findAllById(List.of(1L, 2L))).thenReturn(List.of(restored));
+
+        BulkJobDto job = service.start(Operation.RESTORE, new BulkAdminRequestDto(List.of(1L, 2L), null, null));
+
+        BulkJobDto done = service.getJob(job.getId()).orElseThrow();
+        assertEquals(BulkJobDto.Status.COMPLETED, done.getStatus());
+        assertEquals(1, done.getAffected());
+        assertEquals(1, done.getConflicts());
+        verify(searchIndex).index(restored);
+        verify(contactFilter).add("ram@example.com", null);
+    }
+
+    @Test
+    void restoreSkipsRowsWithAnEquivalentActiveEmail() {
+        Patient tagged = new Patient(1L, "John", "Doe", "john.doe+x@gmail.com", null, null);
+        tagged.setDeleted(true);
+        Patient other = new Patient(2L, "Ram", "Kumar", "ram@example.com", null, null);
+        other.setDeleted(true);
+        when(repo.findAllById(List.of(1L, 2L))).thenReturn(List.of(tagged, other));
+        when(repo.findActiveEmailsByEmailKeyIn(anyCollection())).thenReturn(List.of("johndoe@gmail.com"));
+        when(repo.restoreByIds(List.of(2L))).thenReturn(1);
+
+        BulkJobDto job = service.start(Operation.RESTORE, new BulkAdminRequestDto(List.of(1L, 2L), null, null));
+
+        BulkJobDto done = service.getJob(job.getId()).orElseThrow();
+        assertEquals(BulkJobDto.Status.COMPLETED, done.getStatus());
+        assertEquals(2, done.getProcessed());
+        assertEquals(1, done.getAffected());
+        assertEquals(1, done.getConflicts());
+        verify(repo, never()).restoreByIds(List.of(1L, 2L));
+    }
+
+    @Test
+    void purgeByDeletedBeforeWalksKeysetChunks() {
+        LocalDateTime cutoff = LocalDateTime.of(2024, 1, 1, 0, 0);
+        when(repo.findDeletedIdsBetween(any(), eq(cutoff), eq(0L), eq(PageRequest.of(0, 2)))).thenReturn(List.of(3L, 8L));
+        when(repo.findDeletedIdsBetween(any(), eq(cutoff), eq(8L), eq(PageRequest.of(0, 2)))).thenReturn(List.of(9L));
+        when(repo.purgeDeletedByIds(anyCollection())).thenReturn(2, 1);
+
+        BulkJobDto job = service.start(Operation.PURGE, new BulkAdminRequestDto(null, null, cutoff));
+
+        BulkJobDto done = service.getJob(job.getId()).orElseThrow();
+        assertEquals(-1, done.getTotal());
+        assertEquals(3, done.getAffected());
+        assertEquals(2, done.getBatches());
+        verify(repo, times(2)).findDeletedIdsBetween(any(), any(), anyLong(), any());
+    }
+
+    @Test
+    void failureKeepsCommittedProgress() {
+        when(repo.softDeleteByIds(anyCollection(), any())).thenReturn(2).thenThrow(new IllegalStateException("db down"));
+
+        BulkJobDto job = service.start(Operation.SOFT_DELETE, new BulkAdminRequestDto(List.of(1L, 2L, 3L), null, null));
+
+        BulkJobDto done = service.getJob(job.getId()).orElseThrow();
+        assertEquals(BulkJobDto.Status.FAILED, done.getStatus());
+        assertEquals("db down", done.getError());
+        assertEquals(2, done.getAffected());
+        assertEquals(1, done.getBatches());
+        assertNotNull(done.getFinishedAt());
+    }
+
+    @Test
+    void rejectsAmbiguousOrEmptySelections() {
+        assertThrows(IllegalArgumentException.class,
+                () -> service.start(Operation.PURGE, new BulkAdminRequestDto(null, null, null)));
+        assertThrows(IllegalArgumentException.class,
+                () -> service.start(Operation.PURGE, new BulkAdminRequestDto(List.of(1L), null, LocalDateTime.now())));
+        assertThrows(IllegalArgumentException.class,
+                () -> service.start(Operation.SOFT_DELETE, new BulkAdminRequestDto(null, null, LocalDateTime.now())));
+        assertThrows(IllegalArgumentException.class,
+                () -> service.start(Operation.RESTORE, new BulkAdminRequestDto(List.of(), null, null)));
+        assertTrue(service.getJob("missing").isEmpty());
+        verifyNoInteractions(repo);
+    }
+}
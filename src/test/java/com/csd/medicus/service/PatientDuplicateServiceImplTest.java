@@ -0,0 +1,151 @@
+package com.csd.medicus.service;
+
+import com.csd.medicus.dedup.DuplicateClusterer;
+import com.csd.medicus.dto.MergePlanDto;
+import com.csd.medicus.dto.MergeResultDto;
+import com.csd.medicus.dto.PatientDto;
+import com.csd.medicus.exception.DuplicateEntityException;
+import com.csd.medicus.repository.AppointmentRepository;
+import com.csd.medicus.repository.BillingRepository;
+import com.csd.medicus.repository.PatientRepository;
+import com.csd.medicus.service.impl.PatientDuplicateServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for PatientDuplicateServiceImpl: keyset scan into a plan, version-checked merges that
+ * re-point related rows and soft-delete duplicates, and conflict rollback. Scans run on the calling
+ * thread with the real clusterer.
+ */
+class PatientDuplicateServiceImplTest {
+
+    @Mock
+    private PatientRepository repo;
+
+    @Mock
+    private AppointmentRepository appointmentRepo;
+
+    @Mock
+    private BillingRepository billingRepo;
+
+    @Mock
+    private PatientService patientService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private PatientDuplicateServiceImpl service;
+
+    private final PatientDto ram = new PatientDto(1L, "Ram", "Kumar", null, "+919876543210", 4L);
+    private final PatientDto sita = new PatientDto(2L, "Sita", "Devi", "sita@example.com", "+919000000001", 0L);
+    private final PatientDto raam = new PatientDto(3L, "Raam", "Kumar", "ram@example.com", "09876543210", 2L);
+
+    @BeforeEach
+    void init() {
+        MockitoAnnotations.openMocks(this);
+        service = new PatientDuplicateServiceImpl(repo, appointmentRepo, billingRepo, patientService,
+                new DuplicateClusterer(0.8, 100), transactionManager, new SyncTaskExecutor());
+        when(repo.findActiveDtosAfter(0L, PageRequest.of(0, 1000))).thenReturn(List.of(ram, sita, raam));
+    }
+
+    private MergePlanDto scan() {
+        return service.getPlan(service.startScan().getId()).orElseThrow();
+    }
+
+    @Test
+    void scanBuildsAPlanWithTheLowestIdAsSurvivor() {
+        MergePlanDto plan = scan();
+
+        assertEquals(MergePlanDto.Status.READY, plan.getStatus());
+        assertEquals(3, plan.getScanned());
+        assertEquals(1, plan.getClusters().size());
+        assertEquals(1L, plan.getClusters().get(0).getSurvivorId());
+        assertEquals(List.of(1L, 3L), plan.getClusters().get(0).getMembers().stream().map(PatientDto::getId).toList());
+        verify(repo, times(1)).findActiveDtosAfter(anyLong(), any());
+    }
+
+    @Test
+    void applyMovesRelatedRowsSoftDeletesDuplicatesAndFillsMissingContact() {
+        MergePlanDto plan = scan();
+        when(repo.findVersionByIdAndNotDeleted(1L)).thenReturn(Optional.of(4L));
+        when(repo.findVersionByIdAndNotDeleted(3L)).thenReturn(Optional.of(2L));
+
+        MergeResultDto result = service.applyPlan(plan.getId(), null);
+
+        assertEquals(List.of(0), result.getMerged());
+        assertEquals(1, result.getPatientsMerged());
+        verify(appointmentRepo).reassignPatient(List.of(3L), 1L);
+        verify(billingRepo).reassignPatient(List.of(3L), 1L);
+        verify(patientService).deletePatient(3L);
+        ArgumentCaptor<PatientDto> fill = ArgumentCaptor.forClass(PatientDto.class);
+        verify(patientService).patchPatient(eq(1L), fill.capture(), eq(4L));
+        assertEquals("ram@example.com", fill.getValue().getEmail());
+        assertNull(fill.getValue().getPhone());
+        verify(transactionManager).commit(any());
+    }
+
+    @Test
+    void changedMembersMakeTheClusterStale() {
+        MergePlanDto plan = scan();
+        when(repo.findVersionByIdAndNotDeleted(1L)).thenReturn(Optional.of(5L));
+
+        MergeResultDto result = service.applyPlan(plan.getId(), List.of(0));
+
+        assertEquals(List.of(0), result.getStale());
+        verify(patientService, never()).deletePatient(anyLong());
+        verifyNoInteractions(appointmentRepo, billingRepo);
+    }
+
+    @Test
+    void conflictingContactRollsTheClusterBack() {
+        MergePlanDto plan = scan();
+        when(repo.findVersionByIdAndNotDeleted(1L)).thenReturn(Optional.of(4L));
+        when(repo.findVersionByIdAndNotDeleted(3L)).thenReturn(Optional.of(2L));
+        when(patientService.patchPatient(anyLong(), any(), anyLong()))
+                .thenThrow(new DuplicateEntityException("email", "Email already exists", null));
+
+        MergeResultDto result = service.applyPlan(plan.getId(), null);
+
+        assertEquals(List.of(0), result.getConflicts());
+        assertTrue(result.getMerged().isEmpty());
+        verify(transactionManager).rollback(any());
+    }
+
+    @Test
+    void concurrentEditOfTheSurvivorMakesTheClusterStale() {
+        MergePlanDto plan = scan();
+        when(repo.findVersionByIdAndNotDeleted(1L)).thenReturn(Optional.of(4L));
+        when(repo.findVersionByIdAndNotDeleted(3L)).thenReturn(Optional.of(2L));
+        when(patientService.patchPatient(anyLong(), any(), anyLong()))
+                .thenThrow(new OptimisticLockingFailureException("Patient 1 is at version 5, not 4"));
+
+        MergeResultDto result = service.applyPlan(plan.getId(), null);
+
+        assertEquals(List.of(0), result.getStale());
+        assertTrue(result.getMerged().isEmpty());
+        verify(transactionManager).rollback(any());
+    }
+
+    @Test
+    void rejectsUnknownPlansAndClusters() {
+        MergePlanDto plan = scan();
+
+        assertThrows(IllegalArgumentException.class, () -> service.applyPlan("missing", null));
+        assertThrows(IllegalArgumentException.class, () -> service.applyPlan(plan.getId(), List.of(1)));
+        assertTrue(service.getPlan("missing").isEmpty());
+    }
+}
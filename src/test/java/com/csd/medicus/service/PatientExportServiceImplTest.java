@@ -0,0 +1,103 @@
+package com.csd.medicus.service;
+
+import com.csd.medicus.model.Patient;
+import com.csd.medicus.repository.PatientRepository;
+import com.csd.medicus.service.PatientExportService.Format;
+import com.csd.medicus.service.impl.PatientExportServiceImpl;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the streaming export against an in-memory database: row selection, id order and the
+ * NDJSON / CSV encodings.
+ */
+@DataJpaTest
+@Import(PatientExportServiceImpl.class)
+class PatientExportServiceImplTest {
+
+    @Autowired
+    private PatientRepository repo;
+
+    @Autowired
+    private PatientExportService exportService;
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    private Patient ram;
+    private Patient sita;
+
+    @BeforeEach
+    void init() {
+        ram = repo.save(new Patient(null, "Ram", "Kumar, Jr", "ram@example.com", "+919876543210", null));
+        sita = repo.save(new Patient(null, "Sita \"S\"", "Devi", "sita@example.com", "+911234509876", null));
+        Patient gone = new Patient(null, "Ramesh", "Old", "ramesh@example.com", "+910000000000", null);
+        gone.setDeleted(true);
+        repo.saveAndFlush(gone);
+    }
+
+    @Test
+    void ndjsonWritesOneObjectPerActivePatient() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long count = exportService.exportPatients(false, Format.NDJSON, out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2L, count);
+        assertEquals(2, lines.length);
+        JsonNode first = mapper.readTree(lines[0]);
+        assertEquals(ram.getId().longValue(), first.get("id").asLong());
+        assertEquals("Kumar, Jr", first.get("lastName").asText());
+        assertFalse(first.get("deleted").asBoolean());
+        assertEquals("Sita \"S\"", mapper.readTree(lines[1]).get("firstName").asText());
+    }
+
+    @Test
+    void includeDeletedExportsEveryRow() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        assertEquals(3L, exportService.exportPatients(true, Format.NDJSON, out));
+        assertTrue(out.toString(StandardCharsets.UTF_8).contains("\"deleted\":true"));
+    }
+
+    @Test
+    void csvQuotesFieldsWithSeparatorsAndQuotes() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        exportService.exportPatients(false, Format.CSV, out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\r\n");
+        assertEquals("id,firstName,lastName,email,phone,createdAt,deleted", lines[0]);
+        assertTrue(lines[1].startsWith(ram.getId() + ",Ram,\"Kumar, Jr\",ram@example.com,+919876543210,"));
+        assertTrue(lines[2].startsWith(sita.getId() + ",\"Sita \"\"S\"\"\",Devi,"));
+        assertEquals(3, lines.length);
+    }
+
+    @Test
+    void searchExportMatchesSearchSemantics() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long count = exportService.exportSearch(" RAM ", Format.NDJSON, out);
+
+        assertEquals(1L, count);
+        assertEquals(ram.getId().longValue(), mapper.readTree(out.toString(StandardCharsets.UTF_8)).get("id").asLong());
+    }
+
+    @Test
+    void blankSearchExportWritesNoRows() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        assertEquals(0L, exportService.exportSearch("  ", Format.NDJSON, out));
+        assertEquals(0L, exportService.exportSearch(null, Format.NDJSON, out));
+        assertEquals(0, out.size());
+    }
+}
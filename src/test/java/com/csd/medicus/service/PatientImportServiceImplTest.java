@@ -0,0 +1,138 @@
+package com.csd.medicus.service;
+
+import com.csd.medicus.dto.BulkCreateResultDto;
+import com.csd.medicus.dto.BulkRowResultDto;
+import com.csd.medicus.dto.ImportReportDto;
+import com.csd.medicus.exception.DuplicateEntityException;
+import com.csd.medicus.model.Patient;
+import com.csd.medicus.service.impl.PatientImportServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for PatientImportServiceImpl: chunking through the reader thread, reject file,
+ * checkpoint/resume and the row-by-row fallback. PatientService is mocked.
+ */
+class PatientImportServiceImplTest {
+
+    @Mock
+    private PatientService patientService;
+
+    @TempDir
+    Path workDir;
+
+    private PatientImportServiceImpl service;
+
+    @BeforeEach
+    void init() {
+        MockitoAnnotations.openMocks(this);
+        service = new PatientImportServiceImpl(patientService, new SimpleAsyncTaskExecutor(), 2, 1, workDir);
+        // every row is created except those without a last name
+        when(patientService.savePatients(anyList())).thenAnswer(inv -> {
+            List<Patient> patients = inv.getArgument(0);
+            List<BulkRowResultDto> results = new ArrayList<>();
+            for (int i = 0; i < patients.size(); i++) {
+                results.add(patients.get(i).getLastName() == null
+                        ? BulkRowResultDto.rejected(i, BulkRowResultDto.Status.INVALID, "Last name is required")
+                        : BulkRowResultDto.created(i, 100L + i));
+            }
+            return new BulkCreateResultDto(0, 0, results);
+        });
+    }
+
+    private static InputStream csv(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static final String FIVE_ROWS = "id,First_Name,lastName,email,phone\n"
+            + "1,Ram,Kumar,ram@example.com,+911234567890\n"
+            + "2,Sita,,sita@example.com,\n"
+            + "3,Lakshman,Kumar,,\n"
+            + "4,\"Bharat, Jr\",Kumar,,\n"
+            + "5,Hanuman,Das,,\n";
+
+    @Test
+    void importsInChunksAndRecordsRejectsAndCheckpoint() throws IOException {
+        ImportReportDto report = service.importCsv(csv(FIVE_ROWS), "job-1");
+
+        assertEquals("job-1", report.getJobId());
+        assertEquals(5, report.getRecords());
+        assertEquals(4, report.getCreated());
+        assertEquals(1, report.getRejected());
+        assertEquals(3, report.getChunks());
+        assertEquals(5, report.getLastCommittedRecord());
+        assertTrue(report.getRowsPerSecond() > 0);
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Patient>> chunks = ArgumentCaptor.forClass(List.class);
+        verify(patientService, times(3)).savePatients(chunks.capture());
+        assertEquals("Bharat, Jr", chunks.getAllValues().get(1).get(1).getFirstName());
+        assertEquals("ram@example.com", chunks.getAllValues().get(0).get(0).getEmail());
+
+        assertEquals("5", Files.readString(workDir.resolve("job-1.checkpoint")));
+        List<String> rejects = Files.readAllLines(workDir.resolve("job-1.rejects.csv"));
+        assertEquals(List.of("record,status,error,firstName,lastName,email,phone",
+                "2,INVALID,Last name is required,Sita,,sita@example.com,"), rejects);
+    }
+
+    @Test
+    void resumesAfterTheCheckpoint() throws IOException {
+        Files.writeString(workDir.resolve("job-2.checkpoint"), "3");
+
+        ImportReportDto report = service.importCsv(csv(FIVE_ROWS), "job-2");
+
+        assertEquals(3, report.getSkippedRecords());
+        assertEquals(2, report.getRecords());
+        assertEquals(1, report.getChunks());
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Patient>> chunk = ArgumentCaptor.forClass(List.class);
+        verify(patientService).savePatients(chunk.capture());
+        assertEquals(List.of("Bharat, Jr", "Hanuman"), chunk.getValue().stream().map(Patient::getFirstName).toList());
+    }
+
+    @Test
+    void fallsBackToSingleRowsWhenTheBatchInsertConflicts() throws IOException {
+        when(patientService.savePatients(anyList()))
+                .thenThrow(new DuplicateEntityException("email", "Email already exists", null));
+        when(patientService.savePatient(any())).thenAnswer(inv -> {
+            Patient p = inv.getArgument(0);
+            if ("Sita".equals(p.getFirstName())) {
+                throw new DuplicateEntityException("email", "Email already exists", null);
+            }
+            p.setId(7L);
+            return p;
+        });
+
+        ImportReportDto report = service.importCsv(csv("firstName,lastName,email\nRam,Kumar,ram@example.com\nSita,Devi,sita@example.com\n"), "job-3");
+
+        assertEquals(1, report.getCreated());
+        assertEquals(1, report.getRejected());
+        assertTrue(Files.readString(workDir.resolve("job-3.rejects.csv")).contains("2,DUPLICATE,Email already exists,Sita"));
+    }
+
+    @Test
+    void rejectsBadHeadersAndJobIds() {
+        assertThrows(IllegalArgumentException.class, () -> service.importCsv(csv("email,phone\na@b.com,1\n"), "job-4"));
+        assertThrows(IllegalArgumentException.class, () -> service.importCsv(csv(""), "job-4"));
+        assertThrows(IllegalArgumentException.class, () -> service.importCsv(csv(FIVE_ROWS), "../escape"));
+        verifyNoInteractions(patientService);
+    }
+}
@@ -1,9 +1,20 @@
 package com.csd.medicus.service;
 
+import com.csd.medicus.cache.PatientByIdCache;
+import com.csd.medicus.cache.PatientSearchCache;
+import com.csd.medicus.dedup.PatientContactFilter;
+import com.csd.medicus.dto.PatientAdminDto;
 import com.csd.medicus.model.Patient;
 import com.csd.medicus.repository.PatientRepository;
+import com.csd.medicus.search.PatientNameTrie;
+import com.csd.medicus.search.PatientTrigramIndex;
 import com.csd.medicus.service.impl.PatientServiceImpl;
 import org.junit.jupiter.api.BeforeEach;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.junit.jupiter.api.Test;
 import org.mockito.*;
 
@@ -23,6 +34,21 @@ class PatientServiceAdminTest {
     @Mock
     private PatientRepository repo;
 
+    @Mock
+    private PatientTrigramIndex searchIndex;
+
+    @Mock
+    private PatientSearchCache searchCache;
+
+    @Mock
+    private PatientNameTrie nameTrie;
+
+    @Mock
+    private PatientContactFilter contactFilter;
+
+    @Mock
+    private PatientByIdCache byIdCache;
+
     @InjectMocks
     private PatientServiceImpl service;
 
@@ -55,27 +81,39 @@ class PatientServiceAdminTest {
         return p;
     }
 
+    private static PatientAdminDto adminView(Patient p) {
+        return new PatientAdminDto(p.getId(), p.getVersion(), p.getFirstName(), p.getLastName(), p.getEmail(),
+                p.getPhone(), p.getCreatedAt(), p.isDeleted(), p.getDeletedAt());
+    }
+
     @Test
     void listAllPatients_includesDeletedWhenFlagTrue() {
-        Patient a = active(1L);
-        Patient b = deleted(2L);
+        PatientAdminDto a = adminView(active(1L));
+        PatientAdminDto b = adminView(deleted(2L));
+        PageRequest page = PageRequest.of(0, 50, Sort.by("id"));
 
-        when(repo.findAll()).thenReturn(List.of(a, b));
-        List<Patient> res = service.listAllPatients(true);
+        when(repo.findAdminDtos(true, page)).thenReturn(new PageImpl<>(List.of(a, b), page, 2));
+        Page<PatientAdminDto> res = service.listAllPatients(true, PageRequest.of(0, 50));
 
-        assertEquals(2, res.size());
-        verify(repo, times(1)).findAll();
+        assertEquals(2, res.getContent().size());
+        verify(repo, times(1)).findAdminDtos(true, page);
+        verify(repo, never()).findAll();
     }
 
     @Test
-    void listAllPatients_excludesDeletedWhenFlagFalse() {
-        Patient a = active(1L);
-        when(repo.findAll()).thenReturn(List.of(a));
-        List<Patient> res = service.listAllPatients(false);
-
-        assertEquals(1, res.size());
-        assertFalse(res.get(0).isDeleted());
-        verify(repo, times(1)).findAll();
+    void listAllPatients_excludesDeletedInTheQueryWhenFlagFalse() {
+        PatientAdminDto a = adminView(active(1L));
+        PageRequest page = PageRequest.of(1, 500, Sort.by("id"));
+        when(repo.findAdminDtos(false, page)).thenReturn(new PageImpl<>(List.of(a), page, 501));
+
+        // page size is capped at 500
+        Page<PatientAdminDto> res = service.listAllPatients(false, PageRequest.of(1, 10_000));
+
+        assertEquals(1, res.getContent().size());
+        assertEquals(501, res.getTotalElements());
+        assertFalse(res.getContent().get(0).isDeleted());
+        verify(repo, never()).findAll();
+        verify(repo, never()).findAll(any(Pageable.class));
     }
 
     @Test
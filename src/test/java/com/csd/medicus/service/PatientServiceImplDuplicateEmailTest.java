@@ -0,0 +1,92 @@
+package com.csd.medicus.service;
+
+import com.csd.medicus.cache.PatientByIdCache;
+import com.csd.medicus.cache.PatientSearchCache;
+import com.csd.medicus.dedup.PatientContactFilter;
+import com.csd.medicus.dto.PatientDto;
+import com.csd.medicus.exception.DuplicateEntityException;
+import com.csd.medicus.model.Patient;
+import com.csd.medicus.repository.PatientRepository;
+import com.csd.medicus.search.PatientNameTrie;
+import com.csd.medicus.search.PatientSearchKeys;
+import com.csd.medicus.search.PatientTrigramIndex;
+import com.csd.medicus.service.impl.PatientServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Changing a patient's email to another active patient's address, against a real persistence context:
+ * the duplicate probe must run before the managed entity is changed, otherwise Hibernate flushes the
+ * dirty row ahead of the probe query and the unique constraint fails instead.
+ */
+@DataJpaTest
+@Import({PatientServiceImpl.class, PatientContactFilter.class})
+class PatientServiceImplDuplicateEmailTest {
+
+    @Autowired
+    private PatientRepository repo;
+
+    @Autowired
+    private PatientService service;
+
+    @MockBean
+    private PatientTrigramIndex searchIndex;
+
+    @MockBean
+    private PatientSearchCache searchCache;
+
+    @MockBean
+    private PatientNameTrie nameTrie;
+
+    @MockBean
+    private PatientByIdCache byIdCache;
+
+    private Patient sita;
+
+    @BeforeEach
+    void init() {
+        Patient ram = new Patient(null, "Ram", "Kumar", "ram@example.com", "+919876543210", null);
+        PatientSearchKeys.refresh(ram);
+        repo.saveAndFlush(ram);
+        sita = new Patient(null, "Sita", "Devi", "sita@example.com", "+911234509876", null);
+        PatientSearchKeys.refresh(sita);
+        sita = repo.saveAndFlush(sita);
+    }
+
+    @Test
+    void updateToAnotherPatientsEmailIsADuplicate() {
+        Patient changes = new Patient();
+        changes.setEmail("RAM@example.com");
+
+        DuplicateEntityException e = assertThrows(DuplicateEntityException.class,
+                () -> service.updatePatient(sita.getId(), changes, null));
+        assertEquals("email", e.getField());
+        assertEquals("sita@example.com", repo.findById(sita.getId()).orElseThrow().getEmail());
+    }
+
+    @Test
+    void patchToAnotherPatientsEmailIsADuplicate() {
+        PatientDto changes = new PatientDto();
+        changes.setEmail("ram@example.com");
+
+        DuplicateEntityException e = assertThrows(DuplicateEntityException.class,
+                () -> service.patchPatient(sita.getId(), changes, sita.getVersion()));
+        assertEquals("email", e.getField());
+        assertEquals("sita@example.com", repo.findById(sita.getId()).orElseThrow().getEmail());
+    }
+
+    @Test
+    void keepingTheOwnEmailIsNotADuplicate() {
+        Patient changes = new Patient();
+        changes.setEmail("Sita@Example.com");
+        changes.setLastName("Rao");
+
+        assertEquals("Rao", service.updatePatient(sita.getId(), changes, null).getLastName());
+    }
+}
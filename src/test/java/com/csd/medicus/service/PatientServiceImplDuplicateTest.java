@@ -1,25 +1,35 @@
 package com.csd.medicus.service;
 
 import com.csd.medicus.exception.DuplicateEntityException;
+import com.csd.medicus.cache.PatientByIdCache;
+import com.csd.medicus.cache.PatientSearchCache;
+import com.csd.medicus.dedup.PatientContactFilter;
 import com.csd.medicus.model.Patient;
 import com.csd.medicus.repository.PatientRepository;
+import com.csd.medicus.search.PatientNameTrie;
+import com.csd.medicus.search.PatientTrigramIndex;
 import com.csd.medicus.service.impl.PatientServiceImpl;
+import com.csd.medicus.util.EmailCanonicalizer;
+import org.hibernate.exception.ConstraintViolationException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.sql.SQLException;
 
 import static org.mockito.Mockito.*;
 import static org.junit.jupiter.api.Assertions.*;
 
 /**
- * Focused tests for duplicate-detection behavior added to PatientServiceImpl.savePatient.
+ * Focused tests for duplicate-detection behavior in PatientServiceImpl.savePatient.
  *
  * These tests ensure:
- * - a create attempt with an existing email is rejected and repo.save is not called
- * - a create attempt with an existing phone is rejected and repo.save is not called
- * - a create with unique email+phone proceeds to repo.save
+ * - a violation of the active email / phone unique constraint becomes DuplicateEntityException naming the field
+ * - other integrity violations are not mistaken for duplicates
+ * - a create with unique email+phone is a single save + flush without pre-check queries
  *
  * The tests use the same Mockito style as the existing service tests.
  */
@@ -28,6 +38,21 @@ class PatientServiceImplDuplicateTest {
     @Mock
     private PatientRepository repo;
 
+    @Mock
+    private PatientTrigramIndex searchIndex;
+
+    @Mock
+    private PatientSearchCache searchCache;
+
+    @Mock
+    private PatientNameTrie nameTrie;
+
+    @Mock
+    private PatientContactFilter contactFilter;
+
+    @Mock
+    private PatientByIdCache byIdCache;
+
     @InjectMocks
     private PatientServiceImpl service;
 
@@ -45,42 +70,59 @@ class PatientServiceImplDuplicateTest {
         return p;
     }
 
+    private static DataIntegrityViolationException violation(String constraint) {
+        return new DataIntegrityViolationException("could not execute statement",
+                new ConstraintViolationException("Unique index or primary key violation", new SQLException(),
+                        "PUBLIC." + constraint.toUpperCase() + "_INDEX_D ON PUBLIC.PATIENTS(...)"));
+    }
+
     @Test
     void createShouldRejectWhenEmailAlreadyExists() {
         Patient input = basePatient();
-        // normalize will lowercase the email via EmailNormalizer called by service
-        String normalizedEmail = "alice@example.com";
+        doThrow(violation(Patient.UK_ACTIVE_EMAIL)).when(repo).flush();
 
-        when(repo.existsByEmailAndIsDeletedFalse(normalizedEmail)).thenReturn(true);
+        DuplicateEntityException ex = assertThrows(DuplicateEntityException.class, () -> service.savePatient(input));
 
-        // repo.save should not be called
-        assertThrows(DuplicateEntityException.class, () -> service.savePatient(input));
-        verify(repo, never()).save(any());
+        assertEquals("email", ex.getField());
+        // normalize will lowercase the email via EmailNormalizer called by service
+        assertEquals("Patient with same email already exists: alice@example.com", ex.getMessage());
+        verify(searchIndex, never()).index(any());
     }
 
     @Test
     void createShouldRejectWhenPhoneAlreadyExists() {
         Patient input = basePatient();
+        doThrow(violation(Patient.UK_ACTIVE_PHONE)).when(repo).flush();
+
+        DuplicateEntityException ex = assertThrows(DuplicateEntityException.class, () -> service.savePatient(input));
+
+        assertEquals("phone", ex.getField());
         // Service will normalize phone to +91... via PhoneNormalizer
-        // For the purpose of the test we stub existsByPhone to return true for the normalized value.
-        String normalizedPhone = "+919123456789";
+        assertEquals("Patient with same phone already exists: +919123456789", ex.getMessage());
+    }
 
-        when(repo.existsByPhoneAndIsDeletedFalse(normalizedPhone)).thenReturn(true);
+    @Test
+    void createShouldRecognizeConstraintFromDriverMessage() {
+        doThrow(new DataIntegrityViolationException("x",
+                new SQLException("Unique index violation: \"PUBLIC.UK_PATIENTS_ACTIVE_PHONE_INDEX_C\""))).when(repo).flush();
 
-        assertThrows(DuplicateEntityException.class, () -> service.savePatient(input));
-        verify(repo, never()).save(any());
+        DuplicateEntityException ex = assertThrows(DuplicateEntityException.class, () -> service.savePatient(basePatient()));
+        assertEquals("phone", ex.getField());
+    }
+
+    @Test
+    void createShouldPropagateUnrelatedIntegrityViolations() {
+        doThrow(violation("fk_something_else")).when(repo).flush();
+
+        assertThrows(DataIntegrityViolationException.class, () -> service.savePatient(basePatient()));
     }
 
     @Test
-    void createShouldProceedWhenUnique() {
+    void createShouldBeSingleInsertWithoutPreCheckQueries() {
         Patient input = basePatient();
         String normalizedEmail = "alice@example.com";
         String normalizedPhone = "+919123456789";
 
-        when(repo.existsByEmailAndIsDeletedFalse(normalizedEmail)).thenReturn(false);
-        when(repo.existsByPhoneAndIsDeletedFalse(normalizedPhone)).thenReturn(false);
-        when(repo.existsByEmailOrPhoneAndIsDeletedFalse(normalizedEmail, normalizedPhone)).thenReturn(false);
-
         Patient saved = basePatient();
         saved.setId(100L);
         saved.setEmail(normalizedEmail);
@@ -91,41 +133,69 @@ class PatientServiceImplDuplicateTest {
         Patient result = service.savePatient(input);
 
         verify(repo, times(1)).save(any());
+        verify(repo, times(1)).flush();
+        verifyNoMoreInteractions(repo);
         assertEquals(100L, result.getId());
         assertEquals(normalizedEmail, result.getEmail());
         assertEquals(normalizedPhone, result.getPhone());
+        assertEquals(normalizedEmail, input.getActiveEmail());
     }
-    
+
     @Test
-    void createShouldRejectWhenCombinedCheckFindsConflictEvenIfIndividualChecksFalse() {
-        Patient input = basePatient();
-        String normalizedEmail = "alice@example.com";
-        String normalizedPhone = "+919123456789";
+    void restoreShouldRejectWhenEmailWasTakenWhileDeleted() {
+        Patient deleted = basePatient();
+        deleted.setId(5L);
+        deleted.setDeleted(true);
+        when(repo.findById(5L)).thenReturn(java.util.Optional.of(deleted));
+        when(repo.save(any())).thenAnswer(inv -> inv.getArgument(0));
+        doThrow(violation(Patient.UK_ACTIVE_EMAIL)).when(repo).flush();
+
+        DuplicateEntityException ex = assertThrows(DuplicateEntityException.class, () -> service.restorePatient(5L));
+        assertEquals("email", ex.getField());
+    }
+
+    @Test
+    void restoreShouldRejectAnEquivalentActiveEmail() {
+        Patient deleted = basePatient();
+        deleted.setId(5L);
+        deleted.setEmail("john.doe+x@gmail.com");
+        deleted.setDeleted(true);
+        when(repo.findById(5L)).thenReturn(java.util.Optional.of(deleted));
+        when(contactFilter.mayContainEmail("john.doe+x@gmail.com")).thenReturn(true);
+        when(repo.findActiveEmailsByEmailKey(EmailCanonicalizer.key("johndoe@gmail.com"), 5L))
+                .thenReturn(java.util.List.of("johndoe@gmail.com"));
+
+        DuplicateEntityException ex = assertThrows(DuplicateEntityException.class, () -> service.restorePatient(5L));
+
+        assertEquals("email", ex.getField());
+        assertTrue(deleted.isDeleted());
+        verify(repo, never()).save(any());
+    }
 
-        // individual checks claim no conflict
-        when(repo.existsByEmailAndIsDeletedFalse(normalizedEmail)).thenReturn(false);
-        when(repo.existsByPhoneAndIsDeletedFalse(normalizedPhone)).thenReturn(false);
+    @Test
+    void createShouldRejectAnEquivalentGmailAddress() {
+        Patient input = basePatient();
+        input.setEmail("John.Doe+clinic@gmail.com");
+        when(contactFilter.mayContainEmail("john.doe+clinic@gmail.com")).thenReturn(true);
+        when(repo.findActiveEmailsByEmailKey(EmailCanonicalizer.key("johndoe@gmail.com"), 0L))
+                .thenReturn(java.util.List.of("johndoe@gmail.com"));
 
-        // but combined check reports a conflict (edge case)
-        when(repo.existsByEmailOrPhoneAndIsDeletedFalse(normalizedEmail, normalizedPhone)).thenReturn(true);
+        DuplicateEntityException ex = assertThrows(DuplicateEntityException.class, () -> service.savePatient(input));
 
-        assertThrows(DuplicateEntityException.class, () -> service.savePatient(input));
+        assertEquals("email", ex.getField());
         verify(repo, never()).save(any());
     }
 
     @Test
-    void createShouldRejectWhenOneNormalizedValueIsNullButCombinedCheckFindsConflict() {
+    void createShouldIgnoreKeyCollisionsWithDifferentMailboxes() {
         Patient input = basePatient();
-        // Simulate empty email that normalizer will turn into null
-        input.setEmail("   "); // EmailNormalizer.normalize -> null in production path
-        String normalizedEmail = null;
-        String normalizedPhone = "+919123456789";
+        when(contactFilter.mayContainEmail("alice@example.com")).thenReturn(true);
+        when(repo.findActiveEmailsByEmailKey(anyLong(), eq(0L))).thenReturn(java.util.List.of("someone.else@example.com"));
+        when(repo.save(any())).thenAnswer(inv -> inv.getArgument(0));
 
-        // repo.existsByEmail should not be called with null in typical Spring JPA, but we can stub defensively:
-        when(repo.existsByPhoneAndIsDeletedFalse(normalizedPhone)).thenReturn(false);
-        when(repo.existsByEmailOrPhoneAndIsDeletedFalse(normalizedEmail, normalizedPhone)).thenReturn(true);
+        service.savePatient(input);
 
-        assertThrows(DuplicateEntityException.class, () -> service.savePatient(input));
-        verify(repo, never()).save(any());
+        assertEquals(EmailCanonicalizer.key("alice@example.com"), input.getEmailKey());
+        verify(repo).save(input);
     }
-}
\ No newline at end of file
+}
@@ -1,9 +1,16 @@
 package com.csd.medicus.service;
 
+import com.csd.medicus.cache.PatientByIdCache;
+import com.csd.medicus.cache.PatientSearchCache;
+import com.csd.medicus.dedup.PatientContactFilter;
 import com.csd.medicus.model.Patient;
 import com.csd.medicus.repository.PatientRepository;
+import com.csd.medicus.search.KeysetSlice;
+import com.csd.medicus.search.PatientNameTrie;
+import com.csd.medicus.search.PatientTrigramIndex;
 import com.csd.medicus.service.impl.PatientServiceImpl;
 import org.junit.jupiter.api.BeforeEach;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Captor;
@@ -14,8 +21,12 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
 
+import com.csd.medicus.dto.BulkCreateResultDto;
+import com.csd.medicus.dto.BulkRowResultDto;
 import com.csd.medicus.dto.PatientDto;
+import com.csd.medicus.util.PhoneNormalizer;
 
 import java.util.Optional;
 import java.util.List;
@@ -28,6 +39,21 @@ class PatientServiceImplTest {
 	@Mock
 	private PatientRepository repo;
 
+	@Mock
+	private PatientTrigramIndex searchIndex;
+
+	@Mock
+	private PatientSearchCache searchCache;
+
+	@Mock
+	private PatientNameTrie nameTrie;
+
+	@Mock
+	private PatientContactFilter contactFilter;
+
+	@Mock
+	private PatientByIdCache byIdCache;
+
 	@InjectMocks
 	private PatientServiceImpl service;
 	
@@ -79,11 +105,83 @@ class PatientServiceImplTest {
 		assertEquals("Smith", result.getLastName());
 	}
 
+	@Test
+	void testConditionalUpdateRejectsStaleVersionWithoutWriting() {
+		Patient existing = createPatient(1L);
+		existing.setVersion(4L);
+		Patient update = createPatient(1L);
+		update.setLastName("Smith");
+		when(repo.findById(1L)).thenReturn(Optional.of(existing));
+
+		assertThrows(OptimisticLockingFailureException.class, () -> service.updatePatient(1L, update, 3L));
+		verify(repo, never()).save(any());
+		assertNotEquals("Smith", existing.getLastName());
+	}
+
+	@Test
+	void testPatchChangesOnlyProvidedFieldsAndReturnsNewVersion() {
+		Patient existing = createPatient(1L);
+		existing.setVersion(2L);
+		when(repo.findById(1L)).thenReturn(Optional.of(existing));
+		when(repo.save(any(Patient.class))).thenAnswer(invocation -> {
+			Patient p = invocation.getArgument(0);
+			p.setVersion(p.getVersion() + 1); // what the flush does to the managed instance
+			return p;
+		});
+
+		PatientDto result = service.patchPatient(1L, new PatientDto(null, null, null, null, "98765 43210"), 2L);
+
+		assertEquals("+919876543210", result.getPhone());
+		assertEquals("John", result.getFirstName());
+		assertEquals(3L, result.getVersion());
+		assertEquals("012345678919", existing.getPhoneReversed());
+		verify(repo, never()).findDtoByIdAndNotDeleted(anyLong());
+		verify(searchCache, times(1)).invalidateFor("John", "1234567890");
+		verify(searchCache, times(1)).invalidateFor("John", "+919876543210");
+	}
+
+	@Test
+	void testPatchWithoutChangesWritesNothing() {
+		Patient existing = createPatient(1L);
+		when(repo.findById(1L)).thenReturn(Optional.of(existing));
+
+		PatientDto result = service.patchPatient(1L, new PatientDto(null, " John ", null, null, null), 0L);
+
+		assertEquals(0L, result.getVersion());
+		verify(repo, never()).save(any());
+		verify(repo, never()).flush();
+	}
+
+	@Test
+	void testPatchRejectsStaleVersionAndInvalidFieldsBeforeChanging() {
+		Patient existing = createPatient(1L);
+		existing.setVersion(5L);
+		when(repo.findById(1L)).thenReturn(Optional.of(existing));
+
+		assertThrows(OptimisticLockingFailureException.class,
+				() -> service.patchPatient(1L, new PatientDto(null, null, "Smith", null, null), 4L));
+		assertThrows(IllegalArgumentException.class,
+				() -> service.patchPatient(1L, new PatientDto(null, null, "Smith", null, "12"), 5L));
+		assertEquals("Doe", existing.getLastName());
+		verify(repo, never()).save(any());
+	}
+
+	@Test
+	void testPatientVersionComesFromCacheOrVersionOnlyQuery() {
+		when(byIdCache.get(1L)).thenReturn(new PatientDto(1L, "John", "Doe", null, null, 6L));
+		when(repo.findVersionByIdAndNotDeleted(2L)).thenReturn(Optional.of(2L));
+
+		assertEquals(Optional.of(6L), service.getPatientVersion(1L));
+		assertEquals(Optional.of(2L), service.getPatientVersion(2L));
+		verify(repo, never()).findVersionByIdAndNotDeleted(1L);
+		verify(repo, never()).findByIdAndNotDeleted(anyLong());
+	}
+
 	@Test
 	void testSearchPatients_paginated() {
-		Patient patient = new Patient(1L, "Ram Kumar", "9876543210", "ram@example.com", "Delhi", LocalDateTime.now());
+		PatientDto patient = new PatientDto(1L, "Ram Kumar", "9876543210", "ram@example.com", "Delhi");
 	    Pageable pageable = PageRequest.of(0, 10);
-	    Page<Patient> pageFromRepo = new PageImpl<>(List.of(patient), pageable, 1);
+	    Page<PatientDto> pageFromRepo = new PageImpl<>(List.of(patient), pageable, 1);
 
 	    when(repo.searchPatients("ram", pageable)).thenReturn(pageFromRepo);
 
@@ -97,13 +195,13 @@ class PatientServiceImplTest {
 
 	@Test
 	void testSearchByPhonePartial() {
-	    Patient patient = new Patient();
+	    PatientDto patient = new PatientDto();
 	    patient.setId(1L);
 	    patient.setFirstName("Ram Kumar");
 	    patient.setEmail("ram@example.com");
 	    patient.setPhone("9876543210");
 	    Pageable pageable = PageRequest.of(0, 10);
-	    Page<Patient> repoPage = new PageImpl<>(List.of(patient), pageable, 1);
+	    Page<PatientDto> repoPage = new PageImpl<>(List.of(patient), pageable, 1);
 
 	    when(repo.searchPatients(eq("9876"), any(Pageable.class))).thenReturn(repoPage);
 
@@ -118,7 +216,7 @@ class PatientServiceImplTest {
 	@Test
 	void testSearchNoResults() {
 	    Pageable pageable = PageRequest.of(0, 10);
-	    Page<Patient> emptyPage = Page.empty(pageable);
+	    Page<PatientDto> emptyPage = Page.empty(pageable);
 
 	    when(repo.searchPatients(eq("none"), any(Pageable.class))).thenReturn(emptyPage);
 
@@ -132,10 +230,10 @@ class PatientServiceImplTest {
 
 	@Test
 	void testSearchMultipleResults() {
-	    Patient p1 = new Patient(1L, "Ram Kumar", "9876543210", "ram@example.com", "Delhi", LocalDateTime.now());
-	    Patient p2 = new Patient(2L, "Ramesh", "9876000000", "ramesh@example.com", "Delhi", LocalDateTime.now());
+	    PatientDto p1 = new PatientDto(1L, "Ram Kumar", "9876543210", "ram@example.com", "Delhi");
+	    PatientDto p2 = new PatientDto(2L, "Ramesh", "9876000000", "ramesh@example.com", "Delhi");
 	    Pageable pageable = PageRequest.of(0, 10);
-	    Page<Patient> repoPage = new PageImpl<>(List.of(p1, p2), pageable, 2);
+	    Page<PatientDto> repoPage = new PageImpl<>(List.of(p1, p2), pageable, 2);
 
 	    when(repo.searchPatients(eq("ram"), any(Pageable.class))).thenReturn(repoPage);
 
@@ -146,6 +244,224 @@ class PatientServiceImplTest {
 	    verify(repo, times(1)).searchPatients(eq("ram"), any(Pageable.class));
 	}
 	
+	@Test
+	void testSearchUsesTrigramIndexWhenReady() {
+	    PatientDto p1 = new PatientDto(1L, "Ram Kumar", "9876543210", "ram@example.com", "Delhi");
+	    PatientDto p2 = new PatientDto(2L, "Ramesh", "9876000000", "ramesh@example.com", "Delhi");
+	    Pageable pageable = PageRequest.of(0, 10);
+
+	    when(searchIndex.isReady()).thenReturn(true);
+	    when(searchIndex.supports("ram")).thenReturn(true);
+	    when(searchIndex.search("ram", 0L, 10)).thenReturn(new PatientTrigramIndex.Hits(List.of(2L, 1L), 2));
+	    when(repo.findActiveDtosByIdIn(List.of(2L, 1L))).thenReturn(List.of(p1, p2));
+
+	    Page<PatientDto> result = service.searchPatients("ram", pageable);
+
+	    assertEquals(2L, result.getTotalElements());
+	    assertEquals("Ramesh", result.getContent().get(0).getFirstName());
+	    assertEquals("Ram Kumar", result.getContent().get(1).getFirstName());
+	    verify(repo, never()).searchPatients(anyString(), any(Pageable.class));
+	}
+
+	@Test
+	void testSearchFallsBackToRepositoryForWildcardQuery() {
+	    Pageable pageable = PageRequest.of(0, 10);
+	    when(searchIndex.isReady()).thenReturn(true);
+	    when(searchIndex.supports("r%m")).thenReturn(false);
+	    when(repo.searchPatients(eq("r%m"), any(Pageable.class))).thenReturn(Page.empty(pageable));
+
+	    service.searchPatients("r%m", pageable);
+
+	    verify(repo, times(1)).searchPatients(eq("r%m"), any(Pageable.class));
+	    verify(searchIndex, never()).search(anyString(), anyLong(), anyInt());
+	}
+
+	@Test
+	void testSearchAfterUsesIndexAndDetectsNextSlice() {
+	    PatientDto p5 = new PatientDto(5L, "Ram", "Kumar", "ram@example.com", "+919876543210");
+	    PatientDto p8 = new PatientDto(8L, "Ramesh", "Rao", "ramesh@example.com", "+919876000000");
+	    when(searchIndex.isReady()).thenReturn(true);
+	    when(searchIndex.supports("ram")).thenReturn(true);
+	    when(searchIndex.searchAfter("ram", 3L, 3)).thenReturn(List.of(5L, 8L, 11L));
+	    when(repo.findActiveDtosByIdIn(List.of(5L, 8L))).thenReturn(List.of(p8, p5));
+
+	    KeysetSlice<PatientDto> slice = service.searchPatientsAfter("ram", 3L, 2);
+
+	    assertTrue(slice.hasNext());
+	    assertEquals(2, slice.getContent().size());
+	    assertEquals(5L, slice.getContent().get(0).getId());
+	    assertEquals(8L, slice.getContent().get(1).getId());
+	    assertEquals(8L, slice.getLastScannedId());
+	    verify(repo, never()).searchPatientsAfter(anyString(), anyLong(), any(Pageable.class));
+	}
+
+	@Test
+	void testSearchAfterContinuesPastIdsDeletedSinceIndexing() {
+	    when(searchIndex.isReady()).thenReturn(true);
+	    when(searchIndex.supports("ram")).thenReturn(true);
+	    when(searchIndex.searchAfter("ram", 3L, 3)).thenReturn(List.of(5L, 8L, 11L));
+	    when(repo.findActiveDtosByIdIn(List.of(5L, 8L))).thenReturn(List.of());
+
+	    KeysetSlice<PatientDto> slice = service.searchPatientsAfter("ram", 3L, 2);
+
+	    assertTrue(slice.getContent().isEmpty());
+	    assertTrue(slice.hasNext());
+	    assertEquals(8L, slice.getLastScannedId());
+	}
+
+	@Test
+	void testSearchAfterFallsBackToRepositoryKeysetQuery() {
+	    PatientDto p5 = new PatientDto(5L, "Ram", "Kumar", "ram@example.com", "+919876543210");
+	    when(repo.searchPatientsAfter(eq("ram"), eq(3L), any(Pageable.class)))
+	        .thenReturn(new SliceImpl<>(List.of(p5), PageRequest.of(0, 2), false));
+
+	    KeysetSlice<PatientDto> slice = service.searchPatientsAfter("  ram ", 3L, 2);
+
+	    assertFalse(slice.hasNext());
+	    assertEquals(1, slice.getContent().size());
+	    assertEquals(5L, slice.getLastScannedId());
+	    verify(repo, never()).searchPatients(anyString(), any(Pageable.class));
+	}
+
+	@Test
+	void testSaveAndUpdateComputePhoneticKeys() {
+	    Patient input = createPatient(null);
+	    input.setFirstName("Katherine");
+	    when(repo.save(any(Patient.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+	    Patient saved = service.savePatient(input);
+	    assertEquals("K0RN", saved.getFirstNamePhonetic());
+	    assertEquals("T", saved.getLastNamePhonetic());
+
+	    Patient existing = createPatient(1L);
+	    when(repo.findById(1L)).thenReturn(Optional.of(existing));
+	    Patient update = new Patient();
+	    update.setFirstName("Muhammad");
+
+	    Patient updated = service.updatePatient(1L, update);
+	    assertEquals("MHMT", updated.getFirstNamePhonetic());
+	}
+
+	@Test
+	void testPhoneticSearchProbesByKey() {
+	    PatientDto patient = new PatientDto(1L, "Katherine", "Rao", "k@example.com", "+919876543210");
+	    Pageable pageable = PageRequest.of(0, 10);
+	    when(repo.searchByPhoneticKey("K0RN", pageable)).thenReturn(new PageImpl<>(List.of(patient), pageable, 1));
+
+	    Page<PatientDto> result = service.searchPatientsPhonetic("Catherine", pageable);
+
+	    assertEquals(1L, result.getTotalElements());
+	    assertEquals("Katherine", result.getContent().get(0).getFirstName());
+	    verify(repo, never()).searchPatients(anyString(), any(Pageable.class));
+	}
+
+	@Test
+	void testPhoneticSearchWithoutLettersReturnsEmpty() {
+	    Page<PatientDto> result = service.searchPatientsPhonetic("123", PageRequest.of(0, 10));
+
+	    assertTrue(result.isEmpty());
+	    verify(repo, never()).searchByPhoneticKey(anyString(), any(Pageable.class));
+	}
+
+	@Test
+	void testSaveMaintainsReversedPhoneDigits() {
+	    Patient input = createPatient(null);
+	    input.setPhone("98765 43210");
+	    when(repo.save(any(Patient.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+	    Patient saved = service.savePatient(input);
+
+	    assertEquals("+919876543210", saved.getPhone());
+	    assertEquals("012345678919", saved.getPhoneReversed());
+	}
+
+	@Test
+	void testPhoneSuffixSearchUsesReversedPrefixRange() {
+	    Pageable pageable = PageRequest.of(0, 10);
+	    when(repo.searchByPhoneReversedRange("0123", "0124", pageable)).thenReturn(Page.empty(pageable));
+	    when(repo.searchByPhoneReversedRange("0129", "012:", pageable)).thenReturn(Page.empty(pageable));
+
+	    service.searchByPhoneSuffix("3210", pageable);
+	    service.searchByPhoneSuffix("9210", pageable);
+
+	    verify(repo, times(1)).searchByPhoneReversedRange("0123", "0124", pageable);
+	    verify(repo, times(1)).searchByPhoneReversedRange("0129", "012:", pageable);
+	}
+
+	@Test
+	void testPhoneSuffixSearchRejectsInvalidDigits() {
+	    Pageable pageable = PageRequest.of(0, 10);
+	    assertThrows(IllegalArgumentException.class, () -> service.searchByPhoneSuffix("123", pageable));
+	    assertThrows(IllegalArgumentException.class, () -> service.searchByPhoneSuffix("12a4", pageable));
+	    verify(repo, never()).searchByPhoneReversedRange(anyString(), anyString(), any(Pageable.class));
+	}
+
+	@Test
+	void testSearchReturnsCachedPageWithoutQuerying() {
+	    Pageable pageable = PageRequest.of(0, 10);
+	    Page<PatientDto> cached = new PageImpl<>(List.of(new PatientDto(1L, "Ram", "Kumar", null, null)), pageable, 1);
+	    when(searchCache.get(PatientSearchCache.Key.of("ram", pageable))).thenReturn(cached);
+
+	    Page<PatientDto> result = service.searchPatients("RAM", pageable);
+
+	    assertSame(cached, result);
+	    verify(repo, never()).searchPatients(anyString(), any(Pageable.class));
+	}
+
+	@Test
+	void testSearchStoresResultWithStampTakenBeforeLoad() {
+	    Pageable pageable = PageRequest.of(0, 10);
+	    when(searchCache.stamp()).thenReturn(7L);
+	    when(repo.searchPatients("ram", pageable)).thenReturn(Page.empty(pageable));
+
+	    Page<PatientDto> result = service.searchPatients("ram", pageable);
+
+	    verify(searchCache, times(1)).put(PatientSearchCache.Key.of("ram", pageable), result, 7L);
+	}
+
+	@Test
+	void testUpdateInvalidatesCachedSearchesForOldAndNewValues() {
+	    Patient existing = createPatient(1L);
+	    when(repo.findById(1L)).thenReturn(Optional.of(existing));
+	    when(repo.save(any(Patient.class))).thenAnswer(invocation -> invocation.getArgument(0));
+	    Patient update = new Patient();
+	    update.setFirstName("Johnny");
+
+	    service.updatePatient(1L, update);
+
+	    verify(searchCache, times(1)).invalidateFor("John", "1234567890");
+	    verify(searchCache, times(1)).invalidateFor("Johnny", "1234567890");
+	}
+
+	@Test
+	void testSuggestNamesRequiresTwoCharactersAndLoadedTrie() {
+	    when(nameTrie.isReady()).thenReturn(true);
+	    when(nameTrie.suggest("ra", 5)).thenReturn(List.of("Ramesh", "Ram"));
+
+	    assertEquals(List.of("Ramesh", "Ram"), service.suggestNames(" ra ", 5));
+	    assertTrue(service.suggestNames("r", 5).isEmpty());
+
+	    when(nameTrie.isReady()).thenReturn(false);
+	    assertTrue(service.suggestNames("ra", 5).isEmpty());
+	    verify(nameTrie, times(1)).suggest(anyString(), anyInt());
+	}
+
+	@Test
+	void testSaveAndDeleteMaintainTrigramIndex() {
+	    Patient input = createPatient(null);
+	    Patient saved = createPatient(1L);
+	    when(repo.save(any())).thenReturn(saved);
+
+	    service.savePatient(input);
+	    verify(searchIndex, times(1)).index(saved);
+	    verify(nameTrie, times(1)).index(saved);
+
+	    when(repo.findById(1L)).thenReturn(Optional.of(saved));
+	    service.deletePatient(1L);
+	    verify(searchIndex, times(1)).remove(1L);
+	    verify(nameTrie, times(1)).remove(1L);
+	}
+
 	@Test
 	void testServiceReturnsEmptyPageForNullQuery() {
 	    Pageable pageable = PageRequest.of(0, 10);
@@ -166,7 +482,7 @@ class PatientServiceImplTest {
 	@Test
 	void testServiceReturnsEmptyPageForBlankQuery() {
 	    Pageable pageable = PageRequest.of(0, 10);
-	    Page<com.csd.medicus.model.Patient> emptyRepo = Page.empty(pageable);
+	    Page<PatientDto> emptyRepo = Page.empty(pageable);
 	    when(repo.searchPatients(eq(""), any(Pageable.class))).thenReturn(emptyRepo);
 
 	    Page<com.csd.medicus.dto.PatientDto> result = service.searchPatients("   ", pageable);
@@ -350,4 +666,74 @@ class PatientServiceImplTest {
 	    assertThrows(IllegalArgumentException.class, () -> service.updatePatient(2L, update));
 	    verify(repo, never()).save(any());
 	}
+
+	@Test
+	void testSavePatientsReportsPerRowOutcome() {
+	    Patient ok = new Patient(null, "Ram", "Kumar", "RAM@example.com", "+919876543210", null);
+	    Patient invalid = new Patient(null, "R", "Kumar", null, null, null);
+	    Patient sameEmailInBatch = new Patient(null, "Ramu", "Rao", "ram@example.com", null, null);
+	    Patient takenPhone = new Patient(null, "Sita", "Devi", null, "+911234509876", null);
+	    Patient other = new Patient(null, "Anil", "Rao", "anil@example.com", null, null);
+
+	    when(repo.findActiveEmailsByEmailKeyIn(anyCollection())).thenReturn(List.of());
+	    when(repo.findActivePhoneKeysIn(anyCollection())).thenReturn(List.of(PhoneNormalizer.pack("+911234509876")));
+	    when(repo.saveAll(anyList())).thenAnswer(inv -> {
+	        List<Patient> rows = inv.getArgument(0);
+	        long id = 100;
+	        for (Patient p : rows) {
+	            p.setId(id++);
+	        }
+	        return rows;
+	    });
+
+	    BulkCreateResultDto result = service.savePatients(List.of(ok, invalid, sameEmailInBatch, takenPhone, other));
+
+	    assertEquals(2, result.getCreated());
+	    assertEquals(3, result.getFailed());
+	    List<BulkRowResultDto> rows = result.getResults();
+	    assertEquals(BulkRowResultDto.Status.CREATED, rows.get(0).getStatus());
+	    assertEquals(100L, rows.get(0).getId());
+	    assertEquals(BulkRowResultDto.Status.INVALID, rows.get(1).getStatus());
+	    assertEquals(BulkRowResultDto.Status.DUPLICATE, rows.get(2).getStatus());
+	    assertEquals("Same email as row 0", rows.get(2).getError());
+	    assertEquals(BulkRowResultDto.Status.DUPLICATE, rows.get(3).getStatus());
+	    assertEquals(BulkRowResultDto.Status.CREATED, rows.get(4).getStatus());
+	    assertEquals(101L, rows.get(4).getId());
+	    assertEquals("ram@example.com", ok.getEmail());
+
+	    // set-based checks only, never per-row exists queries
+	    verify(repo, times(1)).findActiveEmailsByEmailKeyIn(anyCollection());
+	    verify(repo, times(1)).findActivePhoneKeysIn(anyCollection());
+	    verify(repo, times(1)).saveAll(List.of(ok, other));
+	    verify(searchIndex, times(2)).index(any());
+	    verify(searchCache, times(1)).invalidateAll();
+	}
+
+	@Test
+	void testSavePatientsComparesEmailsInCanonicalForm() {
+	    Patient first = new Patient(null, "John", "Doe", "john.doe@gmail.com", null, null);
+	    Patient sameMailbox = new Patient(null, "Johnny", "Doe", "johndoe+clinic@googlemail.com", null, null);
+	    Patient registered = new Patient(null, "Sita", "Devi", "Sita.Devi+opd@gmail.com", null, null);
+
+	    when(repo.findActiveEmailsByEmailKeyIn(anyCollection())).thenReturn(List.of("sitadevi@gmail.com"));
+	    when(repo.saveAll(anyList())).thenAnswer(inv -> inv.getArgument(0));
+
+	    BulkCreateResultDto result = service.savePatients(List.of(first, sameMailbox, registered));
+
+	    assertEquals(1, result.getCreated());
+	    assertEquals("Same email as row 0", result.getResults().get(1).getError());
+	    assertEquals(BulkRowResultDto.Status.DUPLICATE, result.getResults().get(2).getStatus());
+	    // one key per distinct mailbox
+	    verify(repo).findActiveEmailsByEmailKeyIn(argThat(keys -> keys.size() == 2 && keys.containsAll(List.of(
+	        com.csd.medicus.util.EmailCanonicalizer.key("johndoe@gmail.com"),
+	        com.csd.medicus.util.EmailCanonicalizer.key("sitadevi@gmail.com")))));
+	}
+
+	@Test
+	void testSavePatientsRejectsEmptyAndOversizedBatches() {
+	    assertThrows(IllegalArgumentException.class, () -> service.savePatients(List.of()));
+	    List<Patient> tooMany = java.util.Collections.nCopies(10_001, new Patient());
+	    assertThrows(IllegalArgumentException.class, () -> service.savePatients(tooMany));
+	    verifyNoInteractions(repo);
+	}
 }
@@ -1,9 +1,19 @@
 package com.csd.medicus.service;
 
+import com.csd.medicus.cache.PatientByIdCache;
+import com.csd.medicus.cache.PatientSearchCache;
+import com.csd.medicus.dedup.PatientContactFilter;
+import com.csd.medicus.dto.PatientDto;
 import com.csd.medicus.model.Patient;
 import com.csd.medicus.repository.PatientRepository;
+import com.csd.medicus.search.PatientNameTrie;
+import com.csd.medicus.search.PatientTrigramIndex;
 import com.csd.medicus.service.impl.PatientServiceImpl;
 import org.junit.jupiter.api.BeforeEach;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
@@ -21,7 +31,7 @@ import static org.junit.jupiter.api.Assertions.*;
  *
  * These tests assert:
  * - deletePatient marks isDeleted = true and saves the entity (idempotent)
- * - getAllPatients excludes soft-deleted patients
+ * - getAllPatients excludes soft-deleted patients (restricted in the repository query)
  * - getPatientById does not return a soft-deleted patient (throws)
  */
 class PatientServiceSoftDeleteTest {
@@ -29,6 +39,21 @@ class PatientServiceSoftDeleteTest {
     @Mock
     private PatientRepository repo;
 
+    @Mock
+    private PatientTrigramIndex searchIndex;
+
+    @Mock
+    private PatientSearchCache searchCache;
+
+    @Mock
+    private PatientNameTrie nameTrie;
+
+    @Mock
+    private PatientContactFilter contactFilter;
+
+    @Mock
+    private PatientByIdCache byIdCache;
+
     @InjectMocks
     private PatientServiceImpl service;
 
@@ -72,6 +97,8 @@ class PatientServiceSoftDeleteTest {
         // verify repository save was called and the saved entity was marked deleted
         verify(repo, times(1)).save(existing);
         assertTrue(existing.isDeleted());
+        // evicted immediately and again once the (here absent) transaction completes
+        verify(byIdCache, times(2)).invalidate(10L);
     }
 
     @Test
@@ -87,15 +114,16 @@ class PatientServiceSoftDeleteTest {
     }
 
     @Test
-    void getAllPatientsExcludesDeleted() {
+    void getAllPatientsExcludesDeletedInTheQuery() {
         Patient a = activePatient(1L);
-        Patient b = deletedPatient(2L);
-        when(repo.findAll()).thenReturn(List.of(a, b));
+        PageRequest page = PageRequest.of(0, 20, Sort.by("id"));
+        when(repo.findByIsDeletedFalse(page)).thenReturn(new PageImpl<>(List.of(a), page, 1));
 
-        List<Patient> result = service.getAllPatients();
+        Page<Patient> result = service.getAllPatients(PageRequest.of(0, 20));
 
-        assertEquals(1, result.size());
-        assertEquals(a.getId(), result.get(0).getId());
+        assertEquals(1, result.getContent().size());
+        assertEquals(a.getId(), result.getContent().get(0).getId());
+        verify(repo, never()).findAll();
     }
 
     @Test
@@ -106,4 +134,32 @@ class PatientServiceSoftDeleteTest {
         RuntimeException ex = assertThrows(RuntimeException.class, () -> service.getPatientById(20L));
         assertTrue(ex.getMessage().contains("Patient not found"));
     }
-}
\ No newline at end of file
+
+    @Test
+    void getPatientDtoByIdServesCachedCopyWithoutQuery() {
+        PatientDto cached = new PatientDto(30L, "Active", "Person", null, null, 2L);
+        when(byIdCache.get(30L)).thenReturn(cached);
+
+        assertSame(cached, service.getPatientDtoById(30L));
+        verify(repo, never()).findDtoByIdAndNotDeleted(anyLong());
+    }
+
+    @Test
+    void getPatientDtoByIdProjectsAndCachesOnMiss() {
+        PatientDto active = new PatientDto(31L, "Active", "Person", null, null, 0L);
+        when(byIdCache.stamp()).thenReturn(7L);
+        when(repo.findDtoByIdAndNotDeleted(31L)).thenReturn(Optional.of(active));
+
+        assertSame(active, service.getPatientDtoById(31L));
+        verify(byIdCache).put(eq(active), eq(7L), anyLong());
+        verify(repo, never()).findById(anyLong());
+    }
+
+    @Test
+    void getPatientDtoByIdThrowsWhenDeleted() {
+        when(repo.findDtoByIdAndNotDeleted(32L)).thenReturn(Optional.empty());
+
+        assertThrows(RuntimeException.class, () -> service.getPatientDtoById(32L));
+        verify(byIdCache, never()).put(any(), anyLong(), anyLong());
+    }
+}
@@ -0,0 +1,33 @@
+package com.csd.medicus.service.impl;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CsvRecordReaderTest {
+
+    @Test
+    void readsQuotedFieldsEscapesAndLineEndings() throws IOException {
+        CsvRecordReader reader = new CsvRecordReader(new StringReader(
+                "a,b,c\r\n\"x, y\",\"say \"\"hi\"\"\",\"multi\nline\"\n\n,,\n\"\"\nlast"));
+
+        assertEquals(List.of("a", "b", "c"), reader.next());
+        assertEquals(List.of("x, y", "say \"hi\"", "multi\nline"), reader.next());
+        assertEquals(List.of("", "", ""), reader.next());
+        assertEquals(List.of(""), reader.next());
+        assertEquals(List.of("last"), reader.next());
+        assertNull(reader.next());
+    }
+
+    @Test
+    void quoteRoundTrips() throws IOException {
+        String value = "O\"Brien, \nJr";
+        String line = CsvRecordReader.quote(value) + "," + CsvRecordReader.quote(null) + "," + CsvRecordReader.quote("plain");
+
+        assertEquals(List.of(value, "", "plain"), new CsvRecordReader(new StringReader(line)).next());
+    }
+}
@@ -0,0 +1,112 @@
+package com.csd.medicus.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BatchNormalizerTest {
+
+    private static final String[] PHONES = {
+            "+91 98765 43210", "09123456789", "(415) 555-2671", "", "  ", null, "abc123", "98765#4321",
+            "1234567", "+1234567890123456", "0091 98765 43210", "12\nab", "919123456789", "0()"};
+
+    private static final String[] EMAILS = {
+            "  Ram.Kumar@Example.COM ", "user+tag@gmail.com", "", " ", null, "not-an-email", "a@b", "a..b@x.com",
+            "first.last@sub.example.co.in", "with space@x.com"};
+
+    @Test
+    void phonesMatchSingleValueNormalizer() {
+        for (String country : new String[]{null, "IN", " us ", "ZZ"}) {
+            NormalizedBatch batch = BatchNormalizer.phones(PHONES, country, false);
+            assertEquals(PHONES.length, batch.size());
+            int errors = 0;
+            for (int i = 0; i < PHONES.length; i++) {
+                if (PHONES[i] == null) {
+                    assertNull(batch.value(i));
+                    assertTrue(batch.isValid(i));
+                    continue;
+                }
+                try {
+                    assertEquals(PhoneNormalizer.normalize(PHONES[i], country), batch.value(i), PHONES[i]);
+                    assertTrue(batch.isValid(i));
+                    assertNull(batch.message(i));
+                } catch (IllegalArgumentException e) {
+                    errors++;
+                    assertFalse(batch.isValid(i));
+                    assertNull(batch.value(i));
+                    assertEquals(e.getMessage(), batch.message(i));
+                }
+            }
+            assertEquals(errors, batch.errorCount());
+        }
+    }
+
+    @Test
+    void emailsMatchSingleValueNormalizer() {
+        NormalizedBatch batch = BatchNormalizer.emails(EMAILS, false);
+        int errors = 0;
+        for (int i = 0; i < EMAILS.length; i++) {
+            if (EMAILS[i] == null) {
+                assertNull(batch.value(i));
+                assertTrue(batch.isValid(i));
+                continue;
+            }
+            try {
+                assertEquals(EmailNormalizer.normalize(EMAILS[i]), batch.value(i));
+                assertTrue(batch.isValid(i));
+            } catch (IllegalArgumentException e) {
+                errors++;
+                assertEquals(NormalizationError.INVALID_EMAIL, batch.error(i));
+                assertEquals(e.getMessage(), batch.message(i));
+            }
+        }
+        assertEquals(errors, batch.errorCount());
+        assertEquals("ram.kumar@example.com", batch.value(0));
+    }
+
+    @Test
+    void reportsErrorCodes() {
+        NormalizedBatch batch = BatchNormalizer.phones(List.of("abc123", "98765#4321", "1234567", "9876543210"), "ZZ", false);
+        assertEquals(NormalizationError.ALPHABETIC, batch.error(0));
+        assertEquals(NormalizationError.INVALID_CHARACTERS, batch.error(1));
+        assertEquals(NormalizationError.UNSUPPORTED_COUNTRY, batch.error(2));
+        assertEquals("unsupported default country: ZZ", batch.message(3));
+
+        NormalizedBatch intl = BatchNormalizer.phones(List.of("+1234567"), "IN", false);
+        assertEquals(NormalizationError.DIGITS_OUT_OF_RANGE, intl.error(0));
+    }
+
+    @Test
+    void parallelModeGivesSequentialResult() {
+        Random random = new Random(42L);
+        String[] phones = new String[20_000];
+        String[] emails = new String[phones.length];
+        for (int i = 0; i < phones.length; i++) {
+            phones[i] = random.nextInt(5) == 0
+                    ? "98765x" + random.nextInt(10_000)
+                    : String.valueOf(9_000_000_000L + random.nextInt(1_000_000_000));
+            emails[i] = random.nextInt(5) == 0 ? "user" + i + "@invalid" : "User" + i + "@Example.com";
+        }
+
+        NormalizedBatch sequentialPhones = BatchNormalizer.phones(phones, "IN", false);
+        NormalizedBatch parallelPhones = BatchNormalizer.phones(Arrays.asList(phones), "IN", true);
+        assertArrayEquals(sequentialPhones.values(), parallelPhones.values());
+        assertEquals(sequentialPhones.errorCount(), parallelPhones.errorCount());
+        assertTrue(parallelPhones.errorCount() > 0);
+        for (int i = 0; i < phones.length; i++) {
+            assertEquals(sequentialPhones.error(i), parallelPhones.error(i));
+        }
+
+        NormalizedBatch sequentialEmails = BatchNormalizer.emails(emails, false);
+        NormalizedBatch parallelEmails = BatchNormalizer.emails(emails, true);
+        assertArrayEquals(sequentialEmails.values(), parallelEmails.values());
+        assertEquals(sequentialEmails.errorCount(), parallelEmails.errorCount());
+        for (int i = 0; i < emails.length; i++) {
+            assertEquals(emails[i].endsWith("@invalid") ? null : "user" + i + "@example.com", parallelEmails.value(i));
+        }
+    }
+}
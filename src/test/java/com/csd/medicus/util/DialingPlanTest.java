@@ -0,0 +1,139 @@
+package com.csd.medicus.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The bundled dialing plan resource against its readable source (src/test/resources/phone/dialing-plan.tsv),
+ * and lookups on it. After editing the source, regenerate the resource with
+ * mvn test -Dtest=DialingPlanTest -Ddialing-plan.regenerate=true
+ */
+class DialingPlanTest {
+
+    private static final Path RESOURCE_FILE = Path.of("src/main/resources/phone/dialing-plan.bin");
+
+    @Test
+    void resourceMatchesSource() throws IOException {
+        byte[] encoded = encode(readSource());
+        if (Boolean.getBoolean("dialing-plan.regenerate")) {
+            Files.write(RESOURCE_FILE, encoded);
+        }
+        try (InputStream in = DialingPlan.class.getResourceAsStream(DialingPlan.RESOURCE)) {
+            assertNotNull(in, "missing " + DialingPlan.RESOURCE);
+            assertArrayEquals(encoded, in.readAllBytes(),
+                    "dialing-plan.bin is out of date; regenerate it with -Ddialing-plan.regenerate=true");
+        }
+    }
+
+    @Test
+    void detectsLongestCallingCode() {
+        DialingPlan plan = DialingPlan.load();
+        assertEquals("US", plan.regionName(plan.match("14155552671".toCharArray(), 0, 11)));
+        assertEquals("IN", plan.regionName(plan.match("919123456789".toCharArray(), 0, 12)));
+        assertEquals("GB", plan.regionName(plan.match("442079460958".toCharArray(), 0, 12)));
+        assertEquals("RU", plan.regionName(plan.match("74951234567".toCharArray(), 0, 11)));
+        assertEquals("IE", plan.regionName(plan.match("35312345678".toCharArray(), 0, 11)));
+        assertEquals("FI", plan.regionName(plan.match("358401234567".toCharArray(), 0, 12)));
+        // +28x and +80x are not assigned to regions
+        assertEquals(-1, plan.match("2851234567".toCharArray(), 0, 10));
+        assertEquals(-1, plan.match("80012345678".toCharArray(), 0, 11));
+        assertEquals(-1, plan.match("3".toCharArray(), 0, 1));
+    }
+
+    @Test
+    void sharedCodesAcceptLengthsOfEverySharingRegion() {
+        DialingPlan plan = DialingPlan.load();
+        int norway = plan.region("NO");
+        assertEquals(norway, plan.match("4712345678".toCharArray(), 0, 10));
+        assertEquals(5, plan.codeMinLength(norway));
+        assertEquals(8, plan.codeMaxLength(norway));
+
+        int svalbard = plan.region("SJ");
+        assertEquals("47", plan.callingCode(svalbard));
+        assertEquals(8, plan.minLength(svalbard));
+        assertEquals(-1, plan.region("ZZ"));
+        assertTrue(plan.keepsLeadingZero(plan.region("IT")));
+        assertFalse(plan.keepsLeadingZero(plan.region("GB")));
+    }
+
+    @Test
+    void rejectsMalformedResources() {
+        List<Entry> valid = List.of(new Entry("US", 1, 10, 10, DialingPlan.FLAG_MAIN), new Entry("CA", 1, 10, 10, 0));
+        assertDoesNotThrow(() -> DialingPlan.read(new ByteArrayInputStream(encode(valid))));
+
+        byte[] badMagic = encode(valid);
+        badMagic[0] = 'X';
+        assertThrows(IllegalStateException.class, () -> DialingPlan.read(new ByteArrayInputStream(badMagic)));
+
+        List<Entry> noMain = List.of(new Entry("US", 1, 10, 10, 0), new Entry("CA", 1, 10, 10, 0));
+        assertThrows(IllegalStateException.class, () -> DialingPlan.read(new ByteArrayInputStream(encode(noMain))));
+
+        List<Entry> tooLong = List.of(new Entry("DE", 49, 6, 14, 0));
+        assertThrows(IllegalStateException.class, () -> DialingPlan.read(new ByteArrayInputStream(encode(tooLong))));
+
+        List<Entry> duplicate = List.of(new Entry("IN", 91, 10, 10, 0), new Entry("IN", 91, 10, 10, 0));
+        assertThrows(IllegalStateException.class, () -> DialingPlan.read(new ByteArrayInputStream(encode(duplicate))));
+
+        byte[] truncated = encode(valid);
+        assertThrows(IOException.class, () -> DialingPlan.read(new ByteArrayInputStream(truncated, 0, truncated.length - 1)));
+    }
+
+    private record Entry(String region, int code, int min, int max, int flags) {
+    }
+
+    private static List<Entry> readSource() throws IOException {
+        List<Entry> entries = new ArrayList<>();
+        try (InputStream in = DialingPlanTest.class.getResourceAsStream("/phone/dialing-plan.tsv")) {
+            assertNotNull(in, "missing dialing-plan.tsv");
+            for (String line : new String(in.readAllBytes(), StandardCharsets.UTF_8).split("\n")) {
+                if (line.isBlank() || line.startsWith("#")) {
+                    continue;
+                }
+                String[] f = line.split("\t");
+                int flags = 0;
+                for (String flag : f[4].split(",")) {
+                    switch (flag) {
+                        case "main" -> flags |= DialingPlan.FLAG_MAIN;
+                        case "keep0" -> flags |= DialingPlan.FLAG_KEEP_ZERO;
+                        case "-" -> {
+                        }
+                        default -> fail("unknown flag " + flag + " in: " + line);
+                    }
+                }
+                entries.add(new Entry(f[0], Integer.parseInt(f[1]), Integer.parseInt(f[2]), Integer.parseInt(f[3]), flags));
+            }
+        }
+        return entries;
+    }
+
+    private static byte[] encode(List<Entry> entries) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeInt(DialingPlan.MAGIC);
+            out.writeShort(entries.size());
+            for (Entry e : entries) {
+                out.writeByte(e.region().charAt(0));
+                out.writeByte(e.region().charAt(1));
+                out.writeShort(e.code());
+                out.writeByte(e.min());
+                out.writeByte(e.max());
+                out.writeByte(e.flags());
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        return bytes.toByteArray();
+    }
+}
@@ -0,0 +1,39 @@
+package com.csd.medicus.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EmailCanonicalizerTest {
+
+    @Test
+    void gmailIgnoresDotsTagsAndCaseAcrossAliasDomains() {
+        assertEquals("johndoe@gmail.com", EmailCanonicalizer.canonicalize("John.Doe+clinic@gmail.com"));
+        assertEquals("johndoe@gmail.com", EmailCanonicalizer.canonicalize(" johndoe@GoogleMail.com "));
+        assertTrue(EmailCanonicalizer.equivalent("j.o.h.n.doe@gmail.com", "johndoe+opd@googlemail.com"));
+    }
+
+    @Test
+    void tagOnlyProvidersKeepDots() {
+        assertEquals("john.doe@outlook.com", EmailCanonicalizer.canonicalize("john.doe+x@outlook.com"));
+        assertEquals("ram@icloud.com", EmailCanonicalizer.canonicalize("ram+1@me.com"));
+        assertEquals("ram@proton.me", EmailCanonicalizer.canonicalize("ram@pm.me"));
+        assertFalse(EmailCanonicalizer.equivalent("john.doe@outlook.com", "johndoe@outlook.com"));
+    }
+
+    @Test
+    void unknownDomainsAreOnlyLowerCased() {
+        assertEquals("john.doe+clinic@example.com", EmailCanonicalizer.canonicalize("John.Doe+Clinic@Example.com"));
+        assertFalse(EmailCanonicalizer.equivalent("john+a@example.com", "john@example.com"));
+        assertNull(EmailCanonicalizer.canonicalize(null));
+        assertNull(EmailCanonicalizer.key(null));
+    }
+
+    @Test
+    void keyDependsOnlyOnTheCanonicalForm() {
+        assertEquals(EmailCanonicalizer.key("johndoe@gmail.com"), EmailCanonicalizer.key("John.Doe+clinic@googlemail.com"));
+        assertNotEquals(EmailCanonicalizer.key("johndoe@gmail.com"), EmailCanonicalizer.key("janedoe@gmail.com"));
+        // stored in the database: the function must not change silently
+        assertEquals(EmailCanonicalizer.key("ram@example.com"), EmailCanonicalizer.key("RAM@example.com"));
+    }
+}
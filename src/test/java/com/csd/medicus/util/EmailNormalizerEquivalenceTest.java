@@ -0,0 +1,146 @@
+package com.csd.medicus.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Differential test of the DFA-based EmailNormalizer against the regex-based implementation it replaced
+ * (kept below as RegexEmailNormalizer): same result or same IllegalArgumentException message for a
+ * hand-written corpus, for random strings over the characters the grammar cares about and for random
+ * well-formed addresses with mutations around the length and hyphen rules of domain labels.
+ */
+class EmailNormalizerEquivalenceTest {
+
+    private static final List<String> CORPUS = List.of(
+            "", " ", "\t\n", "a@b.co", "A@B.CO", " john.doe@example.com ", "john..doe@example.com", ".john@example.com",
+            "john.@example.com", "john@example", "john@.com", "john@com.", "john@-example.com", "john@example-.com",
+            "john@ex-ample.com", "john@123.com", "john@example.c", "john@example.c0m", "john@example.123",
+            "john@sub.example.co.in", "john@@example.com", "jo@hn@example.com", "@example.com", "john@",
+            "o'connor_jr+label@my-domain.co", "!#$%&'*+/=?^_`{|}~-@x.io", "john doe@example.com",
+            "john@exa mple.com", "john@example.com\n", "\u00A0john@example.com", "j\u00F6hn@example.com",
+            "john@Kelvin.com", "john@\u212Aelvin.com", "\u0130van@example.com", "IVAN@EXAMPLE.COM", "john@example.com.",
+            "john@" + "a".repeat(63) + ".com", "john@" + "a".repeat(64) + ".com", "john@" + "a".repeat(62) + "-b.com",
+            "john@example." + "c".repeat(80), "john@" + "a".repeat(70), "john@" + "1".repeat(63) + ".org",
+            "john@x." + "a".repeat(63) + "1.com", "john@x.y", "john@x.yz", "john@x--y.zz", "a.b.c.d@e.f.gh");
+
+    @Test
+    void handWrittenCorpusBehavesIdentically() {
+        for (String email : CORPUS) {
+            assertEquivalent(email);
+        }
+    }
+
+    @Test
+    void randomInputsBehaveIdentically() {
+        char[] alphabet = "aZz09..--@@@+_!~ \t\u212A\u00E9\u0130".toCharArray();
+        Random random = new Random(20240611L);
+        for (int n = 0; n < 100_000; n++) {
+            int length = random.nextInt(16);
+            StringBuilder sb = new StringBuilder(length);
+            for (int i = 0; i < length; i++) {
+                sb.append(alphabet[random.nextInt(alphabet.length)]);
+            }
+            assertEquivalent(sb.toString());
+        }
+    }
+
+    @Test
+    void mutatedAddressesBehaveIdentically() {
+        String local = "abcXYZ019.+_'-";
+        String label = "abcxyzABC0189--";
+        int[] labelLengths = {1, 2, 3, 61, 62, 63, 64, 65};
+        Random random = new Random(11L);
+        for (int n = 0; n < 20_000; n++) {
+            StringBuilder sb = new StringBuilder();
+            int localLength = 1 + random.nextInt(8);
+            for (int i = 0; i < localLength; i++) {
+                sb.append(local.charAt(random.nextInt(local.length())));
+            }
+            sb.append('@');
+            int labels = 1 + random.nextInt(3);
+            for (int l = 0; l < labels; l++) {
+                if (l > 0) {
+                    sb.append('.');
+                }
+                int length = labelLengths[random.nextInt(labelLengths.length)];
+                for (int i = 0; i < length; i++) {
+                    sb.append(label.charAt(random.nextInt(label.length())));
+                }
+            }
+            sb.append('.');
+            int tld = random.nextInt(4) == 0 ? labelLengths[random.nextInt(labelLengths.length)] : 2 + random.nextInt(3);
+            for (int i = 0; i < tld; i++) {
+                sb.append(random.nextInt(8) == 0 ? '1' : (char) ('a' + random.nextInt(26)));
+            }
+            assertEquivalent(sb.toString());
+        }
+    }
+
+    @Test
+    void normalizedInputIsReturnedAsIs() {
+        String email = "ram.kumar@example.com";
+        assertSame(email, EmailNormalizer.normalize(email));
+        assertNotSame(email, EmailNormalizer.normalize(" " + email));
+        assertEquals(email, EmailNormalizer.normalize("Ram.Kumar@Example.com"));
+    }
+
+    private static void assertEquivalent(String email) {
+        String expected;
+        String expectedError = null;
+        try {
+            expected = RegexEmailNormalizer.normalize(email);
+        } catch (IllegalArgumentException e) {
+            expected = null;
+            expectedError = e.getMessage();
+        }
+        String actual;
+        String actualError = null;
+        try {
+            actual = EmailNormalizer.normalize(email);
+        } catch (IllegalArgumentException e) {
+            actual = null;
+            actualError = e.getMessage();
+        }
+        String input = "input [" + email + "]";
+        assertEquals(expectedError, actualError, input);
+        assertEquals(expected, actual, input);
+    }
+
+    /**
+     * The previous implementation, verbatim apart from the class name and lower-casing with Locale.ROOT.
+     */
+    private static final class RegexEmailNormalizer {
+        private static final Pattern EMAIL_PATTERN = Pattern.compile(
+                "^[A-Za-z0-9!#$%&'*+/=?^_`{|}~-]+" +
+                "(?:\\.[A-Za-z0-9!#$%&'*+/=?^_`{|}~-]+)*" +
+                "@" +
+                "[A-Za-z0-9](?:[A-Za-z0-9-]{0,61}[A-Za-z0-9])?" +
+                "(?:\\.[A-Za-z0-9](?:[A-Za-z0-9-]{0,61}[A-Za-z0-9])?)*" +
+                "\\.[A-Za-z]{2,}$"
+        );
+
+        static String normalize(String email) {
+            if (email == null) {
+                throw new IllegalArgumentException("email must not be null");
+            }
+            String trimmed = email.trim();
+            if (trimmed.isEmpty()) {
+                return null;
+            }
+            String candidate = trimmed.toLowerCase(Locale.ROOT);
+            if (!EMAIL_PATTERN.matcher(candidate).matches()) {
+                throw new IllegalArgumentException("invalid email format: " + email);
+            }
+            if (candidate.contains(" ")) {
+                throw new IllegalArgumentException("invalid email (contains spaces): " + email);
+            }
+            return candidate;
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.csd.medicus.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * LongHashSet and LongIntHashMap against HashSet/HashMap, including the key 0 and growth past the
+ * initial capacity.
+ */
+class LongHashSetTest {
+
+    @Test
+    void setBehavesLikeHashSet() {
+        LongHashSet set = new LongHashSet(4);
+        Set<Long> expected = new HashSet<>();
+        Random random = new Random(7L);
+        for (int i = 0; i < 50_000; i++) {
+            // few distinct values, so that adds of present values are exercised too
+            long value = random.nextInt(4) == 0 ? random.nextInt(20) - 10 : random.nextLong() % 30_000;
+            assertEquals(expected.add(value), set.add(value), "add " + value);
+        }
+        assertEquals(expected.size(), set.size());
+        for (long value = -40_000; value <= 40_000; value++) {
+            assertEquals(expected.contains(value), set.contains(value), "contains " + value);
+        }
+        long[] values = set.toArray();
+        Arrays.sort(values);
+        assertArrayEquals(expected.stream().mapToLong(Long::longValue).sorted().toArray(), values);
+    }
+
+    @Test
+    void zeroIsAnOrdinaryValue() {
+        LongHashSet set = new LongHashSet(0);
+        assertFalse(set.contains(0));
+        assertTrue(set.add(0));
+        assertFalse(set.add(0));
+        assertTrue(set.contains(0));
+        assertEquals(1, set.size());
+        assertArrayEquals(new long[]{0}, set.toArray());
+    }
+
+    @Test
+    void mapBehavesLikeHashMap() {
+        LongIntHashMap map = new LongIntHashMap(2);
+        Map<Long, Integer> expected = new HashMap<>();
+        long base = PhoneNormalizer.pack("+919000000000");
+        for (int i = 0; i < 20_000; i++) {
+            long key = i % 3 == 0 ? base + i / 2 : i - 5;
+            map.put(key, i);
+            expected.put(key, i);
+        }
+        assertEquals(expected.size(), map.size());
+        for (Map.Entry<Long, Integer> e : expected.entrySet()) {
+            assertTrue(map.containsKey(e.getKey()));
+            assertEquals(e.getValue(), map.get(e.getKey(), -1));
+        }
+        assertFalse(map.containsKey(base - 1));
+        assertEquals(-1, map.get(base - 1, -1));
+        long[] keys = map.keys();
+        Arrays.sort(keys);
+        assertArrayEquals(expected.keySet().stream().mapToLong(Long::longValue).sorted().toArray(), keys);
+    }
+}
@@ -0,0 +1,196 @@
+package com.csd.medicus.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Equivalence of the single-pass PhoneNormalizer with the regex-based implementation it replaced
+ * (kept below as RegexPhoneNormalizer): same result or same IllegalArgumentException message for a
+ * hand-written corpus of edge cases and for random strings over the characters the rules care about.
+ * The only allowed difference is the later dialing-plan validation: numbers the old version accepted
+ * may now be rejected for an unknown calling code or a national length invalid for the country.
+ */
+class PhoneNormalizerEquivalenceTest {
+
+    private static final String[] COUNTRIES = {null, "", "  ", "IN", "in", " us ", "US", "ZZ"};
+
+    private static final List<String> CORPUS = List.of(
+            "", " ", "\t\n", "+", "00", "0", "000", "+0", "++91", "+ 91 98765 43210", "0091 98765 43210",
+            "0 0 91 9876543210", "09123456789", "009123456789", "919123456789", "9123456789", " 91 234-567.89 ",
+            "(415) 555-2671", "1-415-555-2671", "14155552671", "+1 (415) 555-2671", "0014155552671",
+            "12345678", "1234567", "123456789012345", "1234567890123456", "01234567890123456", "+123456789012345",
+            "+1234567890123456", "00123456789012345", "abc123", "123-abc-7890", "+1-800-CALLNOW", "12\nab",
+            "98765 43210x", "9876\u0085543210a", "98765\r\n43210", "98765\u000B43210", "98765\f43210",
+            "98765_43210", "98765/43210", "98765#4321", "+91 98765#43210", "٩٨٧٦٥٤٣٢١٠", "98765 43210",
+            "\u0000 9876543210 \u001F", "0()", "()", "--", "+()", "0", "00()", "+0091 9876543210",
+            "9".repeat(40), "0" + "9".repeat(40), "+" + "9".repeat(40), "x".repeat(20));
+
+    @Test
+    void handWrittenCorpusBehavesIdentically() {
+        for (String phone : CORPUS) {
+            for (String country : COUNTRIES) {
+                assertSame(phone, country);
+            }
+        }
+    }
+
+    @Test
+    void randomInputsBehaveIdentically() {
+        char[] alphabet = "0123456789000999111+++  --..()\t\n\r\u000B\fAz#_\u0085  ٣".toCharArray();
+        Random random = new Random(20240521L);
+        for (int n = 0; n < 50_000; n++) {
+            int length = random.nextInt(22);
+            StringBuilder sb = new StringBuilder(length);
+            for (int i = 0; i < length; i++) {
+                sb.append(alphabet[random.nextInt(alphabet.length)]);
+            }
+            assertSame(sb.toString(), COUNTRIES[random.nextInt(COUNTRIES.length)]);
+        }
+    }
+
+    @Test
+    void plausibleNumbersBehaveIdentically() {
+        Random random = new Random(7L);
+        String[] prefixes = {"", "+", "00", "0", "91", "+91 ", "1 ", "(0)"};
+        List<String> inputs = new ArrayList<>();
+        for (int n = 0; n < 20_000; n++) {
+            StringBuilder sb = new StringBuilder(prefixes[random.nextInt(prefixes.length)]);
+            int digits = 6 + random.nextInt(12);
+            for (int i = 0; i < digits; i++) {
+                sb.append((char) ('0' + random.nextInt(10)));
+                if (random.nextInt(5) == 0) {
+                    sb.append(" -.".charAt(random.nextInt(3)));
+                }
+            }
+            inputs.add(sb.toString());
+        }
+        for (String phone : inputs) {
+            assertSame(phone, "IN");
+            assertSame(phone, "US");
+        }
+    }
+
+    private static void assertSame(String phone, String country) {
+        String expected;
+        String expectedError = null;
+        try {
+            expected = RegexPhoneNormalizer.normalize(phone, country);
+        } catch (IllegalArgumentException e) {
+            expected = null;
+            expectedError = e.getMessage();
+        }
+        String actual;
+        String actualError = null;
+        try {
+            actual = PhoneNormalizer.normalize(phone, country);
+        } catch (IllegalArgumentException e) {
+            actual = null;
+            actualError = e.getMessage();
+        }
+        String input = "input [" + phone + "] country [" + country + "]";
+        if (expectedError == null && actualError != null && isDialingPlanError(actualError)) {
+            return;
+        }
+        assertEquals(expectedError, actualError, input);
+        assertEquals(expected, actual, input);
+    }
+
+    private static boolean isDialingPlanError(String message) {
+        return message.startsWith(NormalizationError.UNKNOWN_COUNTRY_CODE.message(""))
+                || message.startsWith(NormalizationError.INVALID_LENGTH_FOR_COUNTRY.message(""));
+    }
+
+    /**
+     * The previous implementation, verbatim apart from the class name.
+     */
+    private static final class RegexPhoneNormalizer {
+        private static final Map<String, String> DEFAULT_DIALING_CODES = Map.of("IN", "91", "US", "1");
+        private static final Map<String, Integer> NATIONAL_NUMBER_LENGTH = Map.of("IN", 10, "US", 10);
+        private static final Pattern ALPHA = Pattern.compile(".*[A-Za-z].*");
+        private static final Pattern DIGITS_ONLY = Pattern.compile("\\d+");
+        private static final Pattern STRIP = Pattern.compile("[\\s\\-\\.\\(\\)]+");
+        private static final int MIN_DIGITS = 8;
+        private static final int MAX_DIGITS = 15;
+
+        static String normalize(String phone, String defaultCountry) {
+            if (phone == null) {
+                throw new IllegalArgumentException("phone must not be null");
+            }
+            String orig = phone;
+            String trimmed = phone.trim();
+            if (trimmed.isEmpty()) {
+                return null;
+            }
+            if (ALPHA.matcher(trimmed).matches()) {
+                throw new IllegalArgumentException("phone contains alphabetic characters: " + orig);
+            }
+            if (trimmed.startsWith("+")) {
+                String after = stripPunctuation(trimmed.substring(1));
+                ensureDigitsOnly(after, orig);
+                ensureValidLength(after, orig);
+                return "+" + after;
+            }
+            if (trimmed.startsWith("00")) {
+                String after = stripPunctuation(trimmed.substring(2));
+                ensureDigitsOnly(after, orig);
+                ensureValidLength(after, orig);
+                return "+" + after;
+            }
+            String digits = stripPunctuation(trimmed);
+            if (digits.startsWith("0") && digits.length() > 1) {
+                digits = digits.substring(1);
+            }
+            ensureDigitsOnly(digits, orig);
+            String country = (defaultCountry == null || defaultCountry.trim().isEmpty())
+                    ? "IN"
+                    : defaultCountry.trim().toUpperCase();
+            if (!DEFAULT_DIALING_CODES.containsKey(country)) {
+                throw new IllegalArgumentException("unsupported default country: " + defaultCountry);
+            }
+            String dialing = DEFAULT_DIALING_CODES.get(country);
+            String full;
+            Integer nationalLen = NATIONAL_NUMBER_LENGTH.get(country);
+            if (nationalLen != null) {
+                int expectedFullLen = dialing.length() + nationalLen;
+                if (digits.length() == expectedFullLen && digits.startsWith(dialing)) {
+                    full = digits;
+                } else {
+                    full = dialing + digits;
+                }
+            } else {
+                if (digits.startsWith(dialing) && digits.length() >= MIN_DIGITS && digits.length() <= MAX_DIGITS) {
+                    full = digits;
+                } else {
+                    full = dialing + digits;
+                }
+            }
+            ensureValidLength(full, orig);
+            return "+" + full;
+        }
+
+        private static String stripPunctuation(String s) {
+            if (s == null) return "";
+            return STRIP.matcher(s).replaceAll("");
+        }
+
+        private static void ensureDigitsOnly(String s, String original) {
+            if (!DIGITS_ONLY.matcher(s).matches()) {
+                throw new IllegalArgumentException("invalid characters in phone: " + original);
+            }
+        }
+
+        private static void ensureValidLength(String digits, String original) {
+            int len = digits == null ? 0 : digits.length();
+            if (len < MIN_DIGITS || len > MAX_DIGITS) {
+                throw new IllegalArgumentException("phone number digits out of range (8-15): " + original);
+            }
+        }
+    }
+}
@@ -77,4 +77,63 @@ class PhoneNormalizerTest {
     void testNullInputRejected() {
         assertThrows(IllegalArgumentException.class, () -> PhoneNormalizer.normalize(null));
     }
-}
\ No newline at end of file
+
+    @Test
+    void testInternationalNumbersValidatedAgainstDialingPlan() {
+        assertEquals("+442079460958", PhoneNormalizer.normalize("+44 20 7946 0958"));
+        assertEquals("+4712345678", PhoneNormalizer.normalize("0047 1234 5678"));
+        assertThrows(IllegalArgumentException.class, () -> PhoneNormalizer.normalize("+285 1234 5678"));
+        assertThrows(IllegalArgumentException.class, () -> PhoneNormalizer.normalize("+91 12345 678"));
+        assertThrows(IllegalArgumentException.class, () -> PhoneNormalizer.normalize("+1 415 555 26710"));
+    }
+
+    @Test
+    void testNationalNumbersOfOtherCountries() {
+        assertEquals("+442079460958", PhoneNormalizer.normalize("020 7946 0958", "GB"));
+        assertEquals("+4930123456", PhoneNormalizer.normalize("030 123456", "de"));
+        // Italian numbers keep their leading zero
+        assertEquals("+390612345678", PhoneNormalizer.normalize("06 1234 5678", "IT"));
+        assertThrows(IllegalArgumentException.class, () -> PhoneNormalizer.normalize("12345678", "IN"));
+    }
+
+    @Test
+    void testRegionOf() {
+        assertEquals("IN", PhoneNormalizer.regionOf("+919123456789"));
+        assertEquals("US", PhoneNormalizer.regionOf("+14155552671"));
+        assertEquals("GB", PhoneNormalizer.regionOf("+441481123456"));
+        assertNull(PhoneNormalizer.regionOf("+2851234567"));
+        assertNull(PhoneNormalizer.regionOf("919123456789"));
+        assertNull(PhoneNormalizer.regionOf(null));
+        assertEquals("91", PhoneNormalizer.getDialingCodes().get("IN"));
+        assertEquals("44", PhoneNormalizer.getDialingCodes().get("JE"));
+    }
+
+    @Test
+    void testPackRoundTrip() {
+        for (String e164 : new String[]{"+919876543210", "+14155552671", "+1", "+0", "+007", "+999999999999999"}) {
+            long packed = PhoneNormalizer.pack(e164);
+            assertTrue(packed >= 0, e164);
+            assertEquals(e164, PhoneNormalizer.unpack(packed));
+        }
+        // leading zeros are kept apart by the digit count
+        assertNotEquals(PhoneNormalizer.pack("+07"), PhoneNormalizer.pack("+7"));
+
+        assertEquals(PhoneNormalizer.NO_KEY, PhoneNormalizer.pack(null));
+        assertEquals(PhoneNormalizer.NO_KEY, PhoneNormalizer.pack("+"));
+        assertEquals(PhoneNormalizer.NO_KEY, PhoneNormalizer.pack("919876543210"));
+        assertEquals(PhoneNormalizer.NO_KEY, PhoneNormalizer.pack("+91 98765 43210"));
+        assertEquals(PhoneNormalizer.NO_KEY, PhoneNormalizer.pack("+1234567890123456"));
+        assertThrows(IllegalArgumentException.class, () -> PhoneNormalizer.unpack(PhoneNormalizer.NO_KEY));
+        assertThrows(IllegalArgumentException.class, () -> PhoneNormalizer.unpack(0));
+        assertThrows(IllegalArgumentException.class, () -> PhoneNormalizer.unpack(1L << 50 | 10));
+    }
+
+    @Test
+    void testNormalizeToKey() {
+        assertEquals(PhoneNormalizer.pack("+919876543210"), PhoneNormalizer.normalizeToKey("098765 43210", "IN"));
+        assertEquals(PhoneNormalizer.pack("+14155552671"), PhoneNormalizer.normalizeToKey("+1 (415) 555-2671", null));
+        assertEquals(PhoneNormalizer.NO_KEY, PhoneNormalizer.normalizeToKey("   ", "IN"));
+        assertThrows(IllegalArgumentException.class, () -> PhoneNormalizer.normalizeToKey("abc", "IN"));
+        assertThrows(IllegalArgumentException.class, () -> PhoneNormalizer.normalizeToKey(null, "IN"));
+    }
+}
@@ -0,0 +1,54 @@
+package com.csd.medicus.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for PhoneticEncoder: common misspelling pairs share a key, distinct names do not,
+ * punctuation/case are ignored and keys are bounded in length.
+ */
+class PhoneticEncoderTest {
+
+    @Test
+    void misspelledVariantsShareKey() {
+        assertEquals("MHMT", PhoneticEncoder.encode("Mohamed"));
+        assertEquals(PhoneticEncoder.encode("Mohamed"), PhoneticEncoder.encode("Muhammad"));
+        assertEquals("K0RN", PhoneticEncoder.encode("Katherine"));
+        assertEquals(PhoneticEncoder.encode("Katherine"), PhoneticEncoder.encode("Catherine"));
+        assertEquals(PhoneticEncoder.encode("Steven"), PhoneticEncoder.encode("Stephen"));
+        assertEquals(PhoneticEncoder.encode("Smith"), PhoneticEncoder.encode("Smyth"));
+    }
+
+    @Test
+    void distinctNamesDiffer() {
+        assertNotEquals(PhoneticEncoder.encode("Ram"), PhoneticEncoder.encode("Sita"));
+        assertNotEquals(PhoneticEncoder.encode("John"), PhoneticEncoder.encode("Jane Doe"));
+    }
+
+    @Test
+    void initialLetterExceptions() {
+        assertEquals("NFS", PhoneticEncoder.encode("Knaves"));
+        assertEquals("SN0S", PhoneticEncoder.encode("Xanthus"));
+        assertEquals("WTKR", PhoneticEncoder.encode("Whitaker"));
+    }
+
+    @Test
+    void ignoresCaseAndPunctuation() {
+        assertEquals(PhoneticEncoder.encode("oconnor"), PhoneticEncoder.encode("O'Connor"));
+        assertEquals(PhoneticEncoder.encode("marybeth"), PhoneticEncoder.encode(" Mary-Beth "));
+    }
+
+    @Test
+    void nullAndLetterlessInputReturnNull() {
+        assertNull(PhoneticEncoder.encode(null));
+        assertNull(PhoneticEncoder.encode("  "));
+        assertNull(PhoneticEncoder.encode("1234"));
+    }
+
+    @Test
+    void keysAreBounded() {
+        String key = PhoneticEncoder.encode("Bartholomew Maximilian Featherstonehaugh");
+        assertTrue(key.length() <= PhoneticEncoder.MAX_KEY_LENGTH);
+    }
+}